@@ -0,0 +1,290 @@
+package collections.array;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Sorting and searching of {@code int[]} for large arrays: the {@code Arrays.sort} and
+ * {@code Arrays.binarySearch} calls from {@code LearnArrayClass}, picking an algorithm by input size and
+ * spreading the work over the common fork/join pool.
+ *
+ * <p>{@link #sort(int[])} uses {@code Arrays.sort} (dual-pivot quicksort) for small arrays. Larger arrays get
+ * an LSD radix sort: four stable counting passes of 8 bits each, O(n) instead of O(n log n), and passes in
+ * which every element has the same digit are skipped. Past {@link #PARALLEL_SORT_THRESHOLD} elements the radix
+ * passes run in parallel. Each worker histograms and then scatters its own contiguous chunk into
+ * precomputed, disjoint output ranges, so the workers never synchronize within a pass. The radix sorts need a
+ * scratch array as large as the input.
+ *
+ * <p>{@link #binarySearchAll} answers many lookups against one sorted array. All searches over an array of
+ * length {@code n} take the same number of halving steps, so four queries are advanced in lockstep. Each step
+ * is a conditional move rather than a branch, so nothing is lost to mispredicted comparisons, and the four
+ * independent loads overlap in the memory system. Large batches are split into chunks searched in parallel.
+ */
+public final class IntArrays {
+
+    /** Below this length {@link #sort(int[])} delegates to {@code Arrays.sort}. */
+    static final int RADIX_SORT_THRESHOLD = 1 << 12;
+    /** From this length on, and with more than one worker available, the radix passes run in parallel. */
+    static final int PARALLEL_SORT_THRESHOLD = 1 << 20;
+    /** From this many queries on {@link #binarySearchAll} searches chunks in parallel. */
+    static final int PARALLEL_SEARCH_THRESHOLD = 1 << 14;
+    /** Queries per parallel search task. */
+    private static final int SEARCH_CHUNK = 1 << 12;
+
+    private static final int DIGIT_BITS = 8;
+    private static final int BUCKETS = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = BUCKETS - 1;
+    private static final int PASSES = Integer.SIZE / DIGIT_BITS;
+
+    private IntArrays() {
+    }
+
+    /** Sorts {@code a} into ascending order, choosing the algorithm by length. */
+    public static void sort(int[] a) {
+        sort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts {@code a[fromIndex, toIndex)} into ascending order, choosing the algorithm by length.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public static void sort(int[] a, int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, a.length);
+        int n = toIndex - fromIndex;
+        if (n < RADIX_SORT_THRESHOLD) {
+            Arrays.sort(a, fromIndex, toIndex);
+        } else if (n < PARALLEL_SORT_THRESHOLD || parallelism() == 1) {
+            radixSort(a, fromIndex, toIndex);
+        } else {
+            parallelRadixSort(a, fromIndex, toIndex);
+        }
+    }
+
+    /** Sorts {@code a} with a single-threaded LSD radix sort, whatever its length. */
+    public static void radixSort(int[] a) {
+        radixSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts {@code a[fromIndex, toIndex)} with a single-threaded LSD radix sort, whatever its length.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public static void radixSort(int[] a, int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, a.length);
+        int n = toIndex - fromIndex;
+        if (n < 2) {
+            return;
+        }
+        // One read of the input yields the histograms of all four digits.
+        int[] counts = new int[PASSES * BUCKETS];
+        for (int i = fromIndex; i < toIndex; i++) {
+            int v = a[i];
+            counts[v & DIGIT_MASK]++;
+            counts[BUCKETS + (v >>> 8 & DIGIT_MASK)]++;
+            counts[2 * BUCKETS + (v >>> 16 & DIGIT_MASK)]++;
+            counts[3 * BUCKETS + digit(v, 3)]++;
+        }
+        int[] src = a;
+        int srcOffset = fromIndex;
+        int[] dst = new int[n];
+        int dstOffset = 0;
+        int[] offsets = new int[BUCKETS];
+        for (int pass = 0; pass < PASSES; pass++) {
+            int base = pass * BUCKETS;
+            if (counts[base + digit(src[srcOffset], pass)] == n) {
+                continue;
+            }
+            for (int b = 0, sum = dstOffset; b < BUCKETS; b++) {
+                offsets[b] = sum;
+                sum += counts[base + b];
+            }
+            for (int i = srcOffset, end = srcOffset + n; i < end; i++) {
+                int v = src[i];
+                dst[offsets[digit(v, pass)]++] = v;
+            }
+            int[] t = src;
+            src = dst;
+            dst = t;
+            int o = srcOffset;
+            srcOffset = dstOffset;
+            dstOffset = o;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOffset, a, fromIndex, n);
+        }
+    }
+
+    /** Sorts {@code a} with an LSD radix sort whose passes run on the common fork/join pool. */
+    public static void parallelRadixSort(int[] a) {
+        parallelRadixSort(a, 0, a.length);
+    }
+
+    /**
+     * Sorts {@code a[fromIndex, toIndex)} with an LSD radix sort whose passes run on the common fork/join pool.
+     *
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public static void parallelRadixSort(int[] a, int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, a.length);
+        int n = toIndex - fromIndex;
+        int chunks = Math.min(4 * parallelism(), n / RADIX_SORT_THRESHOLD);
+        if (chunks < 2) {
+            radixSort(a, fromIndex, toIndex);
+            return;
+        }
+        int chunkLength = (n + chunks - 1) / chunks;
+        int[][] counts = new int[chunks][BUCKETS];
+        int[] src = a;
+        int srcOffset = fromIndex;
+        int[] dst = new int[n];
+        int dstOffset = 0;
+        for (int pass = 0; pass < PASSES; pass++) {
+            int p = pass;
+            int[] in = src;
+            int inOffset = srcOffset;
+            forEachChunk(chunks, k -> {
+                int[] c = counts[k];
+                Arrays.fill(c, 0);
+                int start = inOffset + k * chunkLength;
+                int end = Math.min(start + chunkLength, inOffset + n);
+                for (int i = start; i < end; i++) {
+                    c[digit(in[i], p)]++;
+                }
+            });
+            // Turn the per-chunk counts into each chunk's first output index per bucket: bucket-major, so
+            // chunk k's elements of bucket b land after those of chunks 0..k-1, which keeps the pass stable.
+            boolean trivial = false;
+            for (int b = 0, sum = dstOffset; b < BUCKETS; b++) {
+                int bucketStart = sum;
+                for (int k = 0; k < chunks; k++) {
+                    int c = counts[k][b];
+                    counts[k][b] = sum;
+                    sum += c;
+                }
+                if (sum - bucketStart == n) {
+                    trivial = true;
+                    break;
+                }
+            }
+            if (trivial) {
+                continue;
+            }
+            int[] out = dst;
+            forEachChunk(chunks, k -> {
+                int[] offsets = counts[k];
+                int start = inOffset + k * chunkLength;
+                int end = Math.min(start + chunkLength, inOffset + n);
+                for (int i = start; i < end; i++) {
+                    int v = in[i];
+                    out[offsets[digit(v, p)]++] = v;
+                }
+            });
+            src = dst;
+            dst = in;
+            srcOffset = dstOffset;
+            dstOffset = inOffset;
+        }
+        if (src != a) {
+            System.arraycopy(src, srcOffset, a, fromIndex, n);
+        }
+    }
+
+    /**
+     * Searches the ascending array {@code sorted} for every element of {@code queries}.
+     *
+     * @return for each query, its index in {@code sorted} if present, otherwise {@code -(insertion point) - 1},
+     *         as {@code Arrays.binarySearch} returns. Unlike {@code Arrays.binarySearch}, a key that occurs more
+     *         than once always reports its first index.
+     */
+    public static int[] binarySearchAll(int[] sorted, int[] queries) {
+        int[] results = new int[queries.length];
+        binarySearchAll(sorted, queries, results);
+        return results;
+    }
+
+    /**
+     * Like {@link #binarySearchAll(int[], int[])}, but writes the result for {@code queries[i]} to
+     * {@code results[i]} instead of allocating an array.
+     *
+     * @throws IllegalArgumentException if {@code results} is shorter than {@code queries}
+     */
+    public static void binarySearchAll(int[] sorted, int[] queries, int[] results) {
+        if (results.length < queries.length) {
+            throw new IllegalArgumentException(
+                    "Results length " + results.length + " < queries length " + queries.length);
+        }
+        int count = queries.length;
+        if (count < PARALLEL_SEARCH_THRESHOLD || parallelism() == 1) {
+            searchRange(sorted, queries, results, 0, count);
+        } else {
+            forEachChunk((count + SEARCH_CHUNK - 1) / SEARCH_CHUNK, k -> {
+                int from = k * SEARCH_CHUNK;
+                searchRange(sorted, queries, results, from, Math.min(from + SEARCH_CHUNK, count));
+            });
+        }
+    }
+
+    private static void searchRange(int[] a, int[] queries, int[] results, int from, int to) {
+        int n = a.length;
+        if (n == 0) {
+            Arrays.fill(results, from, to, -1);
+            return;
+        }
+        int i = from;
+        for (; i + 4 <= to; i += 4) {
+            int q0 = queries[i], q1 = queries[i + 1], q2 = queries[i + 2], q3 = queries[i + 3];
+            int b0 = 0, b1 = 0, b2 = 0, b3 = 0;
+            for (int len = n; len > 1; ) {
+                int half = len >>> 1;
+                b0 = a[b0 + half - 1] < q0 ? b0 + half : b0;
+                b1 = a[b1 + half - 1] < q1 ? b1 + half : b1;
+                b2 = a[b2 + half - 1] < q2 ? b2 + half : b2;
+                b3 = a[b3 + half - 1] < q3 ? b3 + half : b3;
+                len -= half;
+            }
+            results[i] = result(a, b0, q0);
+            results[i + 1] = result(a, b1, q1);
+            results[i + 2] = result(a, b2, q2);
+            results[i + 3] = result(a, b3, q3);
+        }
+        for (; i < to; i++) {
+            int q = queries[i];
+            int b = 0;
+            for (int len = n; len > 1; ) {
+                int half = len >>> 1;
+                b = a[b + half - 1] < q ? b + half : b;
+                len -= half;
+            }
+            results[i] = result(a, b, q);
+        }
+    }
+
+    /**
+     * Finishes a search that has narrowed the first element {@code >= key} down to index {@code base} or
+     * {@code base + 1}.
+     */
+    private static int result(int[] a, int base, int key) {
+        int index = a[base] < key ? base + 1 : base;
+        return index < a.length && a[index] == key ? index : -index - 1;
+    }
+
+    /** Digit {@code pass} of {@code v}, least significant first; the sign bit is flipped so negatives sort first. */
+    private static int digit(int v, int pass) {
+        int d = v >>> (pass * DIGIT_BITS) & DIGIT_MASK;
+        return pass == PASSES - 1 ? d ^ (BUCKETS >>> 1) : d;
+    }
+
+    private static int parallelism() {
+        return ForkJoinPool.getCommonPoolParallelism();
+    }
+
+    /** Runs {@code task} for every chunk index in {@code [0, chunks)} on the common fork/join pool. */
+    private static void forEachChunk(int chunks, IntConsumer task) {
+        IntStream.range(0, chunks).parallel().forEach(task);
+    }
+}
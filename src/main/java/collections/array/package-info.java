@@ -0,0 +1,5 @@
+/**
+ * Size-adaptive sorting and batched searching of primitive arrays, building on the {@code java.util.Arrays}
+ * calls shown in {@code LearnArrayClass}.
+ */
+package collections.array;
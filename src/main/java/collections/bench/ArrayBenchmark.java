@@ -0,0 +1,135 @@
+package collections.bench;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import collections.array.IntArrays;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code Arrays.sort} and {@code Arrays.binarySearch} calls from {@code LearnArrayClass} against
+ * {@link IntArrays}.
+ *
+ * <p>Every sort benchmark first copies the unsorted input into a work array, so that each invocation sorts
+ * random data; {@code copyOnly} measures that copy on its own. The search benchmarks answer the
+ * {@link BenchmarkData#KEY_COUNT} queries of one batch, so divide their score by that count for the cost of a
+ * single lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ArrayBenchmark {
+
+    @State(Scope.Thread)
+    public static class SortState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        int[] input;
+        int[] work;
+
+        @Setup
+        public void setUp() {
+            input = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            work = new int[size];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SearchState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        int[] sorted;
+        int[] queries;
+        int[] results;
+
+        @Setup
+        public void setUp() {
+            sorted = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            Arrays.sort(sorted);
+            // Half of the queries hit, half (almost certainly) miss.
+            queries = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, Integer.MAX_VALUE);
+            int[] hits = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT / 2, size);
+            for (int i = 0; i < hits.length; i++) {
+                queries[2 * i] = sorted[hits[i]];
+            }
+            results = new int[queries.length];
+        }
+    }
+
+    @Benchmark
+    public int[] copyOnly(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        return s.work;
+    }
+
+    /** Dual-pivot quicksort. */
+    @Benchmark
+    public int[] arraysSort(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        Arrays.sort(s.work);
+        return s.work;
+    }
+
+    /** The JDK's fork/join parallel merge sort. */
+    @Benchmark
+    public int[] arraysParallelSort(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        Arrays.parallelSort(s.work);
+        return s.work;
+    }
+
+    /** Picks {@code Arrays.sort}, {@code radixSort} or {@code parallelRadixSort} by size. */
+    @Benchmark
+    public int[] intArraysSort(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        IntArrays.sort(s.work);
+        return s.work;
+    }
+
+    @Benchmark
+    public int[] intArraysRadixSort(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        IntArrays.radixSort(s.work);
+        return s.work;
+    }
+
+    @Benchmark
+    public int[] intArraysParallelRadixSort(SortState s) {
+        System.arraycopy(s.input, 0, s.work, 0, s.size);
+        IntArrays.parallelRadixSort(s.work);
+        return s.work;
+    }
+
+    @Benchmark
+    public int[] arraysBinarySearchLoop(SearchState s) {
+        int[] sorted = s.sorted;
+        int[] queries = s.queries;
+        int[] results = s.results;
+        for (int i = 0; i < queries.length; i++) {
+            results[i] = Arrays.binarySearch(sorted, queries[i]);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public int[] intArraysBinarySearchAll(SearchState s) {
+        IntArrays.binarySearchAll(s.sorted, s.queries, s.results);
+        return s.results;
+    }
+}
@@ -0,0 +1,74 @@
+package collections.bench;
+
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic inputs shared by the benchmarks. Everything is generated from a fixed seed so that runs
+ * (and forks) see the same keys, and boxed copies are created during setup rather than inside the
+ * measured methods.
+ */
+final class BenchmarkData {
+
+    /** Seed for every generated array; changing it changes every benchmark's input. */
+    static final long SEED = 0x5EED_C011EC7L;
+
+    /**
+     * Number of pre-generated keys a benchmark cycles through. A power of two so that the cursor can wrap
+     * with a mask, and large enough that the branch predictor cannot learn the sequence.
+     */
+    static final int KEY_COUNT = 1 << 16;
+
+    static final int KEY_MASK = KEY_COUNT - 1;
+
+    private BenchmarkData() {
+    }
+
+    /** Returns {@code count} uniformly distributed ints in {@code [0, bound)}. */
+    static int[] randomInts(int count, int bound) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = random.nextInt(bound);
+        }
+        return values;
+    }
+
+    /**
+     * Returns {@code count} ints in {@code [0, bound)} skewed towards 0, as the keys of a cache workload are:
+     * each is {@code bound * u^3} for a uniform {@code u}, so the lowest 10% of keys get about 46% of draws.
+     */
+    static int[] skewedInts(int count, int bound) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            double u = random.nextDouble();
+            values[i] = (int) (u * u * u * bound);
+        }
+        return values;
+    }
+
+    /** Returns {@code 0, 1, ..., count - 1} in a seeded random order. */
+    static int[] shuffledRange(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] values = new int[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = i;
+        }
+        for (int i = count - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = values[i];
+            values[i] = values[j];
+            values[j] = tmp;
+        }
+        return values;
+    }
+
+    /** Boxes {@code values} once so that benchmarks on boxed collections do not measure {@code valueOf}. */
+    static Integer[] boxed(int[] values) {
+        Integer[] boxed = new Integer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+}
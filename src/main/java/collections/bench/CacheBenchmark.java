@@ -0,0 +1,123 @@
+package collections.bench;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import collections.cache.Cache;
+import collections.cache.ConcurrentBoundedCache;
+import collections.cache.EvictionPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a shared bounded cache under 1, 8 and 32 threads: {@link ConcurrentBoundedCache} under both
+ * policies against an access-order {@code LinkedHashMap} with {@code removeEldestEntry} behind
+ * {@code Collections.synchronizedMap}, the cache {@code LearnLinkedHashSet} readers usually write by hand.
+ *
+ * <p>Each operation reads a key drawn from {@link BenchmarkData#skewedInts} over four times the capacity and
+ * caches it on a miss, so most operations are hits on a small set of popular keys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CacheBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedCache {
+
+        @Param({"linkedHashMap", "lru", "tinyLfu"})
+        String impl;
+
+        @Param({"10000"})
+        int capacity;
+
+        Map<Integer, Integer> map;
+        Cache<Integer, Integer> cache;
+        Integer[] keys;
+
+        @Setup
+        public void setUp() {
+            switch (impl) {
+                case "linkedHashMap":
+                    int max = capacity;
+                    map = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+                        @Override
+                        protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest) {
+                            return size() > max;
+                        }
+                    });
+                    break;
+                case "lru":
+                    cache = new ConcurrentBoundedCache<>(capacity, EvictionPolicy.LRU);
+                    break;
+                case "tinyLfu":
+                    cache = new ConcurrentBoundedCache<>(capacity, EvictionPolicy.W_TINY_LFU);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown cache implementation: " + impl);
+            }
+            keys = BenchmarkData.boxed(BenchmarkData.skewedInts(BenchmarkData.KEY_COUNT, 4 * capacity));
+            for (Integer key : keys) {
+                operation(this, key);
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            cursor = (int) (Thread.currentThread().getId() * 7919);
+        }
+    }
+
+    static Integer operation(SharedCache s, Integer key) {
+        if (s.cache != null) {
+            return s.cache.get(key, k -> k);
+        }
+        Integer value = s.map.get(key);
+        if (value == null) {
+            s.map.put(key, key);
+            value = key;
+        }
+        return value;
+    }
+
+    static Integer operation(SharedCache s, ThreadCursor t) {
+        return operation(s, s.keys[t.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer threads1(SharedCache s, ThreadCursor t) {
+        return operation(s, t);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public Integer threads8(SharedCache s, ThreadCursor t) {
+        return operation(s, t);
+    }
+
+    @Benchmark
+    @Threads(32)
+    public Integer threads32(SharedCache s, ThreadCursor t) {
+        return operation(s, t);
+    }
+}
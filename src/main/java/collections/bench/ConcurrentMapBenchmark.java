@@ -0,0 +1,130 @@
+package collections.bench;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.StripedHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a shared map under 1, 4, 16 and 64 threads: {@link StripedHashMap} against a
+ * {@code HashMap} behind {@code Collections.synchronizedMap} (one global lock) and
+ * {@code ConcurrentHashMap}.
+ *
+ * <p>Each operation is a {@code get} with probability {@code readPercent}/100 and otherwise a {@code put}
+ * (half of them {@code putIfAbsent}) of a key that is already present, so the map size stays fixed.
+ * Compare the {@code ops/us} score of the same method across implementations.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentMapBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SharedMap {
+
+        @Param({"striped", "synchronized", "concurrent"})
+        String impl;
+
+        @Param({"100000"})
+        int size;
+
+        @Param({"100", "90", "50"})
+        int readPercent;
+
+        Map<Integer, Integer> map;
+        Integer[] keys;
+
+        @Setup
+        public void setUp() {
+            switch (impl) {
+                case "striped":
+                    map = new StripedHashMap<>();
+                    break;
+                case "synchronized":
+                    map = Collections.synchronizedMap(new HashMap<>());
+                    break;
+                case "concurrent":
+                    map = new ConcurrentHashMap<>();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown map implementation: " + impl);
+            }
+            for (int i = 0; i < size; i++) {
+                map.put(i, i);
+            }
+            keys = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        int cursor;
+        /** Per-thread xorshift state used to pick the operation. */
+        int random;
+
+        @Setup
+        public void setUp() {
+            cursor = (int) (Thread.currentThread().getId() * 7919);
+            random = cursor | 1;
+        }
+
+        int nextPercent() {
+            int x = random;
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            random = x;
+            return (x >>> 1) % 100;
+        }
+    }
+
+    static Integer operation(SharedMap s, ThreadCursor t) {
+        Integer key = s.keys[t.cursor++ & BenchmarkData.KEY_MASK];
+        int p = t.nextPercent();
+        if (p < s.readPercent) {
+            return s.map.get(key);
+        }
+        return (p & 1) == 0 ? s.map.put(key, key) : s.map.putIfAbsent(key, key);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Integer threads1(SharedMap s, ThreadCursor t) {
+        return operation(s, t);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Integer threads4(SharedMap s, ThreadCursor t) {
+        return operation(s, t);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Integer threads16(SharedMap s, ThreadCursor t) {
+        return operation(s, t);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public Integer threads64(SharedMap s, ThreadCursor t) {
+        return operation(s, t);
+    }
+}
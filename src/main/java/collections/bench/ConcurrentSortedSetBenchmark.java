@@ -0,0 +1,241 @@
+package collections.bench;
+
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+
+import collections.set.ConcurrentLongSkipListSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of a shared sorted set of {@code long}s under 1, 4 and 16 threads: {@link ConcurrentLongSkipListSet}
+ * against {@code LearnTreeSet}'s {@code TreeSet<Long>} behind one lock and {@code ConcurrentSkipListSet<Long>}.
+ *
+ * <p>The {@code mixed} benchmarks run a {@code ceiling} with probability {@code readPercent}/100 and otherwise
+ * an {@code add} or a {@code remove} of a random key in {@code [0, 2 * size)}, so about half the keys are
+ * present throughout. The {@code poll} benchmarks are an order book's matching loop: {@code pollFirst} the best
+ * key and add a new one {@code size} above it, which keeps {@code size} keys and makes every thread fight for
+ * the first node.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ConcurrentSortedSetBenchmark {
+
+    /** The operations benchmarked, over the three implementations. */
+    interface LongSortedSet {
+        boolean add(long key);
+
+        boolean remove(long key);
+
+        long ceiling(long key);
+
+        long pollFirst();
+    }
+
+    @State(Scope.Benchmark)
+    public static class SharedSet {
+
+        @Param({"skipList", "lockedTreeSet", "concurrentSkipListSet"})
+        String impl;
+
+        @Param({"100000"})
+        int size;
+
+        @Param({"90", "50"})
+        int readPercent;
+
+        LongSortedSet set;
+        long[] keys;
+
+        @Setup
+        public void setUp() {
+            switch (impl) {
+                case "skipList":
+                    set = skipList();
+                    break;
+                case "lockedTreeSet":
+                    set = locked(new TreeSet<>());
+                    break;
+                case "concurrentSkipListSet":
+                    set = boxed(new ConcurrentSkipListSet<>());
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown set implementation: " + impl);
+            }
+            for (int key : BenchmarkData.shuffledRange(size)) {
+                set.add(key);
+            }
+            int[] random = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 2 * size);
+            keys = new long[random.length];
+            for (int i = 0; i < random.length; i++) {
+                keys[i] = random[i];
+            }
+        }
+
+        private static LongSortedSet skipList() {
+            ConcurrentLongSkipListSet s = new ConcurrentLongSkipListSet();
+            return new LongSortedSet() {
+                @Override
+                public boolean add(long key) {
+                    return s.add(key);
+                }
+
+                @Override
+                public boolean remove(long key) {
+                    return s.remove(key);
+                }
+
+                @Override
+                public long ceiling(long key) {
+                    return s.ceiling(key).orElse(-1);
+                }
+
+                @Override
+                public long pollFirst() {
+                    return s.pollFirst().orElse(-1);
+                }
+            };
+        }
+
+        private static LongSortedSet locked(NavigableSet<Long> s) {
+            return new LongSortedSet() {
+                @Override
+                public synchronized boolean add(long key) {
+                    return s.add(key);
+                }
+
+                @Override
+                public synchronized boolean remove(long key) {
+                    return s.remove(key);
+                }
+
+                @Override
+                public synchronized long ceiling(long key) {
+                    Long c = s.ceiling(key);
+                    return c == null ? -1 : c;
+                }
+
+                @Override
+                public synchronized long pollFirst() {
+                    Long first = s.pollFirst();
+                    return first == null ? -1 : first;
+                }
+            };
+        }
+
+        private static LongSortedSet boxed(NavigableSet<Long> s) {
+            return new LongSortedSet() {
+                @Override
+                public boolean add(long key) {
+                    return s.add(key);
+                }
+
+                @Override
+                public boolean remove(long key) {
+                    return s.remove(key);
+                }
+
+                @Override
+                public long ceiling(long key) {
+                    Long c = s.ceiling(key);
+                    return c == null ? -1 : c;
+                }
+
+                @Override
+                public long pollFirst() {
+                    Long first = s.pollFirst();
+                    return first == null ? -1 : first;
+                }
+            };
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadCursor {
+        int cursor;
+        int random;
+
+        @Setup
+        public void setUp() {
+            cursor = (int) (Thread.currentThread().getId() * 7919);
+            random = cursor | 1;
+        }
+
+        int nextPercent() {
+            int x = random;
+            x ^= x << 13;
+            x ^= x >>> 17;
+            x ^= x << 5;
+            random = x;
+            return (x >>> 1) % 100;
+        }
+    }
+
+    static long mixed(SharedSet s, ThreadCursor t) {
+        long key = s.keys[t.cursor++ & BenchmarkData.KEY_MASK];
+        int p = t.nextPercent();
+        if (p < s.readPercent) {
+            return s.set.ceiling(key);
+        }
+        return ((p & 1) == 0 ? s.set.add(key) : s.set.remove(key)) ? 1 : 0;
+    }
+
+    static long poll(SharedSet s) {
+        long first = s.set.pollFirst();
+        if (first >= 0) {
+            s.set.add(first + s.size);
+        }
+        return first;
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long mixed1(SharedSet s, ThreadCursor t) {
+        return mixed(s, t);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long mixed4(SharedSet s, ThreadCursor t) {
+        return mixed(s, t);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long mixed16(SharedSet s, ThreadCursor t) {
+        return mixed(s, t);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public long poll1(SharedSet s) {
+        return poll(s);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long poll4(SharedSet s) {
+        return poll(s);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public long poll16(SharedSet s) {
+        return poll(s);
+    }
+}
@@ -0,0 +1,113 @@
+package collections.bench;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+import collections.queue.MpmcRingBuffer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Handing elements between threads: {@link MpmcRingBuffer} against an {@code ArrayDeque} (see
+ * {@code LearnArrayDequeue}) guarded by {@code synchronized}. Each group runs four producers and four
+ * consumers on one shared queue; {@code offer} on a full queue and {@code poll} on an empty one return
+ * immediately and still count as an operation, as they would in a spinning worker loop.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HandoffBenchmark {
+
+    /** Elements moved per {@code drainTo}/{@code fill} call in the batched groups. */
+    static final int BATCH = 32;
+
+    @State(Scope.Group)
+    public static class Queues {
+
+        @Param({"1024"})
+        int capacity;
+
+        MpmcRingBuffer<Integer> ring;
+        ArrayDeque<Integer> deque;
+        Integer element;
+
+        @Setup
+        public void setUp() {
+            ring = new MpmcRingBuffer<>(capacity);
+            deque = new ArrayDeque<>(capacity);
+            element = 42;
+        }
+
+        boolean lockedOffer(Integer e) {
+            synchronized (deque) {
+                if (deque.size() == capacity) {
+                    return false;
+                }
+                return deque.offer(e);
+            }
+        }
+
+        Integer lockedPoll() {
+            synchronized (deque) {
+                return deque.poll();
+            }
+        }
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(4)
+    public boolean ringOffer(Queues q) {
+        return q.ring.offer(q.element);
+    }
+
+    @Benchmark
+    @Group("ring")
+    @GroupThreads(4)
+    public Integer ringPoll(Queues q) {
+        return q.ring.poll();
+    }
+
+    @Benchmark
+    @Group("ringBatched")
+    @GroupThreads(4)
+    public int ringFill(Queues q) {
+        Integer e = q.element;
+        return q.ring.fill(() -> e, BATCH);
+    }
+
+    @Benchmark
+    @Group("ringBatched")
+    @GroupThreads(4)
+    public int ringDrain(Queues q, Blackhole bh) {
+        return q.ring.drainTo(bh::consume, BATCH);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(4)
+    public boolean lockedOffer(Queues q) {
+        return q.lockedOffer(q.element);
+    }
+
+    @Benchmark
+    @Group("locked")
+    @GroupThreads(4)
+    public Integer lockedPoll(Queues q) {
+        return q.lockedPoll();
+    }
+}
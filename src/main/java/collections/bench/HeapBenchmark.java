@@ -0,0 +1,138 @@
+package collections.bench;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import collections.queue.LongIndexedHeap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link LongIndexedHeap} against the boxed {@code PriorityQueue} from {@code LearnPriorityQueue}, modelling a
+ * timer queue: deadlines are offered and polled, and pending deadlines are moved.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class HeapBenchmark {
+
+    @State(Scope.Thread)
+    public static class BoxedState {
+
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        PriorityQueue<Long> queue;
+        /** The queued deadlines, so that one can be looked up for removal. */
+        Long[] queued;
+        long[] deadlines;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            int[] initial = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            queue = new PriorityQueue<>(size + 1);
+            queued = new Long[size];
+            for (int i = 0; i < size; i++) {
+                queued[i] = (long) initial[i];
+                queue.offer(queued[i]);
+            }
+            int[] random = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, Integer.MAX_VALUE);
+            deadlines = new long[random.length];
+            for (int i = 0; i < random.length; i++) {
+                deadlines[i] = random[i];
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class IndexedState {
+
+        @Param({"1000", "100000", "1000000"})
+        int size;
+
+        LongIndexedHeap heap;
+        int[] handles;
+        long[] deadlines;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            int[] initial = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            long[] priorities = new long[size];
+            for (int i = 0; i < size; i++) {
+                priorities[i] = initial[i];
+            }
+            heap = new LongIndexedHeap(size + 1);
+            handles = heap.offerAll(priorities);
+            int[] random = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, Integer.MAX_VALUE);
+            deadlines = new long[random.length];
+            for (int i = 0; i < random.length; i++) {
+                deadlines[i] = random[i];
+            }
+        }
+    }
+
+    @Benchmark
+    public Long boxedOfferPoll(BoxedState s) {
+        s.queue.offer(s.deadlines[s.cursor++ & BenchmarkData.KEY_MASK]);
+        return s.queue.poll();
+    }
+
+    @Benchmark
+    public int indexedOfferPoll(IndexedState s) {
+        s.heap.offer(s.deadlines[s.cursor++ & BenchmarkData.KEY_MASK]);
+        return s.heap.poll();
+    }
+
+    /** Moves a pending deadline: {@code remove(Object)}, a linear search, then {@code offer}. */
+    @Benchmark
+    public boolean boxedReschedule(BoxedState s) {
+        int c = s.cursor++;
+        int i = (int) ((c & 0x7FFFFFFFL) % s.size);
+        boolean removed = s.queue.remove(s.queued[i]);
+        s.queued[i] = s.deadlines[c & BenchmarkData.KEY_MASK];
+        s.queue.offer(s.queued[i]);
+        return removed;
+    }
+
+    @Benchmark
+    public int indexedReschedule(IndexedState s) {
+        int c = s.cursor++;
+        int handle = s.handles[(int) ((c & 0x7FFFFFFFL) % s.size)];
+        s.heap.update(handle, s.deadlines[c & BenchmarkData.KEY_MASK]);
+        return handle;
+    }
+
+    /** Builds a whole heap: {@code size} offers for the boxed queue, one bottom-up heapify for the indexed heap. */
+    @Benchmark
+    public PriorityQueue<Long> boxedBuild(BoxedState s) {
+        PriorityQueue<Long> queue = new PriorityQueue<>(s.size);
+        for (Long deadline : s.queued) {
+            queue.offer(deadline);
+        }
+        return queue;
+    }
+
+    @Benchmark
+    public LongIndexedHeap indexedBuild(IndexedState s) {
+        LongIndexedHeap heap = new LongIndexedHeap(s.size);
+        long[] priorities = new long[s.size];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = s.deadlines[i & BenchmarkData.KEY_MASK] + i;
+        }
+        heap.offerAll(priorities);
+        return heap;
+    }
+}
@@ -0,0 +1,169 @@
+package collections.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import collections.list.IntArrayList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link IntArrayList} against the boxed {@code ArrayList<Integer>} used by {@code LearnArrayList}, for the
+ * operations that walkthrough shows. The {@code fill} benchmarks build a whole list from empty, so their
+ * {@code gc.alloc.rate.norm} is the memory footprint including every intermediate backing array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IntListBenchmark {
+
+    @State(Scope.Thread)
+    public static class BoxedState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        ArrayList<Integer> list;
+        int[] indexes;
+        int[] values;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            values = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            list = new ArrayList<>(size + 1);
+            for (int value : values) {
+                list.add(value);
+            }
+            indexes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class PrimitiveState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        IntArrayList list;
+        int[] indexes;
+        int[] values;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            values = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+            list = IntArrayList.of(values);
+            list.ensureCapacity(size + 1);
+            indexes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+        }
+    }
+
+    @Benchmark
+    public ArrayList<Integer> boxedFill(BoxedState s) {
+        ArrayList<Integer> list = new ArrayList<>();
+        for (int value : s.values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public IntArrayList primitiveFill(PrimitiveState s) {
+        IntArrayList list = new IntArrayList();
+        for (int value : s.values) {
+            list.add(value);
+        }
+        return list;
+    }
+
+    @Benchmark
+    public int boxedGet(BoxedState s) {
+        return s.list.get(s.indexes[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public int primitiveGet(PrimitiveState s) {
+        return s.list.get(s.indexes[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public int boxedSet(BoxedState s) {
+        int index = s.indexes[s.cursor++ & BenchmarkData.KEY_MASK];
+        return s.list.set(index, index);
+    }
+
+    @Benchmark
+    public int primitiveSet(PrimitiveState s) {
+        int index = s.indexes[s.cursor++ & BenchmarkData.KEY_MASK];
+        return s.list.set(index, index);
+    }
+
+    /** Searches for a value that is absent, so the whole list is scanned. */
+    @Benchmark
+    public boolean boxedContainsMiss(BoxedState s) {
+        return s.list.contains(-1);
+    }
+
+    @Benchmark
+    public boolean primitiveContainsMiss(PrimitiveState s) {
+        return s.list.contains(-1);
+    }
+
+    @Benchmark
+    public int boxedAddRemoveAtIndex(BoxedState s) {
+        int index = s.indexes[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.list.add(index, index);
+        return s.list.remove(index);
+    }
+
+    @Benchmark
+    public int primitiveAddRemoveAtIndex(PrimitiveState s) {
+        int index = s.indexes[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.list.add(index, index);
+        return s.list.removeAt(index);
+    }
+
+    /** Appends a value and removes it by value; the scan finds it at the end of the list. */
+    @Benchmark
+    public boolean boxedAddRemoveValue(BoxedState s) {
+        s.list.add(-1);
+        return s.list.remove(Integer.valueOf(-1));
+    }
+
+    @Benchmark
+    public boolean primitiveAddRemoveValue(PrimitiveState s) {
+        s.list.add(-1);
+        return s.list.removeValue(-1);
+    }
+
+    @Benchmark
+    public long boxedIterate(BoxedState s) {
+        long sum = 0;
+        for (int value : s.list) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long primitiveIterate(PrimitiveState s) {
+        IntArrayList list = s.list;
+        long sum = 0;
+        for (int i = 0, n = list.size(); i < n; i++) {
+            sum += list.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,128 @@
+package collections.bench;
+
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import collections.set.RoaringIntSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code LearnTreeSet}'s {@code TreeSet<Integer>} against {@link RoaringIntSet}. Each set holds {@code size}
+ * random values below {@code 4 * size}, so about a quarter of the range is present: dense enough for bitmap
+ * containers at the larger sizes, sparse arrays at the smaller. The {@code intersect} benchmarks intersect two
+ * such sets.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class IntSetBenchmark {
+
+    @State(Scope.Thread)
+    public static class TreeSetState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        TreeSet<Integer> set;
+        TreeSet<Integer> other;
+        Integer[] probes;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            set = new TreeSet<>();
+            other = new TreeSet<>();
+            for (int v : BenchmarkData.randomInts(size, 4 * size)) {
+                set.add(v);
+            }
+            for (int v : BenchmarkData.randomInts(size, 4 * size)) {
+                other.add(v + 1);
+            }
+            probes = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 4 * size));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class RoaringState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        RoaringIntSet set;
+        RoaringIntSet other;
+        int[] probes;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            set = RoaringIntSet.of(BenchmarkData.randomInts(size, 4 * size));
+            other = new RoaringIntSet();
+            for (int v : BenchmarkData.randomInts(size, 4 * size)) {
+                other.add(v + 1);
+            }
+            probes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 4 * size);
+        }
+    }
+
+    @Benchmark
+    public boolean treeSetContains(TreeSetState s) {
+        return s.set.contains(s.probes[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public boolean roaringContains(RoaringState s) {
+        return s.set.contains(s.probes[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    /** Adds a value and removes it again if it was new, so the set keeps its contents. */
+    @Benchmark
+    public boolean treeSetAddRemove(TreeSetState s) {
+        Integer v = s.probes[s.cursor++ & BenchmarkData.KEY_MASK];
+        return s.set.add(v) && s.set.remove(v);
+    }
+
+    @Benchmark
+    public boolean roaringAddRemove(RoaringState s) {
+        int v = s.probes[s.cursor++ & BenchmarkData.KEY_MASK];
+        return s.set.add(v) && s.set.remove(v);
+    }
+
+    @Benchmark
+    public Integer treeSetCeiling(TreeSetState s) {
+        return s.set.ceiling(s.probes[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public int roaringCeiling(RoaringState s) {
+        return s.set.ceiling(s.probes[s.cursor++ & BenchmarkData.KEY_MASK]).orElse(-1);
+    }
+
+    @Benchmark
+    public TreeSet<Integer> treeSetIntersect(TreeSetState s) {
+        TreeSet<Integer> result = new TreeSet<>(s.set);
+        result.retainAll(s.other);
+        return result;
+    }
+
+    @Benchmark
+    public RoaringIntSet roaringIntersect(RoaringState s) {
+        return RoaringIntSet.and(s.set, s.other);
+    }
+
+    @Benchmark
+    public RoaringIntSet roaringUnion(RoaringState s) {
+        return RoaringIntSet.or(s.set, s.other);
+    }
+}
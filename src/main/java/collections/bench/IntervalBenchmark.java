@@ -0,0 +1,152 @@
+package collections.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.IntervalMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link IntervalMap} against the {@code TreeMap} from {@code LearnTreeMap} keyed by start, which answers a
+ * stabbing query by scanning every interval that starts within the longest duration before the point.
+ *
+ * <p>The {@code size} intervals model time ranges: interval {@code i} starts in {@code [10 i, 10 i + 10)}, 99%
+ * last under 100 ticks and the rest up to {@link #MAX_DURATION}, so a point lies in about 55 of them but the
+ * {@code TreeMap} has to look back over 10,000 starts to be sure it has found them all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class IntervalBenchmark {
+
+    /** The longest interval generated, which bounds how far back the {@code TreeMap} must scan. */
+    static final int MAX_DURATION = 100_000;
+
+    /** Width of the range in the overlap benchmarks. */
+    static final int RANGE_WIDTH = 1000;
+
+    @Param({"treeMap", "intervalMap"})
+    String impl;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    long[] starts;
+    long[] ends;
+    List<Integer> values;
+    TreeMap<Long, Long> treeMap;
+    IntervalMap<Integer> intervalMap;
+    long[] queries;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        starts = new long[size];
+        ends = new long[size];
+        Integer[] boxed = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            starts[i] = 10L * i + random.nextInt(10);
+            ends[i] = starts[i] + 1 + random.nextInt(random.nextInt(100) == 0 ? MAX_DURATION : 100);
+            boxed[i] = i;
+        }
+        values = Arrays.asList(boxed);
+        if ("treeMap".equals(impl)) {
+            treeMap = loadTreeMap();
+        } else {
+            intervalMap = IntervalMap.ofSorted(starts, ends, values);
+        }
+        int[] points = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 10 * size);
+        queries = new long[points.length];
+        for (int i = 0; i < points.length; i++) {
+            queries[i] = points[i];
+        }
+    }
+
+    private TreeMap<Long, Long> loadTreeMap() {
+        TreeMap<Long, Long> map = new TreeMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(starts[i], ends[i]);
+        }
+        return map;
+    }
+
+    private long nextQuery() {
+        return queries[cursor++ & BenchmarkData.KEY_MASK];
+    }
+
+    /** Sums the ends of the intervals starting in {@code [from - MAX_DURATION, to)} that end after from. */
+    private static long scan(NavigableMap<Long, Long> map, long from, long to) {
+        long sum = 0;
+        for (Map.Entry<Long, Long> e : map.subMap(from - MAX_DURATION, false, to, false).entrySet()) {
+            if (e.getValue() > from) {
+                sum += e.getValue();
+            }
+        }
+        return sum;
+    }
+
+    /** Sums the ends of the intervals containing a random point. */
+    @Benchmark
+    public long stab() {
+        long t = nextQuery();
+        if (treeMap != null) {
+            return scan(treeMap, t, t + 1);
+        }
+        long[] sum = {0};
+        intervalMap.forEachContaining(t, (s, e, v) -> sum[0] += e);
+        return sum[0];
+    }
+
+    /** Sums the ends of the intervals overlapping a random range of {@link #RANGE_WIDTH} ticks. */
+    @Benchmark
+    public long overlap() {
+        long t = nextQuery();
+        if (treeMap != null) {
+            return scan(treeMap, t, t + RANGE_WIDTH);
+        }
+        long[] sum = {0};
+        intervalMap.forEachOverlapping(t, t + RANGE_WIDTH, (s, e, v) -> sum[0] += e);
+        return sum[0];
+    }
+
+    /** Whether any interval contains a random point, where the {@code TreeMap} can stop at the first it finds. */
+    @Benchmark
+    public boolean overlaps() {
+        long t = nextQuery();
+        if (treeMap != null) {
+            for (long end : treeMap.subMap(t - MAX_DURATION, false, t + 1, false).values()) {
+                if (end > t) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return intervalMap.overlaps(t, t + 1);
+    }
+
+    /** Builds the index from the sorted intervals. */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object bulkLoad() {
+        return treeMap != null ? loadTreeMap() : IntervalMap.ofSorted(starts, ends, values);
+    }
+}
@@ -0,0 +1,147 @@
+package collections.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import collections.list.GapList;
+import collections.list.RopeList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The {@code ArrayList} operations from {@code LearnArrayList}: positional insert and remove, which shift
+ * the tail of the backing array, against the constant-time indexed read. {@link GapList} and {@link RopeList}
+ * run the same operations, plus a cursor workload that edits near a position drifting a few places at a time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class ListBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    ArrayList<Integer> arrayList;
+    GapList<Integer> gapList;
+    RopeList<Integer> ropeList;
+    int[] indexes;
+    /** Cursor moves in {@code [-8, 8]}. */
+    int[] steps;
+    int editIndex;
+    Integer value;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        arrayList = new ArrayList<>(size + 1);
+        for (int i = 0; i < size; i++) {
+            arrayList.add(i);
+        }
+        gapList = new GapList<>(arrayList);
+        ropeList = new RopeList<>(arrayList);
+        indexes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+        steps = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 17);
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] -= 8;
+        }
+        editIndex = size >>> 1;
+        value = -1;
+    }
+
+    private int nextIndex() {
+        return indexes[cursor++ & BenchmarkData.KEY_MASK];
+    }
+
+    /** Moves the edit cursor by the next step, staying within the list. */
+    private int nextEditIndex() {
+        int i = editIndex + steps[cursor++ & BenchmarkData.KEY_MASK];
+        return editIndex = i < 0 ? 0 : Math.min(i, size - 1);
+    }
+
+    /** Inserts at the drifting cursor and removes the element after it, like typing over text. */
+    private Integer cursorEdit(List<Integer> list) {
+        int index = nextEditIndex();
+        list.add(index, value);
+        return list.remove(index + 1);
+    }
+
+    /** {@code add(index, e)} followed by {@code remove(index)} at a random position: two array shifts. */
+    @Benchmark
+    public Integer arrayListAddRemoveAtIndex() {
+        int index = nextIndex();
+        arrayList.add(index, value);
+        return arrayList.remove(index);
+    }
+
+    /** Same pair at the middle of the list, the average case quoted in {@code LearnArrayList}. */
+    @Benchmark
+    public Integer arrayListAddRemoveMiddle() {
+        int index = size >>> 1;
+        arrayList.add(index, value);
+        return arrayList.remove(index);
+    }
+
+    /** Same pair at the end of the list, where nothing is shifted. */
+    @Benchmark
+    public Integer arrayListAddRemoveLast() {
+        arrayList.add(value);
+        return arrayList.remove(size);
+    }
+
+    @Benchmark
+    public Integer arrayListGet() {
+        return arrayList.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer arrayListCursorEdit() {
+        return cursorEdit(arrayList);
+    }
+
+    @Benchmark
+    public Integer gapListAddRemoveAtIndex() {
+        int index = nextIndex();
+        gapList.add(index, value);
+        return gapList.remove(index);
+    }
+
+    @Benchmark
+    public Integer gapListCursorEdit() {
+        return cursorEdit(gapList);
+    }
+
+    @Benchmark
+    public Integer gapListGet() {
+        return gapList.get(nextIndex());
+    }
+
+    @Benchmark
+    public Integer ropeListAddRemoveAtIndex() {
+        int index = nextIndex();
+        ropeList.add(index, value);
+        return ropeList.remove(index);
+    }
+
+    @Benchmark
+    public Integer ropeListCursorEdit() {
+        return cursorEdit(ropeList);
+    }
+
+    @Benchmark
+    public Integer ropeListGet() {
+        return ropeList.get(nextIndex());
+    }
+}
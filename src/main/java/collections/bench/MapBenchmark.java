@@ -0,0 +1,160 @@
+package collections.bench;
+
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.InstrumentedHashMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The map operations from {@code LearnHashMap} and {@code LearnTreeMap}: hashed {@code put}/{@code get}
+ * against the red-black tree's {@code floorKey} and {@code headMap} navigation. The {@code instrumented*}
+ * benchmarks measure what {@link InstrumentedHashMap}'s probe counting, and optionally its seeded hash mixing,
+ * cost next to {@code HashMap}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class MapBenchmark {
+
+    @State(Scope.Thread)
+    public static class HashMapState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        HashMap<Integer, Integer> map;
+        /** Keys that are present in {@link #map}. */
+        Integer[] hits;
+        /** Keys that are never present in {@link #map}, used for insertions. */
+        Integer[] misses;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            map = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(i, i);
+            }
+            int[] keys = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            hits = BenchmarkData.boxed(keys);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] += size;
+            }
+            misses = BenchmarkData.boxed(keys);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class InstrumentedMapState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        @Param({"false", "true"})
+        boolean seeded;
+
+        InstrumentedHashMap<Integer, Integer> map;
+        Integer[] hits;
+        Integer[] misses;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            map = new InstrumentedHashMap<>(16, 0.75f, seeded);
+            for (int i = 0; i < size; i++) {
+                map.put(i, i);
+            }
+            int[] keys = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            hits = BenchmarkData.boxed(keys);
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] += size;
+            }
+            misses = BenchmarkData.boxed(keys);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TreeMapState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        /** Holds the even keys {@code 0, 2, ..., 2 * (size - 1)}, so odd queries fall between two keys. */
+        TreeMap<Integer, Integer> map;
+        Integer[] queries;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            map = new TreeMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(2 * i, i);
+            }
+            queries = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 2 * size));
+        }
+    }
+
+    /** Inserts an absent key and removes it again: one node allocation per call. */
+    @Benchmark
+    public Integer hashMapPutRemove(HashMapState s) {
+        Integer key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.map.put(key, key);
+        return s.map.remove(key);
+    }
+
+    /** Replaces the value of a present key, which reuses the existing node. */
+    @Benchmark
+    public Integer hashMapPutExisting(HashMapState s) {
+        Integer key = s.hits[s.cursor++ & BenchmarkData.KEY_MASK];
+        return s.map.put(key, key);
+    }
+
+    @Benchmark
+    public Integer hashMapGet(HashMapState s) {
+        return s.map.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public Integer instrumentedPutRemove(InstrumentedMapState s) {
+        Integer key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.map.put(key, key);
+        return s.map.remove(key);
+    }
+
+    @Benchmark
+    public Integer instrumentedGet(InstrumentedMapState s) {
+        return s.map.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public Integer treeMapGet(TreeMapState s) {
+        return s.map.get(s.queries[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public Integer treeMapFloorKey(TreeMapState s) {
+        return s.map.floorKey(s.queries[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    /** Creates the {@code headMap} view and navigates to its last key, i.e. a bounded floor search. */
+    @Benchmark
+    public Integer treeMapHeadMapLastKey(TreeMapState s) {
+        Integer key = s.queries[s.cursor++ & BenchmarkData.KEY_MASK];
+        return key == 0 ? null : s.map.headMap(key).lastKey();
+    }
+}
@@ -0,0 +1,199 @@
+package collections.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.IntIntConsumer;
+import collections.map.IntIntHashMap;
+import collections.map.LongObjectConsumer;
+import collections.map.LongObjectHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Full-map scans, as done by the {@code entrySet()}, {@code keySet()} and {@code values()} loops in
+ * {@code LearnHashMap} and {@code LearnTreeMap}, against the {@code forEachEntry} and cursor scans of this
+ * project's maps.
+ *
+ * <p>The {@code primitive*} benchmarks must not allocate at all. {@link #main} runs them under the GC profiler
+ * and fails if any of them reports a {@code gc.alloc.rate.norm} above {@link #ALLOCATION_TOLERANCE}:
+ * <pre>
+ * java -cp target/benchmarks.jar collections.bench.MapScanBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MapScanBenchmark {
+
+    /**
+     * Bytes per operation still counted as "no allocation". JMH's own per-iteration bookkeeping is spread over
+     * the operations of an iteration and shows up as a fraction of a byte; one object per scan would cost at
+     * least 16 bytes, and one per entry 16 bytes times {@link #CHECKED_SIZE}.
+     */
+    static final double ALLOCATION_TOLERANCE = 1.0;
+
+    /**
+     * Map size used by {@link #main}. Small enough that every iteration runs many scans, which keeps the
+     * bookkeeping share above well below {@link #ALLOCATION_TOLERANCE}.
+     */
+    static final String CHECKED_SIZE = "1000";
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    HashMap<Integer, Integer> hashMap;
+    TreeMap<Integer, Integer> treeMap;
+    IntIntHashMap intMap;
+    LongObjectHashMap<Integer> longMap;
+
+    IntIntHashMap.Cursor intCursor;
+    LongObjectHashMap<Integer>.Cursor longCursor;
+    final SumConsumer sum = new SumConsumer();
+
+    @Setup
+    public void setUp() {
+        hashMap = new HashMap<>();
+        treeMap = new TreeMap<>();
+        intMap = new IntIntHashMap();
+        longMap = new LongObjectHashMap<>();
+        int[] keys = BenchmarkData.shuffledRange(size);
+        for (int key : keys) {
+            hashMap.put(key, key);
+            treeMap.put(key, key);
+            intMap.put(key, key);
+            longMap.put(key, hashMap.get(key));
+        }
+        intCursor = intMap.cursor();
+        longCursor = longMap.cursor();
+    }
+
+    /** Reusable entry visitor, so that a scan does not even allocate a capturing lambda. */
+    static final class SumConsumer implements IntIntConsumer, LongObjectConsumer<Integer> {
+        long total;
+
+        @Override
+        public void accept(int key, int value) {
+            total += key + value;
+        }
+
+        @Override
+        public void accept(long key, Integer value) {
+            total += key + value;
+        }
+
+        long takeTotal() {
+            long t = total;
+            total = 0;
+            return t;
+        }
+    }
+
+    @Benchmark
+    public long hashMapEntrySet() {
+        long total = 0;
+        for (Map.Entry<Integer, Integer> e : hashMap.entrySet()) {
+            total += e.getKey() + e.getValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long hashMapValues() {
+        long total = 0;
+        for (Integer value : hashMap.values()) {
+            total += value;
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long treeMapEntrySet() {
+        long total = 0;
+        for (Map.Entry<Integer, Integer> e : treeMap.entrySet()) {
+            total += e.getKey() + e.getValue();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long primitiveForEachEntry() {
+        intMap.forEachEntry(sum);
+        return sum.takeTotal();
+    }
+
+    @Benchmark
+    public long primitiveCursor() {
+        IntIntHashMap.Cursor c = intCursor.reset();
+        long total = 0;
+        while (c.advance()) {
+            total += c.key() + c.value();
+        }
+        return total;
+    }
+
+    @Benchmark
+    public long primitiveLongForEachEntry() {
+        longMap.forEachEntry(sum);
+        return sum.takeTotal();
+    }
+
+    @Benchmark
+    public long primitiveLongCursor() {
+        LongObjectHashMap<Integer>.Cursor c = longCursor.reset();
+        long total = 0;
+        while (c.advance()) {
+            total += c.key() + c.value();
+        }
+        return total;
+    }
+
+    /** Runs the {@code primitive*} scans with the GC profiler and fails unless they allocate nothing. */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(MapScanBenchmark.class.getName() + ".primitive")
+                .param("size", CHECKED_SIZE)
+                .addProfiler(GCProfiler.class)
+                .build();
+        boolean failed = false;
+        for (RunResult run : new Runner(options).run()) {
+            Result<?> allocation = run.getSecondaryResults().get("gc.alloc.rate.norm");
+            String label = run.getParams().getBenchmark();
+            if (allocation == null) {
+                throw new IllegalStateException("No gc.alloc.rate.norm reported for " + label);
+            }
+            if (allocation.getScore() > ALLOCATION_TOLERANCE) {
+                System.err.printf("%s allocates %.2f B/op%n", label, allocation.getScore());
+                failed = true;
+            }
+        }
+        if (failed) {
+            System.exit(1);
+        }
+        System.out.println("All map scans are allocation-free.");
+    }
+}
@@ -0,0 +1,130 @@
+package collections.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.io.Codec;
+import collections.map.MappedSortedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link MappedSortedMap} against the {@code TreeMap} from {@code LearnTreeMap}, holding the same even keys
+ * as {@link SortedMapBenchmark}. {@code open} and {@code rebuildTreeMap} compare the cost of getting the map
+ * back after a restart: mapping the saved file, or inserting every entry again from sorted arrays, which is a
+ * lower bound on reloading a {@code TreeMap} from any serialized form.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class MappedMapBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    Path file;
+    TreeMap<Integer, Integer> treeMap;
+    MappedSortedMap<Integer, Integer> mapped;
+    Integer[] sortedKeys;
+    Integer[] queries;
+    int cursor;
+
+    @Setup
+    public void setUp() throws IOException {
+        treeMap = new TreeMap<>();
+        sortedKeys = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            sortedKeys[i] = 2 * i;
+            treeMap.put(2 * i, i);
+        }
+        file = Files.createTempFile("mapped-map", ".bin");
+        MappedSortedMap.write(file, treeMap, Codec.INTEGER, Codec.INTEGER);
+        mapped = MappedSortedMap.open(file, Codec.INTEGER, Codec.INTEGER);
+        queries = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 2 * size));
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        mapped = null;
+        Files.deleteIfExists(file);
+    }
+
+    private Integer nextQuery() {
+        return queries[cursor++ & BenchmarkData.KEY_MASK];
+    }
+
+    @Benchmark
+    public Integer treeMapGet() {
+        return treeMap.get(nextQuery());
+    }
+
+    @Benchmark
+    public Integer mappedGet() {
+        return mapped.get(nextQuery());
+    }
+
+    @Benchmark
+    public Integer treeMapFloorKey() {
+        return treeMap.floorKey(nextQuery());
+    }
+
+    @Benchmark
+    public Integer mappedFloorKey() {
+        return mapped.floorKey(nextQuery());
+    }
+
+    @Benchmark
+    public long treeMapTailMapScan() {
+        return scan(treeMap.tailMap(nextQuery(), true));
+    }
+
+    @Benchmark
+    public long mappedTailMapScan() {
+        return scan(mapped.tailMap(nextQuery(), true));
+    }
+
+    /** Sums the first {@link SortedMapBenchmark#SCAN_LENGTH} values of {@code map}. */
+    private static long scan(NavigableMap<Integer, Integer> map) {
+        long sum = 0;
+        int n = 0;
+        for (Iterator<Map.Entry<Integer, Integer>> it = map.entrySet().iterator();
+                it.hasNext() && n < SortedMapBenchmark.SCAN_LENGTH; n++) {
+            sum += it.next().getValue();
+        }
+        return sum;
+    }
+
+    /** Maps the saved file and reads one key, as a restarted process would before serving. */
+    @Benchmark
+    public Integer open() throws IOException {
+        return MappedSortedMap.open(file, Codec.INTEGER, Codec.INTEGER).floorKey(nextQuery());
+    }
+
+    @Benchmark
+    public Integer rebuildTreeMap() {
+        TreeMap<Integer, Integer> map = new TreeMap<>();
+        for (Integer key : sortedKeys) {
+            map.put(key, key >> 1);
+        }
+        return map.floorKey(nextQuery());
+    }
+}
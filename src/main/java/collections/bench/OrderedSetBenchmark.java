@@ -0,0 +1,116 @@
+package collections.bench;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import collections.set.CompactLinkedHashSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code LearnLinkedHashSet}'s {@code LinkedHashSet<String>} against {@link CompactLinkedHashSet}. The
+ * {@code fill} benchmarks build a set of {@code size} distinct strings from empty, so with {@code -prof gc}
+ * their {@code gc.alloc.rate.norm} is the footprint of the set itself, the strings excluded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OrderedSetBenchmark {
+
+    @State(Scope.Thread)
+    public static class SetState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        @Param({"linkedHashSet", "compact"})
+        String impl;
+
+        String[] elements;
+        Set<String> set;
+        /** Elements that are in the set, in random order. */
+        String[] hits;
+        /** Elements that are not in the set. */
+        String[] absent;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            elements = new String[size];
+            for (int i = 0; i < size; i++) {
+                elements[i] = "element-" + i;
+            }
+            set = newSet();
+            for (String e : elements) {
+                set.add(e);
+            }
+            int[] indexes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            hits = new String[BenchmarkData.KEY_COUNT];
+            absent = new String[BenchmarkData.KEY_COUNT];
+            for (int i = 0; i < BenchmarkData.KEY_COUNT; i++) {
+                hits[i] = elements[indexes[i]];
+                absent[i] = "absent-" + i;
+            }
+        }
+
+        Set<String> newSet() {
+            return impl.equals("compact") ? new CompactLinkedHashSet<>() : new LinkedHashSet<>();
+        }
+    }
+
+    @Benchmark
+    public Set<String> fill(SetState s) {
+        Set<String> set = s.newSet();
+        for (String e : s.elements) {
+            set.add(e);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public boolean containsHit(SetState s) {
+        return s.set.contains(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public boolean containsMiss(SetState s) {
+        return s.set.contains(s.absent[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    /** Appends an absent element and removes it again; for the compact set this exercises the tombstones. */
+    @Benchmark
+    public boolean addRemove(SetState s) {
+        String e = s.absent[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.set.add(e);
+        return s.set.remove(e);
+    }
+
+    /** Removes a present element and appends it again, moving it to the end of the order. */
+    @Benchmark
+    public boolean removeAdd(SetState s) {
+        String e = s.hits[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.set.remove(e);
+        return s.set.add(e);
+    }
+
+    @Benchmark
+    public int iterate(SetState s) {
+        int sum = 0;
+        for (String e : s.set) {
+            sum += e.length();
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,155 @@
+package collections.bench;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import collections.list.PersistentVector;
+import collections.map.PersistentHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Publishing a changed snapshot: copying {@code LearnHashMap}'s {@code HashMap} or {@code LearnArrayList}'s
+ * {@code ArrayList} and changing the copy, against {@link PersistentHashMap#with} and
+ * {@link PersistentVector#with}, which share everything but the changed path. The {@code get} benchmarks show
+ * what the sharing costs readers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PersistentBenchmark {
+
+    @State(Scope.Thread)
+    public static class MapState {
+
+        @Param({"1000", "100000", "2000000"})
+        int size;
+
+        HashMap<Integer, Integer> hashMap;
+        PersistentHashMap<Integer, Integer> persistent;
+        Integer[] keys;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            hashMap = new HashMap<>();
+            PersistentHashMap.Builder<Integer, Integer> builder = PersistentHashMap.builder();
+            for (int i = 0; i < size; i++) {
+                hashMap.put(i, i);
+                builder.put(i, i);
+            }
+            persistent = builder.build();
+            keys = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size));
+        }
+
+        Integer nextKey() {
+            return keys[cursor++ & BenchmarkData.KEY_MASK];
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ListState {
+
+        @Param({"1000", "100000", "2000000"})
+        int size;
+
+        ArrayList<Integer> arrayList;
+        PersistentVector<Integer> persistent;
+        int[] indexes;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            arrayList = new ArrayList<>(size);
+            PersistentVector.Builder<Integer> builder = PersistentVector.builder();
+            for (int i = 0; i < size; i++) {
+                arrayList.add(i);
+                builder.add(i);
+            }
+            persistent = builder.build();
+            indexes = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+        }
+
+        int nextIndex() {
+            return indexes[cursor++ & BenchmarkData.KEY_MASK];
+        }
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> hashMapCopyPut(MapState s) {
+        Integer key = s.nextKey();
+        HashMap<Integer, Integer> copy = new HashMap<>(s.hashMap);
+        copy.put(key, -key);
+        return copy;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> persistentMapWith(MapState s) {
+        Integer key = s.nextKey();
+        return s.persistent.with(key, -key);
+    }
+
+    @Benchmark
+    public Integer hashMapGet(MapState s) {
+        return s.hashMap.get(s.nextKey());
+    }
+
+    @Benchmark
+    public Integer persistentMapGet(MapState s) {
+        return s.persistent.get(s.nextKey());
+    }
+
+    @Benchmark
+    public List<Integer> arrayListCopySet(ListState s) {
+        int i = s.nextIndex();
+        ArrayList<Integer> copy = new ArrayList<>(s.arrayList);
+        copy.set(i, -i);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Integer> persistentVectorWith(ListState s) {
+        int i = s.nextIndex();
+        return s.persistent.with(i, -i);
+    }
+
+    /** Copies the list and inserts into the copy at a random position. */
+    @Benchmark
+    public List<Integer> arrayListCopyInsert(ListState s) {
+        int i = s.nextIndex();
+        ArrayList<Integer> copy = new ArrayList<>(s.size + 1);
+        copy.addAll(s.arrayList);
+        copy.add(i, -i);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Integer> persistentVectorInsert(ListState s) {
+        int i = s.nextIndex();
+        return s.persistent.insert(i, -i);
+    }
+
+    @Benchmark
+    public Integer arrayListGet(ListState s) {
+        return s.arrayList.get(s.nextIndex());
+    }
+
+    @Benchmark
+    public Integer persistentVectorGet(ListState s) {
+        return s.persistent.get(s.nextIndex());
+    }
+}
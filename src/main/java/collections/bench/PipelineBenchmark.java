@@ -0,0 +1,133 @@
+package collections.bench;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import collections.pipeline.IntPipeline;
+import collections.pipeline.Pipeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One filter, two maps and the ten greatest results over a batch of records, the shape of
+ * {@code LearnCollectionsClass} and {@code LearnArrayList} code that builds a new list at every step,
+ * against {@code java.util.stream} and the fused {@link Pipeline} and {@link IntPipeline}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class PipelineBenchmark {
+
+    static final int TOP_K = 10;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    int[] values;
+    List<Integer> list;
+
+    @Setup
+    public void setUp() {
+        values = BenchmarkData.randomInts(size, Integer.MAX_VALUE);
+        list = new ArrayList<>(List.of(BenchmarkData.boxed(values)));
+    }
+
+    /** A filter loop into one list, a map loop into another, then a full descending sort of the last. */
+    @Benchmark
+    public List<Integer> materialized() {
+        List<Integer> filtered = new ArrayList<>();
+        for (Integer v : list) {
+            if ((v & 3) != 0) {
+                filtered.add(v);
+            }
+        }
+        List<Integer> mapped = new ArrayList<>(filtered.size());
+        for (Integer v : filtered) {
+            mapped.add((v >>> 1) ^ 0x5bd1e995);
+        }
+        List<Integer> shifted = new ArrayList<>(mapped.size());
+        for (Integer v : mapped) {
+            shifted.add(v % 1_000_003);
+        }
+        shifted.sort(Comparator.reverseOrder());
+        return new ArrayList<>(shifted.subList(0, Math.min(TOP_K, shifted.size())));
+    }
+
+    @Benchmark
+    public List<Integer> stream() {
+        return list.stream()
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .sorted(Comparator.reverseOrder())
+                .limit(TOP_K)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public int[] intStream() {
+        return IntStream.of(values)
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .boxed()
+                .sorted(Comparator.reverseOrder())
+                .limit(TOP_K)
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    @Benchmark
+    public List<Integer> pipeline() {
+        return Pipeline.of(list)
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .sortedTopK(TOP_K);
+    }
+
+    @Benchmark
+    public List<Integer> pipelineParallel() {
+        return Pipeline.of(list)
+                .parallel()
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .sortedTopK(TOP_K);
+    }
+
+    @Benchmark
+    public int[] intPipeline() {
+        return IntPipeline.of(values)
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .sortedTopK(TOP_K);
+    }
+
+    @Benchmark
+    public int[] intPipelineParallel() {
+        return IntPipeline.of(values)
+                .parallel()
+                .filter(v -> (v & 3) != 0)
+                .map(v -> (v >>> 1) ^ 0x5bd1e995)
+                .map(v -> v % 1_000_003)
+                .sortedTopK(TOP_K);
+    }
+}
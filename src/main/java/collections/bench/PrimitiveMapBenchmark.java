@@ -0,0 +1,258 @@
+package collections.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.IntIntHashMap;
+import collections.map.LongObjectHashMap;
+import collections.map.OffHeapLongLongHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The open-addressing {@link IntIntHashMap} and {@link LongObjectHashMap} against the chained
+ * {@code HashMap} from {@code LearnHashMap}, keyed by boxed {@code Integer}/{@code Long}. The counter
+ * benchmarks model a table of hit counts updated once per event. The {@code offHeap*} benchmarks compare
+ * {@link OffHeapLongLongHashMap} with a {@code HashMap<Long, Long>}; run them with {@code -prof gc} to see the
+ * heap the boxed map keeps alive.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class PrimitiveMapBenchmark {
+
+    @State(Scope.Thread)
+    public static class IntState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        HashMap<Integer, Integer> boxed;
+        IntIntHashMap primitive;
+        /** Keys present in both maps. */
+        int[] hits;
+        /** Keys absent from both maps. */
+        int[] misses;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            int[] keys = BenchmarkData.shuffledRange(size);
+            boxed = new HashMap<>();
+            primitive = new IntIntHashMap();
+            for (int key : keys) {
+                boxed.put(key, key);
+                primitive.put(key, key);
+            }
+            hits = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            misses = hits.clone();
+            for (int i = 0; i < misses.length; i++) {
+                misses[i] += size;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LongState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        HashMap<Long, String> boxed;
+        LongObjectHashMap<String> primitive;
+        long[] hits;
+        String value;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            value = "value";
+            int[] keys = BenchmarkData.shuffledRange(size);
+            boxed = new HashMap<>();
+            primitive = new LongObjectHashMap<>();
+            for (int key : keys) {
+                boxed.put(key * 31L, value);
+                primitive.put(key * 31L, value);
+            }
+            int[] picks = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            hits = new long[picks.length];
+            for (int i = 0; i < picks.length; i++) {
+                hits[i] = picks[i] * 31L;
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class OffHeapState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        HashMap<Long, Long> boxed;
+        OffHeapLongLongHashMap offHeap;
+        long[] hits;
+        long[] misses;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            int[] keys = BenchmarkData.shuffledRange(size);
+            boxed = new HashMap<>();
+            offHeap = new OffHeapLongLongHashMap();
+            for (int key : keys) {
+                boxed.put(key * 31L, (long) key);
+                offHeap.put(key * 31L, key);
+            }
+            int[] picks = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+            hits = new long[picks.length];
+            misses = new long[picks.length];
+            for (int i = 0; i < picks.length; i++) {
+                hits[i] = picks[i] * 31L;
+                misses[i] = picks[i] * 31L + 1;
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            offHeap.close();
+        }
+    }
+
+    @Benchmark
+    public Integer boxedCounterIncrement(IntState s) {
+        return s.boxed.merge(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], 1, Integer::sum);
+    }
+
+    @Benchmark
+    public int primitiveCounterIncrement(IntState s) {
+        return s.primitive.addTo(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], 1);
+    }
+
+    @Benchmark
+    public Integer boxedGet(IntState s) {
+        return s.boxed.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public int primitiveGet(IntState s) {
+        return s.primitive.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public Integer boxedGetMiss(IntState s) {
+        return s.boxed.get(s.misses[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public int primitiveGetMiss(IntState s) {
+        return s.primitive.getOrDefault(s.misses[s.cursor++ & BenchmarkData.KEY_MASK], -1);
+    }
+
+    /** Inserts an absent key and removes it again. */
+    @Benchmark
+    public Integer boxedPutRemove(IntState s) {
+        int key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.boxed.put(key, key);
+        return s.boxed.remove(key);
+    }
+
+    @Benchmark
+    public int primitivePutRemove(IntState s) {
+        int key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.primitive.put(key, key);
+        return s.primitive.remove(key);
+    }
+
+    @Benchmark
+    public Integer boxedPutIfAbsent(IntState s) {
+        return s.boxed.putIfAbsent(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], 0);
+    }
+
+    @Benchmark
+    public int primitivePutIfAbsent(IntState s) {
+        return s.primitive.putIfAbsent(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], 0);
+    }
+
+    @Benchmark
+    public long boxedEntrySetScan(IntState s) {
+        long sum = 0;
+        for (Map.Entry<Integer, Integer> e : s.boxed.entrySet()) {
+            sum += e.getKey() + e.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long primitiveCursorScan(IntState s) {
+        long sum = 0;
+        IntIntHashMap.Cursor c = s.primitive.cursor();
+        while (c.advance()) {
+            sum += c.key() + c.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public String boxedLongGet(LongState s) {
+        return s.boxed.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public String primitiveLongGet(LongState s) {
+        return s.primitive.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public String boxedLongPut(LongState s) {
+        return s.boxed.put(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], s.value);
+    }
+
+    @Benchmark
+    public String primitiveLongPut(LongState s) {
+        return s.primitive.put(s.hits[s.cursor++ & BenchmarkData.KEY_MASK], s.value);
+    }
+
+    @Benchmark
+    public Long boxedLongLongGet(OffHeapState s) {
+        return s.boxed.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public long offHeapGet(OffHeapState s) {
+        return s.offHeap.get(s.hits[s.cursor++ & BenchmarkData.KEY_MASK]);
+    }
+
+    @Benchmark
+    public Long boxedLongLongPutRemove(OffHeapState s) {
+        long key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.boxed.put(key, key);
+        return s.boxed.remove(key);
+    }
+
+    @Benchmark
+    public long offHeapPutRemove(OffHeapState s) {
+        long key = s.misses[s.cursor++ & BenchmarkData.KEY_MASK];
+        s.offHeap.put(key, key);
+        return s.offHeap.remove(key);
+    }
+
+    @Benchmark
+    public long offHeapScan(OffHeapState s) {
+        long[] sum = new long[1];
+        s.offHeap.forEachEntry((key, value) -> sum[0] += key + value);
+        return sum[0];
+    }
+}
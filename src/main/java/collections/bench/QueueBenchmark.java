@@ -0,0 +1,152 @@
+package collections.bench;
+
+import java.util.ArrayDeque;
+import java.util.LinkedList;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+import collections.queue.ChunkedQueue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The queue operations from {@code LearnPriorityQueue}, {@code LearnArrayDequeue} and
+ * {@code LearnLinkedListQueue}, plus {@link ChunkedQueue}, the chunked replacement for the
+ * {@code LinkedList} queue. Each call adds one element and removes one, so the queue stays at {@code size}
+ * elements. Run with {@code -prof gc} to compare allocation per operation: {@code LinkedList} allocates one
+ * node per call, {@code ChunkedQueue} nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class QueueBenchmark {
+
+    @State(Scope.Thread)
+    public static class PriorityQueueState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        PriorityQueue<Integer> queue;
+        Integer[] values;
+        int cursor;
+
+        @Setup
+        public void setUp() {
+            Integer[] initial = BenchmarkData.boxed(BenchmarkData.randomInts(size, Integer.MAX_VALUE));
+            queue = new PriorityQueue<>(size + 1);
+            for (Integer value : initial) {
+                queue.offer(value);
+            }
+            values = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, Integer.MAX_VALUE));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ArrayDequeState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        ArrayDeque<Integer> deque;
+        Integer value;
+
+        @Setup
+        public void setUp() {
+            deque = new ArrayDeque<>(size + 1);
+            for (int i = 0; i < size; i++) {
+                deque.offerLast(i);
+            }
+            value = -1;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class LinkedListState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        LinkedList<Integer> queue;
+        Integer value;
+
+        @Setup
+        public void setUp() {
+            queue = new LinkedList<>();
+            for (int i = 0; i < size; i++) {
+                queue.offer(i);
+            }
+            value = -1;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ChunkedQueueState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        ChunkedQueue<Integer> queue;
+        Integer value;
+
+        @Setup
+        public void setUp() {
+            queue = new ChunkedQueue<>();
+            for (int i = 0; i < size; i++) {
+                queue.offer(i);
+            }
+            value = -1;
+        }
+    }
+
+    /** One sift-up and one sift-down: O(log n) each. */
+    @Benchmark
+    public Integer priorityQueueOfferPoll(PriorityQueueState s) {
+        s.queue.offer(s.values[s.cursor++ & BenchmarkData.KEY_MASK]);
+        return s.queue.poll();
+    }
+
+    @Benchmark
+    public Integer priorityQueuePeek(PriorityQueueState s) {
+        return s.queue.peek();
+    }
+
+    /** Inserts at the head and removes at the tail, so the elements rotate through the circular array. */
+    @Benchmark
+    public Integer arrayDequeOfferFirstPollLast(ArrayDequeState s) {
+        s.deque.offerFirst(s.value);
+        return s.deque.pollLast();
+    }
+
+    @Benchmark
+    public Integer arrayDequeOfferPoll(ArrayDequeState s) {
+        s.deque.offer(s.value);
+        return s.deque.poll();
+    }
+
+    /** {@code LinkedList} used as a FIFO: one {@code Node} allocated per {@code offer}. */
+    @Benchmark
+    public Integer linkedListOfferPoll(LinkedListState s) {
+        s.queue.offer(s.value);
+        return s.queue.poll();
+    }
+
+    /** Same FIFO as {@link #linkedListOfferPoll}; chunks drained by {@code poll} are reused by {@code offer}. */
+    @Benchmark
+    public Integer chunkedQueueOfferPoll(ChunkedQueueState s) {
+        s.queue.offer(s.value);
+        return s.queue.poll();
+    }
+}
@@ -0,0 +1,129 @@
+package collections.bench;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.RadixTreeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link RadixTreeMap} against the {@code TreeMap<String, ...>} of {@code LearnTreeMap} on URL keys, which share
+ * long prefixes: {@code https://shop<h>.example.com/<section>/item-<n>}. Queries are copies of the stored keys,
+ * so that {@code equals} cannot succeed on identity.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class RadixTreeBenchmark {
+
+    /** Number of entries read by the prefix-scan benchmark. */
+    static final int SCAN_LENGTH = 100;
+
+    static final int HOSTS = 64;
+
+    static final String[] SECTIONS = {
+        "books", "music", "garden", "kitchen", "toys", "sports", "office", "outdoor",
+    };
+
+    @Param({"treeMap", "radixTreeMap"})
+    String impl;
+
+    @Param({"1000", "100000", "1000000"})
+    int size;
+
+    NavigableMap<String, Integer> map;
+    String[] hits;
+    /** Keys that share a stored key's path up to its last character. */
+    String[] misses;
+    /** {@code https://shop<h>.example.com/<section>/} of random entries. */
+    String[] prefixes;
+    int cursor;
+
+    static String url(int host, String section, int item) {
+        return "https://shop" + host + ".example.com/" + section + "/item-" + item;
+    }
+
+    static String prefix(int host, String section) {
+        return "https://shop" + host + ".example.com/" + section + "/";
+    }
+
+    @Setup
+    public void setUp() {
+        map = "treeMap".equals(impl) ? new TreeMap<>() : new RadixTreeMap<>();
+        SplittableRandom random = new SplittableRandom(BenchmarkData.SEED);
+        int[] hosts = new int[size];
+        String[] sections = new String[size];
+        String[] keys = new String[size];
+        for (int i : BenchmarkData.shuffledRange(size)) {
+            hosts[i] = random.nextInt(HOSTS);
+            sections[i] = SECTIONS[random.nextInt(SECTIONS.length)];
+            keys[i] = url(hosts[i], sections[i], i);
+            map.put(keys[i], i);
+        }
+        hits = new String[BenchmarkData.KEY_COUNT];
+        misses = new String[BenchmarkData.KEY_COUNT];
+        prefixes = new String[BenchmarkData.KEY_COUNT];
+        int[] picks = BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, size);
+        for (int q = 0; q < BenchmarkData.KEY_COUNT; q++) {
+            int i = picks[q];
+            hits[q] = new String(keys[i]);
+            misses[q] = keys[i] + "x";
+            prefixes[q] = prefix(hosts[i], sections[i]);
+        }
+    }
+
+    private int next() {
+        return cursor++ & BenchmarkData.KEY_MASK;
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(hits[next()]);
+    }
+
+    @Benchmark
+    public Integer getMiss() {
+        return map.get(misses[next()]);
+    }
+
+    /** Inserts a key that is never present, and removes it again. */
+    @Benchmark
+    public Integer putRemove() {
+        String key = misses[next()];
+        map.put(key, 0);
+        return map.remove(key);
+    }
+
+    /** Reads the first {@link #SCAN_LENGTH} entries whose keys start with a host and section. */
+    @Benchmark
+    public long prefixScan() {
+        String prefix = prefixes[next()];
+        NavigableMap<String, Integer> range = map instanceof RadixTreeMap
+                ? ((RadixTreeMap<Integer>) map).prefixMap(prefix)
+                : map.subMap(prefix, true, prefix.substring(0, prefix.length() - 1) + '0', false);
+        long sum = 0;
+        int n = 0;
+        for (Iterator<Map.Entry<String, Integer>> it = range.entrySet().iterator();
+                it.hasNext() && n < SCAN_LENGTH; n++) {
+            sum += it.next().getValue();
+        }
+        return sum;
+    }
+}
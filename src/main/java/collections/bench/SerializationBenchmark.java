@@ -0,0 +1,108 @@
+package collections.bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.io.BinaryReader;
+import collections.io.BinaryWriter;
+import collections.io.Codec;
+import collections.io.CollectionCodecs;
+import collections.set.RoaringIntSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link CollectionCodecs} against Java serialization on a {@code HashMap<Integer, Integer>} like the one in
+ * {@code LearnHashMap}, and the gap encoding of a {@link RoaringIntSet}. The binary benchmarks write into a
+ * reused heap buffer, so they measure encoding rather than allocation of the output.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    HashMap<Integer, Integer> map;
+    RoaringIntSet set;
+    byte[] serialized;
+    ByteBuffer buffer;
+    ByteBuffer encodedMap;
+    ByteBuffer encodedSet;
+
+    @Setup
+    public void setUp() throws IOException {
+        map = new HashMap<>();
+        set = new RoaringIntSet();
+        for (int key : BenchmarkData.shuffledRange(size)) {
+            map.put(key, key * 7);
+            set.add(key * 3);
+        }
+        serialized = javaSerializeMap();
+        buffer = ByteBuffer.allocate(24 * size + 64);
+        encodedMap = binaryWriteMap().duplicate();
+        buffer = ByteBuffer.allocate(24 * size + 64);
+        encodedSet = binaryWriteSet().duplicate();
+        buffer = ByteBuffer.allocate(24 * size + 64);
+    }
+
+    @Benchmark
+    public byte[] javaSerializeMap() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(map);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object javaDeserializeMap() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+
+    @Benchmark
+    public ByteBuffer binaryWriteMap() throws IOException {
+        buffer.clear();
+        CollectionCodecs.writeMap(new BinaryWriter(buffer), map, Codec.INTEGER, Codec.INTEGER);
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public HashMap<Integer, Integer> binaryReadMap() throws IOException {
+        return CollectionCodecs.readMap(new BinaryReader(encodedMap.duplicate()), Codec.INTEGER, Codec.INTEGER,
+                n -> new HashMap<>((int) (n / 0.75f) + 1));
+    }
+
+    @Benchmark
+    public ByteBuffer binaryWriteSet() throws IOException {
+        buffer.clear();
+        CollectionCodecs.writeRoaringIntSet(new BinaryWriter(buffer), set);
+        return buffer.flip();
+    }
+
+    @Benchmark
+    public RoaringIntSet binaryReadSet() throws IOException {
+        return CollectionCodecs.readRoaringIntSet(new BinaryReader(encodedSet.duplicate()));
+    }
+}
@@ -0,0 +1,118 @@
+package collections.bench;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import collections.map.BTreeMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link BTreeMap} against the red-black {@code TreeMap} from {@code LearnTreeMap} on the
+ * {@code NavigableMap} operations that walkthrough lists. Both maps hold the even keys
+ * {@code 0, 2, ..., 2 * (size - 1)}, so half of the random queries fall between two keys.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Thread)
+public class SortedMapBenchmark {
+
+    /** Number of entries read by the range-scan benchmarks. */
+    static final int SCAN_LENGTH = 100;
+
+    @Param({"treeMap", "bTreeMap"})
+    String impl;
+
+    @Param({"1000", "100000", "10000000"})
+    int size;
+
+    NavigableMap<Integer, Integer> map;
+    Integer[] queries;
+    int cursor;
+
+    @Setup
+    public void setUp() {
+        map = "treeMap".equals(impl) ? new TreeMap<>() : new BTreeMap<>();
+        int[] order = BenchmarkData.shuffledRange(size);
+        for (int i : order) {
+            map.put(2 * i, i);
+        }
+        queries = BenchmarkData.boxed(BenchmarkData.randomInts(BenchmarkData.KEY_COUNT, 2 * size));
+    }
+
+    private Integer nextQuery() {
+        return queries[cursor++ & BenchmarkData.KEY_MASK];
+    }
+
+    @Benchmark
+    public Integer get() {
+        return map.get(nextQuery());
+    }
+
+    @Benchmark
+    public Integer floorKey() {
+        return map.floorKey(nextQuery());
+    }
+
+    @Benchmark
+    public Integer ceilingKey() {
+        return map.ceilingKey(nextQuery());
+    }
+
+    /** Inserts an odd key, which is never present, and removes it again. */
+    @Benchmark
+    public Integer putRemove() {
+        Integer key = nextQuery() | 1;
+        map.put(key, key);
+        return map.remove(key);
+    }
+
+    /** Reads the first {@link #SCAN_LENGTH} entries of {@code tailMap(key)}. */
+    @Benchmark
+    public long tailMapScan() {
+        long sum = 0;
+        int n = 0;
+        for (Iterator<Map.Entry<Integer, Integer>> it = map.tailMap(nextQuery(), true).entrySet().iterator();
+                it.hasNext() && n < SCAN_LENGTH; n++) {
+            sum += it.next().getValue();
+        }
+        return sum;
+    }
+
+    /** Reads the last {@link #SCAN_LENGTH} entries of {@code headMap(key)}, nearest first. */
+    @Benchmark
+    public long headMapDescendingScan() {
+        long sum = 0;
+        int n = 0;
+        for (Iterator<Integer> it = map.headMap(nextQuery(), false).descendingKeySet().iterator();
+                it.hasNext() && n < SCAN_LENGTH; n++) {
+            sum += it.next();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Integer firstKey() {
+        return map.firstKey();
+    }
+
+    @Benchmark
+    public Integer lastKey() {
+        return map.lastKey();
+    }
+}
@@ -0,0 +1,210 @@
+package collections.bench;
+
+import java.util.ArrayDeque;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+
+import collections.stack.IntStack;
+import collections.stack.ObjectStack;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@code LearnStack}'s {@code java.util.Stack}, whose methods are {@code synchronized} through
+ * {@code Vector}, against the {@code ArrayDeque} that {@code LearnArrayDequeue} recommends instead, and
+ * against the unsynchronized {@link ObjectStack} and the unboxed {@link IntStack}.
+ *
+ * <p>The {@code *Burst} benchmarks push {@link #BURST} values and pop them again, the access pattern of an
+ * expression evaluator or a depth-first traversal; {@code intStackBurst} pushes them with one
+ * {@code pushAll}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StackBenchmark {
+
+    static final int BURST = 64;
+
+    @State(Scope.Thread)
+    public static class StackState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        Stack<Integer> stack;
+        Integer value;
+        Integer[] burst;
+
+        @Setup
+        public void setUp() {
+            stack = new Stack<>();
+            for (int i = 0; i < size; i++) {
+                stack.push(i);
+            }
+            value = -1;
+            burst = BenchmarkData.boxed(BenchmarkData.randomInts(BURST, Integer.MAX_VALUE));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ArrayDequeState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        ArrayDeque<Integer> deque;
+        Integer value;
+        Integer[] burst;
+
+        @Setup
+        public void setUp() {
+            deque = new ArrayDeque<>(size + BURST);
+            for (int i = 0; i < size; i++) {
+                deque.push(i);
+            }
+            value = -1;
+            burst = BenchmarkData.boxed(BenchmarkData.randomInts(BURST, Integer.MAX_VALUE));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ObjectStackState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        ObjectStack<Integer> stack;
+        Integer value;
+        Integer[] burst;
+
+        @Setup
+        public void setUp() {
+            stack = new ObjectStack<>(size + BURST);
+            for (int i = 0; i < size; i++) {
+                stack.push(i);
+            }
+            value = -1;
+            burst = BenchmarkData.boxed(BenchmarkData.randomInts(BURST, Integer.MAX_VALUE));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class IntStackState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        IntStack stack;
+        int value;
+        int[] burst;
+
+        @Setup
+        public void setUp() {
+            stack = new IntStack(size + BURST);
+            for (int i = 0; i < size; i++) {
+                stack.push(i);
+            }
+            value = -1;
+            burst = BenchmarkData.randomInts(BURST, Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public Integer stackPushPop(StackState s) {
+        s.stack.push(s.value);
+        return s.stack.pop();
+    }
+
+    @Benchmark
+    public Integer stackPeek(StackState s) {
+        return s.stack.peek();
+    }
+
+    @Benchmark
+    public Integer arrayDequePushPop(ArrayDequeState s) {
+        s.deque.push(s.value);
+        return s.deque.pop();
+    }
+
+    @Benchmark
+    public Integer objectStackPushPop(ObjectStackState s) {
+        s.stack.push(s.value);
+        return s.stack.pop();
+    }
+
+    @Benchmark
+    public Integer objectStackPeek(ObjectStackState s) {
+        return s.stack.peek();
+    }
+
+    @Benchmark
+    public int intStackPushPop(IntStackState s) {
+        s.stack.push(s.value);
+        return s.stack.pop();
+    }
+
+    @Benchmark
+    public int intStackPeek(IntStackState s) {
+        return s.stack.peek();
+    }
+
+    @Benchmark
+    public int stackBurst(StackState s) {
+        Stack<Integer> stack = s.stack;
+        for (Integer v : s.burst) {
+            stack.push(v);
+        }
+        int sum = 0;
+        for (int i = 0; i < BURST; i++) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int arrayDequeBurst(ArrayDequeState s) {
+        ArrayDeque<Integer> deque = s.deque;
+        for (Integer v : s.burst) {
+            deque.push(v);
+        }
+        int sum = 0;
+        for (int i = 0; i < BURST; i++) {
+            sum += deque.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int objectStackBurst(ObjectStackState s) {
+        ObjectStack<Integer> stack = s.stack;
+        stack.pushAll(s.burst);
+        int sum = 0;
+        for (int i = 0; i < BURST; i++) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int intStackBurst(IntStackState s) {
+        IntStack stack = s.stack;
+        stack.pushAll(s.burst);
+        int sum = 0;
+        for (int i = 0; i < BURST; i++) {
+            sum += stack.pop();
+        }
+        return sum;
+    }
+}
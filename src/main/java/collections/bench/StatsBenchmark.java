@@ -0,0 +1,88 @@
+package collections.bench;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import collections.stats.Aggregator;
+import collections.stats.IntAggregator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * The statistics {@code LearnCollectionsClass} computes (minimum, maximum, the frequency of a value and the
+ * greatest elements) as separate {@code Collections} calls, against one {@link Aggregator} or
+ * {@link IntAggregator} pass. Values are drawn from {@link #DISTINCT} distinct values so the histogram stays
+ * small relative to the input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StatsBenchmark {
+
+    static final int DISTINCT = 1 << 10;
+    static final int TOP_K = 10;
+
+    @State(Scope.Thread)
+    public static class StatsState {
+
+        @Param({"1000", "100000", "10000000"})
+        int size;
+
+        int[] values;
+        List<Integer> list;
+        Integer probe;
+
+        @Setup
+        public void setUp() {
+            values = BenchmarkData.randomInts(size, DISTINCT);
+            list = new ArrayList<>(List.of(BenchmarkData.boxed(values)));
+            probe = values[0];
+        }
+    }
+
+    /** Three scans and a full descending sort of a copy, as {@code LearnCollectionsClass} would do it. */
+    @Benchmark
+    public void collectionsScans(StatsState s, Blackhole bh) {
+        bh.consume(Collections.min(s.list));
+        bh.consume(Collections.max(s.list));
+        bh.consume(Collections.frequency(s.list, s.probe));
+        List<Integer> sorted = new ArrayList<>(s.list);
+        sorted.sort(Comparator.reverseOrder());
+        bh.consume(new ArrayList<>(sorted.subList(0, Math.min(TOP_K, sorted.size()))));
+    }
+
+    @Benchmark
+    public Aggregator<Integer> aggregator(StatsState s) {
+        return Aggregator.of(s.list, TOP_K, true);
+    }
+
+    @Benchmark
+    public Aggregator<Integer> aggregatorParallel(StatsState s) {
+        return Aggregator.ofParallel(s.list, TOP_K, true);
+    }
+
+    @Benchmark
+    public IntAggregator intAggregator(StatsState s) {
+        return IntAggregator.of(s.values, TOP_K, true);
+    }
+
+    @Benchmark
+    public IntAggregator intAggregatorParallel(StatsState s) {
+        return IntAggregator.ofParallel(s.values, TOP_K, true);
+    }
+}
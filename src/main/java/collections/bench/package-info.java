@@ -0,0 +1,19 @@
+/**
+ * JMH benchmarks for the structures demonstrated by the {@code Learn*} walkthroughs.
+ *
+ * <p>Build the self-contained benchmark jar and run everything, or a single class:
+ * <pre>
+ * mvn -B package
+ * java -jar target/benchmarks.jar
+ * java -jar target/benchmarks.jar ListBenchmark -p size=1000,100000
+ * </pre>
+ *
+ * <p>Add {@code -prof gc} to report allocation per operation ({@code gc.alloc.rate.norm}) next to the
+ * ns/op score; boxed collections show their per-element node and {@code Integer} cost there.
+ *
+ * <p>Every benchmark keeps its structure at a steady {@code size} (1K to 10M elements) by pairing each
+ * insertion with a removal, so the score reflects the cost at that size rather than a growing one. Keys and
+ * values are drawn up front from {@link collections.bench.BenchmarkData} so that random number generation
+ * and boxing stay out of the measured region.
+ */
+package collections.bench;
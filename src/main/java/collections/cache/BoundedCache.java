@@ -0,0 +1,187 @@
+package collections.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A single-threaded cache bounded by entry count or total weight, with optional expiry after write.
+ *
+ * <p>{@code LearnLinkedHashSet} shows a hash table whose entries are also linked in insertion order.
+ * {@code LinkedHashMap} can link them in access order instead, and with {@code removeEldestEntry} that makes
+ * an LRU cache. This class does the same with a {@code HashMap} of entries linked by {@link EvictionQueues},
+ * which adds what {@code LinkedHashMap} cannot: weights, a time to live, hit, miss and eviction counters, and
+ * the scan-resistant {@link EvictionPolicy#W_TINY_LFU} policy. Every operation is O(1).
+ *
+ * <p>Expired entries are never returned. They are removed when a read finds them, and otherwise at the next
+ * {@link #put} or {@link #cleanUp}. Not thread-safe; see {@link ConcurrentBoundedCache}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class BoundedCache<K, V> implements Cache<K, V> {
+
+    private final HashMap<K, Node<K, V>> data = new HashMap<>();
+    private final EvictionQueues<K, V> queues;
+    /** {@code null} if every entry weighs 1. */
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private long hitCount;
+    private long missCount;
+
+    /**
+     * Creates an LRU cache of at most {@code maximumSize} entries that never expire.
+     *
+     * @throws IllegalArgumentException if {@code maximumSize} is negative
+     */
+    public BoundedCache(long maximumSize) {
+        this(maximumSize, EvictionPolicy.LRU);
+    }
+
+    /** @throws IllegalArgumentException if {@code maximumSize} is negative */
+    public BoundedCache(long maximumSize, EvictionPolicy policy) {
+        this(maximumSize, null, policy, null);
+    }
+
+    /**
+     * @param maximumWeight    bound on the total weight of the entries
+     * @param weigher          the weight of an entry, computed when it is written; {@code null} to weigh every
+     *                         entry 1, so that {@code maximumWeight} bounds the number of entries
+     * @param expireAfterWrite how long after a value is written it expires; {@code null} for never
+     * @throws IllegalArgumentException if {@code maximumWeight} is negative or {@code expireAfterWrite} is not
+     *                                  positive
+     */
+    public BoundedCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, EvictionPolicy policy,
+                        Duration expireAfterWrite) {
+        this(maximumWeight, weigher, policy, expireAfterWrite, System::nanoTime);
+    }
+
+    BoundedCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, EvictionPolicy policy,
+                 Duration expireAfterWrite, LongSupplier ticker) {
+        this.weigher = weigher;
+        this.queues = new EvictionQueues<>(data, checkMaximum(maximumWeight), Objects.requireNonNull(policy),
+                expireAfterWriteNanos(expireAfterWrite), ticker);
+    }
+
+    static long checkMaximum(long maximumWeight) {
+        if (maximumWeight < 0) {
+            throw new IllegalArgumentException("Illegal maximum weight: " + maximumWeight);
+        }
+        return maximumWeight;
+    }
+
+    static long expireAfterWriteNanos(Duration expireAfterWrite) {
+        if (expireAfterWrite == null) {
+            return Long.MAX_VALUE;
+        }
+        if (expireAfterWrite.isNegative() || expireAfterWrite.isZero()) {
+            throw new IllegalArgumentException("Illegal expiry: " + expireAfterWrite);
+        }
+        try {
+            return expireAfterWrite.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    static <K, V> int weigh(ToIntBiFunction<? super K, ? super V> weigher, K key, V value) {
+        if (weigher == null) {
+            return 1;
+        }
+        int weight = weigher.applyAsInt(key, value);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Illegal weight: " + weight);
+        }
+        return weight;
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount++;
+            return null;
+        }
+        if (queues.hasExpired(node)) {
+            queues.expire(node);
+            missCount++;
+            return null;
+        }
+        hitCount++;
+        queues.recordAccess(node);
+        return node.value;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(loader);
+        V value = getIfPresent(key);
+        if (value == null) {
+            value = loader.apply(key);
+            if (value != null) {
+                put(key, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    public void put(K key, V value) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int weight = weigh(weigher, key, value);
+        long now = queues.now();
+        queues.expire(now);
+        Node<K, V> node = data.get(key);
+        if (node != null) {
+            node.value = value;
+            node.writeTime = now;
+            queues.update(node, weight);
+        } else {
+            node = new Node<>(key, value, weight, now);
+            data.put(key, node);
+            queues.add(node);
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        Node<K, V> node = data.remove(key);
+        if (node != null) {
+            queues.remove(node);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        data.clear();
+        queues.clear();
+    }
+
+    @Override
+    public void cleanUp() {
+        queues.expire(queues.now());
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        return queues.weightedSize();
+    }
+
+    @Override
+    public long maximumWeight() {
+        return queues.maximumWeight();
+    }
+
+    @Override
+    public CacheStats stats() {
+        return queues.stats(hitCount, missCount);
+    }
+}
@@ -0,0 +1,45 @@
+package collections.cache;
+
+import java.util.function.Function;
+
+/**
+ * A bounded key-value cache: a map that discards entries on its own, when they no longer fit or have expired.
+ *
+ * <p>Implementations are {@link BoundedCache}, for one thread, and {@link ConcurrentBoundedCache}. Neither
+ * keys nor values may be {@code null}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public interface Cache<K, V> {
+
+    /** Returns the value cached for {@code key}, or {@code null} if it is absent or expired. */
+    V getIfPresent(K key);
+
+    /**
+     * Returns the value cached for {@code key}, first computing it with {@code loader} and caching it if it is
+     * absent or expired. If {@code loader} returns {@code null}, nothing is cached and {@code null} is returned.
+     */
+    V get(K key, Function<? super K, ? extends V> loader);
+
+    /** Caches {@code value} for {@code key}, replacing any previous value, and evicts entries if over the bound. */
+    void put(K key, V value);
+
+    /** Discards the entry for {@code key}, if any. Does not count as an eviction. */
+    void invalidate(K key);
+
+    void invalidateAll();
+
+    /** Removes expired entries and applies any pending bookkeeping now rather than during later operations. */
+    void cleanUp();
+
+    /** Number of entries, which may include expired entries not yet removed. */
+    int size();
+
+    /** Sum of the weights of the entries; their number if the cache has no weigher. */
+    long weightedSize();
+
+    long maximumWeight();
+
+    CacheStats stats();
+}
@@ -0,0 +1,63 @@
+package collections.cache;
+
+/**
+ * A snapshot of a cache's counters since it was created.
+ *
+ * <p>A read is a hit if it found a live value and a miss otherwise, including when the value had expired.
+ * Evictions are entries discarded to respect the bound; expirations are entries discarded because they were
+ * older than the time to live. Neither includes {@link Cache#invalidate invalidated} entries.
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long evictionWeight;
+    private final long expirationCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long evictionWeight, long expirationCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.evictionWeight = evictionWeight;
+        this.expirationCount = expirationCount;
+    }
+
+    public long hitCount() {
+        return hitCount;
+    }
+
+    public long missCount() {
+        return missCount;
+    }
+
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /** The fraction of reads that were hits; 1 if there were no reads. */
+    public double hitRate() {
+        long requests = requestCount();
+        return requests == 0 ? 1 : (double) hitCount / requests;
+    }
+
+    public long evictionCount() {
+        return evictionCount;
+    }
+
+    /** Sum of the weights of the evicted entries. */
+    public long evictionWeight() {
+        return evictionWeight;
+    }
+
+    public long expirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hits=" + hitCount + ", misses=" + missCount
+                + ", hitRate=" + String.format("%.3f", hitRate()) + ", evictions=" + evictionCount
+                + ", evictionWeight=" + evictionWeight + ", expirations=" + expirationCount + '}';
+    }
+}
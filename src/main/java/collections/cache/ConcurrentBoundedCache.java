@@ -0,0 +1,214 @@
+package collections.cache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A thread-safe {@link BoundedCache} whose reads never lock.
+ *
+ * <p>A {@code LinkedHashMap} in access order changes its linked list on every {@code get}, so a cache built
+ * on it must lock reads as well as writes, and every thread then queues on that one lock. Here the entries
+ * live in a {@code ConcurrentHashMap}, which readers use without locking, and the eviction queues sit behind a
+ * lock. A read records the entry in a striped {@link ReadBuffer} and moves on. Whoever next takes the lock
+ * replays the buffered reads into the queues: a writer, which always locks, or a reader that finds its stripe
+ * filling up and the lock free. When the buffer is full, reads are dropped rather than waited for, so the
+ * eviction order is approximate under heavy contention, but a popular entry is still read often enough to be
+ * recorded.
+ *
+ * <p>Hit and miss counts are kept in {@link LongAdder}s. {@link #get(Object, Function)} calls the loader
+ * without holding the lock, so concurrent misses for one key may each call it; the first value to be cached
+ * wins and is returned to all of them.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of cached values
+ */
+public class ConcurrentBoundedCache<K, V> implements Cache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> data = new ConcurrentHashMap<>();
+    /** Guarded by {@link #lock}. */
+    private final EvictionQueues<K, V> queues;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReadBuffer<Node<K, V>> readBuffer = new ReadBuffer<>();
+    private final ToIntBiFunction<? super K, ? super V> weigher;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /** @throws IllegalArgumentException if {@code maximumSize} is negative */
+    public ConcurrentBoundedCache(long maximumSize) {
+        this(maximumSize, EvictionPolicy.LRU);
+    }
+
+    /** @throws IllegalArgumentException if {@code maximumSize} is negative */
+    public ConcurrentBoundedCache(long maximumSize, EvictionPolicy policy) {
+        this(maximumSize, null, policy, null);
+    }
+
+    /**
+     * See {@link BoundedCache#BoundedCache(long, ToIntBiFunction, EvictionPolicy, Duration)}.
+     *
+     * @throws IllegalArgumentException if {@code maximumWeight} is negative or {@code expireAfterWrite} is not
+     *                                  positive
+     */
+    public ConcurrentBoundedCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher,
+                                  EvictionPolicy policy, Duration expireAfterWrite) {
+        this(maximumWeight, weigher, policy, expireAfterWrite, System::nanoTime);
+    }
+
+    ConcurrentBoundedCache(long maximumWeight, ToIntBiFunction<? super K, ? super V> weigher, EvictionPolicy policy,
+                           Duration expireAfterWrite, LongSupplier ticker) {
+        this.weigher = weigher;
+        this.queues = new EvictionQueues<>(data, BoundedCache.checkMaximum(maximumWeight),
+                Objects.requireNonNull(policy), BoundedCache.expireAfterWriteNanos(expireAfterWrite), ticker);
+    }
+
+    @Override
+    public V getIfPresent(K key) {
+        Node<K, V> node = data.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        V value = node.value;
+        if (queues.hasExpired(node)) {
+            missCount.increment();
+            tryMaintenance();
+            return null;
+        }
+        hitCount.increment();
+        if (readBuffer.offer(node)) {
+            tryMaintenance();
+        }
+        return value;
+    }
+
+    @Override
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Objects.requireNonNull(loader);
+        V value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.apply(key);
+        return value == null ? null : put(key, value, true);
+    }
+
+    @Override
+    public void put(K key, V value) {
+        put(key, value, false);
+    }
+
+    /** Caches {@code value} and returns it, or if {@code onlyIfAbsent} and a live value is cached, returns that. */
+    private V put(K key, V value, boolean onlyIfAbsent) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(value);
+        int weight = BoundedCache.weigh(weigher, key, value);
+        lock.lock();
+        try {
+            long now = queues.now();
+            maintenance(now);
+            Node<K, V> node = data.get(key);
+            if (node != null) {
+                if (onlyIfAbsent) {
+                    return node.value;
+                }
+                node.value = value;
+                node.writeTime = now;
+                queues.update(node, weight);
+            } else {
+                node = new Node<>(key, value, weight, now);
+                data.put(key, node);
+                queues.add(node);
+            }
+            return value;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidate(K key) {
+        lock.lock();
+        try {
+            Node<K, V> node = data.remove(key);
+            if (node != null) {
+                queues.remove(node);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            data.clear();
+            queues.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void cleanUp() {
+        lock.lock();
+        try {
+            maintenance(queues.now());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Replays buffered reads and removes expired entries, unless another thread holds the lock. */
+    private void tryMaintenance() {
+        if (!lock.isLocked() && lock.tryLock()) {
+            try {
+                maintenance(queues.now());
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void maintenance(long now) {
+        readBuffer.drainTo(queues::recordAccess);
+        queues.expire(now);
+    }
+
+    @Override
+    public int size() {
+        return data.size();
+    }
+
+    @Override
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return queues.weightedSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long maximumWeight() {
+        return queues.maximumWeight();
+    }
+
+    /** A snapshot of the counters; takes the lock, so do not call it on every operation. */
+    @Override
+    public CacheStats stats() {
+        lock.lock();
+        try {
+            return queues.stats(hitCount.sum(), missCount.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package collections.cache;
+
+/** Which entry a full cache discards to make room. */
+public enum EvictionPolicy {
+
+    /**
+     * Least recently used: the entry read or written longest ago, as a {@code LinkedHashMap} in access order
+     * with {@code removeEldestEntry} would discard it.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU (Einziger, Friedman and Manes): new entries pass through a small LRU window, one percent of
+     * the bound, and then only displace an entry of the main area if a frequency sketch has seen them more often.
+     * The main area is a segmented LRU whose protected part holds entries read again after admission. A scan of
+     * keys that are each read once therefore cannot flush the frequently used entries, as it would under
+     * {@link #LRU}.
+     */
+    W_TINY_LFU
+}
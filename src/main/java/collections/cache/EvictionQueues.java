@@ -0,0 +1,322 @@
+package collections.cache;
+
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * The eviction state shared by {@link BoundedCache} and {@link ConcurrentBoundedCache}: the entries in access
+ * order, their weights, the frequency sketch and the expiry queue. Not thread-safe; the concurrent cache only
+ * calls it while holding its lock.
+ *
+ * <p>The access order is kept the way {@code LinkedHashMap} keeps it in access-order mode: every entry is
+ * linked into a doubly linked list, and a read or write moves it to the tail, so the head is the least
+ * recently used. Under {@link EvictionPolicy#LRU} there is one such list, the window. Under
+ * {@link EvictionPolicy#W_TINY_LFU} there are three: the window, and the probation and protected segments of
+ * the main area. Entries leaving the window join the tail of probation as candidates, and a candidate that
+ * does not fit stays only if the sketch rates it above the entry at the head of probation. A second access
+ * promotes a probation entry to protected, whose least recently used entries are demoted back to probation
+ * once the segment exceeds 80% of the main area.
+ *
+ * <p>When entries expire, they are also linked in write order, so expired entries are always at the head of
+ * that list and can be removed without scanning.
+ */
+final class EvictionQueues<K, V> {
+
+    private final Map<K, Node<K, V>> data;
+    private final long maximumWeight;
+    private final long windowMaximum;
+    private final long protectedMaximum;
+    /** {@code null} under {@link EvictionPolicy#LRU}. */
+    private final FrequencySketch sketch;
+    /** {@link Long#MAX_VALUE} if entries do not expire. */
+    private final long expireAfterWriteNanos;
+    private final LongSupplier ticker;
+
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] heads = (Node<K, V>[]) new Node<?, ?>[3];
+    @SuppressWarnings("unchecked")
+    private final Node<K, V>[] tails = (Node<K, V>[]) new Node<?, ?>[3];
+    private final long[] weights = new long[3];
+    private Node<K, V> writeHead;
+    private Node<K, V> writeTail;
+    private long weightedSize;
+
+    private long evictionCount;
+    private long evictionWeight;
+    private long expirationCount;
+
+    /**
+     * @param data                  the owner's map, from which evicted entries are removed
+     * @param expireAfterWriteNanos how long a value lives after it is written, or {@link Long#MAX_VALUE}
+     */
+    EvictionQueues(Map<K, Node<K, V>> data, long maximumWeight, EvictionPolicy policy, long expireAfterWriteNanos,
+                   LongSupplier ticker) {
+        this.data = data;
+        this.maximumWeight = maximumWeight;
+        if (policy == EvictionPolicy.W_TINY_LFU) {
+            this.windowMaximum = Math.max(1, maximumWeight / 100);
+            this.protectedMaximum = (maximumWeight - windowMaximum) / 5 * 4;
+            this.sketch = new FrequencySketch(maximumWeight);
+        } else {
+            this.windowMaximum = maximumWeight;
+            this.protectedMaximum = 0;
+            this.sketch = null;
+        }
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.ticker = ticker;
+    }
+
+    long maximumWeight() {
+        return maximumWeight;
+    }
+
+    long weightedSize() {
+        return weightedSize;
+    }
+
+    /** The ticker reading, or 0 if entries never expire and the time is not needed. */
+    long now() {
+        return expires() ? ticker.getAsLong() : 0;
+    }
+
+    /** Whether {@code node} has expired; safe to call without the lock, and free if entries never expire. */
+    boolean hasExpired(Node<K, V> node) {
+        return expires() && hasExpired(node, ticker.getAsLong());
+    }
+
+    private boolean hasExpired(Node<K, V> node, long now) {
+        return now - node.writeTime >= expireAfterWriteNanos;
+    }
+
+    private boolean expires() {
+        return expireAfterWriteNanos != Long.MAX_VALUE;
+    }
+
+    CacheStats stats(long hitCount, long missCount) {
+        return new CacheStats(hitCount, missCount, evictionCount, evictionWeight, expirationCount);
+    }
+
+    // ---- Events from the owner ----
+
+    /** Links a node the owner has just put into its map, then evicts as needed. */
+    void add(Node<K, V> node) {
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        node.queue = Node.WINDOW;
+        linkLast(node);
+        weights[Node.WINDOW] += node.weight;
+        weightedSize += node.weight;
+        if (expires()) {
+            linkLastWrite(node);
+        }
+        evictOversized(node);
+        evict();
+    }
+
+    /** Records a read of {@code node}. Ignores nodes removed since the read. */
+    void recordAccess(Node<K, V> node) {
+        if (node.queue == Node.DEAD) {
+            return;
+        }
+        if (sketch != null) {
+            sketch.increment(node.key);
+        }
+        if (node.queue == Node.PROBATION) {
+            unlink(node);
+            weights[Node.PROBATION] -= node.weight;
+            node.queue = Node.PROTECTED;
+            linkLast(node);
+            weights[Node.PROTECTED] += node.weight;
+            demoteProtected();
+        } else {
+            moveToTail(node);
+        }
+    }
+
+    /** Records that the owner replaced the value of a live {@code node}, whose weight is now {@code weight}. */
+    void update(Node<K, V> node, int weight) {
+        int delta = weight - node.weight;
+        node.weight = weight;
+        weights[node.queue] += delta;
+        weightedSize += delta;
+        if (expires()) {
+            unlinkWrite(node);
+            linkLastWrite(node);
+        }
+        recordAccess(node);
+        evictOversized(node);
+        evict();
+    }
+
+    /** Unlinks a node the owner has removed from its map. */
+    void remove(Node<K, V> node) {
+        unlink(node);
+        weights[node.queue] -= node.weight;
+        weightedSize -= node.weight;
+        if (expires()) {
+            unlinkWrite(node);
+        }
+        node.queue = Node.DEAD;
+    }
+
+    /** Removes every entry that has expired at time {@code now}. */
+    void expire(long now) {
+        while (writeHead != null && hasExpired(writeHead, now)) {
+            expirationCount++;
+            discard(writeHead);
+        }
+    }
+
+    /** Removes an expired {@code node} found by a read. */
+    void expire(Node<K, V> node) {
+        if (node.queue != Node.DEAD) {
+            expirationCount++;
+            discard(node);
+        }
+    }
+
+    void clear() {
+        for (int q = 0; q < heads.length; q++) {
+            for (Node<K, V> node = heads[q]; node != null; node = node.next) {
+                node.queue = Node.DEAD;
+            }
+            heads[q] = tails[q] = null;
+            weights[q] = 0;
+        }
+        writeHead = writeTail = null;
+        weightedSize = 0;
+        if (sketch != null) {
+            sketch.clear();
+        }
+    }
+
+    // ---- Eviction ----
+
+    private void discard(Node<K, V> node) {
+        data.remove(node.key, node);
+        remove(node);
+    }
+
+    private void evictNode(Node<K, V> node) {
+        evictionCount++;
+        evictionWeight += node.weight;
+        discard(node);
+    }
+
+    /** Evicts {@code node} at once if it alone exceeds the bound, rather than flushing the cache first. */
+    private void evictOversized(Node<K, V> node) {
+        if (node.weight > maximumWeight) {
+            evictNode(node);
+        }
+    }
+
+    private void evict() {
+        if (sketch != null) {
+            while (weights[Node.WINDOW] > windowMaximum) {
+                Node<K, V> candidate = heads[Node.WINDOW];
+                unlink(candidate);
+                weights[Node.WINDOW] -= candidate.weight;
+                candidate.queue = Node.PROBATION;
+                linkLast(candidate);
+                weights[Node.PROBATION] += candidate.weight;
+                admit(candidate);
+            }
+        }
+        while (weightedSize > maximumWeight) {
+            Node<K, V> victim = heads[Node.PROBATION] != null ? heads[Node.PROBATION]
+                    : heads[Node.PROTECTED] != null ? heads[Node.PROTECTED] : heads[Node.WINDOW];
+            evictNode(victim);
+        }
+    }
+
+    /**
+     * Lets a candidate that has just left the window stay only as long as the cache is over its bound and the
+     * candidate is seen more often than the least recently used entry of the main area.
+     */
+    private void admit(Node<K, V> candidate) {
+        while (weightedSize > maximumWeight && candidate.queue != Node.DEAD) {
+            Node<K, V> victim = heads[Node.PROBATION] != candidate ? heads[Node.PROBATION] : heads[Node.PROTECTED];
+            if (victim == null || sketch.frequency(candidate.key) <= sketch.frequency(victim.key)) {
+                evictNode(candidate);
+            } else {
+                evictNode(victim);
+            }
+        }
+    }
+
+    private void demoteProtected() {
+        while (weights[Node.PROTECTED] > protectedMaximum) {
+            Node<K, V> node = heads[Node.PROTECTED];
+            unlink(node);
+            weights[Node.PROTECTED] -= node.weight;
+            node.queue = Node.PROBATION;
+            linkLast(node);
+            weights[Node.PROBATION] += node.weight;
+        }
+    }
+
+    // ---- Linked lists ----
+
+    private void linkLast(Node<K, V> node) {
+        Node<K, V> tail = tails[node.queue];
+        node.previous = tail;
+        node.next = null;
+        if (tail == null) {
+            heads[node.queue] = node;
+        } else {
+            tail.next = node;
+        }
+        tails[node.queue] = node;
+    }
+
+    private void unlink(Node<K, V> node) {
+        Node<K, V> previous = node.previous;
+        Node<K, V> next = node.next;
+        if (previous == null) {
+            heads[node.queue] = next;
+        } else {
+            previous.next = next;
+        }
+        if (next == null) {
+            tails[node.queue] = previous;
+        } else {
+            next.previous = previous;
+        }
+        node.previous = node.next = null;
+    }
+
+    private void moveToTail(Node<K, V> node) {
+        if (tails[node.queue] != node) {
+            unlink(node);
+            linkLast(node);
+        }
+    }
+
+    private void linkLastWrite(Node<K, V> node) {
+        node.previousWrite = writeTail;
+        node.nextWrite = null;
+        if (writeTail == null) {
+            writeHead = node;
+        } else {
+            writeTail.nextWrite = node;
+        }
+        writeTail = node;
+    }
+
+    private void unlinkWrite(Node<K, V> node) {
+        Node<K, V> previous = node.previousWrite;
+        Node<K, V> next = node.nextWrite;
+        if (previous == null) {
+            writeHead = next;
+        } else {
+            previous.nextWrite = next;
+        }
+        if (next == null) {
+            writeTail = previous;
+        } else {
+            next.previousWrite = previous;
+        }
+        node.previousWrite = node.nextWrite = null;
+    }
+}
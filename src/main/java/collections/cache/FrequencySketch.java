@@ -0,0 +1,87 @@
+package collections.cache;
+
+import java.util.Arrays;
+
+/**
+ * An approximate count of how often each key has been seen recently: a count-min sketch of 4-bit counters,
+ * sixteen to a {@code long}, which halves every counter after a sample of ten increments per slot so that old
+ * popularity fades.
+ *
+ * <p>Each key maps to one counter in each of four rows of the table, and its frequency is the smallest of
+ * them. Collisions can only raise the estimate, never lower it, and saturating at 15 is enough to compare
+ * a new key against an incumbent.
+ */
+final class FrequencySketch {
+
+    private static final long[] SEEDS = {
+            0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+    /** Clears the bit each counter receives from its neighbour when the whole word is shifted right by one. */
+    private static final long HALF_MASK = 0x7777_7777_7777_7777L;
+    private static final int MAX_FREQUENCY = 15;
+
+    private final long[] table;
+    private final int tableMask;
+    private final int sampleSize;
+    private int additions;
+
+    /** @param expectedKeys number of keys the cache holds, which sizes the table at about one word per key */
+    FrequencySketch(long expectedKeys) {
+        int words = (int) Math.min(Math.max(expectedKeys, 8), 1 << 26);
+        words = Integer.highestOneBit(words - 1) << 1;
+        table = new long[words];
+        tableMask = words - 1;
+        sampleSize = 10 * words;
+    }
+
+    private static long spread(Object key) {
+        long h = key.hashCode() * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    /** Picks the word in row {@code row}, in the low bits, and the counter within it, in bits 32 to 35. */
+    private static long position(long hash, int row) {
+        long h = (hash + SEEDS[row]) * SEEDS[row];
+        return h ^ (h >>> 31);
+    }
+
+    int frequency(Object key) {
+        long hash = spread(key);
+        int frequency = MAX_FREQUENCY;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long p = position(hash, row);
+            int shift = ((int) (p >>> 32) & 15) << 2;
+            frequency = Math.min(frequency, (int) (table[(int) p & tableMask] >>> shift) & 15);
+        }
+        return frequency;
+    }
+
+    void increment(Object key) {
+        long hash = spread(key);
+        boolean added = false;
+        for (int row = 0; row < SEEDS.length; row++) {
+            long p = position(hash, row);
+            int index = (int) p & tableMask;
+            int shift = ((int) (p >>> 32) & 15) << 2;
+            if (((table[index] >>> shift) & 15) < MAX_FREQUENCY) {
+                table[index] += 1L << shift;
+                added = true;
+            }
+        }
+        if (added && ++additions == sampleSize) {
+            age();
+        }
+    }
+
+    /** Halves every counter. */
+    private void age() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & HALF_MASK;
+        }
+        additions >>>= 1;
+    }
+
+    void clear() {
+        Arrays.fill(table, 0);
+        additions = 0;
+    }
+}
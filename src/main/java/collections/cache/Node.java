@@ -0,0 +1,34 @@
+package collections.cache;
+
+/**
+ * A cache entry, linked into one of the access-order queues of {@link EvictionQueues} and, if entries expire,
+ * into its write-order queue. Only {@link #value} and {@link #writeTime} are read without holding the owner's
+ * lock; everything else belongs to the eviction queues.
+ */
+final class Node<K, V> {
+
+    static final byte WINDOW = 0;
+    static final byte PROBATION = 1;
+    static final byte PROTECTED = 2;
+    /** Removed from the cache; buffered reads of it are ignored. */
+    static final byte DEAD = 3;
+
+    final K key;
+    volatile V value;
+    /** The ticker reading when the value was written. */
+    volatile long writeTime;
+    int weight;
+    byte queue;
+
+    Node<K, V> previous;
+    Node<K, V> next;
+    Node<K, V> previousWrite;
+    Node<K, V> nextWrite;
+
+    Node(K key, V value, int weight, long writeTime) {
+        this.key = key;
+        this.value = value;
+        this.weight = weight;
+        this.writeTime = writeTime;
+    }
+}
@@ -0,0 +1,89 @@
+package collections.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * A striped, lossy, multi-producer single-consumer buffer of reads awaiting replay into the eviction queues.
+ *
+ * <p>Readers pick a stripe by thread, so different threads rarely touch the same counters, and claim a slot
+ * with one CAS. A reader that finds its stripe full, or loses the CAS to another reader, drops its read rather
+ * than wait: the access order only has to be approximately right, and a hot entry is recorded by its next
+ * read. The buffer is drained by whichever thread holds the cache's lock.
+ */
+final class ReadBuffer<E> {
+
+    static final int STRIPE_CAPACITY = 16;
+    private static final int STRIPE_MASK = STRIPE_CAPACITY - 1;
+    /** A reader that fills its stripe this far asks for a drain. */
+    private static final int DRAIN_THRESHOLD = STRIPE_CAPACITY / 2;
+    private static final int MAX_STRIPES = 64;
+
+    private final Stripe<E>[] stripes;
+    private final int stripeMask;
+
+    @SuppressWarnings("unchecked")
+    ReadBuffer() {
+        int n = Math.min(4 * Runtime.getRuntime().availableProcessors(), MAX_STRIPES);
+        n = Integer.highestOneBit(n - 1) << 1;
+        stripes = (Stripe<E>[]) new Stripe<?>[Math.max(n, 1)];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        stripeMask = stripes.length - 1;
+    }
+
+    /**
+     * Records {@code e} if there is room in the calling thread's stripe.
+     *
+     * @return whether the stripe is filling up and should be drained
+     */
+    boolean offer(E e) {
+        int h = (int) Thread.currentThread().getId() * 0x9E3779B9;
+        return stripes[(h ^ (h >>> 16)) & stripeMask].offer(e);
+    }
+
+    /** Passes every published element to {@code consumer}. Must only be called by one thread at a time. */
+    void drainTo(Consumer<? super E> consumer) {
+        for (Stripe<E> stripe : stripes) {
+            stripe.drainTo(consumer);
+        }
+    }
+
+    private static final class Stripe<E> {
+        private final AtomicReferenceArray<E> buffer = new AtomicReferenceArray<>(STRIPE_CAPACITY);
+        private final AtomicLong writes = new AtomicLong();
+        private volatile long reads;
+
+        boolean offer(E e) {
+            long head = reads;
+            long tail = writes.get();
+            long size = tail - head;
+            if (size >= STRIPE_CAPACITY) {
+                return true;
+            }
+            if (writes.compareAndSet(tail, tail + 1)) {
+                buffer.lazySet((int) tail & STRIPE_MASK, e);
+                return size + 1 >= DRAIN_THRESHOLD;
+            }
+            return false;
+        }
+
+        void drainTo(Consumer<? super E> consumer) {
+            long head = reads;
+            long tail = writes.get();
+            for (; head < tail; head++) {
+                int index = (int) head & STRIPE_MASK;
+                E e = buffer.get(index);
+                if (e == null) {
+                    // claimed but not yet published: leave it, and everything after it, for the next drain
+                    break;
+                }
+                buffer.lazySet(index, null);
+                consumer.accept(e);
+            }
+            reads = head;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Bounded caches that extend the access-order linking {@code LearnLinkedHashSet} introduces with eviction,
+ * frequency-based admission, weights and expiry, in a single-threaded and a concurrent variant.
+ */
+package collections.cache;
@@ -0,0 +1,178 @@
+package collections.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Reads what a {@link BinaryWriter} wrote, either straight from a {@link ByteBuffer} (a mapped file works
+ * too) or from a channel through a staging buffer that is refilled as decoding proceeds, so a stream of any
+ * length is decoded in constant memory.
+ *
+ * <p>Every method throws {@link EOFException} if the input ends before the value does. This class is not
+ * thread-safe.
+ */
+public final class BinaryReader {
+
+    private final ByteBuffer buffer;
+    /** Where the buffer is refilled from, or {@code null} if {@link #buffer} is the whole input. */
+    private final ReadableByteChannel channel;
+
+    /** Reads {@code buffer} from its position to its limit, switching it to little-endian order. */
+    public BinaryReader(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = null;
+    }
+
+    public BinaryReader(ReadableByteChannel channel) {
+        this(channel, BinaryWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize size of the direct staging buffer, at least 16 bytes
+     * @throws IllegalArgumentException if {@code bufferSize} is too small
+     */
+    public BinaryReader(ReadableByteChannel channel, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+        }
+        this.channel = Objects.requireNonNull(channel);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN).flip();
+    }
+
+    /** Makes {@code bytes} contiguous bytes available, which must not exceed the staging buffer's capacity. */
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes && !fill(bytes)) {
+            throw new EOFException();
+        }
+    }
+
+    /** Reads from the channel until at least {@code bytes} are buffered; returns false at end of input. */
+    private boolean fill(int bytes) throws IOException {
+        if (channel == null) {
+            return false;
+        }
+        buffer.compact();
+        try {
+            while (buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            buffer.flip();
+        }
+    }
+
+    /** Returns whether any input is left, reading ahead from the channel if necessary. */
+    public boolean hasRemaining() throws IOException {
+        return buffer.hasRemaining() || fill(1);
+    }
+
+    public byte readByte() throws IOException {
+        require(1);
+        return buffer.get();
+    }
+
+    public boolean readBoolean() throws IOException {
+        return readByte() != 0;
+    }
+
+    public int readInt() throws IOException {
+        require(Integer.BYTES);
+        return buffer.getInt();
+    }
+
+    public long readLong() throws IOException {
+        require(Long.BYTES);
+        return buffer.getLong();
+    }
+
+    public double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public int readVarInt() throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = readByte();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    public long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 70; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Malformed varint");
+    }
+
+    public int readZigZagInt() throws IOException {
+        int v = readVarInt();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    public long readZigZagLong() throws IOException {
+        long v = readVarLong();
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    /**
+     * Reads a count written by {@link BinaryWriter#writeVarInt} for a collection size.
+     *
+     * @throws StreamCorruptedException if it is negative as a signed int
+     */
+    public int readCount() throws IOException {
+        int count = readVarInt();
+        if (count < 0) {
+            throw new StreamCorruptedException("Illegal count: " + Integer.toUnsignedString(count));
+        }
+        return count;
+    }
+
+    /** Fills {@code len} ints of {@code a} from {@code off}. */
+    public void readInts(int[] a, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, a.length);
+        while (len > 0) {
+            require(Integer.BYTES);
+            int n = Math.min(len, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().get(a, off, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /** Fills {@code len} bytes of {@code a} from {@code off}. */
+    public void readBytes(byte[] a, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, a.length);
+        while (len > 0) {
+            require(1);
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(a, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    public String readString() throws IOException {
+        byte[] bytes = new byte[readCount()];
+        readBytes(bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
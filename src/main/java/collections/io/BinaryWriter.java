@@ -0,0 +1,171 @@
+package collections.io;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Writes primitives, strings and primitive arrays in the little-endian format {@link BinaryReader} reads,
+ * either straight into a caller's {@link ByteBuffer} or through a staging buffer into a channel such as a
+ * {@code FileChannel}.
+ *
+ * <p>Fixed-width values are written as-is; {@link #writeVarInt} and {@link #writeVarLong} use the 7-bits-per-byte
+ * LEB128 encoding, so small counts and deltas take one or two bytes. {@link #writeInts} copies a whole array
+ * with one bulk {@code IntBuffer} transfer per buffer-full instead of one call per element.
+ *
+ * <p>A writer on a channel must be {@linkplain #flush() flushed} when done; it never closes the channel. A
+ * writer on a buffer throws {@link BufferOverflowException} when the buffer is full. This class is not
+ * thread-safe.
+ */
+public final class BinaryWriter {
+
+    static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private final ByteBuffer buffer;
+    /** Where full buffers go, or {@code null} if {@link #buffer} is the destination itself. */
+    private final WritableByteChannel channel;
+
+    /** Writes into {@code buffer} from its position onwards, switching it to little-endian order. */
+    public BinaryWriter(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = null;
+    }
+
+    public BinaryWriter(WritableByteChannel channel) {
+        this(channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param bufferSize size of the direct staging buffer, at least 16 bytes
+     * @throws IllegalArgumentException if {@code bufferSize} is too small
+     */
+    public BinaryWriter(WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+        }
+        this.channel = Objects.requireNonNull(channel);
+        this.buffer = ByteBuffer.allocateDirect(bufferSize).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /** Makes room for {@code bytes} contiguous bytes, which must not exceed the staging buffer's capacity. */
+    private void require(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            if (channel == null) {
+                throw new BufferOverflowException();
+            }
+            drain();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /** Writes everything staged so far to the channel; does nothing for a writer on a buffer. */
+    public void flush() throws IOException {
+        if (channel != null) {
+            drain();
+        }
+    }
+
+    public void writeByte(int value) throws IOException {
+        require(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBoolean(boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeInt(int value) throws IOException {
+        require(Integer.BYTES);
+        buffer.putInt(value);
+    }
+
+    public void writeLong(long value) throws IOException {
+        require(Long.BYTES);
+        buffer.putLong(value);
+    }
+
+    public void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /** Writes {@code value}, read as unsigned, in 1 to 5 bytes. Use {@link #writeZigZagInt} for negative values. */
+    public void writeVarInt(int value) throws IOException {
+        require(varIntSize(value));
+        while ((value & ~0x7F) != 0) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /** Writes {@code value}, read as unsigned, in 1 to 10 bytes. */
+    public void writeVarLong(long value) throws IOException {
+        require(varLongSize(value));
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) (value | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    /** Number of bytes {@link #writeVarInt} takes for {@code value}. */
+    static int varIntSize(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    static int varLongSize(long value) {
+        return (70 - Long.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    /** Writes {@code value} as a varint after mapping 0, -1, 1, -2, ... to 0, 1, 2, 3, ... */
+    public void writeZigZagInt(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    public void writeZigZagLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    /** Writes {@code len} ints of {@code a} from {@code off}, without a length prefix. */
+    public void writeInts(int[] a, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, a.length);
+        while (len > 0) {
+            require(Integer.BYTES);
+            int n = Math.min(len, buffer.remaining() / Integer.BYTES);
+            buffer.asIntBuffer().put(a, off, n);
+            buffer.position(buffer.position() + n * Integer.BYTES);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /** Writes {@code len} bytes of {@code a} from {@code off}, without a length prefix. */
+    public void writeBytes(byte[] a, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, a.length);
+        while (len > 0) {
+            require(1);
+            int n = Math.min(len, buffer.remaining());
+            buffer.put(a, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    /** Writes {@code value} as its UTF-8 byte count, a varint, followed by the bytes. */
+    public void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes, 0, bytes.length);
+    }
+}
@@ -0,0 +1,96 @@
+package collections.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Writes and reads single elements of a collection, for the generic methods of {@link CollectionCodecs} and for
+ * the entries of a {@link collections.map.MappedSortedMap} file. The built-in codecs reject {@code null}; wrap
+ * one in {@link #nullable} for collections that may hold it.
+ *
+ * @param <T> the type of values encoded
+ */
+public interface Codec<T> {
+
+    void write(BinaryWriter out, T value) throws IOException;
+
+    T read(BinaryReader in) throws IOException;
+
+    /**
+     * Decodes a value from the {@code length} bytes of {@code buffer} starting at {@code offset}, for formats
+     * that frame each value themselves. The buffer's position and byte order are left as they were.
+     */
+    default T read(ByteBuffer buffer, int offset, int length) throws IOException {
+        return read(new BinaryReader(buffer.slice(offset, length)));
+    }
+
+    /** Zig-zag varint, so that small magnitudes of either sign take one or two bytes. */
+    Codec<Integer> INTEGER = new Codec<>() {
+        @Override
+        public void write(BinaryWriter out, Integer value) throws IOException {
+            out.writeZigZagInt(value);
+        }
+
+        @Override
+        public Integer read(BinaryReader in) throws IOException {
+            return in.readZigZagInt();
+        }
+    };
+
+    /** Zig-zag varint. */
+    Codec<Long> LONG = new Codec<>() {
+        @Override
+        public void write(BinaryWriter out, Long value) throws IOException {
+            out.writeZigZagLong(value);
+        }
+
+        @Override
+        public Long read(BinaryReader in) throws IOException {
+            return in.readZigZagLong();
+        }
+    };
+
+    /** Eight bytes, the raw IEEE 754 bits. */
+    Codec<Double> DOUBLE = new Codec<>() {
+        @Override
+        public void write(BinaryWriter out, Double value) throws IOException {
+            out.writeDouble(value);
+        }
+
+        @Override
+        public Double read(BinaryReader in) throws IOException {
+            return in.readDouble();
+        }
+    };
+
+    /** UTF-8 with a varint byte count. */
+    Codec<String> STRING = new Codec<>() {
+        @Override
+        public void write(BinaryWriter out, String value) throws IOException {
+            out.writeString(value);
+        }
+
+        @Override
+        public String read(BinaryReader in) throws IOException {
+            return in.readString();
+        }
+    };
+
+    /** Returns a codec that writes a presence byte before each value, so that {@code null} round-trips. */
+    static <T> Codec<T> nullable(Codec<T> codec) {
+        return new Codec<>() {
+            @Override
+            public void write(BinaryWriter out, T value) throws IOException {
+                out.writeBoolean(value != null);
+                if (value != null) {
+                    codec.write(out, value);
+                }
+            }
+
+            @Override
+            public T read(BinaryReader in) throws IOException {
+                return in.readBoolean() ? codec.read(in) : null;
+            }
+        };
+    }
+}
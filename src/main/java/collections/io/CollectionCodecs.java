@@ -0,0 +1,261 @@
+package collections.io;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+
+import collections.list.IntArrayList;
+import collections.map.IntIntHashMap;
+import collections.map.LongObjectHashMap;
+import collections.set.RoaringIntSet;
+
+/**
+ * Binary encoders and decoders for the JDK collections the {@code Learn*} classes use and for this project's
+ * own types, over a {@link BinaryWriter} and {@link BinaryReader}.
+ *
+ * <p>Every encoding starts with the element count as a varint, followed by the elements with no per-object
+ * framing. Primitive collections are written as fixed-width little-endian runs, and {@link RoaringIntSet},
+ * which iterates in ascending order, as varint gaps between consecutive values, so dense sets take about a
+ * byte per element. Generic collections encode each element with a {@link Codec}. Decoding reads elements one
+ * at a time as the reader refills, and {@link #readEach} hands them to a consumer without building a
+ * collection at all.
+ *
+ * <p>Collections are decoded into whatever a factory returns, given the count as its argument, so
+ * {@code ArrayList::new}, {@code ArrayDeque::new} or {@code n -> new LinkedHashMap<>(2 * n)} all work.
+ */
+public final class CollectionCodecs {
+
+    /** Ints staged per bulk transfer by the primitive codecs; even, so that key-value pairs are never split. */
+    private static final int CHUNK_INTS = 1024;
+
+    private CollectionCodecs() {
+    }
+
+    // ---- Generic collections ----
+
+    /**
+     * Writes the size of {@code c} and then its elements in iteration order. A {@code PriorityQueue} is
+     * written in its internal heap order, which {@link #readPriorityQueue} rebuilds in linear time.
+     *
+     * @throws ConcurrentModificationException if {@code c} does not yield exactly {@code c.size()} elements
+     */
+    public static <E> void writeCollection(BinaryWriter out, Collection<? extends E> c, Codec<? super E> codec)
+            throws IOException {
+        int size = c.size();
+        out.writeVarInt(size);
+        int n = 0;
+        for (E e : c) {
+            if (n++ == size) {
+                break;
+            }
+            codec.write(out, e);
+        }
+        if (n != size) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Reads a collection written by {@link #writeCollection} into {@code factory.apply(count)}. */
+    public static <E, C extends Collection<? super E>> C readCollection(BinaryReader in, Codec<? extends E> codec,
+                                                                     IntFunction<? extends C> factory)
+            throws IOException {
+        int count = in.readCount();
+        C c = factory.apply(count);
+        for (int i = 0; i < count; i++) {
+            c.add(codec.read(in));
+        }
+        return c;
+    }
+
+    public static <E> List<E> readList(BinaryReader in, Codec<? extends E> codec) throws IOException {
+        return readCollection(in, codec, ArrayList::new);
+    }
+
+    /**
+     * Reads a collection written by {@link #writeCollection} into a {@code PriorityQueue} ordered by
+     * {@code comparator}, or naturally if it is {@code null}. Elements written from a queue with the same
+     * ordering arrive in heap order, so each insertion stops at once and the rebuild is linear.
+     */
+    public static <E> PriorityQueue<E> readPriorityQueue(BinaryReader in, Codec<? extends E> codec,
+                                                         Comparator<? super E> comparator) throws IOException {
+        return readCollection(in, codec, n -> new PriorityQueue<E>(Math.max(1, n), comparator));
+    }
+
+    /**
+     * Decodes a collection written by {@link #writeCollection}, passing each element to {@code action} as soon
+     * as it is read instead of collecting them.
+     *
+     * @return the number of elements read
+     */
+    public static <E> int readEach(BinaryReader in, Codec<? extends E> codec, Consumer<? super E> action)
+            throws IOException {
+        int count = in.readCount();
+        for (int i = 0; i < count; i++) {
+            action.accept(codec.read(in));
+        }
+        return count;
+    }
+
+    /**
+     * Writes the size of {@code map} and then its keys and values, alternating, in iteration order.
+     *
+     * @throws ConcurrentModificationException if {@code map} does not yield exactly {@code map.size()} entries
+     */
+    public static <K, V> void writeMap(BinaryWriter out, Map<? extends K, ? extends V> map,
+                                       Codec<? super K> keyCodec, Codec<? super V> valueCodec) throws IOException {
+        int size = map.size();
+        out.writeVarInt(size);
+        int n = 0;
+        for (Map.Entry<? extends K, ? extends V> e : map.entrySet()) {
+            if (n++ == size) {
+                break;
+            }
+            keyCodec.write(out, e.getKey());
+            valueCodec.write(out, e.getValue());
+        }
+        if (n != size) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Reads a map written by {@link #writeMap} into {@code factory.apply(count)}. */
+    public static <K, V, M extends Map<? super K, ? super V>> M readMap(BinaryReader in, Codec<? extends K> keyCodec,
+                                                                       Codec<? extends V> valueCodec,
+                                                                       IntFunction<? extends M> factory)
+            throws IOException {
+        int count = in.readCount();
+        M map = factory.apply(count);
+        for (int i = 0; i < count; i++) {
+            K key = keyCodec.read(in);
+            map.put(key, valueCodec.read(in));
+        }
+        return map;
+    }
+
+    // ---- Primitive collections ----
+
+    /** Writes the size of {@code list} and then its elements as 4-byte ints, a chunk at a time. */
+    public static void writeIntList(BinaryWriter out, IntArrayList list) throws IOException {
+        int size = list.size();
+        out.writeVarInt(size);
+        int[] chunk = new int[Math.min(size, CHUNK_INTS)];
+        for (int i = 0; i < size; i += chunk.length) {
+            int n = Math.min(chunk.length, size - i);
+            list.getElements(i, chunk, 0, n);
+            out.writeInts(chunk, 0, n);
+        }
+    }
+
+    public static IntArrayList readIntList(BinaryReader in) throws IOException {
+        int count = in.readCount();
+        IntArrayList list = new IntArrayList(count);
+        int[] chunk = new int[Math.min(count, CHUNK_INTS)];
+        for (int i = 0; i < count; i += chunk.length) {
+            int n = Math.min(chunk.length, count - i);
+            in.readInts(chunk, 0, n);
+            list.addAll(chunk, 0, n);
+        }
+        return list;
+    }
+
+    /** Writes the size of {@code map} and then each key and value as 4-byte ints, in table order. */
+    public static void writeIntIntMap(BinaryWriter out, IntIntHashMap map) throws IOException {
+        int size = map.size();
+        out.writeVarInt(size);
+        int[] chunk = new int[(int) Math.min(2L * size, CHUNK_INTS)];
+        int n = 0;
+        IntIntHashMap.Cursor c = map.cursor();
+        while (c.advance()) {
+            chunk[n++] = c.key();
+            chunk[n++] = c.value();
+            if (n == chunk.length) {
+                out.writeInts(chunk, 0, n);
+                n = 0;
+            }
+        }
+        out.writeInts(chunk, 0, n);
+    }
+
+    public static IntIntHashMap readIntIntMap(BinaryReader in) throws IOException {
+        int count = in.readCount();
+        IntIntHashMap map = new IntIntHashMap(count);
+        int[] chunk = new int[(int) Math.min(2L * count, CHUNK_INTS)];
+        for (long left = 2L * count; left > 0; left -= chunk.length) {
+            int n = (int) Math.min(chunk.length, left);
+            in.readInts(chunk, 0, n);
+            for (int i = 0; i < n; i += 2) {
+                map.put(chunk[i], chunk[i + 1]);
+            }
+        }
+        return map;
+    }
+
+    /** Writes the size of {@code map} and then each key as an 8-byte long followed by its encoded value. */
+    public static <V> void writeLongObjectMap(BinaryWriter out, LongObjectHashMap<? extends V> map,
+                                              Codec<? super V> valueCodec) throws IOException {
+        out.writeVarInt(map.size());
+        LongObjectHashMap<? extends V>.Cursor c = map.cursor();
+        while (c.advance()) {
+            out.writeLong(c.key());
+            valueCodec.write(out, c.value());
+        }
+    }
+
+    public static <V> LongObjectHashMap<V> readLongObjectMap(BinaryReader in, Codec<? extends V> valueCodec)
+            throws IOException {
+        int count = in.readCount();
+        LongObjectHashMap<V> map = new LongObjectHashMap<>(count);
+        for (int i = 0; i < count; i++) {
+            long key = in.readLong();
+            map.put(key, valueCodec.read(in));
+        }
+        return map;
+    }
+
+    /**
+     * Writes the cardinality of {@code set}, its first element as a zig-zag varint and every later element as
+     * the unsigned varint gap from its predecessor.
+     */
+    public static void writeRoaringIntSet(BinaryWriter out, RoaringIntSet set) throws IOException {
+        out.writeVarLong(set.cardinality());
+        PrimitiveIterator.OfInt it = set.iterator();
+        if (!it.hasNext()) {
+            return;
+        }
+        int previous = it.nextInt();
+        out.writeZigZagInt(previous);
+        while (it.hasNext()) {
+            int value = it.nextInt();
+            // Ascending, so the difference is positive when read as unsigned, even across zero.
+            out.writeVarInt(value - previous);
+            previous = value;
+        }
+    }
+
+    public static RoaringIntSet readRoaringIntSet(BinaryReader in) throws IOException {
+        long count = in.readVarLong();
+        if (count < 0 || count > 1L << Integer.SIZE) {
+            throw new StreamCorruptedException("Illegal count: " + Long.toUnsignedString(count));
+        }
+        RoaringIntSet set = new RoaringIntSet();
+        if (count == 0) {
+            return set;
+        }
+        int value = in.readZigZagInt();
+        set.add(value);
+        for (long i = 1; i < count; i++) {
+            value += in.readVarInt();
+            set.add(value);
+        }
+        return set;
+    }
+}
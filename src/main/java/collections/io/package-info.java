@@ -0,0 +1,6 @@
+/**
+ * Compact binary encoding of collections, written straight into a {@code ByteBuffer} or {@code FileChannel},
+ * as an alternative to the {@code toString()} output every {@code Learn*} class prints and to Java
+ * serialization.
+ */
+package collections.io;
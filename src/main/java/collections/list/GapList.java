@@ -0,0 +1,195 @@
+package collections.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A {@link java.util.List} stored in a gap buffer: one array with a run of free slots, the gap, kept at the
+ * position of the last insert or removal.
+ *
+ * <p>{@code LearnArrayList} notes that {@code add(1, 15)} and {@code remove(1)} are O(n) because every later
+ * element shifts. Here an insert or removal only moves the elements between the previous edit and this one to
+ * the other side of the gap, so a run of edits near a moving cursor, as in a text editor, costs O(distance
+ * moved) each instead of O(n - index). {@link #get} stays a single array read with one extra comparison.
+ * Edits that jump around the whole list cost as much as {@code ArrayList}'s; {@link RopeList} handles those
+ * in O(log n).
+ *
+ * <p>Like {@code ArrayList}, this class permits {@code null}, is not thread-safe, grows by half its capacity
+ * when the gap is used up, and its iterators are fail-fast.
+ *
+ * @param <E> the type of elements
+ */
+public class GapList<E> extends AbstractList<E> implements RandomAccess {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final Object[] EMPTY = {};
+
+    private Object[] elements;
+    /** The gap is {@code elements[gapStart, gapEnd)}; elements at and after {@code gapEnd} follow it. */
+    private int gapStart;
+    private int gapEnd;
+
+    public GapList() {
+        elements = EMPTY;
+    }
+
+    /**
+     * @param initialCapacity number of elements the list can hold before it first grows
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public GapList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new Object[initialCapacity];
+        gapEnd = initialCapacity;
+    }
+
+    /** Creates a list holding the elements of {@code c} in its iteration order, with the gap at the end. */
+    public GapList(Collection<? extends E> c) {
+        elements = c.toArray();
+        if (elements.getClass() != Object[].class) {
+            elements = Arrays.copyOf(elements, elements.length, Object[].class);
+        }
+        gapStart = elements.length;
+        gapEnd = elements.length;
+    }
+
+    @Override
+    public int size() {
+        return elements.length - (gapEnd - gapStart);
+    }
+
+    /** Position in {@link #elements} of element {@code index}. */
+    private int slot(int index) {
+        return index < gapStart ? index : index + (gapEnd - gapStart);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size());
+        return (E) elements[slot(index)];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size());
+        int i = slot(index);
+        E old = (E) elements[i];
+        elements[i] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(E e) {
+        add(size(), e);
+        return true;
+    }
+
+    /** Inserts {@code element} at {@code index}. O(1) amortized if {@code index} is near the previous edit. */
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size() + 1);
+        modCount++;
+        if (gapStart == gapEnd) {
+            grow(size() + 1);
+        }
+        moveGap(index);
+        elements[gapStart++] = element;
+    }
+
+    /** Removes the element at {@code index}. O(1) if {@code index} is near the previous edit. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+        modCount++;
+        moveGap(index);
+        E old = (E) elements[gapEnd];
+        elements[gapEnd++] = null;
+        return old;
+    }
+
+    @Override
+    protected void removeRange(int fromIndex, int toIndex) {
+        Objects.checkFromToIndex(fromIndex, toIndex, size());
+        modCount++;
+        moveGap(fromIndex);
+        int newGapEnd = gapEnd + (toIndex - fromIndex);
+        Arrays.fill(elements, gapEnd, newGapEnd, null);
+        gapEnd = newGapEnd;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, 0, gapStart, null);
+        Arrays.fill(elements, gapEnd, elements.length, null);
+        gapStart = 0;
+        gapEnd = elements.length;
+    }
+
+    /** Moves the gap so that it starts at {@code index}, clearing the slots it uncovers. */
+    private void moveGap(int index) {
+        Object[] es = elements;
+        if (index < gapStart) {
+            int n = gapStart - index;
+            System.arraycopy(es, index, es, gapEnd - n, n);
+            Arrays.fill(es, index, Math.min(gapStart, gapEnd - n), null);
+            gapStart = index;
+            gapEnd -= n;
+        } else if (index > gapStart) {
+            int n = index - gapStart;
+            System.arraycopy(es, gapEnd, es, gapStart, n);
+            Arrays.fill(es, Math.max(gapEnd, gapStart + n), gapEnd + n, null);
+            gapStart = index;
+            gapEnd += n;
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required array length too large");
+        }
+        int oldCapacity = elements.length;
+        int newCapacity = oldCapacity == 0 ? DEFAULT_CAPACITY : oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        if (newCapacity < 0 || newCapacity > Integer.MAX_VALUE - 8) {
+            newCapacity = Math.max(minCapacity, Integer.MAX_VALUE - 8);
+        }
+        Object[] grown = new Object[newCapacity];
+        int tail = oldCapacity - gapEnd;
+        System.arraycopy(elements, 0, grown, 0, gapStart);
+        System.arraycopy(elements, gapEnd, grown, newCapacity - tail, tail);
+        elements = grown;
+        gapEnd = newCapacity - tail;
+    }
+
+    /** Shrinks the backing array to the current size, leaving an empty gap where it was. */
+    public void trimToSize() {
+        if (gapStart < gapEnd) {
+            modCount++;
+            Object[] trimmed = new Object[size()];
+            int tail = elements.length - gapEnd;
+            System.arraycopy(elements, 0, trimmed, 0, gapStart);
+            System.arraycopy(elements, gapEnd, trimmed, gapStart, tail);
+            elements = trimmed;
+            gapEnd = gapStart;
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] a = new Object[size()];
+        System.arraycopy(elements, 0, a, 0, gapStart);
+        System.arraycopy(elements, gapEnd, a, gapStart, elements.length - gapEnd);
+        return a;
+    }
+}
@@ -0,0 +1,364 @@
+package collections.list;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.function.IntConsumer;
+
+/**
+ * A growable list of primitive {@code int}s: the operations {@code LearnArrayList} shows on an
+ * {@code ArrayList<Integer>}, stored in a plain {@code int[]}.
+ *
+ * <p>Each element costs 4 bytes instead of a reference plus a 16-byte {@code Integer}, and {@link #get}
+ * reads the array directly instead of following a pointer to a boxed value.
+ *
+ * <p>Removal is split into {@link #removeAt(int)} and {@link #removeValue(int)}. On an
+ * {@code ArrayList<Integer>}, {@code remove(30)} removes index 30 while {@code remove(Integer.valueOf(30))}
+ * removes the value 30; with primitive arguments the two would be indistinguishable, so they have separate
+ * names here.
+ *
+ * <p>Like {@code ArrayList}, this class is not thread-safe, grows by half its capacity when full, and its
+ * iterator fails fast on concurrent structural modification.
+ */
+public class IntArrayList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+    private static final int[] EMPTY = {};
+
+    private int[] elements;
+    private int size;
+    /** Number of structural modifications, checked by {@link #iterator()}. */
+    private int modCount;
+
+    public IntArrayList() {
+        elements = EMPTY;
+    }
+
+    /**
+     * @param initialCapacity number of elements the list can hold before it first grows
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public IntArrayList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        elements = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    /** Creates a list holding a copy of {@code values}. */
+    public static IntArrayList of(int... values) {
+        IntArrayList list = new IntArrayList(values.length);
+        System.arraycopy(values, 0, list.elements, 0, values.length);
+        list.size = values.length;
+        return list;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Appends {@code value} to the end of the list. Amortized O(1). */
+    public void add(int value) {
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        elements[size++] = value;
+    }
+
+    /**
+     * Inserts {@code value} at {@code index}, shifting the element at that position and everything after it
+     * one place to the right. O(n - index).
+     *
+     * @throws IndexOutOfBoundsException if {@code index < 0 || index > size()}
+     */
+    public void add(int index, int value) {
+        Objects.checkIndex(index, size + 1);
+        modCount++;
+        if (size == elements.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(elements, index, elements, index + 1, size - index);
+        elements[index] = value;
+        size++;
+    }
+
+    /** Appends every element of {@code values}. */
+    public void addAll(int... values) {
+        addAll(values, 0, values.length);
+    }
+
+    /**
+     * Appends {@code length} elements of {@code values} starting at {@code offset}.
+     *
+     * @throws IndexOutOfBoundsException if the range is not within {@code values}
+     */
+    public void addAll(int[] values, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, values.length);
+        modCount++;
+        ensureCapacityInternal(size + length);
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+    }
+
+    /** Appends every element of {@code other}. */
+    public void addAll(IntArrayList other) {
+        modCount++;
+        int count = other.size;
+        ensureCapacityInternal(size + count);
+        System.arraycopy(other.elements, 0, elements, size, count);
+        size += count;
+    }
+
+    /** @throws IndexOutOfBoundsException if {@code index} is not in {@code [0, size())} */
+    public int get(int index) {
+        Objects.checkIndex(index, size);
+        return elements[index];
+    }
+
+    /**
+     * Replaces the element at {@code index}.
+     *
+     * @return the element previously at {@code index}
+     * @throws IndexOutOfBoundsException if {@code index} is not in {@code [0, size())}
+     */
+    public int set(int index, int value) {
+        Objects.checkIndex(index, size);
+        int old = elements[index];
+        elements[index] = value;
+        return old;
+    }
+
+    /**
+     * Removes the element at {@code index}, shifting later elements one place to the left. O(n - index).
+     *
+     * @return the removed element
+     * @throws IndexOutOfBoundsException if {@code index} is not in {@code [0, size())}
+     */
+    public int removeAt(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        int old = elements[index];
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(elements, index + 1, elements, index, moved);
+        }
+        size--;
+        return old;
+    }
+
+    /**
+     * Removes the first occurrence of {@code value}, the primitive equivalent of
+     * {@code remove(Integer.valueOf(value))}. O(n).
+     *
+     * @return {@code true} if the list contained {@code value}
+     */
+    public boolean removeValue(int value) {
+        int index = indexOf(value);
+        if (index < 0) {
+            return false;
+        }
+        removeAt(index);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    /** Returns the index of the first occurrence of {@code value}, or -1. */
+    public int indexOf(int value) {
+        int[] es = elements;
+        for (int i = 0, n = size; i < n; i++) {
+            if (es[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Returns the index of the last occurrence of {@code value}, or -1. */
+    public int lastIndexOf(int value) {
+        int[] es = elements;
+        for (int i = size - 1; i >= 0; i--) {
+            if (es[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /** Removes every element; the capacity is kept. */
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    /** Sorts the elements into ascending order. */
+    public void sort() {
+        modCount++;
+        Arrays.sort(elements, 0, size);
+    }
+
+    /** Grows the backing array, if necessary, so that it can hold at least {@code minCapacity} elements. */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /** Shrinks the backing array to the current size. */
+    public void trimToSize() {
+        if (size < elements.length) {
+            modCount++;
+            elements = size == 0 ? EMPTY : Arrays.copyOf(elements, size);
+        }
+    }
+
+    /** Calls {@code action} with every element in index order, without boxing or an iterator. */
+    public void forEach(IntConsumer action) {
+        int expectedModCount = modCount;
+        int[] es = elements;
+        for (int i = 0, n = size; i < n && modCount == expectedModCount; i++) {
+            action.accept(es[i]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Returns an iterator whose {@code nextInt()} does not box. */
+    public PrimitiveIterator.OfInt iterator() {
+        return new Itr();
+    }
+
+    /**
+     * Returns a spliterator over the elements present now. Like {@code Arrays.spliterator}, it does not detect
+     * later modification of the list.
+     */
+    public Spliterator.OfInt spliterator() {
+        return Arrays.spliterator(elements, 0, size);
+    }
+
+    /**
+     * Copies the {@code length} elements starting at {@code index} into {@code dest} at {@code offset}.
+     *
+     * @throws IndexOutOfBoundsException if either range is out of bounds
+     */
+    public void getElements(int index, int[] dest, int offset, int length) {
+        Objects.checkFromIndexSize(index, length, size);
+        System.arraycopy(elements, index, dest, offset, length);
+    }
+
+    /** Returns a copy of the elements as an array of exactly {@link #size()} elements. */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void ensureCapacityInternal(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    private void grow(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("Required array length too large");
+        }
+        int oldCapacity = elements.length;
+        int newCapacity = oldCapacity == 0 ? DEFAULT_CAPACITY : oldCapacity + (oldCapacity >> 1);
+        if (newCapacity - minCapacity < 0) {
+            newCapacity = minCapacity;
+        }
+        if (newCapacity < 0 || newCapacity > Integer.MAX_VALUE - 8) {
+            newCapacity = Math.max(minCapacity, Integer.MAX_VALUE - 8);
+        }
+        elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof IntArrayList)) {
+            return false;
+        }
+        IntArrayList other = (IntArrayList) o;
+        return Arrays.equals(elements, 0, size, other.elements, 0, other.size);
+    }
+
+    /** Same value as {@code List.hashCode()} of the equivalent {@code List<Integer>}. */
+    @Override
+    public int hashCode() {
+        int h = 1;
+        for (int i = 0; i < size; i++) {
+            h = 31 * h + elements[i];
+        }
+        return h;
+    }
+
+    /** Formats the list like {@code ArrayList.toString()}, e.g. {@code [10, 20, 30]}. */
+    @Override
+    public String toString() {
+        if (size == 0) {
+            return "[]";
+        }
+        StringBuilder sb = new StringBuilder(size * 4).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private final class Itr implements PrimitiveIterator.OfInt {
+        private int cursor;
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        public int nextInt() {
+            checkForComodification();
+            int i = cursor;
+            if (i >= size) {
+                throw new NoSuchElementException();
+            }
+            cursor = i + 1;
+            return elements[lastReturned = i];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            checkForComodification();
+            removeAt(lastReturned);
+            cursor = lastReturned;
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+}
@@ -0,0 +1,699 @@
+package collections.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * An immutable list whose updates return new versions that share almost all of their structure with the old
+ * one: a relaxed radix-balanced (RRB) tree of 32-way nodes, as in Bagwell and Rompf's RRB-vectors.
+ *
+ * <p>{@code LearnArrayList} changes its list in place, so a reader that needs a stable view has to copy all n
+ * elements. Here {@link #append}, {@link #with} (set), {@link #insert} and {@link #without} (remove) leave
+ * this list untouched and return a new one, copying only the O(log32 n) nodes on the path to the change, and a
+ * published vector can be read by any number of threads without locking. The last up to 32 elements live in a
+ * separate tail array, so most appends copy only the tail. {@link #slice} and {@link #concat} also run in
+ * O(log n), and {@code insert} and {@code without} at arbitrary positions are a slice and a concatenation.
+ *
+ * <p>Every inner node keeps the cumulative element counts of its children. In a dense tree the child that holds
+ * index {@code i} is {@code (i >>> shift) & 31}, as in a plain radix tree; after slices and concatenations
+ * nodes may be less than full, so that guess is corrected by stepping forward through the counts. Concatenation
+ * redistributes the nodes along the seam so that each level has at most two more nodes than the minimum, which
+ * keeps those steps short.
+ *
+ * <p>A {@link Builder} edits a private copy in place for batches of changes: nodes it has created or already
+ * copied are updated without further copying, and {@link Builder#build()} publishes the result. The
+ * {@code java.util.List} mutators throw {@link UnsupportedOperationException}. Elements may be {@code null}.
+ *
+ * @param <E> the type of elements
+ */
+public final class PersistentVector<E> extends AbstractList<E> implements RandomAccess {
+
+    static final int BITS = 5;
+    /** Maximum children per inner node and elements per leaf. */
+    static final int WIDTH = 1 << BITS;
+    /** Nodes a rebalanced level may keep over the minimum (the RRB paper's e_max). */
+    private static final int EXTRA = 2;
+
+    private static final Object[] EMPTY_ARRAY = {};
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(0, 0, null, EMPTY_ARRAY);
+
+    private final int size;
+    /** {@code BITS} times the height of {@link #root}; 0 if the root is a leaf. */
+    private final int shift;
+    /** Holds elements {@code [0, size - tail.length)}; {@code null} if there are none. */
+    private final Node root;
+    /** The last elements, at most {@link #WIDTH}; exactly sized, and never modified once published. */
+    private final Object[] tail;
+
+    private PersistentVector(int size, int shift, Node root, Object[] tail) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E> PersistentVector<E> empty() {
+        return (PersistentVector<E>) EMPTY;
+    }
+
+    public static <E> PersistentVector<E> copyOf(Collection<? extends E> c) {
+        if (c instanceof PersistentVector) {
+            @SuppressWarnings("unchecked")
+            PersistentVector<E> v = (PersistentVector<E>) c;
+            return v;
+        }
+        return PersistentVector.<E>builder().addAll(c).build();
+    }
+
+    public static <E> Builder<E> builder() {
+        return PersistentVector.<E>empty().toBuilder();
+    }
+
+    /** Returns a builder that starts from this vector's elements; this vector is not affected by it. */
+    public Builder<E> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private int treeSize() {
+        return size - tail.length;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            return (E) tail[index - treeSize];
+        }
+        Node n = root;
+        for (int sh = shift; sh > 0; sh -= BITS) {
+            int slot = n.slotFor(index, sh);
+            if (slot > 0) {
+                index -= n.sizes[slot - 1];
+            }
+            n = (Node) n.array[slot];
+        }
+        return (E) n.array[index];
+    }
+
+    // ---- persistent updates ----
+
+    /** Returns this vector with {@code element} added at the end. */
+    public PersistentVector<E> append(E element) {
+        int t = tail.length;
+        if (t < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, t + 1);
+            newTail[t] = element;
+            return new PersistentVector<>(size + 1, shift, root, newTail);
+        }
+        PersistentVector<E> pushed = pushTail();
+        return new PersistentVector<>(size + 1, pushed.shift, pushed.root, new Object[] {element});
+    }
+
+    /** Returns this vector with the element at {@code index} replaced by {@code element}. */
+    public PersistentVector<E> with(int index, E element) {
+        Objects.checkIndex(index, size);
+        int treeSize = treeSize();
+        if (index >= treeSize) {
+            Object[] newTail = tail.clone();
+            newTail[index - treeSize] = element;
+            return new PersistentVector<>(size, shift, root, newTail);
+        }
+        return new PersistentVector<>(size, shift, set(null, root, shift, index, element), tail);
+    }
+
+    /** Returns this vector with {@code element} inserted at {@code index}, shifting later elements right. */
+    public PersistentVector<E> insert(int index, E element) {
+        Objects.checkIndex(index, size + 1);
+        if (index == size) {
+            return append(element);
+        }
+        PersistentVector<E> single = PersistentVector.<E>empty().append(element);
+        if (index == 0) {
+            return single.concat(this);
+        }
+        return take(index).append(element).concat(drop(index));
+    }
+
+    /** Returns this vector without the element at {@code index}, shifting later elements left. */
+    public PersistentVector<E> without(int index) {
+        Objects.checkIndex(index, size);
+        if (index == 0) {
+            return drop(1);
+        }
+        if (index == size - 1) {
+            return take(index);
+        }
+        return take(index).concat(drop(index + 1));
+    }
+
+    /** Returns the elements {@code [from, to)} of this vector, in O(log n). */
+    public PersistentVector<E> slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        return take(to).drop(from);
+    }
+
+    /** Returns this vector followed by the elements of {@code other}, in O(log n). */
+    public PersistentVector<E> concat(PersistentVector<? extends E> other) {
+        @SuppressWarnings("unchecked")
+        PersistentVector<E> right = (PersistentVector<E>) other;
+        if (right.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return right;
+        }
+        if (right.root == null) {
+            if (tail.length + right.size <= WIDTH) {
+                Object[] newTail = Arrays.copyOf(tail, tail.length + right.size);
+                System.arraycopy(right.tail, 0, newTail, tail.length, right.size);
+                return new PersistentVector<>(size + right.size, shift, root, newTail);
+            }
+            return toBuilder().addAll(right).build();
+        }
+        PersistentVector<E> left = tail.length == 0 ? this : pushTail();
+        Node merged = concat(left.root, left.shift, right.root, right.shift);
+        int sh = Math.max(left.shift, right.shift) + BITS;
+        while (sh > 0 && merged.array.length == 1) {
+            merged = (Node) merged.array[0];
+            sh -= BITS;
+        }
+        return new PersistentVector<>(size + right.size, sh, merged, right.tail);
+    }
+
+    /** The first {@code n} elements, {@code 0 <= n <= size}. */
+    private PersistentVector<E> take(int n) {
+        if (n == size) {
+            return this;
+        }
+        if (n == 0) {
+            return empty();
+        }
+        int treeSize = treeSize();
+        if (n > treeSize) {
+            return new PersistentVector<>(n, shift, root, Arrays.copyOf(tail, n - treeSize));
+        }
+        // Cut the tree, then move its last leaf into the tail so that appends stay dense.
+        Node cut = takeFrom(root, shift, n);
+        Node last = cut;
+        for (int sh = shift; sh > 0; sh -= BITS) {
+            last = (Node) last.array[last.array.length - 1];
+        }
+        int rest = n - last.array.length;
+        if (rest == 0) {
+            return new PersistentVector<>(n, 0, null, last.array);
+        }
+        Node r = takeFrom(cut, shift, rest);
+        int sh = shift;
+        while (sh > 0 && r.array.length == 1) {
+            r = (Node) r.array[0];
+            sh -= BITS;
+        }
+        return new PersistentVector<>(n, sh, r, last.array);
+    }
+
+    /** All but the first {@code n} elements, {@code 0 <= n <= size}. */
+    private PersistentVector<E> drop(int n) {
+        if (n == 0) {
+            return this;
+        }
+        if (n == size) {
+            return empty();
+        }
+        int treeSize = treeSize();
+        if (n >= treeSize) {
+            return new PersistentVector<>(size - n, 0, null, Arrays.copyOfRange(tail, n - treeSize, tail.length));
+        }
+        Node r = dropFrom(root, shift, n);
+        int sh = shift;
+        while (sh > 0 && r.array.length == 1) {
+            r = (Node) r.array[0];
+            sh -= BITS;
+        }
+        return new PersistentVector<>(size - n, sh, r, tail);
+    }
+
+    /** This vector with its tail moved into the tree and an empty tail. */
+    private PersistentVector<E> pushTail() {
+        Node leaf = new Node(null, tail, null);
+        if (root == null) {
+            return new PersistentVector<>(size, 0, leaf, EMPTY_ARRAY);
+        }
+        Node r = pushLeaf(null, root, shift, leaf);
+        if (r != null) {
+            return new PersistentVector<>(size, shift, r, EMPTY_ARRAY);
+        }
+        Node grown = Node.inner(null, new Object[] {root, path(null, leaf, shift)});
+        return new PersistentVector<>(size, shift + BITS, grown, EMPTY_ARRAY);
+    }
+
+    // ---- tree operations, shared with the builder ----
+
+    /** Sets element {@code index} below {@code n}, copying every node on the way that {@code owner} may not edit. */
+    static Node set(Object owner, Node n, int sh, int index, Object element) {
+        Node copy = n.editable(owner);
+        if (sh == 0) {
+            copy.array[index] = element;
+        } else {
+            int slot = n.slotFor(index, sh);
+            int local = slot > 0 ? index - n.sizes[slot - 1] : index;
+            copy.array[slot] = set(owner, (Node) n.array[slot], sh - BITS, local, element);
+        }
+        return copy;
+    }
+
+    /**
+     * Adds {@code leaf} after the last leaf below {@code n}. Returns the updated node, or {@code null} if every
+     * node on the right edge of {@code n} is already full.
+     */
+    static Node pushLeaf(Object owner, Node n, int sh, Node leaf) {
+        if (sh == 0) {
+            return null;
+        }
+        int last = n.array.length - 1;
+        if (sh > BITS) {
+            Node child = pushLeaf(owner, (Node) n.array[last], sh - BITS, leaf);
+            if (child != null) {
+                Node copy = n.editable(owner);
+                copy.array[last] = child;
+                copy.sizes[last] += leaf.array.length;
+                return copy;
+            }
+        }
+        return last + 1 == WIDTH ? null : n.withChildAppended(owner, path(owner, leaf, sh - BITS));
+    }
+
+    /** {@code leaf} wrapped in single-child inner nodes up to shift {@code sh}. */
+    static Node path(Object owner, Node leaf, int sh) {
+        Node n = leaf;
+        for (int s = 0; s < sh; s += BITS) {
+            n = Node.inner(owner, new Object[] {n});
+        }
+        return n;
+    }
+
+    /** The first {@code n} elements below {@code node}, {@code 1 <= n <= node.size()}. */
+    private static Node takeFrom(Node node, int sh, int n) {
+        if (n == node.size()) {
+            return node;
+        }
+        if (sh == 0) {
+            return new Node(null, Arrays.copyOf(node.array, n), null);
+        }
+        int slot = node.slotFor(n - 1, sh);
+        int before = slot > 0 ? node.sizes[slot - 1] : 0;
+        Object[] children = Arrays.copyOf(node.array, slot + 1);
+        children[slot] = takeFrom((Node) node.array[slot], sh - BITS, n - before);
+        int[] sizes = Arrays.copyOf(node.sizes, slot + 1);
+        sizes[slot] = n;
+        return new Node(null, children, sizes);
+    }
+
+    /** All but the first {@code n} elements below {@code node}, {@code 0 <= n < node.size()}. */
+    private static Node dropFrom(Node node, int sh, int n) {
+        if (n == 0) {
+            return node;
+        }
+        if (sh == 0) {
+            return new Node(null, Arrays.copyOfRange(node.array, n, node.array.length), null);
+        }
+        int slot = node.slotFor(n, sh);
+        int before = slot > 0 ? node.sizes[slot - 1] : 0;
+        int count = node.array.length - slot;
+        Object[] children = new Object[count];
+        children[0] = dropFrom((Node) node.array[slot], sh - BITS, n - before);
+        System.arraycopy(node.array, slot + 1, children, 1, count - 1);
+        int[] sizes = new int[count];
+        for (int j = 0; j < count; j++) {
+            sizes[j] = node.sizes[slot + j] - n;
+        }
+        return new Node(null, children, sizes);
+    }
+
+    /**
+     * Concatenates the trees {@code l} and {@code r}, of shifts {@code lsh} and {@code rsh}, into a node of
+     * shift {@code max(lsh, rsh) + BITS} with one or two children. Only the nodes along the seam are rebuilt.
+     */
+    private static Node concat(Node l, int lsh, Node r, int rsh) {
+        if (lsh > rsh) {
+            Node mid = concat((Node) l.array[l.array.length - 1], lsh - BITS, r, rsh);
+            return rebalance(l, mid, null, lsh);
+        }
+        if (lsh < rsh) {
+            Node mid = concat(l, lsh, (Node) r.array[0], rsh - BITS);
+            return rebalance(null, mid, r, rsh);
+        }
+        if (lsh == 0) {
+            return Node.inner(null, redistribute(new Object[] {l, r}, 0));
+        }
+        Node mid = concat((Node) l.array[l.array.length - 1], lsh - BITS, (Node) r.array[0], rsh - BITS);
+        return rebalance(l, mid, r, lsh);
+    }
+
+    /**
+     * Joins the children of {@code l} but its last, of {@code mid}, and of {@code r} but its first (all of
+     * shift {@code sh - BITS}), redistributes them, and returns them under a node of shift {@code sh + BITS}.
+     */
+    private static Node rebalance(Node l, Node mid, Node r, int sh) {
+        int ln = l == null ? 0 : l.array.length - 1;
+        int rn = r == null ? 0 : r.array.length - 1;
+        int mn = mid.array.length;
+        Object[] all = new Object[ln + mn + rn];
+        if (l != null) {
+            System.arraycopy(l.array, 0, all, 0, ln);
+        }
+        System.arraycopy(mid.array, 0, all, ln, mn);
+        if (r != null) {
+            System.arraycopy(r.array, 1, all, ln + mn, rn);
+        }
+        Object[] nodes = redistribute(all, sh - BITS);
+        if (nodes.length <= WIDTH) {
+            return Node.inner(null, new Object[] {Node.inner(null, nodes)});
+        }
+        return Node.inner(null, new Object[] {
+            Node.inner(null, Arrays.copyOf(nodes, WIDTH)),
+            Node.inner(null, Arrays.copyOfRange(nodes, WIDTH, nodes.length)),
+        });
+    }
+
+    /**
+     * Merges underfull nodes among {@code all}, all of shift {@code sh}, until there are at most {@link #EXTRA}
+     * more than the minimum needed for their slots. Nodes that need no change are reused.
+     */
+    private static Object[] redistribute(Object[] all, int sh) {
+        int n = all.length;
+        int[] counts = new int[n];
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            counts[i] = ((Node) all[i]).array.length;
+            total += counts[i];
+        }
+        int optimal = (total + WIDTH - 1) / WIDTH;
+        int i = 0;
+        while (n > optimal + EXTRA) {
+            // Skip nodes that are nearly full; spread the first underfull one over its right neighbours.
+            while (counts[i] > WIDTH - EXTRA / 2) {
+                i++;
+            }
+            int remaining = counts[i];
+            do {
+                int merged = Math.min(remaining + counts[i + 1], WIDTH);
+                counts[i] = merged;
+                remaining = remaining + counts[i + 1] - merged;
+                i++;
+            } while (remaining > 0);
+            System.arraycopy(counts, i + 1, counts, i, n - i - 1);
+            n--;
+            i--;
+        }
+        if (n == all.length) {
+            return all;
+        }
+        Object[] result = new Object[n];
+        int src = 0;
+        int offset = 0;
+        for (int k = 0; k < n; k++) {
+            Node s = (Node) all[src];
+            if (offset == 0 && s.array.length == counts[k]) {
+                result[k] = s;
+                src++;
+                continue;
+            }
+            Object[] items = new Object[counts[k]];
+            int filled = 0;
+            while (filled < items.length) {
+                Object[] from = ((Node) all[src]).array;
+                int take = Math.min(items.length - filled, from.length - offset);
+                System.arraycopy(from, offset, items, filled, take);
+                filled += take;
+                offset += take;
+                if (offset == from.length) {
+                    src++;
+                    offset = 0;
+                }
+            }
+            result[k] = sh == 0 ? new Node(null, items, null) : Node.inner(null, items);
+        }
+        return result;
+    }
+
+    // ---- iteration ----
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    /** Walks the leaves in order, so each element costs an array read rather than a descent from the root. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        if (root != null) {
+            forEach(root, shift, action);
+        }
+        for (Object e : tail) {
+            action.accept((E) e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> void forEach(Node n, int sh, Consumer<? super E> action) {
+        if (sh == 0) {
+            for (Object e : n.array) {
+                action.accept((E) e);
+            }
+            return;
+        }
+        for (Object child : n.array) {
+            forEach((Node) child, sh - BITS, action);
+        }
+    }
+
+    private final class Itr implements Iterator<E> {
+        private int cursor;
+        /** The leaf (or tail) holding {@code cursor}, and the index of its first element. */
+        private Object[] leaf = EMPTY_ARRAY;
+        private int leafStart;
+
+        @Override
+        public boolean hasNext() {
+            return cursor < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            int i = cursor;
+            if (i >= size) {
+                throw new NoSuchElementException();
+            }
+            int local = i - leafStart;
+            if (local >= leaf.length) {
+                findLeaf(i);
+                local = i - leafStart;
+            }
+            cursor = i + 1;
+            return (E) leaf[local];
+        }
+
+        private void findLeaf(int index) {
+            int treeSize = treeSize();
+            if (index >= treeSize) {
+                leaf = tail;
+                leafStart = treeSize;
+                return;
+            }
+            Node n = root;
+            int local = index;
+            for (int sh = shift; sh > 0; sh -= BITS) {
+                int slot = n.slotFor(local, sh);
+                if (slot > 0) {
+                    local -= n.sizes[slot - 1];
+                }
+                n = (Node) n.array[slot];
+            }
+            leaf = n.array;
+            leafStart = index - local;
+        }
+    }
+
+    /**
+     * A leaf, holding elements, or an inner node, holding child nodes and their cumulative sizes. Arrays are
+     * exactly sized. A node whose {@code owner} is a builder's token may be changed in place by that builder;
+     * any other node is shared and never changes.
+     */
+    static final class Node {
+        final Object owner;
+        Object[] array;
+        /** {@code sizes[i]} is the number of elements under children {@code 0..i}; {@code null} in a leaf. */
+        int[] sizes;
+
+        Node(Object owner, Object[] array, int[] sizes) {
+            this.owner = owner;
+            this.array = array;
+            this.sizes = sizes;
+        }
+
+        static Node inner(Object owner, Object[] children) {
+            int[] sizes = new int[children.length];
+            int total = 0;
+            for (int i = 0; i < children.length; i++) {
+                total += ((Node) children[i]).size();
+                sizes[i] = total;
+            }
+            return new Node(owner, children, sizes);
+        }
+
+        int size() {
+            return sizes == null ? array.length : sizes[sizes.length - 1];
+        }
+
+        /**
+         * The child holding element {@code index} of an inner node of shift {@code sh}: the radix guess, moved
+         * forward past any children that hold fewer elements than a full subtree.
+         */
+        int slotFor(int index, int sh) {
+            int slot = index >>> sh;
+            while (sizes[slot] <= index) {
+                slot++;
+            }
+            return slot;
+        }
+
+        /** This node if {@code owner} may edit it, else a copy that it may. */
+        Node editable(Object owner) {
+            if (owner != null && this.owner == owner) {
+                return this;
+            }
+            return new Node(owner, array.clone(), sizes == null ? null : sizes.clone());
+        }
+
+        Node withChildAppended(Object owner, Node child) {
+            int n = array.length;
+            Object[] a = Arrays.copyOf(array, n + 1);
+            a[n] = child;
+            int[] s = Arrays.copyOf(sizes, n + 1);
+            s[n] = s[n - 1] + child.size();
+            if (owner != null && this.owner == owner) {
+                array = a;
+                sizes = s;
+                return this;
+            }
+            return new Node(owner, a, s);
+        }
+    }
+
+    /**
+     * Accumulates changes to a vector in place. Every builder has its own token: the nodes it creates carry
+     * it, and it copies any other node before its first change there, so vectors built earlier never change.
+     * A builder is not thread-safe.
+     *
+     * @param <E> the type of elements
+     */
+    public static final class Builder<E> {
+        private Object owner = new Object();
+        private int size;
+        private int shift;
+        private Node root;
+        /** The last {@code tailLength} elements; always {@link #WIDTH} long. */
+        private Object[] tail = new Object[WIDTH];
+        private int tailLength;
+
+        Builder(PersistentVector<E> v) {
+            size = v.size;
+            shift = v.shift;
+            root = v.root;
+            System.arraycopy(v.tail, 0, tail, 0, v.tail.length);
+            tailLength = v.tail.length;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            int treeSize = size - tailLength;
+            if (index >= treeSize) {
+                return (E) tail[index - treeSize];
+            }
+            Node n = root;
+            for (int sh = shift; sh > 0; sh -= BITS) {
+                int slot = n.slotFor(index, sh);
+                if (slot > 0) {
+                    index -= n.sizes[slot - 1];
+                }
+                n = (Node) n.array[slot];
+            }
+            return (E) n.array[index];
+        }
+
+        public Builder<E> add(E element) {
+            if (tailLength == WIDTH) {
+                Node leaf = new Node(owner, tail, null);
+                if (root == null) {
+                    root = leaf;
+                } else {
+                    Node r = pushLeaf(owner, root, shift, leaf);
+                    if (r != null) {
+                        root = r;
+                    } else {
+                        root = Node.inner(owner, new Object[] {root, path(owner, leaf, shift)});
+                        shift += BITS;
+                    }
+                }
+                tail = new Object[WIDTH];
+                tailLength = 0;
+            }
+            tail[tailLength++] = element;
+            size++;
+            return this;
+        }
+
+        public Builder<E> addAll(Collection<? extends E> c) {
+            for (E e : c) {
+                add(e);
+            }
+            return this;
+        }
+
+        /** Replaces the element at {@code index}; returns the element it replaced. */
+        public E set(int index, E element) {
+            E old = get(index);
+            int treeSize = size - tailLength;
+            if (index >= treeSize) {
+                tail[index - treeSize] = element;
+            } else {
+                root = PersistentVector.set(owner, root, shift, index, element);
+            }
+            return old;
+        }
+
+        /**
+         * Returns a vector of the current elements. The builder stays usable; its later changes copy the nodes
+         * they touch, so they never show through the returned vector.
+         */
+        public PersistentVector<E> build() {
+            if (size == 0) {
+                return empty();
+            }
+            owner = new Object();
+            return new PersistentVector<>(size, shift, root, Arrays.copyOf(tail, tailLength));
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package collections.list;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A {@link java.util.List} stored as a rope: a B-tree whose leaves are chunks of up to
+ * {@value #LEAF_CAPACITY} elements and whose inner nodes record how many elements lie under each child.
+ *
+ * <p>Where {@code ArrayList} shifts up to n elements on {@code add(index, e)} and {@code remove(index)}, as
+ * {@code LearnArrayList} notes, this list finds the chunk holding {@code index} by walking the counts down a
+ * tree of height O(log n) and shifts at most one chunk. A million elements fit in a tree three levels deep, so
+ * an insert or removal anywhere costs about the same as one at the end. {@link #get} walks the same path but
+ * first checks the chunk it used last, so sequential and clustered reads, including iteration, cost O(1) each.
+ * {@link GapList} is cheaper still when all edits happen near one cursor.
+ *
+ * <p>Like {@code ArrayList}, this class permits {@code null}, is not thread-safe and its iterators are
+ * fail-fast.
+ *
+ * @param <E> the type of elements
+ */
+public class RopeList<E> extends AbstractList<E> implements RandomAccess {
+
+    /** Maximum elements per leaf. */
+    static final int LEAF_CAPACITY = 128;
+    /** Maximum children per inner node. */
+    static final int INNER_CAPACITY = 64;
+    private static final int LEAF_MIN = LEAF_CAPACITY / 4;
+    private static final int INNER_MIN = INNER_CAPACITY / 4;
+
+    private Node root = new Leaf();
+
+    /** The leaf {@link #get} used last, its first index, and the {@code modCount} at which that was true. */
+    private Leaf cachedLeaf = (Leaf) root;
+    private int cachedStart;
+    private int cachedModCount;
+
+    public RopeList() {
+    }
+
+    public RopeList(Collection<? extends E> c) {
+        addAll(c);
+    }
+
+    @Override
+    public int size() {
+        return root.count;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int index) {
+        int local = index - cachedStart;
+        if (cachedModCount == modCount && local >= 0 && local < cachedLeaf.size) {
+            return (E) cachedLeaf.elements[local];
+        }
+        Objects.checkIndex(index, size());
+        Node node = root;
+        local = index;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int i = 0;
+            while (local >= inner.counts[i]) {
+                local -= inner.counts[i++];
+            }
+            node = inner.children[i];
+        }
+        Leaf leaf = (Leaf) node;
+        cachedLeaf = leaf;
+        cachedStart = index - local;
+        cachedModCount = modCount;
+        return (E) leaf.elements[local];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E set(int index, E element) {
+        Objects.checkIndex(index, size());
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            int i = 0;
+            while (index >= inner.counts[i]) {
+                index -= inner.counts[i++];
+            }
+            node = inner.children[i];
+        }
+        Object[] es = ((Leaf) node).elements;
+        E old = (E) es[index];
+        es[index] = element;
+        return old;
+    }
+
+    @Override
+    public boolean add(E e) {
+        add(size(), e);
+        return true;
+    }
+
+    /** Inserts {@code element} at {@code index}. O(log n). */
+    @Override
+    public void add(int index, E element) {
+        Objects.checkIndex(index, size() + 1);
+        modCount++;
+        Node split = insert(root, index, element);
+        if (split != null) {
+            Inner newRoot = new Inner();
+            newRoot.insert(0, root);
+            newRoot.insert(1, split);
+            newRoot.count = root.count + split.count;
+            root = newRoot;
+        }
+    }
+
+    /** Removes the element at {@code index}. O(log n). */
+    @Override
+    public E remove(int index) {
+        Objects.checkIndex(index, size());
+        modCount++;
+        E old = delete(root, index);
+        if (root instanceof Inner && root.size == 1) {
+            root = ((Inner) root).children[0];
+        }
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        root = new Leaf();
+        cachedLeaf = (Leaf) root;
+    }
+
+    /** Inserts into the subtree at {@code node}; returns its new right sibling if it split, else {@code null}. */
+    private Node insert(Node node, int index, E element) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            leaf.insert(index, element);
+            return leaf.size > LEAF_CAPACITY ? leaf.split(index) : null;
+        }
+        Inner inner = (Inner) node;
+        int i = 0;
+        // An index on a boundary goes to the end of the left child, so appends fill the last leaf.
+        while (i < inner.size - 1 && index > inner.counts[i]) {
+            index -= inner.counts[i++];
+        }
+        Node child = inner.children[i];
+        Node split = insert(child, index, element);
+        inner.count++;
+        inner.counts[i] = child.count;
+        if (split == null) {
+            return null;
+        }
+        inner.insert(i + 1, split);
+        return inner.size > INNER_CAPACITY ? inner.split() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E delete(Node node, int index) {
+        if (node instanceof Leaf) {
+            return (E) ((Leaf) node).remove(index);
+        }
+        Inner inner = (Inner) node;
+        int i = 0;
+        while (index >= inner.counts[i]) {
+            index -= inner.counts[i++];
+        }
+        Node child = inner.children[i];
+        E old = delete(child, index);
+        inner.count--;
+        inner.counts[i] = child.count;
+        if (child.size < (child instanceof Leaf ? LEAF_MIN : INNER_MIN) && inner.size > 1) {
+            rebalance(inner, i);
+        }
+        return old;
+    }
+
+    /**
+     * Restores the fill of {@code parent.children[i]} by merging it with a neighbour if both fit in one node,
+     * or otherwise by sharing the neighbour's elements evenly between the two.
+     */
+    private static void rebalance(Inner parent, int i) {
+        int left = i + 1 < parent.size ? i : i - 1;
+        Node a = parent.children[left];
+        Node b = parent.children[left + 1];
+        int capacity = a instanceof Leaf ? LEAF_CAPACITY : INNER_CAPACITY;
+        if (a.size + b.size <= capacity) {
+            a.moveFrom(b, b.size);
+            parent.remove(left + 1);
+        } else {
+            int target = (a.size + b.size) >>> 1;
+            if (a.size < target) {
+                a.moveFrom(b, target - a.size);
+            } else {
+                b.moveToFront(a, a.size - target);
+            }
+            parent.counts[left + 1] = b.count;
+        }
+        parent.counts[left] = a.count;
+    }
+
+    // ---- nodes ----
+
+    /** Common header: {@code size} slots in use and {@code count} elements in the subtree. */
+    abstract static class Node {
+        int size;
+        int count;
+
+        /** Appends the first {@code n} slots of {@code right}, a node of the same kind, and removes them there. */
+        abstract void moveFrom(Node right, int n);
+
+        /** Prepends the last {@code n} slots of {@code left}, a node of the same kind, and removes them there. */
+        abstract void moveToFront(Node left, int n);
+    }
+
+    /** Elements in {@code elements[0, size)}; one spare slot for the insert that triggers a split. */
+    static final class Leaf extends Node {
+        final Object[] elements = new Object[LEAF_CAPACITY + 1];
+
+        void insert(int i, Object e) {
+            System.arraycopy(elements, i, elements, i + 1, size - i);
+            elements[i] = e;
+            size++;
+            count = size;
+        }
+
+        Object remove(int i) {
+            Object old = elements[i];
+            System.arraycopy(elements, i + 1, elements, i, size - i - 1);
+            elements[--size] = null;
+            count = size;
+            return old;
+        }
+
+        /**
+         * Moves the upper part of this overfull leaf to a new one. After an insert at the very end the new
+         * leaf takes only that element, so a list built by appending has full leaves.
+         */
+        Leaf split(int insertedAt) {
+            int keep = insertedAt == size - 1 ? LEAF_CAPACITY : size >>> 1;
+            Leaf right = new Leaf();
+            System.arraycopy(elements, keep, right.elements, 0, size - keep);
+            Arrays.fill(elements, keep, size, null);
+            right.size = right.count = size - keep;
+            size = count = keep;
+            return right;
+        }
+
+        @Override
+        void moveFrom(Node right, int n) {
+            Leaf r = (Leaf) right;
+            System.arraycopy(r.elements, 0, elements, size, n);
+            System.arraycopy(r.elements, n, r.elements, 0, r.size - n);
+            Arrays.fill(r.elements, r.size - n, r.size, null);
+            size += n;
+            count = size;
+            r.size -= n;
+            r.count = r.size;
+        }
+
+        @Override
+        void moveToFront(Node left, int n) {
+            Leaf l = (Leaf) left;
+            System.arraycopy(elements, 0, elements, n, size);
+            System.arraycopy(l.elements, l.size - n, elements, 0, n);
+            Arrays.fill(l.elements, l.size - n, l.size, null);
+            size += n;
+            count = size;
+            l.size -= n;
+            l.count = l.size;
+        }
+    }
+
+    /** {@code size} children, with {@code counts[i]} elements under {@code children[i]}; one spare slot. */
+    static final class Inner extends Node {
+        final Node[] children = new Node[INNER_CAPACITY + 1];
+        final int[] counts = new int[INNER_CAPACITY + 1];
+
+        /** Inserts {@code child} at {@code i}; the caller keeps {@code count} up to date. */
+        void insert(int i, Node child) {
+            System.arraycopy(children, i, children, i + 1, size - i);
+            System.arraycopy(counts, i, counts, i + 1, size - i);
+            children[i] = child;
+            counts[i] = child.count;
+            size++;
+        }
+
+        /** Removes child {@code i}, which must be empty. */
+        void remove(int i) {
+            System.arraycopy(children, i + 1, children, i, size - i - 1);
+            System.arraycopy(counts, i + 1, counts, i, size - i - 1);
+            children[--size] = null;
+            counts[size] = 0;
+        }
+
+        Inner split() {
+            Inner right = new Inner();
+            int keep = size >>> 1;
+            int n = size - keep;
+            System.arraycopy(children, keep, right.children, 0, n);
+            System.arraycopy(counts, keep, right.counts, 0, n);
+            Arrays.fill(children, keep, size, null);
+            right.size = n;
+            right.count = sum(right.counts, 0, n);
+            count -= right.count;
+            Arrays.fill(counts, keep, size, 0);
+            size = keep;
+            return right;
+        }
+
+        @Override
+        void moveFrom(Node right, int n) {
+            Inner r = (Inner) right;
+            int moved = sum(r.counts, 0, n);
+            System.arraycopy(r.children, 0, children, size, n);
+            System.arraycopy(r.counts, 0, counts, size, n);
+            System.arraycopy(r.children, n, r.children, 0, r.size - n);
+            System.arraycopy(r.counts, n, r.counts, 0, r.size - n);
+            Arrays.fill(r.children, r.size - n, r.size, null);
+            size += n;
+            count += moved;
+            r.size -= n;
+            r.count -= moved;
+        }
+
+        @Override
+        void moveToFront(Node left, int n) {
+            Inner l = (Inner) left;
+            int moved = sum(l.counts, l.size - n, l.size);
+            System.arraycopy(children, 0, children, n, size);
+            System.arraycopy(counts, 0, counts, n, size);
+            System.arraycopy(l.children, l.size - n, children, 0, n);
+            System.arraycopy(l.counts, l.size - n, counts, 0, n);
+            Arrays.fill(l.children, l.size - n, l.size, null);
+            size += n;
+            count += moved;
+            l.size -= n;
+            l.count -= moved;
+        }
+
+        private static int sum(int[] a, int from, int to) {
+            int s = 0;
+            for (int i = from; i < to; i++) {
+                s += a[i];
+            }
+            return s;
+        }
+    }
+}
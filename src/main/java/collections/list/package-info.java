@@ -0,0 +1,4 @@
+/**
+ * List implementations that complement the {@code ArrayList} walkthrough in {@code LearnArrayList}.
+ */
+package collections.list;
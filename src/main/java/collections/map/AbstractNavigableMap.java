@@ -0,0 +1,527 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Skeleton of a {@link NavigableMap}, in the spirit of {@link AbstractMap}: a subclass supplies the relational
+ * lookups ({@code firstEntry}, {@code ceilingEntry}, ...) and a bounded entry iterator, and inherits the
+ * key-returning variants and every view that {@code LearnTreeMap} lists: {@code headMap}, {@code tailMap},
+ * {@code subMap}, {@code descendingMap} and the key sets.
+ *
+ * <p>Views are bounded windows over the backing map in the manner of {@code TreeMap}'s: they share its
+ * entries, reject out-of-range insertions with {@code IllegalArgumentException}, and iterate with the backing
+ * map's own bounded iterator.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+abstract class AbstractNavigableMap<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+    private transient NavigableSet<K> keySet;
+    private transient NavigableMap<K, V> descendingMap;
+
+    /**
+     * Returns an iterator over the entries whose keys lie between the two bounds, in ascending key order, or in
+     * descending order if {@code descending}. A bound is ignored when {@code fromStart} (for {@code lo}) or
+     * {@code toEnd} (for {@code hi}) is set; otherwise the flags say whether the bound key itself is included.
+     * The iterator's {@code remove} must be supported by modifiable maps.
+     */
+    abstract Iterator<Map.Entry<K, V>> entryIterator(boolean fromStart, K lo, boolean loInclusive,
+                                                    boolean toEnd, K hi, boolean hiInclusive,
+                                                    boolean descending);
+
+    /** Compares two keys with {@link #comparator()}, or by natural ordering if it is {@code null}. */
+    @SuppressWarnings("unchecked")
+    final int compare(Object a, Object b) {
+        Comparator<? super K> c = comparator();
+        return c == null ? ((Comparable<Object>) a).compareTo(b) : c.compare((K) a, (K) b);
+    }
+
+    static <K> K keyOrNull(Map.Entry<K, ?> e) {
+        return e == null ? null : e.getKey();
+    }
+
+    static <K> K keyOrThrow(Map.Entry<K, ?> e) {
+        if (e == null) {
+            throw new NoSuchElementException();
+        }
+        return e.getKey();
+    }
+
+    @Override
+    public K firstKey() {
+        return keyOrThrow(firstEntry());
+    }
+
+    @Override
+    public K lastKey() {
+        return keyOrThrow(lastEntry());
+    }
+
+    @Override
+    public K lowerKey(K key) {
+        return keyOrNull(lowerEntry(key));
+    }
+
+    @Override
+    public K floorKey(K key) {
+        return keyOrNull(floorEntry(key));
+    }
+
+    @Override
+    public K ceilingKey(K key) {
+        return keyOrNull(ceilingEntry(key));
+    }
+
+    @Override
+    public K higherKey(K key) {
+        return keyOrNull(higherEntry(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> pollFirstEntry() {
+        return poll(entryIterator(true, null, false, true, null, false, false));
+    }
+
+    @Override
+    public Map.Entry<K, V> pollLastEntry() {
+        return poll(entryIterator(true, null, false, true, null, false, true));
+    }
+
+    static <K, V> Map.Entry<K, V> poll(Iterator<Map.Entry<K, V>> it) {
+        if (!it.hasNext()) {
+            return null;
+        }
+        Map.Entry<K, V> e = it.next();
+        Map.Entry<K, V> snapshot = new AbstractMap.SimpleImmutableEntry<>(e);
+        it.remove();
+        return snapshot;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return navigableKeySet();
+    }
+
+    @Override
+    public NavigableSet<K> navigableKeySet() {
+        NavigableSet<K> ks = keySet;
+        return ks != null ? ks : (keySet = new NavigableKeySet<>(this));
+    }
+
+    @Override
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    @Override
+    public NavigableMap<K, V> descendingMap() {
+        NavigableMap<K, V> dm = descendingMap;
+        return dm != null ? dm : (descendingMap = new SubMap<>(this, true, null, false, true, null, false, true));
+    }
+
+    @Override
+    public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+        if (compare(fromKey, toKey) > 0) {
+            throw new IllegalArgumentException("fromKey > toKey");
+        }
+        return new SubMap<>(this, false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+        compare(toKey, toKey); // type and null check, as TreeMap does
+        return new SubMap<>(this, true, null, false, false, toKey, inclusive, false);
+    }
+
+    @Override
+    public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+        compare(fromKey, fromKey);
+        return new SubMap<>(this, false, fromKey, inclusive, true, null, false, false);
+    }
+
+    @Override
+    public SortedMap<K, V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    @Override
+    public SortedMap<K, V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return entryIterator(true, null, false, true, null, false, false);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object key = e.getKey();
+            return key != null && containsKey(key) && Objects.equals(get(key), e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (contains(o)) {
+                AbstractNavigableMap.this.remove(((Map.Entry<?, ?>) o).getKey());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public int size() {
+            return AbstractNavigableMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            AbstractNavigableMap.this.clear();
+        }
+    }
+
+    /**
+     * A range of the backing map, optionally in descending order. Bounds are always expressed in the backing
+     * map's (ascending) order: {@code lo} is the low end and {@code hi} the high end, whatever the direction.
+     */
+    static final class SubMap<K, V> extends AbstractMap<K, V> implements NavigableMap<K, V> {
+        private final AbstractNavigableMap<K, V> m;
+        private final boolean fromStart;
+        private final K lo;
+        private final boolean loInclusive;
+        private final boolean toEnd;
+        private final K hi;
+        private final boolean hiInclusive;
+        private final boolean descending;
+
+        private transient Set<Map.Entry<K, V>> entrySet;
+
+        SubMap(AbstractNavigableMap<K, V> m, boolean fromStart, K lo, boolean loInclusive,
+               boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+            this.m = m;
+            this.fromStart = fromStart;
+            this.lo = lo;
+            this.loInclusive = loInclusive;
+            this.toEnd = toEnd;
+            this.hi = hi;
+            this.hiInclusive = hiInclusive;
+            this.descending = descending;
+        }
+
+        private boolean tooLow(Object key) {
+            if (!fromStart) {
+                int c = m.compare(key, lo);
+                return c < 0 || (c == 0 && !loInclusive);
+            }
+            return false;
+        }
+
+        private boolean tooHigh(Object key) {
+            if (!toEnd) {
+                int c = m.compare(key, hi);
+                return c > 0 || (c == 0 && !hiInclusive);
+            }
+            return false;
+        }
+
+        private boolean inRange(Object key) {
+            return !tooLow(key) && !tooHigh(key);
+        }
+
+        private boolean inClosedRange(Object key) {
+            return (fromStart || m.compare(key, lo) >= 0) && (toEnd || m.compare(hi, key) >= 0);
+        }
+
+        private boolean inRange(Object key, boolean inclusive) {
+            return inclusive ? inRange(key) : inClosedRange(key);
+        }
+
+        private Map.Entry<K, V> absLowest() {
+            Map.Entry<K, V> e = fromStart ? m.firstEntry() : (loInclusive ? m.ceilingEntry(lo) : m.higherEntry(lo));
+            return e == null || tooHigh(e.getKey()) ? null : e;
+        }
+
+        private Map.Entry<K, V> absHighest() {
+            Map.Entry<K, V> e = toEnd ? m.lastEntry() : (hiInclusive ? m.floorEntry(hi) : m.lowerEntry(hi));
+            return e == null || tooLow(e.getKey()) ? null : e;
+        }
+
+        private Map.Entry<K, V> absCeiling(K key) {
+            if (tooLow(key)) {
+                return absLowest();
+            }
+            Map.Entry<K, V> e = m.ceilingEntry(key);
+            return e == null || tooHigh(e.getKey()) ? null : e;
+        }
+
+        private Map.Entry<K, V> absHigher(K key) {
+            if (tooLow(key)) {
+                return absLowest();
+            }
+            Map.Entry<K, V> e = m.higherEntry(key);
+            return e == null || tooHigh(e.getKey()) ? null : e;
+        }
+
+        private Map.Entry<K, V> absFloor(K key) {
+            if (tooHigh(key)) {
+                return absHighest();
+            }
+            Map.Entry<K, V> e = m.floorEntry(key);
+            return e == null || tooLow(e.getKey()) ? null : e;
+        }
+
+        private Map.Entry<K, V> absLower(K key) {
+            if (tooHigh(key)) {
+                return absHighest();
+            }
+            Map.Entry<K, V> e = m.lowerEntry(key);
+            return e == null || tooLow(e.getKey()) ? null : e;
+        }
+
+        @Override
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> c = m.comparator();
+            if (!descending) {
+                return c;
+            }
+            return c == null ? Collections.reverseOrder() : Collections.reverseOrder(c);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return inRange(key) && m.containsKey(key);
+        }
+
+        @Override
+        public V get(Object key) {
+            return inRange(key) ? m.get(key) : null;
+        }
+
+        @Override
+        public V put(K key, V value) {
+            if (!inRange(key)) {
+                throw new IllegalArgumentException("key out of range");
+            }
+            return m.put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return inRange(key) ? m.remove(key) : null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return absLowest() == null;
+        }
+
+        /** Counts the entries in range, O(size of the range), as {@code TreeMap}'s views do. */
+        @Override
+        public int size() {
+            int n = 0;
+            for (Iterator<Map.Entry<K, V>> it = entryIterator(); it.hasNext(); it.next()) {
+                n++;
+            }
+            return n;
+        }
+
+        @Override
+        public Map.Entry<K, V> firstEntry() {
+            return descending ? absHighest() : absLowest();
+        }
+
+        @Override
+        public Map.Entry<K, V> lastEntry() {
+            return descending ? absLowest() : absHighest();
+        }
+
+        @Override
+        public Map.Entry<K, V> ceilingEntry(K key) {
+            return descending ? absFloor(key) : absCeiling(key);
+        }
+
+        @Override
+        public Map.Entry<K, V> higherEntry(K key) {
+            return descending ? absLower(key) : absHigher(key);
+        }
+
+        @Override
+        public Map.Entry<K, V> floorEntry(K key) {
+            return descending ? absCeiling(key) : absFloor(key);
+        }
+
+        @Override
+        public Map.Entry<K, V> lowerEntry(K key) {
+            return descending ? absHigher(key) : absLower(key);
+        }
+
+        @Override
+        public K firstKey() {
+            return keyOrThrow(firstEntry());
+        }
+
+        @Override
+        public K lastKey() {
+            return keyOrThrow(lastEntry());
+        }
+
+        @Override
+        public K ceilingKey(K key) {
+            return keyOrNull(ceilingEntry(key));
+        }
+
+        @Override
+        public K higherKey(K key) {
+            return keyOrNull(higherEntry(key));
+        }
+
+        @Override
+        public K floorKey(K key) {
+            return keyOrNull(floorEntry(key));
+        }
+
+        @Override
+        public K lowerKey(K key) {
+            return keyOrNull(lowerEntry(key));
+        }
+
+        @Override
+        public Map.Entry<K, V> pollFirstEntry() {
+            return poll(entryIterator());
+        }
+
+        @Override
+        public Map.Entry<K, V> pollLastEntry() {
+            return poll(m.entryIterator(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending));
+        }
+
+        @Override
+        public NavigableMap<K, V> descendingMap() {
+            return new SubMap<>(m, fromStart, lo, loInclusive, toEnd, hi, hiInclusive, !descending);
+        }
+
+        @Override
+        public NavigableSet<K> navigableKeySet() {
+            return new NavigableKeySet<>(this);
+        }
+
+        @Override
+        public Set<K> keySet() {
+            return navigableKeySet();
+        }
+
+        @Override
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        @Override
+        public NavigableMap<K, V> subMap(K fromKey, boolean fromInclusive, K toKey, boolean toInclusive) {
+            if (!inRange(fromKey, fromInclusive)) {
+                throw new IllegalArgumentException("fromKey out of range");
+            }
+            if (!inRange(toKey, toInclusive)) {
+                throw new IllegalArgumentException("toKey out of range");
+            }
+            if (descending) {
+                if (m.compare(toKey, fromKey) > 0) {
+                    throw new IllegalArgumentException("fromKey > toKey");
+                }
+                return new SubMap<>(m, false, toKey, toInclusive, false, fromKey, fromInclusive, true);
+            }
+            if (m.compare(fromKey, toKey) > 0) {
+                throw new IllegalArgumentException("fromKey > toKey");
+            }
+            return new SubMap<>(m, false, fromKey, fromInclusive, false, toKey, toInclusive, false);
+        }
+
+        @Override
+        public NavigableMap<K, V> headMap(K toKey, boolean inclusive) {
+            if (!inRange(toKey, inclusive)) {
+                throw new IllegalArgumentException("toKey out of range");
+            }
+            return descending
+                    ? new SubMap<>(m, false, toKey, inclusive, toEnd, hi, hiInclusive, true)
+                    : new SubMap<>(m, fromStart, lo, loInclusive, false, toKey, inclusive, false);
+        }
+
+        @Override
+        public NavigableMap<K, V> tailMap(K fromKey, boolean inclusive) {
+            if (!inRange(fromKey, inclusive)) {
+                throw new IllegalArgumentException("fromKey out of range");
+            }
+            return descending
+                    ? new SubMap<>(m, fromStart, lo, loInclusive, false, fromKey, inclusive, true)
+                    : new SubMap<>(m, false, fromKey, inclusive, toEnd, hi, hiInclusive, false);
+        }
+
+        @Override
+        public SortedMap<K, V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        @Override
+        public SortedMap<K, V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        @Override
+        public Set<Map.Entry<K, V>> entrySet() {
+            Set<Map.Entry<K, V>> es = entrySet;
+            return es != null ? es : (entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<K, V>> iterator() {
+                    return entryIterator();
+                }
+
+                @Override
+                public int size() {
+                    return SubMap.this.size();
+                }
+
+                @Override
+                public boolean isEmpty() {
+                    return SubMap.this.isEmpty();
+                }
+            });
+        }
+
+        private Iterator<Map.Entry<K, V>> entryIterator() {
+            return m.entryIterator(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, descending);
+        }
+    }
+}
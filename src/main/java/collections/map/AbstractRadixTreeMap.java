@@ -0,0 +1,910 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * An adaptive radix tree (ART) over keys that read as sequences of symbols in {@code [0, 0xFFFF]}: the
+ * {@code char}s of a {@code String} or the unsigned bytes of a {@code byte[]}. Subclasses say how to read a key
+ * and must order keys exactly as the symbol sequences compare lexicographically, a proper prefix first.
+ *
+ * <p>Each inner node stands for one position in the key. Its children are indexed by the symbol at that
+ * position, and its {@code terminal} holds the entry whose key ends there. Inner nodes change representation
+ * with their fan-out, as in the ART paper: a sorted node scanned linearly up to 4 children and binary-searched
+ * up to 16, then a 256-slot byte index over 48 children, then a direct array of 256 children. A node that needs
+ * a symbol above {@code 0xFF} stays a sorted node and doubles its arrays instead. A chain of single-child nodes
+ * is collapsed into the {@code prefix} of the node below it (path compression), and a key with no sibling below
+ * a node is stored as a leaf right there (lazy expansion).
+ *
+ * <p>Lookups skip the compressed prefixes and compare the whole key once, against the leaf they reach, so they
+ * cost O(key length) no matter how many entries the map holds. Leaves are the entries themselves, so iterators
+ * allocate nothing per element and {@code setValue} on an iterated entry writes through.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+abstract class AbstractRadixTreeMap<K, V> extends AbstractNavigableMap<K, V> {
+
+    /** Stack position of a node none of whose entries has been visited, in ascending order. */
+    private static final int BEFORE = -2;
+    /** Stack position of a node whose terminal (but no child) has been visited, in ascending order. */
+    private static final int TERMINAL = -1;
+    /** Stack position of a node none of whose entries has been visited, in descending order. */
+    private static final int AFTER = Character.MAX_VALUE + 1;
+
+    /** {@code null}, a {@link Leaf} or an {@link Inner}. */
+    private Object root;
+    private int size;
+    private int modCount;
+
+    /** Returns {@code key} as a {@code K}, throwing as {@code TreeMap} does if it is {@code null} or mistyped. */
+    abstract K checkKey(Object key);
+
+    /** Number of symbols in {@code key}. */
+    abstract int length(Object key);
+
+    /** Symbol {@code i} of {@code key}, in {@code [0, 0xFFFF]}. */
+    abstract int symbol(Object key, int i);
+
+    abstract boolean keyEquals(Object a, Object b);
+
+    /** The least key greater than every key that starts with {@code prefix}, or {@code null} if there is none. */
+    abstract K prefixEnd(K prefix);
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        size = 0;
+        modCount++;
+    }
+
+    // ---- lookups ----
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> Leaf<K, V> leaf(Object node) {
+        return (Leaf<K, V>) node;
+    }
+
+    /**
+     * Follows the symbols of {@code key} at the branching positions only. Two keys that agree there reach the
+     * same leaf, so the final {@link #keyEquals} stands in for every skipped prefix comparison.
+     */
+    private Leaf<K, V> findLeaf(Object key) {
+        int len = length(key);
+        Object n = root;
+        int depth = 0;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            depth += in.prefix.length;
+            if (depth >= len) {
+                n = depth == len ? in.terminal : null;
+                break;
+            }
+            n = in.child(symbol(key, depth++));
+        }
+        Leaf<K, V> leaf = leaf(n);
+        return leaf != null && keyEquals(leaf.getKey(), key) ? leaf : null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Leaf<K, V> leaf = findLeaf(checkKey(key));
+        return leaf == null ? null : leaf.getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return findLeaf(checkKey(key)) != null;
+    }
+
+    private static <K, V> Map.Entry<K, V> snapshot(Leaf<K, V> leaf) {
+        return leaf == null ? null : new AbstractMap.SimpleImmutableEntry<>(leaf);
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        Object n = root;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            if (in.terminal != null) {
+                return snapshot(leaf(in.terminal));
+            }
+            n = in.child(in.nextSymbol(0));
+        }
+        return snapshot(leaf(n));
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        Object n = root;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            n = in.child(in.prevSymbol(Character.MAX_VALUE));
+        }
+        return snapshot(leaf(n));
+    }
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return snapshot(new Cursor(true).seek(checkKey(key), false));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return snapshot(new Cursor(true).seek(checkKey(key), true));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return snapshot(new Cursor(false).seek(checkKey(key), true));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return snapshot(new Cursor(false).seek(checkKey(key), false));
+    }
+
+    // ---- prefix queries ----
+
+    /**
+     * Returns a view of the entries whose keys start with {@code prefix}, backed by this map as
+     * {@link #subMap(Object, boolean, Object, boolean)} is. Iterating it finds the first match in O(prefix
+     * length) and then walks the matching subtree in order.
+     */
+    public NavigableMap<K, V> prefixMap(K prefix) {
+        K end = prefixEnd(checkKey(prefix));
+        return end == null ? tailMap(prefix, true) : subMap(prefix, true, end, false);
+    }
+
+    /**
+     * Passes every entry whose key starts with {@code prefix} to {@code action}, in key order, without
+     * allocating an entry per mapping or comparing any key against a bound.
+     */
+    public void forEachWithPrefix(K prefix, BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int len = length(checkKey(prefix));
+        Object n = root;
+        int depth = 0;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            char[] p = in.prefix;
+            for (int i = 0; i < p.length; i++) {
+                if (depth + i == len) {
+                    forEach(in, action);
+                    return;
+                }
+                if (symbol(prefix, depth + i) != p[i]) {
+                    return;
+                }
+            }
+            depth += p.length;
+            if (depth == len) {
+                forEach(in, action);
+                return;
+            }
+            n = in.child(symbol(prefix, depth++));
+        }
+        Leaf<K, V> leaf = leaf(n);
+        if (leaf != null && startsWith(leaf.getKey(), prefix, len)) {
+            action.accept(leaf.getKey(), leaf.getValue());
+        }
+    }
+
+    private boolean startsWith(Object key, Object prefix, int prefixLength) {
+        if (length(key) < prefixLength) {
+            return false;
+        }
+        for (int i = 0; i < prefixLength; i++) {
+            if (symbol(key, i) != symbol(prefix, i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ---- updates ----
+
+    private char[] symbols(Object key, int from, int to) {
+        char[] s = new char[to - from];
+        for (int i = from; i < to; i++) {
+            s[i - from] = (char) symbol(key, i);
+        }
+        return s;
+    }
+
+    /** Puts {@code leaf} below {@code in}, whose path (prefix included) spans the first {@code depth} symbols. */
+    private void attach(Inner in, Leaf<K, V> leaf, int depth) {
+        K key = leaf.getKey();
+        if (length(key) == depth) {
+            in.terminal = leaf;
+        } else {
+            in.addChild(symbol(key, depth), leaf);
+        }
+    }
+
+    private void replace(Inner parent, int symbol, Object node) {
+        if (parent == null) {
+            root = node;
+        } else {
+            parent.setChild(symbol, node);
+        }
+    }
+
+    /**
+     * Unlike {@link #get}, compares every prefix on the way down: a new leaf or split has to go exactly where the
+     * key first leaves the existing paths.
+     */
+    @Override
+    public V put(K key, V value) {
+        checkKey(key);
+        int len = length(key);
+        Object n = root;
+        Inner parent = null;
+        int edge = 0;
+        int depth = 0;
+        if (n == null) {
+            root = new Leaf<>(key, value);
+        } else {
+            while (true) {
+                if (n instanceof Leaf) {
+                    Leaf<K, V> existing = leaf(n);
+                    K other = existing.getKey();
+                    if (keyEquals(other, key)) {
+                        return existing.setValue(value);
+                    }
+                    // Both keys follow the path so far; branch where they part, or where the shorter one ends.
+                    int end = Math.min(len, length(other));
+                    int d = depth;
+                    while (d < end && symbol(key, d) == symbol(other, d)) {
+                        d++;
+                    }
+                    Inner split = new SortedNode(symbols(key, depth, d), 4);
+                    attach(split, existing, d);
+                    attach(split, new Leaf<>(key, value), d);
+                    replace(parent, edge, split);
+                    break;
+                }
+                Inner in = (Inner) n;
+                char[] p = in.prefix;
+                int m = 0;
+                while (m < p.length && depth + m < len && symbol(key, depth + m) == p[m]) {
+                    m++;
+                }
+                if (m < p.length) {
+                    // The key leaves the compressed path after m symbols: split the path there.
+                    Inner split = new SortedNode(Arrays.copyOf(p, m), 4);
+                    split.addChild(p[m], in);
+                    in.prefix = Arrays.copyOfRange(p, m + 1, p.length);
+                    attach(split, new Leaf<>(key, value), depth + m);
+                    replace(parent, edge, split);
+                    break;
+                }
+                depth += p.length;
+                if (depth == len) {
+                    if (in.terminal != null) {
+                        return AbstractRadixTreeMap.<K, V>leaf(in.terminal).setValue(value);
+                    }
+                    in.terminal = new Leaf<>(key, value);
+                    break;
+                }
+                int s = symbol(key, depth);
+                Object child = in.child(s);
+                if (child == null) {
+                    Inner grown = in.addChild(s, new Leaf<>(key, value));
+                    if (grown != in) {
+                        replace(parent, edge, grown);
+                    }
+                    break;
+                }
+                parent = in;
+                edge = s;
+                n = child;
+                depth++;
+            }
+        }
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public V remove(Object key) {
+        checkKey(key);
+        int len = length(key);
+        Object n = root;
+        Inner parent = null;
+        Inner grandparent = null;
+        int edge = 0;
+        int parentEdge = 0;
+        int depth = 0;
+        while (n instanceof Inner) {
+            Inner in = (Inner) n;
+            depth += in.prefix.length;
+            if (depth >= len) {
+                Leaf<K, V> t = leaf(in.terminal);
+                if (depth > len || t == null || !keyEquals(t.getKey(), key)) {
+                    return null;
+                }
+                in.terminal = null;
+                compact(in, parent, edge);
+                size--;
+                modCount++;
+                return t.getValue();
+            }
+            grandparent = parent;
+            parentEdge = edge;
+            parent = in;
+            edge = symbol(key, depth++);
+            n = in.child(edge);
+        }
+        Leaf<K, V> leaf = leaf(n);
+        if (leaf == null || !keyEquals(leaf.getKey(), key)) {
+            return null;
+        }
+        if (parent == null) {
+            root = null;
+        } else {
+            compact(parent.removeChild(edge), grandparent, parentEdge);
+        }
+        size--;
+        modCount++;
+        return leaf.getValue();
+    }
+
+    /**
+     * Re-links {@code in}, which has just lost an entry and may have been shrunk, below {@code parent}. Every
+     * inner node holds at least two entries, so one left with a single entry is replaced by it: its terminal
+     * leaf, or its only child with {@code in}'s path prepended.
+     */
+    private void compact(Inner in, Inner parent, int edge) {
+        Object replacement = in;
+        if (in.count == 0) {
+            replacement = in.terminal;
+        } else if (in.count == 1 && in.terminal == null) {
+            int s = in.nextSymbol(0);
+            Object child = in.child(s);
+            if (child instanceof Inner) {
+                Inner c = (Inner) child;
+                char[] merged = Arrays.copyOf(in.prefix, in.prefix.length + 1 + c.prefix.length);
+                merged[in.prefix.length] = (char) s;
+                System.arraycopy(c.prefix, 0, merged, in.prefix.length + 1, c.prefix.length);
+                c.prefix = merged;
+            }
+            replacement = child;
+        }
+        replace(parent, edge, replacement);
+    }
+
+    // ---- iteration ----
+
+    /** Walks the tree in key order without allocating an entry per mapping. */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        if (root != null) {
+            forEach(root, action);
+        }
+    }
+
+    private void forEach(Object subtree, BiConsumer<? super K, ? super V> action) {
+        int expectedModCount = modCount;
+        Cursor cursor = new Cursor(false);
+        for (Leaf<K, V> leaf = cursor.enter(subtree); leaf != null; leaf = cursor.advance()) {
+            action.accept(leaf.getKey(), leaf.getValue());
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    Iterator<Map.Entry<K, V>> entryIterator(boolean fromStart, K lo, boolean loInclusive,
+                                           boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+        return new EntryIterator(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, descending);
+    }
+
+    /**
+     * A path from the root to the current leaf, as a stack of inner nodes and the position reached in each: a
+     * child symbol, or one of {@link #BEFORE}, {@link #TERMINAL} and {@link #AFTER}.
+     */
+    private final class Cursor {
+        private final boolean descending;
+        private Inner[] nodes = new Inner[8];
+        private int[] positions = new int[8];
+        private int top;
+
+        Cursor(boolean descending) {
+            this.descending = descending;
+        }
+
+        private void push(Inner in, int position) {
+            if (top == nodes.length) {
+                nodes = Arrays.copyOf(nodes, top * 2);
+                positions = Arrays.copyOf(positions, top * 2);
+            }
+            nodes[top] = in;
+            positions[top++] = position;
+        }
+
+        /** Starts a walk over {@code subtree}; returns its first leaf in the cursor's direction. */
+        Leaf<K, V> enter(Object subtree) {
+            top = 0;
+            if (subtree instanceof Inner) {
+                push((Inner) subtree, descending ? AFTER : BEFORE);
+                return advance();
+            }
+            return leaf(subtree);
+        }
+
+        /**
+         * Positions the cursor at {@code key} and returns the nearest leaf at or after it in the cursor's
+         * direction, excluding {@code key} itself unless {@code inclusive}; {@code null} if there is none.
+         */
+        Leaf<K, V> seek(Object key, boolean inclusive) {
+            top = 0;
+            int len = length(key);
+            Object n = root;
+            int depth = 0;
+            while (n instanceof Inner) {
+                Inner in = (Inner) n;
+                char[] p = in.prefix;
+                for (int i = 0; i < p.length; i++) {
+                    // A key that ends inside the path sorts before the whole subtree.
+                    int c = depth + i == len ? -1 : Integer.compare(symbol(key, depth + i), p[i]);
+                    if (c != 0) {
+                        // Enter the subtree from its near end if it lies ahead of the key, else skip it.
+                        if (c < 0 != descending) {
+                            push(in, descending ? AFTER : BEFORE);
+                        }
+                        return advance();
+                    }
+                }
+                depth += p.length;
+                if (depth == len) {
+                    // The terminal is the key itself, and every child follows it.
+                    push(in, TERMINAL);
+                    return inclusive && in.terminal != null ? leaf(in.terminal) : advance();
+                }
+                int s = symbol(key, depth);
+                push(in, s);
+                n = in.child(s);
+                depth++;
+            }
+            Leaf<K, V> leaf = leaf(n);
+            if (leaf == null) {
+                return advance();
+            }
+            int c = compare(leaf.getKey(), key);
+            return c == 0 ? (inclusive ? leaf : advance()) : (c > 0 != descending ? leaf : advance());
+        }
+
+        /** Moves to the next leaf in the cursor's direction; {@code null} once the walk is over. */
+        Leaf<K, V> advance() {
+            while (top > 0) {
+                Inner in = nodes[top - 1];
+                int pos = positions[top - 1];
+                int s;
+                if (!descending) {
+                    if (pos == BEFORE) {
+                        positions[top - 1] = TERMINAL;
+                        if (in.terminal != null) {
+                            return leaf(in.terminal);
+                        }
+                        pos = TERMINAL;
+                    }
+                    s = in.nextSymbol(pos + 1);
+                } else {
+                    if (pos == TERMINAL) {
+                        top--;
+                        continue;
+                    }
+                    s = in.prevSymbol(pos - 1);
+                    if (s < 0) {
+                        positions[top - 1] = TERMINAL;
+                        if (in.terminal != null) {
+                            return leaf(in.terminal);
+                        }
+                        top--;
+                        continue;
+                    }
+                }
+                if (s < 0) {
+                    top--;
+                    continue;
+                }
+                positions[top - 1] = s;
+                Object child = in.child(s);
+                if (!(child instanceof Inner)) {
+                    return leaf(child);
+                }
+                push((Inner) child, descending ? AFTER : BEFORE);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Looks one leaf ahead, so that {@code hasNext} is a null check. As in {@code TreeMap}'s sub-maps, the far
+     * bound is checked by comparison only for the first leaf; after that the walk stops at the fence, the first
+     * leaf past the bound, by identity. After {@code remove()} the nodes on the path may have been replaced, so
+     * the iterator seeks its next key again.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final Cursor cursor;
+        /** Far bound, checked against the first leaf; ignored if {@code unbounded}. */
+        private final K bound;
+        private final boolean boundInclusive;
+        private final boolean unbounded;
+        /** The first leaf past the far bound, or {@code null} if the walk runs to the end of the map. */
+        private final Leaf<K, V> fence;
+
+        private Leaf<K, V> next;
+        private Leaf<K, V> lastReturned;
+        private int expectedModCount = modCount;
+
+        EntryIterator(boolean fromStart, K lo, boolean loInclusive,
+                      boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+            cursor = new Cursor(descending);
+            Leaf<K, V> first;
+            if (descending) {
+                bound = lo;
+                boundInclusive = loInclusive;
+                unbounded = fromStart;
+                first = toEnd ? cursor.enter(root) : cursor.seek(hi, hiInclusive);
+            } else {
+                bound = hi;
+                boundInclusive = hiInclusive;
+                unbounded = toEnd;
+                first = fromStart ? cursor.enter(root) : cursor.seek(lo, loInclusive);
+            }
+            fence = unbounded ? null : new Cursor(descending).seek(bound, !boundInclusive);
+            next = inRange(first);
+        }
+
+        private Leaf<K, V> inRange(Leaf<K, V> leaf) {
+            if (leaf == null || unbounded) {
+                return leaf;
+            }
+            int c = compare(leaf.getKey(), bound);
+            if (cursor.descending) {
+                c = -c;
+            }
+            return c < 0 || (c == 0 && boundInclusive) ? leaf : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Leaf<K, V> leaf = next;
+            if (leaf == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = leaf;
+            Leaf<K, V> following = cursor.advance();
+            next = following == fence ? null : following;
+            return leaf;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            AbstractRadixTreeMap.this.remove(lastReturned.getKey());
+            expectedModCount = modCount;
+            lastReturned = null;
+            if (next != null) {
+                next = cursor.seek(next.getKey(), true);
+            }
+        }
+    }
+
+    // ---- nodes ----
+
+    /** A mapping, and the tree's leaf node: lookups end on it and iterators hand it out as the entry. */
+    static final class Leaf<K, V> extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        Leaf(K key, V value) {
+            super(key, value);
+        }
+    }
+
+    /**
+     * A branching position. {@code count} children are reachable by symbol; their keys all continue the path to
+     * this node with {@code prefix} and then that symbol. Every inner node holds at least two entries,
+     * counting {@code terminal}.
+     */
+    abstract static class Inner {
+        /** Symbols shared by every key below this node, after the edge symbol that leads to it. */
+        char[] prefix;
+        /** The leaf whose key ends right after {@code prefix}, or {@code null}. */
+        Leaf<?, ?> terminal;
+        int count;
+
+        Inner(char[] prefix) {
+            this.prefix = prefix;
+        }
+
+        /** The child at {@code symbol}, or {@code null}. */
+        abstract Object child(int symbol);
+
+        /** Replaces the existing child at {@code symbol}. */
+        abstract void setChild(int symbol, Object child);
+
+        /** Adds a child at an absent {@code symbol}; returns this node, or a larger one that replaces it. */
+        abstract Inner addChild(int symbol, Object child);
+
+        /** Removes the child at {@code symbol}; returns this node, or a smaller one that replaces it. */
+        abstract Inner removeChild(int symbol);
+
+        /** The least child symbol {@code >= from}, or -1. */
+        abstract int nextSymbol(int from);
+
+        /** The greatest child symbol {@code <= to}, or -1. */
+        abstract int prevSymbol(int to);
+
+        /** Copies this node's path, terminal and children into the empty node {@code to}, which must fit them. */
+        Inner copyTo(Inner to) {
+            to.terminal = terminal;
+            for (int s = nextSymbol(0); s >= 0; s = nextSymbol(s + 1)) {
+                to.addChild(s, child(s));
+            }
+            return to;
+        }
+    }
+
+    /**
+     * Children in parallel arrays sorted by symbol: ART's Node4 and Node16, and, for nodes with a symbol above
+     * {@code 0xFF}, any larger fan-out.
+     */
+    static final class SortedNode extends Inner {
+        /** Below this many children a linear scan beats a binary search. */
+        private static final int LINEAR_SCAN = 8;
+
+        char[] symbols;
+        Object[] children;
+
+        SortedNode(char[] prefix, int capacity) {
+            super(prefix);
+            symbols = new char[capacity];
+            children = new Object[capacity];
+        }
+
+        /** Index of the first symbol {@code >= s}. */
+        private int lowerBound(int s) {
+            char[] k = symbols;
+            int lo = 0;
+            int hi = count;
+            if (hi <= LINEAR_SCAN) {
+                while (lo < hi && k[lo] < s) {
+                    lo++;
+                }
+                return lo;
+            }
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (k[mid] < s) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        @Override
+        Object child(int symbol) {
+            int i = lowerBound(symbol);
+            return i < count && symbols[i] == symbol ? children[i] : null;
+        }
+
+        @Override
+        void setChild(int symbol, Object child) {
+            children[lowerBound(symbol)] = child;
+        }
+
+        @Override
+        Inner addChild(int symbol, Object child) {
+            int n = count;
+            if (n == symbols.length) {
+                boolean byteSymbols = symbol <= 0xFF && symbols[n - 1] <= 0xFF;
+                Inner grown = n < 16 ? new SortedNode(prefix, 16)
+                        : n == 16 && byteSymbols ? new Node48(prefix)
+                        : new SortedNode(prefix, 2 * n);
+                return copyTo(grown).addChild(symbol, child);
+            }
+            int i = lowerBound(symbol);
+            System.arraycopy(symbols, i, symbols, i + 1, n - i);
+            System.arraycopy(children, i, children, i + 1, n - i);
+            symbols[i] = (char) symbol;
+            children[i] = child;
+            count = n + 1;
+            return this;
+        }
+
+        @Override
+        Inner removeChild(int symbol) {
+            int i = lowerBound(symbol);
+            int n = --count;
+            System.arraycopy(symbols, i + 1, symbols, i, n - i);
+            System.arraycopy(children, i + 1, children, i, n - i);
+            children[n] = null;
+            int capacity = symbols.length;
+            if (capacity == 16 && n <= 3) {
+                return copyTo(new SortedNode(prefix, 4));
+            }
+            if (capacity > 16 && n <= capacity / 4) {
+                return copyTo(new SortedNode(prefix, capacity / 2));
+            }
+            return this;
+        }
+
+        @Override
+        int nextSymbol(int from) {
+            int i = lowerBound(from);
+            return i < count ? symbols[i] : -1;
+        }
+
+        @Override
+        int prevSymbol(int to) {
+            int i = lowerBound(to + 1) - 1;
+            return i >= 0 ? symbols[i] : -1;
+        }
+    }
+
+    /** Up to 48 children with symbols up to {@code 0xFF}, found through a 256-entry index of slot numbers. */
+    static final class Node48 extends Inner {
+        /** Slot of each symbol's child plus one; 0 if absent. */
+        final byte[] index = new byte[256];
+        final Object[] children = new Object[48];
+
+        Node48(char[] prefix) {
+            super(prefix);
+        }
+
+        @Override
+        Object child(int symbol) {
+            int slot = symbol <= 0xFF ? index[symbol] : 0;
+            return slot == 0 ? null : children[slot - 1];
+        }
+
+        @Override
+        void setChild(int symbol, Object child) {
+            children[index[symbol] - 1] = child;
+        }
+
+        @Override
+        Inner addChild(int symbol, Object child) {
+            if (symbol > 0xFF) {
+                return copyTo(new SortedNode(prefix, 64)).addChild(symbol, child);
+            }
+            if (count == children.length) {
+                return copyTo(new Node256(prefix)).addChild(symbol, child);
+            }
+            int slot = 0;
+            while (children[slot] != null) {
+                slot++;
+            }
+            children[slot] = child;
+            index[symbol] = (byte) (slot + 1);
+            count++;
+            return this;
+        }
+
+        @Override
+        Inner removeChild(int symbol) {
+            children[index[symbol] - 1] = null;
+            index[symbol] = 0;
+            if (--count <= 12) {
+                return copyTo(new SortedNode(prefix, 16));
+            }
+            return this;
+        }
+
+        @Override
+        int nextSymbol(int from) {
+            for (int s = Math.max(from, 0); s <= 0xFF; s++) {
+                if (index[s] != 0) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int prevSymbol(int to) {
+            for (int s = Math.min(to, 0xFF); s >= 0; s--) {
+                if (index[s] != 0) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /** A child slot for every symbol up to {@code 0xFF}. */
+    static final class Node256 extends Inner {
+        final Object[] children = new Object[256];
+
+        Node256(char[] prefix) {
+            super(prefix);
+        }
+
+        @Override
+        Object child(int symbol) {
+            return symbol <= 0xFF ? children[symbol] : null;
+        }
+
+        @Override
+        void setChild(int symbol, Object child) {
+            children[symbol] = child;
+        }
+
+        @Override
+        Inner addChild(int symbol, Object child) {
+            if (symbol > 0xFF) {
+                return copyTo(new SortedNode(prefix, 512)).addChild(symbol, child);
+            }
+            children[symbol] = child;
+            count++;
+            return this;
+        }
+
+        @Override
+        Inner removeChild(int symbol) {
+            children[symbol] = null;
+            if (--count <= 37) {
+                return copyTo(new Node48(prefix));
+            }
+            return this;
+        }
+
+        @Override
+        int nextSymbol(int from) {
+            for (int s = Math.max(from, 0); s <= 0xFF; s++) {
+                if (children[s] != null) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        int prevSymbol(int to) {
+            for (int s = Math.min(to, 0xFF); s >= 0; s--) {
+                if (children[s] != null) {
+                    return s;
+                }
+            }
+            return -1;
+        }
+    }
+}
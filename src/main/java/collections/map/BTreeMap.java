@@ -0,0 +1,714 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * A {@link java.util.NavigableMap} backed by a B+-tree: a drop-in alternative to the red-black {@code TreeMap}
+ * that {@code LearnTreeMap} uses.
+ *
+ * <p>A {@code TreeMap} holds one node object per entry, and every level of a lookup is a dependent load from a
+ * different place in the heap. Here each node holds up to {@value #LEAF_CAPACITY} keys in one array, so a
+ * map of 50 million keys is only five levels deep and each level is a binary search within one contiguous
+ * array. All entries live in the leaves, which are linked to their neighbours, so {@code headMap},
+ * {@code tailMap} and {@code subMap} scans walk arrays from leaf to leaf instead of climbing back through the
+ * tree.
+ *
+ * <p>Keys are ordered by their natural ordering or by the comparator given at construction, and must not be
+ * {@code null}; values may be {@code null}. Like {@code TreeMap}, this class is not thread-safe, its
+ * iterators are fail-fast, and the entries returned by {@code firstEntry()} and the other relational methods
+ * are snapshots that do not support {@code setValue}.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+public class BTreeMap<K, V> extends AbstractNavigableMap<K, V> {
+
+    /** Maximum keys per leaf. */
+    static final int LEAF_CAPACITY = 64;
+    /** Maximum separator keys per inner node (it has one more child than keys). */
+    static final int INNER_CAPACITY = 64;
+    private static final int LEAF_MIN = LEAF_CAPACITY / 2;
+    private static final int INNER_MIN = INNER_CAPACITY / 2;
+
+    private final Comparator<? super K> comparator;
+
+    private Node root;
+    private Leaf firstLeaf;
+    private Leaf lastLeaf;
+    private int size;
+    private int modCount;
+
+    /** Set by {@link #insert} when a node splits: the first key of the new right sibling. */
+    private Object splitKey;
+
+    public BTreeMap() {
+        this((Comparator<? super K>) null);
+    }
+
+    public BTreeMap(Comparator<? super K> comparator) {
+        this.comparator = comparator;
+        Leaf leaf = new Leaf();
+        root = leaf;
+        firstLeaf = leaf;
+        lastLeaf = leaf;
+    }
+
+    /** Creates a map with the same mappings as {@code m}, ordered by natural key ordering. */
+    public BTreeMap(Map<? extends K, ? extends V> m) {
+        this();
+        putAll(m);
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ---- lookups ----
+
+    @SuppressWarnings("unchecked")
+    private K keyAt(Leaf leaf, int i) {
+        return (K) leaf.keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(Leaf leaf, int i) {
+        return (V) leaf.values[i];
+    }
+
+    private Map.Entry<K, V> entryAt(Leaf leaf, int i) {
+        return new AbstractMap.SimpleImmutableEntry<>(keyAt(leaf, i), valueAt(leaf, i));
+    }
+
+    /** Index of {@code key} in the first {@code n} slots of {@code keys}, or {@code -(insertion point) - 1}. */
+    private int search(Object[] keys, int n, Object key) {
+        int low = 0;
+        int high = n - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(keys[mid], key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** Child of {@code inner} whose range holds {@code key}: keys equal to a separator go right. */
+    private int childIndex(Inner inner, Object key) {
+        int i = search(inner.keys, inner.size, key);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    private Leaf leafFor(Object key) {
+        Node node = root;
+        while (node instanceof Inner) {
+            Inner inner = (Inner) node;
+            node = inner.children[childIndex(inner, key)];
+        }
+        return (Leaf) node;
+    }
+
+    @Override
+    public V get(Object key) {
+        Objects.requireNonNull(key);
+        Leaf leaf = leafFor(key);
+        int i = search(leaf.keys, leaf.size, key);
+        return i >= 0 ? valueAt(leaf, i) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        Objects.requireNonNull(key);
+        Leaf leaf = leafFor(key);
+        return search(leaf.keys, leaf.size, key) >= 0;
+    }
+
+    private static final int LT = 0;
+    private static final int LE = 1;
+    private static final int GE = 2;
+    private static final int GT = 3;
+
+    /**
+     * Finds the entry nearest to {@code key} under {@code relation} and returns its key, or an entry snapshot if
+     * {@code entry} is set. The answer is either in the leaf that would hold {@code key} or, when that leaf has
+     * no suitable key, at the near end of its neighbour.
+     */
+    private Object navigate(Object key, int relation, boolean entry) {
+        Objects.requireNonNull(key);
+        Leaf leaf = leafFor(key);
+        int i = search(leaf.keys, leaf.size, key);
+        if (relation >= GE) {
+            i = i >= 0 ? (relation == GE ? i : i + 1) : -i - 1;
+            if (i == leaf.size) {
+                leaf = leaf.next;
+                i = 0;
+            }
+        } else {
+            i = i >= 0 ? (relation == LE ? i : i - 1) : -i - 2;
+            if (i < 0) {
+                leaf = leaf.prev;
+                i = leaf == null ? 0 : leaf.size - 1;
+            }
+        }
+        if (leaf == null) {
+            return null;
+        }
+        return entry ? entryAt(leaf, i) : leaf.keys[i];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return (Map.Entry<K, V>) navigate(key, LT, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return (Map.Entry<K, V>) navigate(key, LE, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return (Map.Entry<K, V>) navigate(key, GE, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return (Map.Entry<K, V>) navigate(key, GT, true);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public K lowerKey(K key) {
+        return (K) navigate(key, LT, false);
+    }
+
+    /** Like {@link #floorEntry} but allocates nothing. */
+    @SuppressWarnings("unchecked")
+    @Override
+    public K floorKey(K key) {
+        return (K) navigate(key, LE, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public K ceilingKey(K key) {
+        return (K) navigate(key, GE, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public K higherKey(K key) {
+        return (K) navigate(key, GT, false);
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return size == 0 ? null : entryAt(firstLeaf, 0);
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return size == 0 ? null : entryAt(lastLeaf, lastLeaf.size - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public K firstKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return (K) firstLeaf.keys[0];
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public K lastKey() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return (K) lastLeaf.keys[lastLeaf.size - 1];
+    }
+
+    // ---- insertion ----
+
+    /** The previous value found by the last {@link #insert}, valid when it did not add a new key. */
+    private V replaced;
+    private boolean added;
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(key);
+        if (size == 0) {
+            compare(key, key); // type check, as TreeMap does for the first key
+        }
+        added = false;
+        replaced = null;
+        Node right = insert(root, key, value);
+        if (right != null) {
+            Inner newRoot = new Inner();
+            newRoot.keys[0] = splitKey;
+            newRoot.children[0] = root;
+            newRoot.children[1] = right;
+            newRoot.size = 1;
+            root = newRoot;
+        }
+        splitKey = null;
+        V old = replaced;
+        replaced = null;
+        if (added) {
+            size++;
+            modCount++;
+        }
+        return old;
+    }
+
+    /**
+     * Inserts into the subtree under {@code node}. Returns the new right sibling if {@code node} had to split,
+     * with its lowest key in {@link #splitKey}, or {@code null}.
+     */
+    private Node insert(Node node, K key, V value) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf.keys, leaf.size, key);
+            if (i >= 0) {
+                replaced = valueAt(leaf, i);
+                leaf.values[i] = value;
+                return null;
+            }
+            added = true;
+            leaf.insert(-i - 1, key, value);
+            return leaf.size > LEAF_CAPACITY ? splitLeaf(leaf) : null;
+        }
+        Inner inner = (Inner) node;
+        int ci = childIndex(inner, key);
+        Node right = insert(inner.children[ci], key, value);
+        if (right == null) {
+            return null;
+        }
+        inner.insert(ci, splitKey, right);
+        return inner.size > INNER_CAPACITY ? splitInner(inner) : null;
+    }
+
+    private Leaf splitLeaf(Leaf leaf) {
+        Leaf right = new Leaf();
+        int keep = leaf.size >>> 1;
+        int moved = leaf.size - keep;
+        System.arraycopy(leaf.keys, keep, right.keys, 0, moved);
+        System.arraycopy(leaf.values, keep, right.values, 0, moved);
+        clear(leaf.keys, keep, leaf.size);
+        clear(leaf.values, keep, leaf.size);
+        right.size = moved;
+        leaf.size = keep;
+        right.next = leaf.next;
+        right.prev = leaf;
+        if (leaf.next != null) {
+            leaf.next.prev = right;
+        } else {
+            lastLeaf = right;
+        }
+        leaf.next = right;
+        splitKey = right.keys[0];
+        return right;
+    }
+
+    /** Splits around the middle separator, which moves up into the parent rather than into either half. */
+    private Inner splitInner(Inner inner) {
+        Inner right = new Inner();
+        int mid = inner.size >>> 1;
+        int moved = inner.size - mid - 1;
+        splitKey = inner.keys[mid];
+        System.arraycopy(inner.keys, mid + 1, right.keys, 0, moved);
+        System.arraycopy(inner.children, mid + 1, right.children, 0, moved + 1);
+        clear(inner.keys, mid, inner.size);
+        clear(inner.children, mid + 1, inner.size + 1);
+        right.size = moved;
+        inner.size = mid;
+        return right;
+    }
+
+    private static void clear(Object[] a, int from, int to) {
+        for (int i = from; i < to; i++) {
+            a[i] = null;
+        }
+    }
+
+    // ---- removal ----
+
+    private V removed;
+
+    @Override
+    public V remove(Object key) {
+        Objects.requireNonNull(key);
+        if (!delete(root, key)) {
+            return null;
+        }
+        if (root instanceof Inner && root.size == 0) {
+            root = ((Inner) root).children[0];
+        }
+        size--;
+        modCount++;
+        V old = removed;
+        removed = null;
+        return old;
+    }
+
+    /** Removes {@code key} from the subtree under {@code node}, leaving its value in {@link #removed}. */
+    private boolean delete(Node node, Object key) {
+        if (node instanceof Leaf) {
+            Leaf leaf = (Leaf) node;
+            int i = search(leaf.keys, leaf.size, key);
+            if (i < 0) {
+                return false;
+            }
+            removed = valueAt(leaf, i);
+            leaf.remove(i);
+            return true;
+        }
+        Inner inner = (Inner) node;
+        int ci = childIndex(inner, key);
+        if (!delete(inner.children[ci], key)) {
+            return false;
+        }
+        Node child = inner.children[ci];
+        if (child.size < (child instanceof Leaf ? LEAF_MIN : INNER_MIN)) {
+            rebalance(inner, ci);
+        }
+        return true;
+    }
+
+    /**
+     * Restores the minimum fill of {@code parent.children[ci]} by borrowing one entry from a sibling that can
+     * spare it, or else by merging with a sibling. Separators may go stale after deletions (no longer equal to
+     * any key) but still route correctly, so only borrowing has to update them.
+     */
+    private void rebalance(Inner parent, int ci) {
+        Node child = parent.children[ci];
+        Node left = ci > 0 ? parent.children[ci - 1] : null;
+        Node right = ci < parent.size ? parent.children[ci + 1] : null;
+        int min = child instanceof Leaf ? LEAF_MIN : INNER_MIN;
+        if (left != null && left.size > min) {
+            borrowFromLeft(parent, ci, left, child);
+        } else if (right != null && right.size > min) {
+            borrowFromRight(parent, ci, child, right);
+        } else if (left != null) {
+            merge(parent, ci - 1);
+        } else if (right != null) {
+            merge(parent, ci);
+        }
+    }
+
+    private void borrowFromLeft(Inner parent, int ci, Node leftNode, Node childNode) {
+        if (childNode instanceof Leaf) {
+            Leaf left = (Leaf) leftNode;
+            Leaf child = (Leaf) childNode;
+            int last = left.size - 1;
+            child.insert(0, left.keys[last], left.values[last]);
+            left.remove(last);
+            parent.keys[ci - 1] = child.keys[0];
+        } else {
+            Inner left = (Inner) leftNode;
+            Inner child = (Inner) childNode;
+            System.arraycopy(child.keys, 0, child.keys, 1, child.size);
+            System.arraycopy(child.children, 0, child.children, 1, child.size + 1);
+            child.keys[0] = parent.keys[ci - 1];
+            child.children[0] = left.children[left.size];
+            child.size++;
+            parent.keys[ci - 1] = left.keys[left.size - 1];
+            left.keys[left.size - 1] = null;
+            left.children[left.size] = null;
+            left.size--;
+        }
+    }
+
+    private void borrowFromRight(Inner parent, int ci, Node childNode, Node rightNode) {
+        if (childNode instanceof Leaf) {
+            Leaf child = (Leaf) childNode;
+            Leaf right = (Leaf) rightNode;
+            child.insert(child.size, right.keys[0], right.values[0]);
+            right.remove(0);
+            parent.keys[ci] = right.keys[0];
+        } else {
+            Inner child = (Inner) childNode;
+            Inner right = (Inner) rightNode;
+            child.keys[child.size] = parent.keys[ci];
+            child.children[child.size + 1] = right.children[0];
+            child.size++;
+            parent.keys[ci] = right.keys[0];
+            System.arraycopy(right.keys, 1, right.keys, 0, right.size - 1);
+            System.arraycopy(right.children, 1, right.children, 0, right.size);
+            right.keys[right.size - 1] = null;
+            right.children[right.size] = null;
+            right.size--;
+        }
+    }
+
+    /** Merges {@code parent.children[i + 1]} into {@code parent.children[i]} and drops separator {@code i}. */
+    private void merge(Inner parent, int i) {
+        Node leftNode = parent.children[i];
+        Node rightNode = parent.children[i + 1];
+        if (leftNode instanceof Leaf) {
+            Leaf left = (Leaf) leftNode;
+            Leaf right = (Leaf) rightNode;
+            System.arraycopy(right.keys, 0, left.keys, left.size, right.size);
+            System.arraycopy(right.values, 0, left.values, left.size, right.size);
+            left.size += right.size;
+            left.next = right.next;
+            if (right.next != null) {
+                right.next.prev = left;
+            } else {
+                lastLeaf = left;
+            }
+        } else {
+            Inner left = (Inner) leftNode;
+            Inner right = (Inner) rightNode;
+            left.keys[left.size] = parent.keys[i];
+            System.arraycopy(right.keys, 0, left.keys, left.size + 1, right.size);
+            System.arraycopy(right.children, 0, left.children, left.size + 1, right.size + 1);
+            left.size += right.size + 1;
+        }
+        System.arraycopy(parent.keys, i + 1, parent.keys, i, parent.size - i - 1);
+        System.arraycopy(parent.children, i + 2, parent.children, i + 1, parent.size - i - 1);
+        parent.keys[parent.size - 1] = null;
+        parent.children[parent.size] = null;
+        parent.size--;
+    }
+
+    @Override
+    public void clear() {
+        Leaf leaf = new Leaf();
+        root = leaf;
+        firstLeaf = leaf;
+        lastLeaf = leaf;
+        size = 0;
+        modCount++;
+    }
+
+    // ---- iteration ----
+
+    /** Walks the leaves in key order without allocating an entry per mapping. */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        for (Leaf leaf = firstLeaf; leaf != null; leaf = leaf.next) {
+            for (int i = 0; i < leaf.size; i++) {
+                action.accept(keyAt(leaf, i), valueAt(leaf, i));
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    @Override
+    Iterator<Map.Entry<K, V>> entryIterator(boolean fromStart, K lo, boolean loInclusive,
+                                           boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+        return new EntryIterator(fromStart, lo, loInclusive, toEnd, hi, hiInclusive, descending);
+    }
+
+    /**
+     * A position (leaf, index) that steps along the leaf chain. After {@code remove()} the tree may have
+     * rebalanced, so the iterator finds its next entry again by key.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private final boolean descending;
+        /** Far bound, checked on every step; ignored if {@code unbounded}. */
+        private final K bound;
+        private final boolean boundInclusive;
+        private final boolean unbounded;
+
+        private Leaf leaf;
+        private int index;
+        private K lastReturned;
+        private int expectedModCount = modCount;
+
+        EntryIterator(boolean fromStart, K lo, boolean loInclusive,
+                      boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+            this.descending = descending;
+            if (descending) {
+                bound = lo;
+                boundInclusive = loInclusive;
+                unbounded = fromStart;
+                if (toEnd) {
+                    position(lastLeaf, lastLeaf.size - 1);
+                } else {
+                    seek(hi, hiInclusive ? LE : LT);
+                }
+            } else {
+                bound = hi;
+                boundInclusive = hiInclusive;
+                unbounded = toEnd;
+                if (fromStart) {
+                    position(firstLeaf, 0);
+                } else {
+                    seek(lo, loInclusive ? GE : GT);
+                }
+            }
+        }
+
+        /** Positions at the entry nearest to {@code key} under {@code relation}, as {@link #navigate} does. */
+        private void seek(Object key, int relation) {
+            Leaf l = leafFor(key);
+            int i = search(l.keys, l.size, key);
+            if (relation >= GE) {
+                i = i >= 0 ? (relation == GE ? i : i + 1) : -i - 1;
+            } else {
+                i = i >= 0 ? (relation == LE ? i : i - 1) : -i - 2;
+            }
+            position(l, i);
+        }
+
+        /** Sets the position, moving to the neighbouring leaf if {@code i} just ran off {@code l}. */
+        private void position(Leaf l, int i) {
+            if (i >= l.size) {
+                l = l.next;
+                i = 0;
+            } else if (i < 0) {
+                l = l.prev;
+                i = l == null ? 0 : l.size - 1;
+            }
+            if (l != null && !unboundedOrInRange(l.keys[i])) {
+                l = null;
+            }
+            leaf = l;
+            index = i;
+        }
+
+        private boolean unboundedOrInRange(Object key) {
+            if (unbounded) {
+                return true;
+            }
+            int c = compare(key, bound);
+            return descending ? c > 0 || (c == 0 && boundInclusive) : c < 0 || (c == 0 && boundInclusive);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return leaf != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Leaf l = leaf;
+            if (l == null) {
+                throw new NoSuchElementException();
+            }
+            int i = index;
+            lastReturned = keyAt(l, i);
+            Map.Entry<K, V> e = new WriteThroughEntry(lastReturned, valueAt(l, i));
+            position(l, descending ? i - 1 : i + 1);
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            K nextKey = leaf == null ? null : keyAt(leaf, index);
+            BTreeMap.this.remove(lastReturned);
+            expectedModCount = modCount;
+            lastReturned = null;
+            if (nextKey != null) {
+                seek(nextKey, descending ? LE : GE);
+            }
+        }
+    }
+
+    /** An iterator entry whose {@link #setValue} writes through to the map, as {@code TreeMap}'s do. */
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            super.setValue(value);
+            return BTreeMap.this.put(getKey(), value);
+        }
+    }
+
+    // ---- nodes ----
+
+    /** Common header of leaves and inner nodes: the number of keys in use. */
+    abstract static class Node {
+        int size;
+    }
+
+    /** Keys and values in sorted parallel arrays, one spare slot for the insert that triggers a split. */
+    static final class Leaf extends Node {
+        final Object[] keys = new Object[LEAF_CAPACITY + 1];
+        final Object[] values = new Object[LEAF_CAPACITY + 1];
+        Leaf next;
+        Leaf prev;
+
+        void insert(int i, Object key, Object value) {
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(values, i, values, i + 1, size - i);
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        void remove(int i) {
+            int moved = size - i - 1;
+            System.arraycopy(keys, i + 1, keys, i, moved);
+            System.arraycopy(values, i + 1, values, i, moved);
+            size--;
+            keys[size] = null;
+            values[size] = null;
+        }
+    }
+
+    /**
+     * {@code size} separators and {@code size + 1} children. Every key under {@code children[i]} is less than
+     * {@code keys[i]}, and every key under {@code children[i + 1]} is greater than or equal to it.
+     */
+    static final class Inner extends Node {
+        final Object[] keys = new Object[INNER_CAPACITY + 1];
+        final Node[] children = new Node[INNER_CAPACITY + 2];
+
+        /** Inserts separator {@code key} at {@code i} with {@code child} to its right. */
+        void insert(int i, Object key, Node child) {
+            System.arraycopy(keys, i, keys, i + 1, size - i);
+            System.arraycopy(children, i + 1, children, i + 2, size - i);
+            keys[i] = key;
+            children[i + 1] = child;
+            size++;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package collections.map;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link java.util.NavigableMap} with {@code byte[]} keys, stored in an adaptive radix tree; the byte
+ * counterpart of {@link RadixTreeMap}.
+ *
+ * <p>Keys are compared by content, as unsigned bytes ({@link Arrays#compareUnsigned(byte[], byte[])}), which is
+ * also the {@link #comparator()}. Every node branches on one byte, so the tree never needs more than the
+ * 256-child node of the ART paper. The map keeps the arrays it is given: a key must not be modified while it is
+ * in the map. As with a {@code TreeMap<byte[], ...>}, the entries' {@code hashCode} and {@code equals} use the
+ * arrays' identity.
+ *
+ * <p>Keys must not be {@code null}; values may be {@code null}. This class is not thread-safe, its iterators are
+ * fail-fast, and the entries returned by {@code firstEntry()} and the other relational methods are snapshots
+ * that do not support {@code setValue}.
+ *
+ * @param <V> the type of mapped values
+ */
+public class ByteArrayRadixTreeMap<V> extends AbstractRadixTreeMap<byte[], V> {
+
+    private static final Comparator<byte[]> UNSIGNED = Arrays::compareUnsigned;
+
+    public ByteArrayRadixTreeMap() {
+    }
+
+    public ByteArrayRadixTreeMap(Map<byte[], ? extends V> m) {
+        putAll(m);
+    }
+
+    @Override
+    public Comparator<? super byte[]> comparator() {
+        return UNSIGNED;
+    }
+
+    @Override
+    byte[] checkKey(Object key) {
+        return (byte[]) Objects.requireNonNull(key);
+    }
+
+    @Override
+    int length(Object key) {
+        return ((byte[]) key).length;
+    }
+
+    @Override
+    int symbol(Object key, int i) {
+        return ((byte[]) key)[i] & 0xFF;
+    }
+
+    @Override
+    boolean keyEquals(Object a, Object b) {
+        return Arrays.equals((byte[]) a, (byte[]) b);
+    }
+
+    @Override
+    byte[] prefixEnd(byte[] prefix) {
+        int i = prefix.length - 1;
+        while (i >= 0 && prefix[i] == (byte) 0xFF) {
+            i--;
+        }
+        if (i < 0) {
+            return null;
+        }
+        byte[] end = Arrays.copyOf(prefix, i + 1);
+        end[i]++;
+        return end;
+    }
+}
@@ -0,0 +1,119 @@
+package collections.map;
+
+/**
+ * A snapshot of how well the keys of an {@link InstrumentedHashMap} spread over its table.
+ *
+ * <p>With a good {@code hashCode()} and the default load factor, almost every chain has at most two or three
+ * entries and a successful lookup compares about 1.3 keys. A {@code hashCode()} that takes few distinct values
+ * shows up as {@link #distinctHashCodes()} far below {@link #size()}, a {@link #maxChainLength()} in the tens or
+ * hundreds, and an {@link #expectedProbes()} well above 2.
+ */
+public final class HashStats {
+
+    private final int size;
+    private final int capacity;
+    private final float loadFactor;
+    private final int resizeCount;
+    private final int[] chainLengthHistogram;
+    private final int distinctHashCodes;
+    private final long lookups;
+    private final long probes;
+
+    HashStats(int size, int capacity, float loadFactor, int resizeCount, int[] chainLengthHistogram,
+              int distinctHashCodes, long lookups, long probes) {
+        this.size = size;
+        this.capacity = capacity;
+        this.loadFactor = loadFactor;
+        this.resizeCount = resizeCount;
+        this.chainLengthHistogram = chainLengthHistogram;
+        this.distinctHashCodes = distinctHashCodes;
+        this.lookups = lookups;
+        this.probes = probes;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Number of buckets in the table. */
+    public int capacity() {
+        return capacity;
+    }
+
+    /** The configured load factor, at which the table doubles. */
+    public float loadFactor() {
+        return loadFactor;
+    }
+
+    /** The current ratio of entries to buckets. */
+    public double load() {
+        return (double) size / capacity;
+    }
+
+    /** Number of times the table has doubled since the map was created. */
+    public int resizeCount() {
+        return resizeCount;
+    }
+
+    /** Element {@code i} is the number of buckets whose chain holds {@code i} entries; element 0 counts empty ones. */
+    public int[] chainLengthHistogram() {
+        return chainLengthHistogram.clone();
+    }
+
+    public int maxChainLength() {
+        return chainLengthHistogram.length - 1;
+    }
+
+    /** Number of distinct {@code hashCode()} values among the keys, before any mixing. */
+    public int distinctHashCodes() {
+        return distinctHashCodes;
+    }
+
+    /**
+     * Mean number of keys a successful lookup compares, averaged over all keys present: a key at position
+     * {@code p} of its chain costs {@code p + 1}.
+     */
+    public double expectedProbes() {
+        if (size == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int length = 1; length < chainLengthHistogram.length; length++) {
+            total += (long) chainLengthHistogram[length] * length * (length + 1) / 2;
+        }
+        return (double) total / size;
+    }
+
+    /** Number of {@code get}, {@code containsKey}, {@code put} and {@code remove} calls recorded. */
+    public long lookups() {
+        return lookups;
+    }
+
+    /** Mean number of keys actually compared per recorded lookup, hits and misses alike. */
+    public double averageProbes() {
+        return lookups == 0 ? 0 : (double) probes / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "HashStats{size=" + size + ", capacity=" + capacity + ", load=" + String.format("%.3f", load())
+                + ", resizes=" + resizeCount + ", distinctHashCodes=" + distinctHashCodes
+                + ", maxChain=" + maxChainLength() + ", expectedProbes=" + String.format("%.2f", expectedProbes())
+                + ", averageProbes=" + String.format("%.2f", averageProbes())
+                + ", chainLengths=" + chainLengths() + '}';
+    }
+
+    /** Formats the non-zero histogram entries as {@code {length=buckets, ...}}. */
+    private String chainLengths() {
+        StringBuilder sb = new StringBuilder().append('{');
+        for (int length = 0; length < chainLengthHistogram.length; length++) {
+            if (chainLengthHistogram[length] != 0) {
+                if (sb.length() > 1) {
+                    sb.append(", ");
+                }
+                sb.append(length).append('=').append(chainLengthHistogram[length]);
+            }
+        }
+        return sb.append('}').toString();
+    }
+}
@@ -0,0 +1,62 @@
+package collections.map;
+
+/**
+ * Hash mixing and table sizing shared by the open-addressing maps in this package.
+ *
+ * <p>Tables are powers of two and a key's home slot is taken from the <em>high</em> bits of the key multiplied
+ * by the golden ratio (Fibonacci hashing). Unlike {@code HashMap}, which masks the low bits of
+ * {@code hashCode()}, this spreads sequential and strided keys evenly, which matters for linear probing
+ * where neighbouring home slots form clusters.
+ */
+final class Hashing {
+
+    /** 2^32 / phi, the 32-bit golden-ratio multiplier. */
+    static final int INT_PHI = 0x9E3779B9;
+
+    /** 2^64 / phi, the 64-bit golden-ratio multiplier. */
+    static final long LONG_PHI = 0x9E3779B97F4A7C15L;
+
+    /** Largest power-of-two table capacity. */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the bits of a {@code hashCode()} over the whole word (the MurmurHash3 finalizer), so that both the
+     * high bits used to pick a stripe and the low bits used to pick a bucket depend on every input bit.
+     */
+    static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    /** Home slot of {@code key} in a table of {@code 1 << (32 - shift)} slots. */
+    static int slot(int key, int shift) {
+        return (key * INT_PHI) >>> shift;
+    }
+
+    /** Home slot of {@code key} in a table of {@code 1 << (64 - shift)} slots. */
+    static int slot(long key, int shift) {
+        return (int) ((key * LONG_PHI) >>> shift);
+    }
+
+    /** Smallest power-of-two capacity that holds {@code expectedSize} entries under {@code loadFactor}. */
+    static int tableCapacity(int expectedSize, float loadFactor) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor);
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    static void checkLoadFactor(float loadFactor) {
+        if (!(loadFactor > 0 && loadFactor < 1)) {
+            throw new IllegalArgumentException("Load factor must be in (0, 1): " + loadFactor);
+        }
+    }
+}
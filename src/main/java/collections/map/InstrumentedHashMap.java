@@ -0,0 +1,420 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+/**
+ * A chained hash map, laid out like {@code HashMap}, that measures how well its keys hash.
+ *
+ * <p>{@code LearnHashMap} ends with the {@code hashCode()}/{@code equals()} contract for custom keys. A
+ * {@code hashCode()} that honours the contract but returns only a few distinct values still works, but every
+ * key with the same hash lands in the same chain, and lookups degrade towards a linear scan without anything
+ * reporting it. This map counts the keys it compares on every lookup and the number of resizes, and
+ * {@link #stats()} reports the chain-length histogram, load and distinct hash codes (see {@link HashStats}).
+ * When an insert makes a chain longer than a threshold (8 by default, {@code HashMap}'s treeify threshold), a
+ * listener receives the stats once per table size. The default listener logs a warning through
+ * {@link System.Logger}.
+ *
+ * <p>By default the table index comes from the {@code hashCode()} spread as {@code HashMap} spreads it. With
+ * <em>seeded hashing</em> it comes from a full avalanche mix of the hash code with a random per-map seed. That
+ * fixes hash codes that differ only in bits the table does not look at, and stops precomputed colliding keys
+ * from clustering. It cannot separate keys whose hash codes are equal: the stats show those as
+ * {@link HashStats#distinctHashCodes()} far below the size.
+ *
+ * <p>{@code null} keys and values are permitted. Iterators are fail-fast. This class is not thread-safe.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+public class InstrumentedHashMap<K, V> extends AbstractMap<K, V> {
+
+    static final float DEFAULT_LOAD_FACTOR = 0.75f;
+    static final int DEFAULT_CHAIN_LENGTH_THRESHOLD = 8;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private static final System.Logger LOGGER = System.getLogger(InstrumentedHashMap.class.getName());
+
+    static final class Node<K, V> implements Map.Entry<K, V> {
+        final int hash;
+        final K key;
+        V value;
+        Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+
+        @Override
+        public K getKey() {
+            return key;
+        }
+
+        @Override
+        public V getValue() {
+            return value;
+        }
+
+        @Override
+        public V setValue(V value) {
+            V old = this.value;
+            this.value = value;
+            return old;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Map.Entry && Objects.equals(key, ((Map.Entry<?, ?>) o).getKey())
+                    && Objects.equals(value, ((Map.Entry<?, ?>) o).getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hashCode(key) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private final float loadFactor;
+    private final boolean seeded;
+    private final int seed;
+
+    private Node<K, V>[] table;
+    private int threshold;
+    private int size;
+    private int modCount;
+
+    private int resizeCount;
+    private long lookups;
+    private long probes;
+
+    private int chainLengthThreshold = DEFAULT_CHAIN_LENGTH_THRESHOLD;
+    private Consumer<? super HashStats> degradationListener = InstrumentedHashMap::logDegradation;
+    /** Whether the listener has been called since the table last grew. */
+    private boolean degradationReported;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    public InstrumentedHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /** @param expectedSize number of entries the map can hold before it first grows */
+    public InstrumentedHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR, false);
+    }
+
+    /**
+     * @param expectedSize  number of entries the map can hold before it first grows
+     * @param loadFactor    ratio of entries to buckets at which the table doubles, in {@code (0, 1)}
+     * @param seededHashing whether to mix every hash code with a random per-map seed
+     * @throws IllegalArgumentException if {@code expectedSize} or {@code loadFactor} is out of range
+     */
+    public InstrumentedHashMap(int expectedSize, float loadFactor, boolean seededHashing) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        this.seeded = seededHashing;
+        this.seed = seededHashing ? ThreadLocalRandom.current().nextInt() : 0;
+        allocate(Hashing.tableCapacity(expectedSize, loadFactor));
+    }
+
+    /**
+     * Replaces the degradation listener. {@code listener} is called with the current {@link #stats()} when an
+     * insert makes a chain longer than {@code chainLengthThreshold}, at most once until the table next grows.
+     * A {@code null} listener disables the check.
+     *
+     * @throws IllegalArgumentException if {@code chainLengthThreshold} is less than 1
+     */
+    public void onDegradation(int chainLengthThreshold, Consumer<? super HashStats> listener) {
+        if (chainLengthThreshold < 1) {
+            throw new IllegalArgumentException("Illegal chain length threshold: " + chainLengthThreshold);
+        }
+        this.chainLengthThreshold = chainLengthThreshold;
+        this.degradationListener = listener;
+        this.degradationReported = false;
+    }
+
+    private static void logDegradation(HashStats stats) {
+        LOGGER.log(System.Logger.Level.WARNING,
+                "InstrumentedHashMap chain length {0} exceeds threshold; check the key class''s hashCode(): {1}",
+                stats.maxChainLength(), stats);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void allocate(int capacity) {
+        table = (Node<K, V>[]) new Node<?, ?>[capacity];
+        threshold = (int) Math.min(capacity * (double) loadFactor, Integer.MAX_VALUE);
+    }
+
+    private int hash(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        return seeded ? Hashing.mix(h ^ seed) : h ^ (h >>> 16);
+    }
+
+    /** Finds the node for {@code key} and records the number of keys compared. */
+    private Node<K, V> find(Object key) {
+        int h = hash(key);
+        int compared = 0;
+        Node<K, V> e = table[h & (table.length - 1)];
+        while (e != null) {
+            compared++;
+            if (e.hash == h && Objects.equals(key, e.key)) {
+                break;
+            }
+            e = e.next;
+        }
+        lookups++;
+        probes += compared;
+        return e;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) != null;
+    }
+
+    @Override
+    public V get(Object key) {
+        Node<K, V> e = find(key);
+        return e == null ? null : e.value;
+    }
+
+    @Override
+    public V getOrDefault(Object key, V defaultValue) {
+        Node<K, V> e = find(key);
+        return e == null ? defaultValue : e.value;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        int h = hash(key);
+        int index = h & (table.length - 1);
+        int chainLength = 0;
+        for (Node<K, V> e = table[index]; e != null; e = e.next) {
+            chainLength++;
+            if (e.hash == h && Objects.equals(key, e.key)) {
+                lookups++;
+                probes += chainLength;
+                return e.setValue(value);
+            }
+        }
+        lookups++;
+        probes += chainLength;
+        modCount++;
+        table[index] = new Node<>(h, key, value, table[index]);
+        if (++size > threshold) {
+            resize();
+        } else if (chainLength + 1 > chainLengthThreshold) {
+            reportDegradation();
+        }
+        return null;
+    }
+
+    private void reportDegradation() {
+        if (degradationListener != null && !degradationReported) {
+            degradationReported = true;
+            degradationListener.accept(stats());
+        }
+    }
+
+    private void resize() {
+        Node<K, V>[] old = table;
+        if (old.length == Hashing.MAX_CAPACITY) {
+            threshold = Integer.MAX_VALUE;
+            return;
+        }
+        allocate(old.length << 1);
+        resizeCount++;
+        degradationReported = false;
+        Node<K, V>[] tab = table;
+        int mask = tab.length - 1;
+        for (Node<K, V> e : old) {
+            while (e != null) {
+                Node<K, V> next = e.next;
+                int index = e.hash & mask;
+                e.next = tab[index];
+                tab[index] = e;
+                e = next;
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object key) {
+        int h = hash(key);
+        int index = h & (table.length - 1);
+        int compared = 0;
+        Node<K, V> prev = null;
+        for (Node<K, V> e = table[index]; e != null; prev = e, e = e.next) {
+            compared++;
+            if (e.hash == h && Objects.equals(key, e.key)) {
+                lookups++;
+                probes += compared;
+                unlink(index, prev, e);
+                return e.value;
+            }
+        }
+        lookups++;
+        probes += compared;
+        return null;
+    }
+
+    private void unlink(int index, Node<K, V> prev, Node<K, V> e) {
+        modCount++;
+        if (prev == null) {
+            table[index] = e.next;
+        } else {
+            prev.next = e.next;
+        }
+        size--;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(table, null);
+        size = 0;
+    }
+
+    /**
+     * Computes the current {@link HashStats}. This walks the whole table and sorts the keys' hash codes, so it
+     * costs O(n log n); call it from diagnostics, not per operation.
+     */
+    public HashStats stats() {
+        int[] histogram = new int[1];
+        int[] hashCodes = new int[size];
+        int n = 0;
+        for (Node<K, V> head : table) {
+            int length = 0;
+            for (Node<K, V> e = head; e != null; e = e.next) {
+                length++;
+                hashCodes[n++] = e.key == null ? 0 : e.key.hashCode();
+            }
+            if (length >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, length + 1);
+            }
+            histogram[length]++;
+        }
+        Arrays.sort(hashCodes);
+        int distinct = 0;
+        for (int i = 0; i < n; i++) {
+            if (i == 0 || hashCodes[i] != hashCodes[i - 1]) {
+                distinct++;
+            }
+        }
+        return new HashStats(size, table.length, loadFactor, resizeCount, histogram, distinct, lookups, probes);
+    }
+
+    /** Zeroes the lookup and probe counters reported by {@link HashStats#averageProbes()}. */
+    public void resetProbeCounters() {
+        lookups = 0;
+        probes = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            Node<K, V> e = find(entry.getKey());
+            return e != null && Objects.equals(e.value, entry.getValue());
+        }
+
+        @Override
+        public void clear() {
+            InstrumentedHashMap.this.clear();
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int index;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+        private int expectedModCount = modCount;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            Node<K, V>[] tab = table;
+            while (next == null && index < tab.length) {
+                next = tab[index++];
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = e;
+            next = e.next;
+            advance();
+            return e;
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            InstrumentedHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+            expectedModCount = modCount;
+        }
+    }
+}
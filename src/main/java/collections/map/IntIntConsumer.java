@@ -0,0 +1,11 @@
+package collections.map;
+
+/**
+ * Receives one {@code int -> int} entry; the non-boxing counterpart of
+ * {@code BiConsumer<Integer, Integer>}.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+
+    void accept(int key, int value);
+}
@@ -0,0 +1,428 @@
+package collections.map;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An {@code int -> int} hash map using open addressing with linear probing.
+ *
+ * <p>Where {@code HashMap} (see {@code LearnHashMap}) allocates a node per entry and chains colliding entries
+ * through it, this map stores keys and values in two parallel {@code int[]}s and resolves a collision by
+ * moving on to the next slot. Inserting an entry allocates nothing unless the table has to grow, and a lookup
+ * touches one or two adjacent cache lines instead of following a chain.
+ *
+ * <p>Removal uses backward-shift deletion: the entries following the removed one are moved back to close the
+ * gap, so the table never accumulates tombstones and lookups stay as short after heavy churn as after
+ * inserts alone.
+ *
+ * <p>Key {@code 0} marks a free slot in the key array, so a mapping for key {@code 0} is kept in a separate
+ * field. Methods that return a value return {@code 0} when there is no mapping, like an {@code int} field
+ * that was never assigned; use {@link #containsKey} or {@link #getOrDefault} when {@code 0} is a meaningful
+ * value.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class IntIntHashMap {
+
+    static final float DEFAULT_LOAD_FACTOR = 0.6f;
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final int FREE = 0;
+
+    private final float loadFactor;
+
+    private int[] keys;
+    private int[] values;
+    /** {@code 32 - log2(capacity)}, see {@link Hashing#slot(int, int)}. */
+    private int shift;
+    private int mask;
+    /** Number of entries at which the table doubles. */
+    private int resizeAt;
+    /** Number of entries in the table, not counting key 0. */
+    private int assigned;
+
+    private boolean hasZeroKey;
+    private int zeroValue;
+
+    public IntIntHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, DEFAULT_LOAD_FACTOR);
+    }
+
+    /** @param expectedSize number of entries the map can hold before it first grows */
+    public IntIntHashMap(int expectedSize) {
+        this(expectedSize, DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize number of entries the map can hold before it first grows
+     * @param loadFactor   fraction of slots that may be occupied before the table doubles, in {@code (0, 1)}
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public IntIntHashMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableCapacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return assigned + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @return the previous value, or {@code 0} if there was no mapping
+     */
+    public int put(int key, int value) {
+        if (key == FREE) {
+            int old = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return old;
+        }
+        int[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            int k = ks[i];
+            if (k == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+            if (k == FREE) {
+                insertAt(i, key, value);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Associates {@code value} with {@code key} only if {@code key} has no mapping yet.
+     *
+     * @return the existing value, or {@code 0} if {@code value} was inserted
+     */
+    public int putIfAbsent(int key, int value) {
+        if (key == FREE) {
+            if (hasZeroKey) {
+                return zeroValue;
+            }
+            hasZeroKey = true;
+            zeroValue = value;
+            return 0;
+        }
+        int[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            int k = ks[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == FREE) {
+                insertAt(i, key, value);
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the value of {@code key}, starting from {@code 0} if it has no mapping. This is the
+     * counter idiom {@code map.merge(key, delta, Integer::sum)} in a single probe and without boxing.
+     *
+     * @return the new value
+     */
+    public int addTo(int key, int delta) {
+        if (key == FREE) {
+            hasZeroKey = true;
+            return zeroValue += delta;
+        }
+        int[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            int k = ks[i];
+            if (k == key) {
+                return values[i] += delta;
+            }
+            if (k == FREE) {
+                insertAt(i, key, delta);
+                return delta;
+            }
+        }
+    }
+
+    /** Returns the value of {@code key}, or {@code 0} if it has no mapping. */
+    public int get(int key) {
+        return getOrDefault(key, 0);
+    }
+
+    /** Returns the value of {@code key}, or {@code defaultValue} if it has no mapping. */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? defaultValue : values[slot];
+    }
+
+    public boolean containsKey(int key) {
+        return key == FREE ? hasZeroKey : find(key) >= 0;
+    }
+
+    /** Returns {@code true} if some key maps to {@code value}. O(capacity). */
+    public boolean containsValue(int value) {
+        if (hasZeroKey && zeroValue == value) {
+            return true;
+        }
+        int[] ks = keys;
+        int[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE && vs[i] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the mapping for {@code key}.
+     *
+     * @return the removed value, or {@code 0} if there was no mapping
+     */
+    public int remove(int key) {
+        if (key == FREE) {
+            int old = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return old;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return 0;
+        }
+        int old = values[slot];
+        shiftConflictingKeys(slot);
+        assigned--;
+        return old;
+    }
+
+    /** Removes every mapping; the capacity is kept. */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, 0);
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /**
+     * Calls {@code action} with every entry, in unspecified order. Unlike iterating
+     * {@code HashMap.entrySet()}, nothing is allocated per entry and nothing is boxed, and when
+     * {@code action} is a reused object or a non-capturing lambda the whole scan allocates nothing.
+     * {@code action} must not modify the map.
+     */
+    public void forEachEntry(IntIntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0, zeroValue);
+        }
+        int[] ks = keys;
+        int[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            int k = ks[i];
+            if (k != FREE) {
+                action.accept(k, vs[i]);
+            }
+        }
+    }
+
+    /** Calls {@code action} with every key; see {@link #forEachEntry}. */
+    public void forEachKey(IntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(0);
+        }
+        int[] ks = keys;
+        for (int i = 0; i < ks.length; i++) {
+            int k = ks[i];
+            if (k != FREE) {
+                action.accept(k);
+            }
+        }
+    }
+
+    /** Calls {@code action} with every value; see {@link #forEachEntry}. */
+    public void forEachValue(IntConsumer action) {
+        if (hasZeroKey) {
+            action.accept(zeroValue);
+        }
+        int[] ks = keys;
+        int[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE) {
+                action.accept(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns a cursor positioned before the first entry. Walking the map with it allocates nothing besides
+     * the cursor itself, and a cursor kept across scans can be rewound with {@link Cursor#reset()}.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /** Slot holding {@code key}, or -1. {@code key} must not be {@link #FREE}. */
+    private int find(int key) {
+        int[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            int k = ks[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    private void insertAt(int slot, int key, int value) {
+        if (assigned == resizeAt) {
+            rehash(keys.length << 1);
+            put(key, value);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        assigned++;
+    }
+
+    /**
+     * Backward-shift deletion: empties {@code gap} and moves back every following entry of the probe run whose
+     * home slot is at or before the gap, so that no lookup crosses a hole it should not stop at.
+     */
+    private void shiftConflictingKeys(int gap) {
+        int[] ks = keys;
+        int[] vs = values;
+        int m = mask;
+        for (int i = (gap + 1) & m; ks[i] != FREE; i = (i + 1) & m) {
+            int home = Hashing.slot(ks[i], shift);
+            if (((i - home) & m) >= ((i - gap) & m)) {
+                ks[gap] = ks[i];
+                vs[gap] = vs[i];
+                gap = i;
+            }
+        }
+        ks[gap] = FREE;
+        vs[gap] = 0;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        shift = Integer.numberOfLeadingZeros(capacity) + 1;
+        resizeAt = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > Hashing.MAX_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("Map is full: " + size() + " entries");
+        }
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(newCapacity);
+        int[] ks = keys;
+        int m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            int key = oldKeys[j];
+            if (key != FREE) {
+                int i = Hashing.slot(key, shift);
+                while (ks[i] != FREE) {
+                    i = (i + 1) & m;
+                }
+                ks[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /** Formats the map like {@code HashMap.toString()}, e.g. {@code {1=10, 2=20}}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        Cursor c = cursor();
+        boolean first = true;
+        while (c.advance()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(c.key()).append('=').append(c.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * A mutable position in the map, used instead of an iterator of {@code Map.Entry} objects:
+     * <pre>
+     * IntIntHashMap.Cursor c = map.cursor();
+     * while (c.advance()) {
+     *     total += c.value();
+     * }
+     * </pre>
+     * The order is unspecified, and a cursor can be rewound with {@link #reset()} and reused for the next
+     * scan, so periodic scans allocate nothing at all. Changing the value of the current entry with
+     * {@link #setValue} is allowed; any other modification of the map while a cursor is in use leaves the
+     * cursor's behavior undefined.
+     */
+    public final class Cursor {
+        /** Slot of the current entry; {@code keys.length} stands for key 0. */
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /** Moves the cursor back before the first entry, so that it can walk the map again. */
+        public Cursor reset() {
+            index = -1;
+            return this;
+        }
+
+        /** Moves to the next entry and returns {@code true}, or returns {@code false} if there is none. */
+        public boolean advance() {
+            int[] ks = keys;
+            while (++index < ks.length) {
+                if (ks[index] != FREE) {
+                    return true;
+                }
+            }
+            if (index == ks.length && hasZeroKey) {
+                return true;
+            }
+            index = ks.length + 1;
+            return false;
+        }
+
+        public int key() {
+            return index == keys.length ? 0 : keys[index];
+        }
+
+        public int value() {
+            return index == keys.length ? zeroValue : values[index];
+        }
+
+        /** Replaces the value of the current entry. */
+        public void setValue(int value) {
+            if (index == keys.length) {
+                zeroValue = value;
+            } else {
+                values[index] = value;
+            }
+        }
+    }
+}
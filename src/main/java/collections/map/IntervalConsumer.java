@@ -0,0 +1,12 @@
+package collections.map;
+
+/**
+ * Receives one {@code [start, end) -> V} entry of an {@link IntervalMap}.
+ *
+ * @param <V> the type of the value
+ */
+@FunctionalInterface
+public interface IntervalConsumer<V> {
+
+    void accept(long start, long end, V value);
+}
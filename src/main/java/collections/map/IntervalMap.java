@@ -0,0 +1,455 @@
+package collections.map;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A map from half-open intervals {@code [start, end)} of {@code long}s to values, which finds every interval
+ * containing a point or overlapping a range without scanning the others.
+ *
+ * <p>With the {@code TreeMap} of {@code LearnTreeMap} keyed by start, {@code floorKey(t)} finds the last
+ * interval starting at or before {@code t}, but any earlier one may still reach past {@code t}, so a stabbing
+ * query has to walk back over every interval that starts within the longest duration before {@code t}. Here
+ * the entries form an AVL tree ordered by {@code (start, end)} in which every node also records the greatest
+ * {@code end} in its subtree. A query skips a whole subtree when that maximum does not reach the query range,
+ * and everything to the right of a node that starts after it. {@link #forEachContaining} and
+ * {@link #forEachOverlapping} thus visit the O(log n) nodes on the search path plus the ancestors of the k
+ * intervals they report: O(log n + k) when the reported intervals sit close together in start order, as the
+ * results of a time-range query do, and never more than O(log n + k log(n / k)).
+ *
+ * <p>{@link #ofSorted} builds a balanced tree from sorted arrays in O(n) time, without rotations. Each interval
+ * must be non-empty; intervals may overlap and nest freely, and two entries only collide when both their
+ * start and end are equal. Values may be {@code null}. Results are reported in ascending {@code (start, end)}
+ * order. This class is not thread-safe.
+ *
+ * @param <V> the type of mapped values
+ */
+public class IntervalMap<V> {
+
+    private static final class Node<V> {
+        final long start;
+        final long end;
+        V value;
+        Node<V> left;
+        Node<V> right;
+        int height = 1;
+        /** The greatest {@code end} in this subtree. */
+        long maxEnd;
+
+        Node(long start, long end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+    }
+
+    private Node<V> root;
+    private int size;
+
+    /** Set by {@link #insert} and {@link #delete} to the value replaced or removed. */
+    private V oldValue;
+    private boolean found;
+
+    public IntervalMap() {
+    }
+
+    /**
+     * Creates a map holding the intervals {@code [starts[i], ends[i]) -> values.get(i)}, which must be sorted by
+     * start and then by end, with no interval repeated.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length, an interval is empty, or the intervals
+     *                                  are not strictly ascending
+     */
+    public static <V> IntervalMap<V> ofSorted(long[] starts, long[] ends, List<? extends V> values) {
+        int n = starts.length;
+        if (ends.length != n || values.size() != n) {
+            throw new IllegalArgumentException("Length mismatch: " + n + " starts, " + ends.length + " ends, "
+                    + values.size() + " values");
+        }
+        for (int i = 0; i < n; i++) {
+            checkInterval(starts[i], ends[i]);
+            if (i > 0 && compare(starts[i - 1], ends[i - 1], starts[i], ends[i]) >= 0) {
+                throw new IllegalArgumentException("Intervals not strictly ascending at index " + i + ": "
+                        + format(starts[i - 1], ends[i - 1]) + ", " + format(starts[i], ends[i]));
+            }
+        }
+        IntervalMap<V> map = new IntervalMap<>();
+        map.root = build(starts, ends, values instanceof RandomAccess ? values : new ArrayList<>(values),
+                0, n - 1);
+        map.size = n;
+        return map;
+    }
+
+    private static <V> Node<V> build(long[] starts, long[] ends, List<? extends V> values, int lo, int hi) {
+        if (lo > hi) {
+            return null;
+        }
+        int mid = (lo + hi) >>> 1;
+        Node<V> node = new Node<>(starts[mid], ends[mid], values.get(mid));
+        node.left = build(starts, ends, values, lo, mid - 1);
+        node.right = build(starts, ends, values, mid + 1, hi);
+        update(node);
+        return node;
+    }
+
+    private static void checkInterval(long start, long end) {
+        if (start >= end) {
+            throw new IllegalArgumentException("Empty interval: " + format(start, end));
+        }
+    }
+
+    private static String format(long start, long end) {
+        return "[" + start + ", " + end + ")";
+    }
+
+    private static int compare(long start1, long end1, long start2, long end2) {
+        int c = Long.compare(start1, start2);
+        return c != 0 ? c : Long.compare(end1, end2);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    // ---- Point operations ----
+
+    private Node<V> find(long start, long end) {
+        Node<V> x = root;
+        while (x != null) {
+            int c = compare(start, end, x.start, x.end);
+            if (c == 0) {
+                return x;
+            }
+            x = c < 0 ? x.left : x.right;
+        }
+        return null;
+    }
+
+    /** Returns the value of the interval {@code [start, end)} itself, or {@code null} if it is absent. */
+    public V get(long start, long end) {
+        Node<V> x = find(start, end);
+        return x == null ? null : x.value;
+    }
+
+    public boolean containsInterval(long start, long end) {
+        return find(start, end) != null;
+    }
+
+    /**
+     * Maps the interval {@code [start, end)} to {@code value}.
+     *
+     * @return the previous value of exactly this interval, or {@code null}
+     * @throws IllegalArgumentException if {@code start >= end}
+     */
+    public V put(long start, long end, V value) {
+        checkInterval(start, end);
+        oldValue = null;
+        found = false;
+        root = insert(root, start, end, value);
+        if (!found) {
+            size++;
+        }
+        V result = oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    /** @return the value of the removed interval, or {@code null} if it was absent */
+    public V remove(long start, long end) {
+        oldValue = null;
+        found = false;
+        root = delete(root, start, end);
+        if (found) {
+            size--;
+        }
+        V result = oldValue;
+        oldValue = null;
+        return result;
+    }
+
+    private Node<V> insert(Node<V> x, long start, long end, V value) {
+        if (x == null) {
+            return new Node<>(start, end, value);
+        }
+        int c = compare(start, end, x.start, x.end);
+        if (c == 0) {
+            found = true;
+            oldValue = x.value;
+            x.value = value;
+            return x;
+        }
+        if (c < 0) {
+            x.left = insert(x.left, start, end, value);
+        } else {
+            x.right = insert(x.right, start, end, value);
+        }
+        return balance(x);
+    }
+
+    private Node<V> delete(Node<V> x, long start, long end) {
+        if (x == null) {
+            return null;
+        }
+        int c = compare(start, end, x.start, x.end);
+        if (c < 0) {
+            x.left = delete(x.left, start, end);
+        } else if (c > 0) {
+            x.right = delete(x.right, start, end);
+        } else {
+            found = true;
+            oldValue = x.value;
+            if (x.left == null) {
+                return x.right;
+            }
+            if (x.right == null) {
+                return x.left;
+            }
+            Node<V> successor = x.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            Node<V> replacement = new Node<>(successor.start, successor.end, successor.value);
+            replacement.right = deleteMin(x.right);
+            replacement.left = x.left;
+            x = replacement;
+        }
+        return balance(x);
+    }
+
+    private Node<V> deleteMin(Node<V> x) {
+        if (x.left == null) {
+            return x.right;
+        }
+        x.left = deleteMin(x.left);
+        return balance(x);
+    }
+
+    // ---- AVL balancing, maintaining maxEnd ----
+
+    private static int height(Node<?> x) {
+        return x == null ? 0 : x.height;
+    }
+
+    private static void update(Node<?> x) {
+        x.height = 1 + Math.max(height(x.left), height(x.right));
+        long max = x.end;
+        if (x.left != null && x.left.maxEnd > max) {
+            max = x.left.maxEnd;
+        }
+        if (x.right != null && x.right.maxEnd > max) {
+            max = x.right.maxEnd;
+        }
+        x.maxEnd = max;
+    }
+
+    private static <V> Node<V> rotateRight(Node<V> x) {
+        Node<V> l = x.left;
+        x.left = l.right;
+        l.right = x;
+        update(x);
+        update(l);
+        return l;
+    }
+
+    private static <V> Node<V> rotateLeft(Node<V> x) {
+        Node<V> r = x.right;
+        x.right = r.left;
+        r.left = x;
+        update(x);
+        update(r);
+        return r;
+    }
+
+    private static <V> Node<V> balance(Node<V> x) {
+        update(x);
+        int factor = height(x.left) - height(x.right);
+        if (factor > 1) {
+            if (height(x.left.left) < height(x.left.right)) {
+                x.left = rotateLeft(x.left);
+            }
+            return rotateRight(x);
+        }
+        if (factor < -1) {
+            if (height(x.right.right) < height(x.right.left)) {
+                x.right = rotateRight(x.right);
+            }
+            return rotateLeft(x);
+        }
+        return x;
+    }
+
+    // ---- Queries ----
+
+    /** Passes every interval that contains {@code point} to {@code action}: a stabbing query. */
+    public void forEachContaining(long point, IntervalConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        if (point != Long.MAX_VALUE) {
+            overlapping(root, point, point + 1, action);
+        }
+    }
+
+    /**
+     * Passes every interval that overlaps {@code [from, to)}, that is, has {@code start < to} and
+     * {@code end > from}, to {@code action}.
+     *
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    public void forEachOverlapping(long from, long to, IntervalConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        if (from > to) {
+            throw new IllegalArgumentException("from " + from + " > to " + to);
+        }
+        if (from < to) {
+            overlapping(root, from, to, action);
+        }
+    }
+
+    private static <V> void overlapping(Node<V> x, long from, long to, IntervalConsumer<? super V> action) {
+        while (x != null && x.maxEnd > from) {
+            overlapping(x.left, from, to, action);
+            if (x.start >= to) {
+                return;
+            }
+            if (x.end > from) {
+                action.accept(x.start, x.end, x.value);
+            }
+            x = x.right;
+        }
+    }
+
+    /** Returns the intervals that contain {@code point}, in ascending order. */
+    public List<Entry<V>> containing(long point) {
+        List<Entry<V>> result = new ArrayList<>();
+        forEachContaining(point, (s, e, v) -> result.add(new Entry<>(s, e, v)));
+        return result;
+    }
+
+    /**
+     * Returns the intervals that overlap {@code [from, to)}, in ascending order.
+     *
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    public List<Entry<V>> overlapping(long from, long to) {
+        List<Entry<V>> result = new ArrayList<>();
+        forEachOverlapping(from, to, (s, e, v) -> result.add(new Entry<>(s, e, v)));
+        return result;
+    }
+
+    /** Returns whether any interval overlaps {@code [from, to)}, in O(log n). */
+    public boolean overlaps(long from, long to) {
+        if (from >= to) {
+            return false;
+        }
+        Node<V> x = root;
+        while (x != null && x.maxEnd > from) {
+            if (x.start < to && x.end > from) {
+                return true;
+            }
+            // The left subtree reaches past from; all of it starts before x, hence before to if x does.
+            if (x.left != null && x.left.maxEnd > from) {
+                x = x.left;
+            } else if (x.start < to) {
+                x = x.right;
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /** Passes every entry to {@code action} in ascending order. */
+    public void forEach(IntervalConsumer<? super V> action) {
+        Objects.requireNonNull(action);
+        forEach(root, action);
+    }
+
+    private static <V> void forEach(Node<V> x, IntervalConsumer<? super V> action) {
+        while (x != null) {
+            forEach(x.left, action);
+            action.accept(x.start, x.end, x.value);
+            x = x.right;
+        }
+    }
+
+    /** @throws NoSuchElementException if the map is empty */
+    public Entry<V> first() {
+        Node<V> x = root;
+        if (x == null) {
+            throw new NoSuchElementException();
+        }
+        while (x.left != null) {
+            x = x.left;
+        }
+        return new Entry<>(x.start, x.end, x.value);
+    }
+
+    /** Formats the map like {@code TreeMap.toString()}, e.g. {@code {[1, 5)=a, [2, 3)=b}}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        forEach((s, e, v) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(format(s, e)).append('=').append(v);
+        });
+        return sb.append('}').toString();
+    }
+
+    /** A snapshot of one entry. */
+    public static final class Entry<V> {
+        private final long start;
+        private final long end;
+        private final V value;
+
+        Entry(long start, long end, V value) {
+            this.start = start;
+            this.end = end;
+            this.value = value;
+        }
+
+        public long start() {
+            return start;
+        }
+
+        public long end() {
+            return end;
+        }
+
+        public V value() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Entry)) {
+                return false;
+            }
+            Entry<?> e = (Entry<?>) o;
+            return start == e.start && end == e.end && Objects.equals(value, e.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(start) * 31 + Long.hashCode(end) ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return format(start, end) + "=" + value;
+        }
+    }
+}
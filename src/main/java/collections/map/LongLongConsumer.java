@@ -0,0 +1,10 @@
+package collections.map;
+
+/**
+ * Receives one {@code long -> long} entry; the non-boxing counterpart of {@code BiConsumer<Long, Long>}.
+ */
+@FunctionalInterface
+public interface LongLongConsumer {
+
+    void accept(long key, long value);
+}
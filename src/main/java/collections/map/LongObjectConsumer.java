@@ -0,0 +1,13 @@
+package collections.map;
+
+/**
+ * Receives one {@code long -> V} entry; the counterpart of {@code BiConsumer<Long, V>} that does not box the
+ * key.
+ *
+ * @param <V> the type of the value
+ */
+@FunctionalInterface
+public interface LongObjectConsumer<V> {
+
+    void accept(long key, V value);
+}
@@ -0,0 +1,398 @@
+package collections.map;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@code long -> V} hash map using open addressing with linear probing; the object-valued counterpart of
+ * {@link IntIntHashMap}.
+ *
+ * <p>Keys live in a {@code long[]} and values in a parallel {@code Object[]}, so there is no node and no boxed
+ * {@code Long} per entry. Collisions probe the next slot and removal uses backward-shift deletion, as in
+ * {@link IntIntHashMap}.
+ *
+ * <p>{@code null} values are not permitted, so {@link #get} returning {@code null} always means that the key
+ * has no mapping. Key {@code 0} is allowed and kept outside the table.
+ *
+ * <p>This class is not thread-safe.
+ *
+ * @param <V> the type of mapped values
+ */
+public class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final long FREE = 0L;
+
+    private final float loadFactor;
+
+    private long[] keys;
+    private Object[] values;
+    /** {@code 64 - log2(capacity)}, see {@link Hashing#slot(long, int)}. */
+    private int shift;
+    private int mask;
+    /** Number of entries at which the table doubles. */
+    private int resizeAt;
+    /** Number of entries in the table, not counting key 0. */
+    private int assigned;
+
+    /** Value of key 0, or {@code null} if key 0 has no mapping. */
+    private V zeroValue;
+
+    public LongObjectHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, IntIntHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /** @param expectedSize number of entries the map can hold before it first grows */
+    public LongObjectHashMap(int expectedSize) {
+        this(expectedSize, IntIntHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize number of entries the map can hold before it first grows
+     * @param loadFactor   fraction of slots that may be occupied before the table doubles, in {@code (0, 1)}
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public LongObjectHashMap(int expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        allocate(Hashing.tableCapacity(expectedSize, loadFactor));
+    }
+
+    public int size() {
+        return assigned + (zeroValue != null ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @return the previous value, or {@code null} if there was no mapping
+     * @throws NullPointerException if {@code value} is {@code null}
+     */
+    public V put(long key, V value) {
+        Objects.requireNonNull(value, "value");
+        if (key == FREE) {
+            V old = zeroValue;
+            zeroValue = value;
+            return old;
+        }
+        long[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            long k = ks[i];
+            if (k == key) {
+                V old = valueAt(i);
+                values[i] = value;
+                return old;
+            }
+            if (k == FREE) {
+                insertAt(i, key, value);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Associates {@code value} with {@code key} only if {@code key} has no mapping yet.
+     *
+     * @return the existing value, or {@code null} if {@code value} was inserted
+     * @throws NullPointerException if {@code value} is {@code null}
+     */
+    public V putIfAbsent(long key, V value) {
+        Objects.requireNonNull(value, "value");
+        if (key == FREE) {
+            V old = zeroValue;
+            if (old == null) {
+                zeroValue = value;
+            }
+            return old;
+        }
+        long[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            long k = ks[i];
+            if (k == key) {
+                return valueAt(i);
+            }
+            if (k == FREE) {
+                insertAt(i, key, value);
+                return null;
+            }
+        }
+    }
+
+    /** Returns the value of {@code key}, or {@code null} if it has no mapping. */
+    public V get(long key) {
+        if (key == FREE) {
+            return zeroValue;
+        }
+        int slot = find(key);
+        return slot < 0 ? null : valueAt(slot);
+    }
+
+    /** Returns the value of {@code key}, or {@code defaultValue} if it has no mapping. */
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public boolean containsKey(long key) {
+        return key == FREE ? zeroValue != null : find(key) >= 0;
+    }
+
+    /** Returns {@code true} if some key maps to a value equal to {@code value}. O(capacity). */
+    public boolean containsValue(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value.equals(zeroValue)) {
+            return true;
+        }
+        long[] ks = keys;
+        Object[] vs = values;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE && value.equals(vs[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes the mapping for {@code key}.
+     *
+     * @return the removed value, or {@code null} if there was no mapping
+     */
+    public V remove(long key) {
+        if (key == FREE) {
+            V old = zeroValue;
+            zeroValue = null;
+            return old;
+        }
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V old = valueAt(slot);
+        shiftConflictingKeys(slot);
+        assigned--;
+        return old;
+    }
+
+    /** Removes every mapping; the capacity is kept. */
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        Arrays.fill(values, null);
+        assigned = 0;
+        zeroValue = null;
+    }
+
+    /**
+     * Calls {@code action} with every entry, in unspecified order, without allocating per entry or boxing the
+     * key; see {@link IntIntHashMap#forEachEntry}. {@code action} must not modify the map.
+     */
+    public void forEachEntry(LongObjectConsumer<? super V> action) {
+        if (zeroValue != null) {
+            action.accept(0L, zeroValue);
+        }
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; i++) {
+            long k = ks[i];
+            if (k != FREE) {
+                action.accept(k, valueAt(i));
+            }
+        }
+    }
+
+    /** Calls {@code action} with every key; see {@link #forEachEntry}. */
+    public void forEachKey(LongConsumer action) {
+        if (zeroValue != null) {
+            action.accept(0L);
+        }
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; i++) {
+            long k = ks[i];
+            if (k != FREE) {
+                action.accept(k);
+            }
+        }
+    }
+
+    /** Calls {@code action} with every value; see {@link #forEachEntry}. */
+    public void forEachValue(Consumer<? super V> action) {
+        if (zeroValue != null) {
+            action.accept(zeroValue);
+        }
+        long[] ks = keys;
+        for (int i = 0; i < ks.length; i++) {
+            if (ks[i] != FREE) {
+                action.accept(valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * Returns a cursor positioned before the first entry. Walking the map with it allocates nothing besides
+     * the cursor itself, and a cursor kept across scans can be rewound with {@link Cursor#reset()}.
+     */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @SuppressWarnings("unchecked")
+    private V valueAt(int slot) {
+        return (V) values[slot];
+    }
+
+    /** Slot holding {@code key}, or -1. {@code key} must not be {@link #FREE}. */
+    private int find(long key) {
+        long[] ks = keys;
+        int m = mask;
+        for (int i = Hashing.slot(key, shift); ; i = (i + 1) & m) {
+            long k = ks[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    private void insertAt(int slot, long key, V value) {
+        if (assigned == resizeAt) {
+            rehash(keys.length << 1);
+            put(key, value);
+            return;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        assigned++;
+    }
+
+    /** Backward-shift deletion; see {@code IntIntHashMap.shiftConflictingKeys}. */
+    private void shiftConflictingKeys(int gap) {
+        long[] ks = keys;
+        Object[] vs = values;
+        int m = mask;
+        for (int i = (gap + 1) & m; ks[i] != FREE; i = (i + 1) & m) {
+            int home = Hashing.slot(ks[i], shift);
+            if (((i - home) & m) >= ((i - gap) & m)) {
+                ks[gap] = ks[i];
+                vs[gap] = vs[i];
+                gap = i;
+            }
+        }
+        ks[gap] = FREE;
+        vs[gap] = null;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        shift = Long.numberOfLeadingZeros(capacity) + 1;
+        resizeAt = Math.min(capacity - 1, (int) Math.ceil(capacity * loadFactor));
+    }
+
+    private void rehash(int newCapacity) {
+        if (newCapacity > Hashing.MAX_CAPACITY || newCapacity <= 0) {
+            throw new IllegalStateException("Map is full: " + size() + " entries");
+        }
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(newCapacity);
+        long[] ks = keys;
+        int m = mask;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key != FREE) {
+                int i = Hashing.slot(key, shift);
+                while (ks[i] != FREE) {
+                    i = (i + 1) & m;
+                }
+                ks[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    /** Formats the map like {@code HashMap.toString()}, e.g. {@code {1=One, 2=Two}}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('{');
+        Cursor c = cursor();
+        boolean first = true;
+        while (c.advance()) {
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(c.key()).append('=').append(c.value());
+        }
+        return sb.append('}').toString();
+    }
+
+    /**
+     * A mutable position in the map, used instead of an iterator of {@code Map.Entry} objects; see
+     * {@link IntIntHashMap.Cursor} for the usage pattern and rules.
+     */
+    public final class Cursor {
+        /** Slot of the current entry; {@code keys.length} stands for key 0. */
+        private int index = -1;
+
+        private Cursor() {
+        }
+
+        /** Moves the cursor back before the first entry, so that it can walk the map again. */
+        public Cursor reset() {
+            index = -1;
+            return this;
+        }
+
+        /** Moves to the next entry and returns {@code true}, or returns {@code false} if there is none. */
+        public boolean advance() {
+            long[] ks = keys;
+            while (++index < ks.length) {
+                if (ks[index] != FREE) {
+                    return true;
+                }
+            }
+            if (index == ks.length && zeroValue != null) {
+                return true;
+            }
+            index = ks.length + 1;
+            return false;
+        }
+
+        public long key() {
+            return index == keys.length ? 0L : keys[index];
+        }
+
+        public V value() {
+            return index == keys.length ? zeroValue : valueAt(index);
+        }
+
+        /**
+         * Replaces the value of the current entry.
+         *
+         * @throws NullPointerException if {@code value} is {@code null}
+         */
+        public void setValue(V value) {
+            Objects.requireNonNull(value, "value");
+            if (index == keys.length) {
+                zeroValue = value;
+            } else {
+                values[index] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package collections.map;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.SortedMap;
+
+import collections.io.BinaryWriter;
+import collections.io.Codec;
+
+/**
+ * An immutable {@link java.util.NavigableMap} that reads its entries straight from a memory-mapped file, so
+ * that a large sorted map survives a restart without being rebuilt.
+ *
+ * <p>Repopulating the {@code TreeMap} of {@code LearnTreeMap} with tens of millions of entries takes a minute
+ * of inserts and rebalancing on every start. {@link #write} instead saves a sorted map once, in blocks of
+ * {@value #BLOCK_ENTRIES} entries followed by an index of block offsets, and {@link #open} maps that file with
+ * {@link FileChannel#map} and reads only its 32-byte header. Nothing is deserialized up front: a lookup binary
+ * searches the block index and then the block's own entry offsets, decoding the keys it compares on the way,
+ * and the operating system pages in just the blocks that are touched. The page cache keeps them warm across
+ * restarts of the process.
+ *
+ * <p>Keys and values are converted to and from bytes by the {@link Codec}s of {@code collections.io}, written
+ * through a {@link BinaryWriter} and decoded in place with {@link Codec#read(ByteBuffer, int, int)}; a decoding
+ * failure surfaces as an {@link UncheckedIOException}. The map must be opened with the ordering it was written
+ * in: {@link #open(Path, Codec, Codec)} assumes natural ordering, and a map written from a {@code SortedMap}
+ * with a comparator must be opened with an equivalent comparator. Every view that {@code AbstractNavigableMap}
+ * provides works, but all mutators throw {@link UnsupportedOperationException}. The mapping is released when
+ * the map and all its views become unreachable, as with any {@link MappedByteBuffer}. Instances are safe for
+ * concurrent reads.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+public class MappedSortedMap<K, V> extends AbstractNavigableMap<K, V> {
+
+    /** Entries per block; every block but the last is full. */
+    static final int BLOCK_ENTRIES = 64;
+
+    private static final int MAGIC = 0x4D534D31; // "MSM1"
+    private static final int HEADER_BYTES = 32;
+
+    /**
+     * The file is mapped in regions of 1 GiB. The writer pads so that no block crosses a region boundary, and
+     * the 8-byte index entries are 8-aligned, so every read lies within one region.
+     */
+    private static final int REGION_SHIFT = 30;
+    private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+
+    private final Comparator<? super K> comparator;
+    private final Codec<K> keyCodec;
+    private final Codec<V> valueCodec;
+    private final ByteBuffer[] regions;
+    private final long size;
+    private final int blockCount;
+    private final long indexOffset;
+
+    private MappedSortedMap(ByteBuffer[] regions, Codec<K> keyCodec, Codec<V> valueCodec,
+                            Comparator<? super K> comparator) throws IOException {
+        this.regions = regions;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.comparator = comparator;
+        ByteBuffer header = regions[0];
+        if (header.limit() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+            throw new IOException("Not a MappedSortedMap file");
+        }
+        if (header.getInt(4) != BLOCK_ENTRIES) {
+            throw new IOException("Unsupported block size: " + header.getInt(4));
+        }
+        size = header.getLong(8);
+        indexOffset = header.getLong(16);
+        blockCount = header.getInt(24);
+    }
+
+    /** Opens a map written by {@link #write}, ordering keys by their natural ordering. */
+    public static <K extends Comparable<? super K>, V> MappedSortedMap<K, V> open(
+            Path path, Codec<K> keyCodec, Codec<V> valueCodec) throws IOException {
+        return open(path, keyCodec, valueCodec, null);
+    }
+
+    /**
+     * Opens a map written by {@link #write}. Only the header is read; entries are paged in as they are used.
+     *
+     * @param comparator the ordering the map was written in, or {@code null} for natural ordering
+     * @throws IOException if the file cannot be mapped or was not written by {@link #write}
+     */
+    public static <K, V> MappedSortedMap<K, V> open(Path path, Codec<K> keyCodec, Codec<V> valueCodec,
+                                                    Comparator<? super K> comparator) throws IOException {
+        Objects.requireNonNull(keyCodec);
+        Objects.requireNonNull(valueCodec);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long length = channel.size();
+            ByteBuffer[] regions = new ByteBuffer[(int) Math.max(1, (length + REGION_MASK) >>> REGION_SHIFT)];
+            for (int i = 0; i < regions.length; i++) {
+                long start = (long) i << REGION_SHIFT;
+                long regionLength = Math.min(length - start, 1L << REGION_SHIFT);
+                regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, regionLength);
+            }
+            return new MappedSortedMap<>(regions, keyCodec, valueCodec, comparator);
+        }
+    }
+
+    /**
+     * Writes {@code map} to {@code path} in the format {@link #open} reads, replacing any existing file. Keys
+     * must not be {@code null}; values may be {@code null} only if {@code valueCodec} is
+     * {@linkplain Codec#nullable nullable}. The entries are forced to the device before the header is written,
+     * and the header is forced before this returns, so a crash part-way through leaves a file that {@link #open}
+     * rejects rather than a torn map.
+     *
+     * @throws IllegalArgumentException if a block of {@value #BLOCK_ENTRIES} entries encodes to more than 1 GiB
+     */
+    public static <K, V> void write(Path path, SortedMap<K, ? extends V> map, Codec<? super K> keyCodec,
+                                    Codec<? super V> valueCodec) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = HEADER_BYTES;
+            long[] blockOffsets = new long[16];
+            int blockCount = 0;
+
+            ByteArrayOutputStream entries = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(entries);
+            BinaryWriter valueOut = new BinaryWriter(Channels.newChannel(entries));
+            ByteArrayOutputStream keyBytes = new ByteArrayOutputStream();
+            BinaryWriter keyOut = new BinaryWriter(Channels.newChannel(keyBytes));
+            int[] entryOffsets = new int[BLOCK_ENTRIES + 1];
+            int n = 0;
+            Iterator<? extends Map.Entry<K, ? extends V>> it = map.entrySet().iterator();
+            while (it.hasNext() || n > 0) {
+                if (it.hasNext()) {
+                    Map.Entry<K, ? extends V> e = it.next();
+                    entryOffsets[n++] = entries.size();
+                    keyBytes.reset();
+                    keyCodec.write(keyOut, Objects.requireNonNull(e.getKey()));
+                    keyOut.flush();
+                    out.writeInt(keyBytes.size());
+                    keyBytes.writeTo(out);
+                    valueCodec.write(valueOut, e.getValue());
+                    valueOut.flush();
+                    if (n < BLOCK_ENTRIES && it.hasNext()) {
+                        continue;
+                    }
+                }
+                entryOffsets[n] = entries.size();
+                ByteBuffer block = encodeBlock(entryOffsets, n, entries);
+                long room = (1L << REGION_SHIFT) - (position & REGION_MASK);
+                if (block.remaining() > room) {
+                    if (block.remaining() > 1L << REGION_SHIFT) {
+                        throw new IllegalArgumentException("Block too large: " + block.remaining() + " bytes");
+                    }
+                    position += room;
+                }
+                if (blockCount == blockOffsets.length) {
+                    blockOffsets = Arrays.copyOf(blockOffsets, blockCount << 1);
+                }
+                blockOffsets[blockCount++] = position;
+                position += writeFully(channel, block, position);
+                entries.reset();
+                n = 0;
+            }
+
+            long indexOffset = (position + 7) & ~7L;
+            ByteBuffer index = ByteBuffer.allocate(blockCount * Long.BYTES);
+            index.asLongBuffer().put(blockOffsets, 0, blockCount);
+            writeFully(channel, index, indexOffset);
+            channel.force(true);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(MAGIC).putInt(BLOCK_ENTRIES).putLong(map.size()).putLong(indexOffset).putInt(blockCount);
+            header.clear();
+            writeFully(channel, header, 0);
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Lays a block out as its entry count, {@code count + 1} offsets from the start of the block (the last one
+     * is the block's length) and the entries. Each entry is its key length, key bytes and value bytes.
+     */
+    private static ByteBuffer encodeBlock(int[] entryOffsets, int count, ByteArrayOutputStream entries) {
+        int headerBytes = Integer.BYTES * (count + 2);
+        ByteBuffer block = ByteBuffer.allocate(headerBytes + entries.size());
+        block.putInt(count);
+        for (int i = 0; i <= count; i++) {
+            block.putInt(headerBytes + entryOffsets[i]);
+        }
+        block.put(entries.toByteArray());
+        return block.flip();
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer, position + written);
+        }
+        return written;
+    }
+
+    @Override
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /** Number of entries, or {@code Integer.MAX_VALUE} if there are more; see {@link #longSize()}. */
+    @Override
+    public int size() {
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    public long longSize() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ---- Reading the file ----
+
+    private ByteBuffer region(long offset) {
+        return regions[(int) (offset >>> REGION_SHIFT)];
+    }
+
+    private long blockOffset(int block) {
+        long at = indexOffset + (long) block * Long.BYTES;
+        return region(at).getLong((int) (at & REGION_MASK));
+    }
+
+    /** Position of entry {@code i} of the block at {@code blockOffset}, relative to its region. */
+    private static int entryStart(ByteBuffer region, int blockStart, int i) {
+        return blockStart + region.getInt(blockStart + Integer.BYTES * (i + 1));
+    }
+
+    private static <T> T decode(Codec<T> codec, ByteBuffer region, int offset, int length) {
+        try {
+            return codec.read(region, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private K keyAt(ByteBuffer region, int blockStart, int i) {
+        int start = entryStart(region, blockStart, i);
+        return decode(keyCodec, region, start + Integer.BYTES, region.getInt(start));
+    }
+
+    private Map.Entry<K, V> entryAt(long rank) {
+        long offset = blockOffset((int) (rank / BLOCK_ENTRIES));
+        ByteBuffer region = region(offset);
+        int blockStart = (int) (offset & REGION_MASK);
+        int i = (int) (rank % BLOCK_ENTRIES);
+        int start = entryStart(region, blockStart, i);
+        int end = entryStart(region, blockStart, i + 1);
+        int keyLength = region.getInt(start);
+        int valueStart = start + Integer.BYTES + keyLength;
+        return new AbstractMap.SimpleImmutableEntry<>(
+                decode(keyCodec, region, start + Integer.BYTES, keyLength),
+                decode(valueCodec, region, valueStart, end - valueStart));
+    }
+
+    /**
+     * Rank of {@code key} among all entries, or {@code -(insertion point) - 1} if absent, as
+     * {@link Arrays#binarySearch(long[], long)} reports it.
+     */
+    private long search(Object key) {
+        Objects.requireNonNull(key);
+        // Last block whose first key is <= key.
+        int lo = 0;
+        int hi = blockCount - 1;
+        int block = -1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            long offset = blockOffset(mid);
+            if (compare(keyAt(region(offset), (int) (offset & REGION_MASK), 0), key) <= 0) {
+                block = mid;
+                lo = mid + 1;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        if (block < 0) {
+            return -1;
+        }
+        long offset = blockOffset(block);
+        ByteBuffer region = region(offset);
+        int blockStart = (int) (offset & REGION_MASK);
+        long base = (long) block * BLOCK_ENTRIES;
+        int low = 0;
+        int high = region.getInt(blockStart) - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = compare(keyAt(region, blockStart, mid), key);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return base + mid;
+            }
+        }
+        return -(base + low) - 1;
+    }
+
+    private Map.Entry<K, V> entryOrNull(long rank) {
+        return rank >= 0 && rank < size ? entryAt(rank) : null;
+    }
+
+    private long floorRank(Object key) {
+        long r = search(key);
+        return r >= 0 ? r : -r - 2;
+    }
+
+    private long lowerRank(Object key) {
+        long r = search(key);
+        return r >= 0 ? r - 1 : -r - 2;
+    }
+
+    private long ceilingRank(Object key) {
+        long r = search(key);
+        return r >= 0 ? r : -r - 1;
+    }
+
+    private long higherRank(Object key) {
+        long r = search(key);
+        return r >= 0 ? r + 1 : -r - 1;
+    }
+
+    @Override
+    public V get(Object key) {
+        long r = search(key);
+        return r < 0 ? null : entryAt(r).getValue();
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return search(key) >= 0;
+    }
+
+    @Override
+    public Map.Entry<K, V> firstEntry() {
+        return entryOrNull(0);
+    }
+
+    @Override
+    public Map.Entry<K, V> lastEntry() {
+        return entryOrNull(size - 1);
+    }
+
+    @Override
+    public Map.Entry<K, V> lowerEntry(K key) {
+        return entryOrNull(lowerRank(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> floorEntry(K key) {
+        return entryOrNull(floorRank(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> ceilingEntry(K key) {
+        return entryOrNull(ceilingRank(key));
+    }
+
+    @Override
+    public Map.Entry<K, V> higherEntry(K key) {
+        return entryOrNull(higherRank(key));
+    }
+
+    // ---- Mutators ----
+
+    @Override
+    public V put(K key, V value) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public V remove(Object key) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void clear() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    Iterator<Map.Entry<K, V>> entryIterator(boolean fromStart, K lo, boolean loInclusive,
+                                           boolean toEnd, K hi, boolean hiInclusive, boolean descending) {
+        long first = fromStart ? 0 : loInclusive ? ceilingRank(lo) : higherRank(lo);
+        long last = toEnd ? size - 1 : hiInclusive ? floorRank(hi) : lowerRank(hi);
+        return descending ? new EntryIterator(last, first - 1, -1) : new EntryIterator(first, last + 1, 1);
+    }
+
+    /** Walks ranks from {@code next} towards {@code end}, exclusive. */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private long next;
+        private final long end;
+        private final int step;
+
+        EntryIterator(long next, long end, int step) {
+            this.next = next;
+            this.end = end;
+            this.step = step;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return step > 0 ? next < end : next > end;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<K, V> e = entryAt(next);
+            next += step;
+            return e;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package collections.map;
+
+import java.util.AbstractSet;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.SortedSet;
+
+/**
+ * The {@link NavigableMap#navigableKeySet()} view of a navigable map: every operation is forwarded to the map,
+ * and the set's ranges are the key sets of the map's ranges.
+ *
+ * @param <E> the type of keys
+ */
+final class NavigableKeySet<E> extends AbstractSet<E> implements NavigableSet<E> {
+
+    private final NavigableMap<E, ?> m;
+
+    NavigableKeySet(NavigableMap<E, ?> m) {
+        this.m = m;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        Iterator<? extends Map.Entry<E, ?>> it = m.entrySet().iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E next() {
+                return it.next().getKey();
+            }
+
+            @Override
+            public void remove() {
+                it.remove();
+            }
+        };
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return descendingSet().iterator();
+    }
+
+    @Override
+    public int size() {
+        return m.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return m.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return m.containsKey(o);
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (m.containsKey(o)) {
+            m.remove(o);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        m.clear();
+    }
+
+    @Override
+    public Comparator<? super E> comparator() {
+        return m.comparator();
+    }
+
+    @Override
+    public E first() {
+        return m.firstKey();
+    }
+
+    @Override
+    public E last() {
+        return m.lastKey();
+    }
+
+    @Override
+    public E lower(E e) {
+        return m.lowerKey(e);
+    }
+
+    @Override
+    public E floor(E e) {
+        return m.floorKey(e);
+    }
+
+    @Override
+    public E ceiling(E e) {
+        return m.ceilingKey(e);
+    }
+
+    @Override
+    public E higher(E e) {
+        return m.higherKey(e);
+    }
+
+    @Override
+    public E pollFirst() {
+        return AbstractNavigableMap.keyOrNull(m.pollFirstEntry());
+    }
+
+    @Override
+    public E pollLast() {
+        return AbstractNavigableMap.keyOrNull(m.pollLastEntry());
+    }
+
+    @Override
+    public NavigableSet<E> descendingSet() {
+        return new NavigableKeySet<>(m.descendingMap());
+    }
+
+    @Override
+    public NavigableSet<E> subSet(E fromElement, boolean fromInclusive, E toElement, boolean toInclusive) {
+        return new NavigableKeySet<>(m.subMap(fromElement, fromInclusive, toElement, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+        return new NavigableKeySet<>(m.headMap(toElement, inclusive));
+    }
+
+    @Override
+    public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+        return new NavigableKeySet<>(m.tailMap(fromElement, inclusive));
+    }
+
+    @Override
+    public SortedSet<E> subSet(E fromElement, E toElement) {
+        return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<E> headSet(E toElement) {
+        return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<E> tailSet(E fromElement) {
+        return tailSet(fromElement, true);
+    }
+}
@@ -0,0 +1,357 @@
+package collections.map;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@code long -> long} hash map whose table lives outside the Java heap, using open addressing with linear
+ * probing like {@link IntIntHashMap}.
+ *
+ * <p>{@code LearnHashMap} and {@code LearnTreeMap} keep every entry on the heap, where a table of hundreds of
+ * millions of entries makes every full collection trace and copy it. This map stores each entry as 16 bytes,
+ * key then value, in direct {@code ByteBuffer}s of up to 1 GiB, read and written through a
+ * {@linkplain MethodHandles#byteBufferViewVarHandle byte-buffer view VarHandle}. The heap holds only the
+ * buffer objects, so the collector never scans the entries, whatever their number. The off-heap memory counts
+ * against {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size.
+ *
+ * <p>{@link #close()} frees the memory immediately instead of waiting for the buffers to be collected, after
+ * which every method except {@code close} throws {@link IllegalStateException}. Growing the table frees the old
+ * buffers the same way.
+ *
+ * <p>As in {@link IntIntHashMap}, key {@code 0} marks a free slot and its mapping is kept in a field, and
+ * methods that return a value return {@code 0} when there is no mapping. This class is not thread-safe.
+ */
+public class OffHeapLongLongHashMap implements AutoCloseable {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+    private static final long FREE = 0L;
+
+    private static final int ENTRY_SHIFT = 4;
+    private static final int PAGE_SHIFT = 30;
+    private static final long PAGE_MASK = (1L << PAGE_SHIFT) - 1;
+
+    /** Copied over the pages by {@link #clear()}; never written. */
+    private static final byte[] ZEROS = new byte[1 << 16];
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** {@code sun.misc.Unsafe.invokeCleaner} and its receiver, or {@code null} where unavailable. */
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method invokeCleaner = null;
+        Object unsafe = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Without it, freed buffers are released when the collector finds them unreachable.
+        }
+        INVOKE_CLEANER = invokeCleaner;
+        UNSAFE = unsafe;
+    }
+
+    private final float loadFactor;
+
+    /** The table, 16 bytes per slot; {@code null} once closed. */
+    private ByteBuffer[] pages;
+    private long capacity;
+    /** {@code 64 - log2(capacity)}, see {@link Hashing#slot(long, int)}. */
+    private int shift;
+    private long mask;
+    /** Number of entries at which the table doubles. */
+    private long resizeAt;
+    /** Number of entries in the table, not counting key 0. */
+    private long assigned;
+
+    private boolean hasZeroKey;
+    private long zeroValue;
+
+    public OffHeapLongLongHashMap() {
+        this(DEFAULT_EXPECTED_SIZE, IntIntHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /** @param expectedSize number of entries the map can hold before it first grows */
+    public OffHeapLongLongHashMap(long expectedSize) {
+        this(expectedSize, IntIntHashMap.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize number of entries the map can hold before it first grows
+     * @param loadFactor   fraction of slots that may be occupied before the table doubles, in {@code (0, 1)}
+     * @throws IllegalArgumentException if either argument is out of range
+     */
+    public OffHeapLongLongHashMap(long expectedSize, float loadFactor) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        Hashing.checkLoadFactor(loadFactor);
+        this.loadFactor = loadFactor;
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / (double) loadFactor);
+        if (needed > Hashing.MAX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        allocate(Math.max(2, Long.highestOneBit(needed - 1) << 1));
+    }
+
+    private void allocate(long newCapacity) {
+        long bytes = newCapacity << ENTRY_SHIFT;
+        int pageCount = (int) ((bytes + PAGE_MASK) >>> PAGE_SHIFT);
+        ByteBuffer[] newPages = new ByteBuffer[pageCount];
+        for (int i = 0; i < pageCount; i++) {
+            // allocateDirect zeroes the memory, so every slot starts FREE.
+            newPages[i] = ByteBuffer.allocateDirect((int) Math.min(bytes - ((long) i << PAGE_SHIFT), 1L << PAGE_SHIFT))
+                    .order(ByteOrder.nativeOrder());
+        }
+        pages = newPages;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        shift = Long.numberOfLeadingZeros(newCapacity) + 1;
+        resizeAt = Math.min(newCapacity - 1, (long) Math.ceil(newCapacity * (double) loadFactor));
+    }
+
+    private static void free(ByteBuffer[] buffers) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            for (ByteBuffer buffer : buffers) {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            }
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot free direct buffer", e);
+        }
+    }
+
+    private ByteBuffer[] pages() {
+        ByteBuffer[] ps = pages;
+        if (ps == null) {
+            throw new IllegalStateException("Map is closed");
+        }
+        return ps;
+    }
+
+    private static long keyAt(ByteBuffer[] ps, long slot) {
+        long offset = slot << ENTRY_SHIFT;
+        return (long) LONGS.get(ps[(int) (offset >>> PAGE_SHIFT)], (int) (offset & PAGE_MASK));
+    }
+
+    private static long valueAt(ByteBuffer[] ps, long slot) {
+        long offset = (slot << ENTRY_SHIFT) + Long.BYTES;
+        return (long) LONGS.get(ps[(int) (offset >>> PAGE_SHIFT)], (int) (offset & PAGE_MASK));
+    }
+
+    private static void setKey(ByteBuffer[] ps, long slot, long key) {
+        long offset = slot << ENTRY_SHIFT;
+        LONGS.set(ps[(int) (offset >>> PAGE_SHIFT)], (int) (offset & PAGE_MASK), key);
+    }
+
+    private static void setValue(ByteBuffer[] ps, long slot, long value) {
+        long offset = (slot << ENTRY_SHIFT) + Long.BYTES;
+        LONGS.set(ps[(int) (offset >>> PAGE_SHIFT)], (int) (offset & PAGE_MASK), value);
+    }
+
+    public long size() {
+        pages();
+        return assigned + (hasZeroKey ? 1 : 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Number of slots in the table; it occupies 16 bytes per slot off-heap. */
+    public long capacity() {
+        pages();
+        return capacity;
+    }
+
+    /**
+     * Associates {@code value} with {@code key}.
+     *
+     * @return the previous value, or {@code 0} if there was no mapping
+     */
+    public long put(long key, long value) {
+        ByteBuffer[] ps = pages();
+        if (key == FREE) {
+            long previous = zeroValue;
+            hasZeroKey = true;
+            zeroValue = value;
+            return previous;
+        }
+        long slot = Hashing.slot(key, shift);
+        long k;
+        while ((k = keyAt(ps, slot)) != FREE) {
+            if (k == key) {
+                long previous = valueAt(ps, slot);
+                setValue(ps, slot, value);
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        if (assigned == resizeAt) {
+            rehash(capacity << 1);
+            return put(key, value);
+        }
+        setKey(ps, slot, key);
+        setValue(ps, slot, value);
+        assigned++;
+        return 0;
+    }
+
+    /** Returns the value for {@code key}, or {@code 0} if there is no mapping. */
+    public long get(long key) {
+        return getOrDefault(key, 0);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        ByteBuffer[] ps = pages();
+        if (key == FREE) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        long slot = find(ps, key);
+        return slot < 0 ? defaultValue : valueAt(ps, slot);
+    }
+
+    public boolean containsKey(long key) {
+        ByteBuffer[] ps = pages();
+        return key == FREE ? hasZeroKey : find(ps, key) >= 0;
+    }
+
+    /**
+     * Removes the mapping for {@code key}.
+     *
+     * @return the removed value, or {@code 0} if there was no mapping
+     */
+    public long remove(long key) {
+        ByteBuffer[] ps = pages();
+        if (key == FREE) {
+            long previous = zeroValue;
+            hasZeroKey = false;
+            zeroValue = 0;
+            return previous;
+        }
+        long slot = find(ps, key);
+        if (slot < 0) {
+            return 0;
+        }
+        long previous = valueAt(ps, slot);
+        shiftConflictingKeys(ps, slot);
+        assigned--;
+        return previous;
+    }
+
+    /**
+     * Removes every mapping. The table keeps its capacity and is zeroed in place, so clearing needs no memory
+     * beyond the table itself.
+     */
+    public void clear() {
+        for (ByteBuffer page : pages()) {
+            for (int i = 0, n = page.capacity(); i < n; i += ZEROS.length) {
+                page.put(i, ZEROS, 0, Math.min(ZEROS.length, n - i));
+            }
+        }
+        assigned = 0;
+        hasZeroKey = false;
+        zeroValue = 0;
+    }
+
+    /** Passes every entry to {@code action}, in no particular order, key 0 first. */
+    public void forEachEntry(LongLongConsumer action) {
+        ByteBuffer[] ps = pages();
+        if (hasZeroKey) {
+            action.accept(FREE, zeroValue);
+        }
+        for (long slot = 0; slot < capacity; slot++) {
+            long key = keyAt(ps, slot);
+            if (key != FREE) {
+                action.accept(key, valueAt(ps, slot));
+            }
+        }
+    }
+
+    /** Frees the off-heap table. Closing an already closed map has no effect. */
+    @Override
+    public void close() {
+        ByteBuffer[] ps = pages;
+        if (ps != null) {
+            pages = null;
+            free(ps);
+        }
+    }
+
+    private long find(ByteBuffer[] ps, long key) {
+        for (long slot = Hashing.slot(key, shift); ; slot = (slot + 1) & mask) {
+            long k = keyAt(ps, slot);
+            if (k == key) {
+                return slot;
+            }
+            if (k == FREE) {
+                return -1;
+            }
+        }
+    }
+
+    /** Backward-shift deletion, as in {@link IntIntHashMap}. */
+    private void shiftConflictingKeys(ByteBuffer[] ps, long gap) {
+        long m = mask;
+        long k;
+        for (long i = (gap + 1) & m; (k = keyAt(ps, i)) != FREE; i = (i + 1) & m) {
+            long home = Hashing.slot(k, shift);
+            if (((i - home) & m) >= ((i - gap) & m)) {
+                setKey(ps, gap, k);
+                setValue(ps, gap, valueAt(ps, i));
+                gap = i;
+            }
+        }
+        setKey(ps, gap, FREE);
+        setValue(ps, gap, 0);
+    }
+
+    private void rehash(long newCapacity) {
+        if (newCapacity > Hashing.MAX_CAPACITY) {
+            throw new IllegalStateException("Map is full: " + size() + " entries");
+        }
+        ByteBuffer[] old = pages;
+        long oldCapacity = capacity;
+        allocate(newCapacity);
+        ByteBuffer[] ps = pages;
+        long m = mask;
+        for (long j = 0; j < oldCapacity; j++) {
+            long key = keyAt(old, j);
+            if (key != FREE) {
+                long slot = Hashing.slot(key, shift);
+                while (keyAt(ps, slot) != FREE) {
+                    slot = (slot + 1) & m;
+                }
+                setKey(ps, slot, key);
+                setValue(ps, slot, valueAt(old, j));
+            }
+        }
+        free(old);
+    }
+
+    /** Formats the map like {@code HashMap.toString()}, e.g. {@code {1=10, 2=20}}. */
+    @Override
+    public String toString() {
+        if (pages == null) {
+            return "OffHeapLongLongHashMap{closed}";
+        }
+        StringBuilder sb = new StringBuilder().append('{');
+        forEachEntry((key, value) -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(key).append('=').append(value);
+        });
+        return sb.append('}').toString();
+    }
+}
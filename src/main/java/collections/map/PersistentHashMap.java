@@ -0,0 +1,638 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable hash map whose updates return new versions that share almost all of their structure with the
+ * old one: a hash array mapped trie (HAMT) in the compact CHAMP layout of Steindorfer and Vinju.
+ *
+ * <p>{@code LearnHashMap}'s {@code HashMap} is changed in place, so handing readers a stable snapshot means
+ * copying every entry. Here {@link #with} (put) and {@link #without} (remove) leave this map untouched and
+ * return a new one, copying only the nodes on the path to the key: at most seven 32-way nodes, each a few
+ * dozen bytes, whatever the size of the map. A published map can be read by any number of threads without
+ * locking.
+ *
+ * <p>Each node consumes five bits of the key's mixed hash. Two bitmaps say which of its 32 slots hold an entry
+ * inline and which hold a child node, and one array stores just the occupied slots: entries from the front,
+ * children from the back. Keys whose whole 32-bit hashes collide share a collision node at the bottom. Removal
+ * pulls a lone remaining entry back up into its parent, so a map's shape depends only on its contents.
+ *
+ * <p>A {@link Builder} applies batches of changes in place to the nodes it owns, and {@link Builder#build()}
+ * publishes the result. Keys must not be {@code null}; values may be {@code null}. The {@code java.util.Map}
+ * mutators throw {@link UnsupportedOperationException}. Iteration order is unspecified.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+public final class PersistentHashMap<K, V> extends AbstractMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int HASH_BITS = 32;
+    /** Bitmap levels (shifts 0 to 30) plus the collision level below them. */
+    private static final int MAX_DEPTH = (HASH_BITS + BITS - 1) / BITS + 1;
+
+    /** Returned by {@link Node#find} when the key is absent, since {@code null} is a valid value. */
+    private static final Object NOT_FOUND = new Object();
+
+    private static final PersistentHashMap<?, ?> EMPTY =
+            new PersistentHashMap<>(new BitmapNode(null, 0, 0, new Object[0]), 0);
+
+    private final Node root;
+    private final int size;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    public static <K, V> PersistentHashMap<K, V> copyOf(Map<? extends K, ? extends V> m) {
+        if (m instanceof PersistentHashMap) {
+            @SuppressWarnings("unchecked")
+            PersistentHashMap<K, V> p = (PersistentHashMap<K, V>) m;
+            return p;
+        }
+        return PersistentHashMap.<K, V>builder().putAll(m).build();
+    }
+
+    public static <K, V> Builder<K, V> builder() {
+        return PersistentHashMap.<K, V>empty().toBuilder();
+    }
+
+    /** Returns a builder that starts from this map's entries; this map is not affected by it. */
+    public Builder<K, V> toBuilder() {
+        return new Builder<>(this);
+    }
+
+    static int hash(Object key) {
+        return Hashing.mix(key.hashCode());
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & 31);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public V get(Object key) {
+        Object v = root.find(key, hash(key), 0);
+        return v == NOT_FOUND ? null : (V) v;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return root.find(key, hash(key), 0) != NOT_FOUND;
+    }
+
+    /** Returns this map with {@code key} mapped to {@code value}; this map itself if it already was. */
+    public PersistentHashMap<K, V> with(K key, V value) {
+        Change change = new Change();
+        Node r = root.put(null, Objects.requireNonNull(key), value, hash(key), 0, change);
+        return r == root ? this : new PersistentHashMap<>(r, change.added ? size + 1 : size);
+    }
+
+    /** Returns this map without {@code key}; this map itself if {@code key} is absent. */
+    public PersistentHashMap<K, V> without(Object key) {
+        Change change = new Change();
+        Node r = root.remove(null, key, hash(key), 0, change);
+        return change.removed ? new PersistentHashMap<>(r, size - 1) : this;
+    }
+
+    /** Walks the trie without allocating an entry per mapping. */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        forEach(root, action);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K, V> void forEach(Node n, BiConsumer<? super K, ? super V> action) {
+        for (int i = 0, p = n.payloadArity(); i < p; i++) {
+            action.accept((K) n.keyAt(i), (V) n.valueAt(i));
+        }
+        for (int i = 0, c = n.nodeArity(); i < c; i++) {
+            forEach(n.nodeAt(i), action);
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator<>(root);
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object key = e.getKey();
+            if (key == null) {
+                return false;
+            }
+            Object v = root.find(key, hash(key), 0);
+            return v != NOT_FOUND && Objects.equals(v, e.getValue());
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Visits each node's inline entries, then its children depth-first, on an explicit stack. */
+    private static final class EntryIterator<K, V> implements Iterator<Map.Entry<K, V>> {
+        private final Node[] nodes = new Node[MAX_DEPTH];
+        /** Next child of {@code nodes[i]} to descend into. */
+        private final int[] childIndex = new int[MAX_DEPTH];
+        private int top;
+
+        /** The node whose inline entries are being returned. */
+        private Node current;
+        private int entryIndex;
+
+        EntryIterator(Node root) {
+            nodes[0] = root;
+            current = root;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (entryIndex >= current.payloadArity()) {
+                while (childIndex[top] >= nodes[top].nodeArity()) {
+                    if (top == 0) {
+                        return false;
+                    }
+                    top--;
+                }
+                Node child = nodes[top].nodeAt(childIndex[top]++);
+                nodes[++top] = child;
+                childIndex[top] = 0;
+                current = child;
+                entryIndex = 0;
+            }
+            return true;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int i = entryIndex++;
+            return new AbstractMap.SimpleImmutableEntry<>((K) current.keyAt(i), (V) current.valueAt(i));
+        }
+    }
+
+    /** What an update did, reported back up the recursion. */
+    static final class Change {
+        boolean added;
+        boolean removed;
+        Object oldValue;
+    }
+
+    /**
+     * A trie node. {@code owner} is the token of the builder that may change the node in place; {@code null}, or
+     * any other builder's token, means the node may be shared and must be copied before a change.
+     */
+    abstract static class Node {
+        final Object owner;
+
+        Node(Object owner) {
+            this.owner = owner;
+        }
+
+        final boolean ownedBy(Object owner) {
+            return owner != null && this.owner == owner;
+        }
+
+        /** The value of {@code key}, or {@link #NOT_FOUND}. */
+        abstract Object find(Object key, int hash, int shift);
+
+        /** Returns this node, if nothing changed or it was changed in place, or its updated copy. */
+        abstract Node put(Object owner, Object key, Object value, int hash, int shift, Change change);
+
+        /**
+         * Returns this node, if nothing changed or it was changed in place, or its updated copy. A node below the
+         * root that is left with a single entry and no children is returned as such, for its parent to inline.
+         */
+        abstract Node remove(Object owner, Object key, int hash, int shift, Change change);
+
+        abstract int payloadArity();
+
+        abstract int nodeArity();
+
+        abstract Object keyAt(int i);
+
+        abstract Object valueAt(int i);
+
+        abstract Node nodeAt(int i);
+    }
+
+    /** Entries and children for the slots named by {@code dataMap} and {@code nodeMap}. */
+    static final class BitmapNode extends Node {
+        int dataMap;
+        int nodeMap;
+        /** Key/value pairs in slot order from the front, then children in reverse slot order from the back. */
+        Object[] content;
+
+        BitmapNode(Object owner, int dataMap, int nodeMap, Object[] content) {
+            super(owner);
+            this.dataMap = dataMap;
+            this.nodeMap = nodeMap;
+            this.content = content;
+        }
+
+        private static int index(int map, int bit) {
+            return Integer.bitCount(map & (bit - 1));
+        }
+
+        private Node child(int bit) {
+            return (Node) content[content.length - 1 - index(nodeMap, bit)];
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                Object k = content[i];
+                return k == key || key.equals(k) ? content[i + 1] : NOT_FOUND;
+            }
+            if ((nodeMap & bit) != 0) {
+                return child(bit).find(key, hash, shift + BITS);
+            }
+            return NOT_FOUND;
+        }
+
+        @Override
+        Node put(Object owner, Object key, Object value, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                Object k = content[i];
+                if (k == key || key.equals(k)) {
+                    Object old = content[i + 1];
+                    change.oldValue = old;
+                    return old == value ? this : copyAndSet(owner, i + 1, value);
+                }
+                Node sub = pair(owner, k, content[i + 1], hash(k), key, value, hash, shift + BITS);
+                change.added = true;
+                return copyAndMigrateToNode(owner, bit, sub);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = child(bit);
+                Node updated = sub.put(owner, key, value, hash, shift + BITS, change);
+                return updated == sub ? this : copyAndSet(owner, content.length - 1 - index(nodeMap, bit), updated);
+            }
+            change.added = true;
+            return copyAndInsertValue(owner, bit, key, value);
+        }
+
+        @Override
+        Node remove(Object owner, Object key, int hash, int shift, Change change) {
+            int bit = bit(hash, shift);
+            if ((dataMap & bit) != 0) {
+                int i = 2 * index(dataMap, bit);
+                Object k = content[i];
+                if (k != key && !key.equals(k)) {
+                    return this;
+                }
+                change.removed = true;
+                change.oldValue = content[i + 1];
+                if (shift > 0 && content.length == 4 && nodeMap == 0) {
+                    // The other entry is all that is left. Give it the slot it would have at the root, where the
+                    // node ends up if every ancestor passes it up; otherwise the parent inlines it.
+                    int j = 2 - i;
+                    return new BitmapNode(owner, bit(hash, 0), 0, new Object[] {content[j], content[j + 1]});
+                }
+                return copyAndRemoveValue(owner, bit);
+            }
+            if ((nodeMap & bit) != 0) {
+                Node sub = child(bit);
+                Node updated = sub.remove(owner, key, hash, shift + BITS, change);
+                if (!change.removed) {
+                    return this;
+                }
+                if (updated.nodeArity() == 0 && updated.payloadArity() == 1) {
+                    if (dataMap == 0 && Integer.bitCount(nodeMap) == 1) {
+                        return updated;
+                    }
+                    return copyAndMigrateToInline(owner, bit, updated.keyAt(0), updated.valueAt(0));
+                }
+                return updated == sub ? this : copyAndSet(owner, content.length - 1 - index(nodeMap, bit), updated);
+            }
+            return this;
+        }
+
+        /** Two entries below a slot they share at the level above: split by the next five bits, or collide. */
+        static Node pair(Object owner, Object k1, Object v1, int h1, Object k2, Object v2, int h2, int shift) {
+            if (shift >= HASH_BITS) {
+                return new CollisionNode(owner, h1, new Object[] {k1, v1, k2, v2});
+            }
+            int b1 = bit(h1, shift);
+            int b2 = bit(h2, shift);
+            if (b1 == b2) {
+                return new BitmapNode(owner, 0, b1, new Object[] {pair(owner, k1, v1, h1, k2, v2, h2, shift + BITS)});
+            }
+            Object[] content = Integer.compareUnsigned(b1, b2) < 0
+                    ? new Object[] {k1, v1, k2, v2}
+                    : new Object[] {k2, v2, k1, v1};
+            return new BitmapNode(owner, b1 | b2, 0, content);
+        }
+
+        private BitmapNode copyAndSet(Object owner, int index, Object o) {
+            if (ownedBy(owner)) {
+                content[index] = o;
+                return this;
+            }
+            Object[] c = content.clone();
+            c[index] = o;
+            return new BitmapNode(owner, dataMap, nodeMap, c);
+        }
+
+        private BitmapNode update(Object owner, int dataMap, int nodeMap, Object[] content) {
+            if (ownedBy(owner)) {
+                this.dataMap = dataMap;
+                this.nodeMap = nodeMap;
+                this.content = content;
+                return this;
+            }
+            return new BitmapNode(owner, dataMap, nodeMap, content);
+        }
+
+        private BitmapNode copyAndInsertValue(Object owner, int bit, Object key, Object value) {
+            int i = 2 * index(dataMap, bit);
+            Object[] c = new Object[content.length + 2];
+            System.arraycopy(content, 0, c, 0, i);
+            c[i] = key;
+            c[i + 1] = value;
+            System.arraycopy(content, i, c, i + 2, content.length - i);
+            return update(owner, dataMap | bit, nodeMap, c);
+        }
+
+        private BitmapNode copyAndRemoveValue(Object owner, int bit) {
+            int i = 2 * index(dataMap, bit);
+            Object[] c = new Object[content.length - 2];
+            System.arraycopy(content, 0, c, 0, i);
+            System.arraycopy(content, i + 2, c, i, content.length - i - 2);
+            return update(owner, dataMap ^ bit, nodeMap, c);
+        }
+
+        /** Replaces the entry in slot {@code bit} by the child {@code node} holding it and the new entry. */
+        private BitmapNode copyAndMigrateToNode(Object owner, int bit, Node node) {
+            int from = 2 * index(dataMap, bit);
+            int to = content.length - 2 - index(nodeMap, bit);
+            Object[] c = new Object[content.length - 1];
+            System.arraycopy(content, 0, c, 0, from);
+            System.arraycopy(content, from + 2, c, from, to - from);
+            c[to] = node;
+            System.arraycopy(content, to + 2, c, to + 1, content.length - to - 2);
+            return update(owner, dataMap ^ bit, nodeMap | bit, c);
+        }
+
+        /** Replaces the child in slot {@code bit} by its only remaining entry. */
+        private BitmapNode copyAndMigrateToInline(Object owner, int bit, Object key, Object value) {
+            int from = content.length - 1 - index(nodeMap, bit);
+            int to = 2 * index(dataMap, bit);
+            Object[] c = new Object[content.length + 1];
+            System.arraycopy(content, 0, c, 0, to);
+            c[to] = key;
+            c[to + 1] = value;
+            System.arraycopy(content, to, c, to + 2, from - to);
+            System.arraycopy(content, from + 1, c, from + 2, content.length - from - 1);
+            return update(owner, dataMap | bit, nodeMap ^ bit, c);
+        }
+
+        @Override
+        int payloadArity() {
+            return Integer.bitCount(dataMap);
+        }
+
+        @Override
+        int nodeArity() {
+            return Integer.bitCount(nodeMap);
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            return (Node) content[content.length - 1 - i];
+        }
+    }
+
+    /** Entries whose keys have the same 32-bit hash, in a flat key/value array. */
+    static final class CollisionNode extends Node {
+        final int hash;
+        Object[] content;
+
+        CollisionNode(Object owner, int hash, Object[] content) {
+            super(owner);
+            this.hash = hash;
+            this.content = content;
+        }
+
+        private int indexOf(Object key) {
+            for (int i = 0; i < content.length; i += 2) {
+                Object k = content[i];
+                if (k == key || key.equals(k)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        Object find(Object key, int hash, int shift) {
+            int i = indexOf(key);
+            return i < 0 ? NOT_FOUND : content[i + 1];
+        }
+
+        @Override
+        Node put(Object owner, Object key, Object value, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            Object[] c;
+            if (i >= 0) {
+                Object old = content[i + 1];
+                change.oldValue = old;
+                if (old == value) {
+                    return this;
+                }
+                c = ownedBy(owner) ? content : content.clone();
+                c[i + 1] = value;
+            } else {
+                change.added = true;
+                c = new Object[content.length + 2];
+                System.arraycopy(content, 0, c, 0, content.length);
+                c[content.length] = key;
+                c[content.length + 1] = value;
+            }
+            if (ownedBy(owner)) {
+                content = c;
+                return this;
+            }
+            return new CollisionNode(owner, hash, c);
+        }
+
+        @Override
+        Node remove(Object owner, Object key, int hash, int shift, Change change) {
+            int i = indexOf(key);
+            if (i < 0) {
+                return this;
+            }
+            change.removed = true;
+            change.oldValue = content[i + 1];
+            if (content.length == 4) {
+                int j = 2 - i;
+                return new BitmapNode(owner, bit(hash, 0), 0, new Object[] {content[j], content[j + 1]});
+            }
+            Object[] c = new Object[content.length - 2];
+            System.arraycopy(content, 0, c, 0, i);
+            System.arraycopy(content, i + 2, c, i, content.length - i - 2);
+            if (ownedBy(owner)) {
+                content = c;
+                return this;
+            }
+            return new CollisionNode(owner, hash, c);
+        }
+
+        @Override
+        int payloadArity() {
+            return content.length / 2;
+        }
+
+        @Override
+        int nodeArity() {
+            return 0;
+        }
+
+        @Override
+        Object keyAt(int i) {
+            return content[2 * i];
+        }
+
+        @Override
+        Object valueAt(int i) {
+            return content[2 * i + 1];
+        }
+
+        @Override
+        Node nodeAt(int i) {
+            throw new IndexOutOfBoundsException(i);
+        }
+    }
+
+    /**
+     * Accumulates changes to a map in place. Every builder has its own token: the nodes it creates carry it,
+     * and it copies any other node before its first change there, so maps built earlier never change. A
+     * builder is not thread-safe.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of mapped values
+     */
+    public static final class Builder<K, V> {
+        private Object owner = new Object();
+        private Node root;
+        private int size;
+
+        Builder(PersistentHashMap<K, V> m) {
+            root = m.root;
+            size = m.size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        public V get(Object key) {
+            Object v = root.find(key, hash(key), 0);
+            return v == NOT_FOUND ? null : (V) v;
+        }
+
+        public boolean containsKey(Object key) {
+            return root.find(key, hash(key), 0) != NOT_FOUND;
+        }
+
+        /** Maps {@code key} to {@code value}; returns the previous value, or {@code null}. */
+        @SuppressWarnings("unchecked")
+        public V put(K key, V value) {
+            Change change = new Change();
+            root = root.put(owner, Objects.requireNonNull(key), value, hash(key), 0, change);
+            if (change.added) {
+                size++;
+            }
+            return (V) change.oldValue;
+        }
+
+        public Builder<K, V> putAll(Map<? extends K, ? extends V> m) {
+            for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) {
+                put(e.getKey(), e.getValue());
+            }
+            return this;
+        }
+
+        /** Removes {@code key}; returns its value, or {@code null} if it was absent. */
+        @SuppressWarnings("unchecked")
+        public V remove(Object key) {
+            Change change = new Change();
+            root = root.remove(owner, key, hash(key), 0, change);
+            if (change.removed) {
+                size--;
+            }
+            return (V) change.oldValue;
+        }
+
+        /**
+         * Returns a map of the current entries. The builder stays usable; its later changes copy the nodes they
+         * touch, so they never show through the returned map.
+         */
+        public PersistentHashMap<K, V> build() {
+            if (size == 0) {
+                return empty();
+            }
+            owner = new Object();
+            return new PersistentHashMap<>(root, size);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package collections.map;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A {@link java.util.NavigableMap} with {@code String} keys, stored in an adaptive radix tree: an alternative to
+ * the {@code TreeMap<String, ...>} of {@code LearnTreeMap} for large maps of long keys that share prefixes,
+ * such as URLs or paths.
+ *
+ * <p>A {@code TreeMap} lookup calls {@code String.compareTo} at every one of its ~log2(n) levels, and each call
+ * re-reads the prefix that the two keys share. Here a lookup reads each {@code char} of the key at most once to
+ * pick a child, and then compares the key once with {@code equals}, so it costs O(key length) however many
+ * entries the map holds. Entries are kept in {@code String.compareTo} order, so all the {@code NavigableMap}
+ * views behave as {@code TreeMap}'s do, and {@link #prefixMap} and {@link #forEachWithPrefix} go straight to
+ * the subtree of the keys that start with a given prefix.
+ *
+ * <p>Keys must not be {@code null}; values may be {@code null}. Like {@code TreeMap}, this class is not
+ * thread-safe, its iterators are fail-fast, and the entries returned by {@code firstEntry()} and the other
+ * relational methods are snapshots that do not support {@code setValue}.
+ *
+ * @param <V> the type of mapped values
+ * @see ByteArrayRadixTreeMap
+ */
+public class RadixTreeMap<V> extends AbstractRadixTreeMap<String, V> {
+
+    public RadixTreeMap() {
+    }
+
+    public RadixTreeMap(Map<String, ? extends V> m) {
+        putAll(m);
+    }
+
+    /** Returns {@code null}: keys are in natural {@code String} order. */
+    @Override
+    public Comparator<? super String> comparator() {
+        return null;
+    }
+
+    @Override
+    String checkKey(Object key) {
+        return (String) Objects.requireNonNull(key);
+    }
+
+    @Override
+    int length(Object key) {
+        return ((String) key).length();
+    }
+
+    @Override
+    int symbol(Object key, int i) {
+        return ((String) key).charAt(i);
+    }
+
+    @Override
+    boolean keyEquals(Object a, Object b) {
+        return a.equals(b);
+    }
+
+    @Override
+    String prefixEnd(String prefix) {
+        int i = prefix.length() - 1;
+        while (i >= 0 && prefix.charAt(i) == Character.MAX_VALUE) {
+            i--;
+        }
+        return i < 0 ? null : prefix.substring(0, i) + (char) (prefix.charAt(i) + 1);
+    }
+}
@@ -0,0 +1,497 @@
+package collections.map;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * A thread-safe hash map that splits its entries over independently locked stripes.
+ *
+ * <p>{@code LearnHashMap} notes that {@code HashMap} must be synchronized externally when threads share it.
+ * Wrapping it with {@code Collections.synchronizedMap} does that with one lock, so every operation from every
+ * thread is serialized. Here a key's hash selects one of several stripes, each a small chained hash table with
+ * its own lock, so writers only contend when they hit the same stripe. The number of stripes defaults to four
+ * per available processor.
+ *
+ * <p>Reads never lock. Bucket chains are immutable apart from the values: an insert publishes a new head
+ * node, and a removal or resize copies the nodes in front of the change instead of relinking them. A reader
+ * therefore always walks a consistent chain, and sees each value through a volatile read.
+ *
+ * <p>As with {@code ConcurrentHashMap}, neither keys nor values may be {@code null}, {@link #size()} is a
+ * moment-in-time estimate while writers are active, and iterators and {@link #forEach} are weakly consistent:
+ * they never throw {@code ConcurrentModificationException}, visit each entry at most once, and may or may not
+ * reflect modifications made after they started.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of mapped values
+ */
+public class StripedHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V> {
+
+    /** Stripes used when none are requested: four per processor, so that 64 threads rarely share a lock. */
+    static final int DEFAULT_STRIPES = ceilingPowerOfTwo(4 * Runtime.getRuntime().availableProcessors());
+
+    private static final int MAX_STRIPES = 1 << 16;
+    private static final int MIN_STRIPE_CAPACITY = 2;
+    private static final int MAX_STRIPE_CAPACITY = 1 << 30;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Stripe<K, V>[] stripes;
+    /** {@code 32 - log2(stripes.length)}: the stripe is taken from the high bits of the mixed hash. */
+    private final int stripeShift;
+
+    private transient Set<Map.Entry<K, V>> entrySet;
+
+    public StripedHashMap() {
+        this(16, DEFAULT_STRIPES);
+    }
+
+    /** @param initialCapacity number of entries the map can hold before any stripe first grows */
+    public StripedHashMap(int initialCapacity) {
+        this(initialCapacity, DEFAULT_STRIPES);
+    }
+
+    /**
+     * @param initialCapacity number of entries the map can hold before any stripe first grows
+     * @param stripes         number of independently locked stripes, rounded up to a power of two; the number
+     *                        of threads expected to write at the same time is a good choice
+     * @throws IllegalArgumentException if either argument is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public StripedHashMap(int initialCapacity, int stripes) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal initial capacity: " + initialCapacity);
+        }
+        if (stripes <= 0) {
+            throw new IllegalArgumentException("Illegal stripe count: " + stripes);
+        }
+        int stripeCount = ceilingPowerOfTwo(Math.min(stripes, MAX_STRIPES));
+        int perStripe = (int) Math.ceil(initialCapacity / (double) stripeCount / LOAD_FACTOR);
+        int stripeCapacity = ceilingPowerOfTwo(Math.max(MIN_STRIPE_CAPACITY, Math.min(perStripe, MAX_STRIPE_CAPACITY)));
+        this.stripes = (Stripe<K, V>[]) new Stripe<?, ?>[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe<>(stripeCapacity);
+        }
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(stripeCount);
+    }
+
+    private static int ceilingPowerOfTwo(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    private static int hash(Object key) {
+        return Hashing.mix(key.hashCode());
+    }
+
+    private Stripe<K, V> stripeFor(int hash) {
+        // A shift by 32 is a no-op in Java, so a single stripe has to be special-cased.
+        return stripeShift == 32 ? stripes[0] : stripes[hash >>> stripeShift];
+    }
+
+    @Override
+    public int size() {
+        long sum = 0;
+        for (Stripe<K, V> stripe : stripes) {
+            sum += stripe.count;
+        }
+        return (int) Math.min(sum, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        for (Stripe<K, V> stripe : stripes) {
+            if (stripe.count != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public V get(Object key) {
+        int h = hash(key);
+        return stripeFor(h).get(key, h);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /** Returns {@code true} if some key maps to {@code value}. Scans every stripe without locking. */
+    @Override
+    public boolean containsValue(Object value) {
+        Objects.requireNonNull(value);
+        for (Stripe<K, V> stripe : stripes) {
+            AtomicReferenceArray<Node<K, V>> tab = stripe.table;
+            for (int i = 0; i < tab.length(); i++) {
+                for (Node<K, V> e = tab.get(i); e != null; e = e.next) {
+                    if (value.equals(e.value)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        Objects.requireNonNull(value);
+        int h = hash(key);
+        return stripeFor(h).put(key, h, value, false);
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        Objects.requireNonNull(value);
+        int h = hash(key);
+        return stripeFor(h).put(key, h, value, true);
+    }
+
+    @Override
+    public V remove(Object key) {
+        int h = hash(key);
+        return stripeFor(h).remove(key, h, null);
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        int h = hash(key);
+        return value != null && stripeFor(h).remove(key, h, value) != null;
+    }
+
+    @Override
+    public boolean replace(K key, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        int h = hash(key);
+        return stripeFor(h).replace(key, h, oldValue, newValue) != null;
+    }
+
+    @Override
+    public V replace(K key, V value) {
+        Objects.requireNonNull(value);
+        int h = hash(key);
+        return stripeFor(h).replace(key, h, null, value);
+    }
+
+    @Override
+    public void clear() {
+        for (Stripe<K, V> stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    /**
+     * Calls {@code action} with every entry, without locking and without allocating an iterator or a
+     * {@code Map.Entry} per entry. Weakly consistent, like the iterators.
+     */
+    @Override
+    public void forEach(BiConsumer<? super K, ? super V> action) {
+        Objects.requireNonNull(action);
+        for (Stripe<K, V> stripe : stripes) {
+            AtomicReferenceArray<Node<K, V>> tab = stripe.table;
+            for (int i = 0; i < tab.length(); i++) {
+                for (Node<K, V> e = tab.get(i); e != null; e = e.next) {
+                    action.accept(e.key, e.value);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        Set<Map.Entry<K, V>> es = entrySet;
+        return es != null ? es : (entrySet = new EntrySet());
+    }
+
+    /** An immutable chain link; only {@link #value} changes after publication. */
+    static final class Node<K, V> {
+        final int hash;
+        final K key;
+        volatile V value;
+        final Node<K, V> next;
+
+        Node(int hash, K key, V value, Node<K, V> next) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+            this.next = next;
+        }
+    }
+
+    /** One independently locked hash table. Writers hold the lock; readers only read volatile fields. */
+    @SuppressWarnings("serial")
+    static final class Stripe<K, V> extends ReentrantLock {
+        /** Replaced wholesale on resize and clear; bucket heads are published with volatile array writes. */
+        volatile AtomicReferenceArray<Node<K, V>> table;
+        volatile int count;
+        /** Written and read under the lock only. */
+        int threshold;
+
+        Stripe(int capacity) {
+            setTable(new AtomicReferenceArray<>(capacity));
+        }
+
+        private void setTable(AtomicReferenceArray<Node<K, V>> tab) {
+            threshold = (int) (tab.length() * LOAD_FACTOR);
+            table = tab;
+        }
+
+        V get(Object key, int hash) {
+            AtomicReferenceArray<Node<K, V>> tab = table;
+            for (Node<K, V> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+                if (e.hash == hash && key.equals(e.key)) {
+                    return e.value;
+                }
+            }
+            return null;
+        }
+
+        V put(K key, int hash, V value, boolean onlyIfAbsent) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int index = hash & (tab.length() - 1);
+                Node<K, V> first = tab.get(index);
+                for (Node<K, V> e = first; e != null; e = e.next) {
+                    if (e.hash == hash && key.equals(e.key)) {
+                        V old = e.value;
+                        if (!onlyIfAbsent) {
+                            e.value = value;
+                        }
+                        return old;
+                    }
+                }
+                if (count >= threshold && tab.length() < MAX_STRIPE_CAPACITY) {
+                    tab = rehash(tab);
+                    index = hash & (tab.length() - 1);
+                    first = tab.get(index);
+                }
+                tab.set(index, new Node<>(hash, key, value, first));
+                count++;
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        /** Removes {@code key}, if mapped to {@code expected} when that is not {@code null}. */
+        V remove(Object key, int hash, Object expected) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                int index = hash & (tab.length() - 1);
+                Node<K, V> first = tab.get(index);
+                Node<K, V> e = first;
+                while (e != null && (e.hash != hash || !key.equals(e.key))) {
+                    e = e.next;
+                }
+                if (e == null) {
+                    return null;
+                }
+                V old = e.value;
+                if (expected != null && !expected.equals(old)) {
+                    return null;
+                }
+                // Copy the nodes in front of e so that a reader inside the old chain still sees a valid list.
+                Node<K, V> head = e.next;
+                for (Node<K, V> p = first; p != e; p = p.next) {
+                    head = new Node<>(p.hash, p.key, p.value, head);
+                }
+                tab.set(index, head);
+                count--;
+                return old;
+            } finally {
+                unlock();
+            }
+        }
+
+        /** Replaces the value of {@code key}, if mapped to {@code expected} when that is not {@code null}. */
+        V replace(K key, int hash, V expected, V value) {
+            lock();
+            try {
+                AtomicReferenceArray<Node<K, V>> tab = table;
+                for (Node<K, V> e = tab.get(hash & (tab.length() - 1)); e != null; e = e.next) {
+                    if (e.hash == hash && key.equals(e.key)) {
+                        V old = e.value;
+                        if (expected != null && !expected.equals(old)) {
+                            return null;
+                        }
+                        e.value = value;
+                        return old;
+                    }
+                }
+                return null;
+            } finally {
+                unlock();
+            }
+        }
+
+        void clear() {
+            lock();
+            try {
+                setTable(new AtomicReferenceArray<>(table.length()));
+                count = 0;
+            } finally {
+                unlock();
+            }
+        }
+
+        /**
+         * Doubles the table. Each old chain ends in a run of nodes that all land in the same new bucket; that run
+         * is reused as is and only the nodes in front of it are copied, so readers of the old table are unaffected.
+         */
+        private AtomicReferenceArray<Node<K, V>> rehash(AtomicReferenceArray<Node<K, V>> oldTab) {
+            int oldCapacity = oldTab.length();
+            AtomicReferenceArray<Node<K, V>> newTab = new AtomicReferenceArray<>(oldCapacity << 1);
+            int newMask = (oldCapacity << 1) - 1;
+            for (int i = 0; i < oldCapacity; i++) {
+                Node<K, V> e = oldTab.get(i);
+                if (e == null) {
+                    continue;
+                }
+                Node<K, V> lastRun = e;
+                int lastIndex = e.hash & newMask;
+                for (Node<K, V> p = e.next; p != null; p = p.next) {
+                    int k = p.hash & newMask;
+                    if (k != lastIndex) {
+                        lastIndex = k;
+                        lastRun = p;
+                    }
+                }
+                newTab.set(lastIndex, lastRun);
+                for (Node<K, V> p = e; p != lastRun; p = p.next) {
+                    int k = p.hash & newMask;
+                    newTab.set(k, new Node<>(p.hash, p.key, p.value, newTab.get(k)));
+                }
+            }
+            setTable(newTab);
+            return newTab;
+        }
+    }
+
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            Object key = e.getKey();
+            Object value = e.getValue();
+            if (key == null || value == null) {
+                return false;
+            }
+            V v = StripedHashMap.this.get(key);
+            return v != null && v.equals(value);
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return e.getKey() != null && StripedHashMap.this.remove(e.getKey(), e.getValue());
+        }
+
+        @Override
+        public int size() {
+            return StripedHashMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            StripedHashMap.this.clear();
+        }
+    }
+
+    /** Walks each stripe's table as it was when the iterator reached that stripe. */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        private int stripeIndex;
+        private AtomicReferenceArray<Node<K, V>> tab;
+        private int bucket;
+        private Node<K, V> next;
+        private Node<K, V> lastReturned;
+
+        EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            if (next != null && (next = next.next) != null) {
+                return;
+            }
+            while (true) {
+                if (tab != null) {
+                    while (bucket < tab.length()) {
+                        if ((next = tab.get(bucket++)) != null) {
+                            return;
+                        }
+                    }
+                }
+                if (stripeIndex == stripes.length) {
+                    return;
+                }
+                tab = stripes[stripeIndex++].table;
+                bucket = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Node<K, V> e = next;
+            if (e == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = e;
+            advance();
+            return new WriteThroughEntry(e.key, e.value);
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned == null) {
+                throw new IllegalStateException();
+            }
+            StripedHashMap.this.remove(lastReturned.key);
+            lastReturned = null;
+        }
+    }
+
+    /** An entry whose {@link #setValue} also updates the map. */
+    private final class WriteThroughEntry extends AbstractMap.SimpleEntry<K, V> {
+        private static final long serialVersionUID = 1L;
+
+        WriteThroughEntry(K key, V value) {
+            super(key, value);
+        }
+
+        @Override
+        public V setValue(V value) {
+            Objects.requireNonNull(value);
+            V old = super.setValue(value);
+            StripedHashMap.this.put(getKey(), value);
+            return old;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Map implementations that complement the {@code HashMap} and {@code TreeMap} walkthroughs in
+ * {@code LearnHashMap} and {@code LearnTreeMap}.
+ */
+package collections.map;
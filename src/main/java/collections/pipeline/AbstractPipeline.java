@@ -0,0 +1,133 @@
+package collections.pipeline;
+
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * The state shared by {@link Pipeline} and {@link IntPipeline}: where elements come from, the stage before this
+ * one, and how this stage turns the sink after it into the sink it receives elements on.
+ *
+ * <p>Stages are immutable. A terminal operation asks the source for a fresh spliterator, chains one
+ * {@link Sink} per stage from the terminal backwards, and then pushes the whole source through that chain
+ * with {@code forEachRemaining}, or pulls it one element at a time with {@code tryAdvance} if a
+ * {@code limit} may cut it short. In parallel mode the spliterator is split into chunks on the common
+ * fork/join pool, each chunk gets its own chain, and the partial results are combined in encounter order.
+ */
+abstract class AbstractPipeline {
+
+    /** Chunks are not split below this many elements. */
+    private static final long MIN_CHUNK = 1 << 12;
+
+    private final Supplier<? extends Spliterator<?>> source;
+    /** Whether the source yields {@code int}s, through {@code Spliterator.OfInt}. */
+    private final boolean intSource;
+    private final AbstractPipeline previous;
+    private final UnaryOperator<Sink> stage;
+    final boolean parallel;
+    /** Whether some stage may stop the evaluation early, which forces pull-mode, sequential evaluation. */
+    private final boolean shortCircuit;
+
+    /** Creates the head of a pipeline, a stage that passes elements through unchanged. */
+    AbstractPipeline(Supplier<? extends Spliterator<?>> source, boolean intSource) {
+        this.source = source;
+        this.intSource = intSource;
+        this.previous = null;
+        this.stage = UnaryOperator.identity();
+        this.parallel = false;
+        this.shortCircuit = false;
+    }
+
+    /** Creates a stage after {@code previous}. */
+    AbstractPipeline(AbstractPipeline previous, UnaryOperator<Sink> stage, boolean parallel, boolean shortCircuit) {
+        this.source = previous.source;
+        this.intSource = previous.intSource;
+        this.previous = previous;
+        this.stage = stage;
+        this.parallel = parallel;
+        this.shortCircuit = previous.shortCircuit || shortCircuit;
+    }
+
+    /** The stage before this one, which a fused stage attaches to in place of this one. */
+    final AbstractPipeline previous() {
+        return previous;
+    }
+
+    private Sink wrapAll(Sink terminal) {
+        Sink sink = terminal;
+        for (AbstractPipeline p = this; p != null; p = p.previous) {
+            sink = p.stage.apply(sink);
+        }
+        return sink;
+    }
+
+    /** Runs the pipeline, giving every chunk a fresh terminal from {@code terminal} and combining their results. */
+    final <R> R evaluate(Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner) {
+        Spliterator<?> spliterator = source.get();
+        if (!parallel || shortCircuit) {
+            return run(spliterator, terminal);
+        }
+        int chunks = 4 * ForkJoinPool.getCommonPoolParallelism();
+        long threshold = Math.max(MIN_CHUNK, spliterator.estimateSize() / chunks);
+        return new Task<>(spliterator, terminal, combiner, threshold).invoke();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <R> R run(Spliterator<?> spliterator, Supplier<? extends Sink.Terminal<R>> terminal) {
+        Sink.Terminal<R> result = terminal.get();
+        Sink sink = wrapAll(result);
+        if (intSource) {
+            Spliterator.OfInt ints = (Spliterator.OfInt) spliterator;
+            if (shortCircuit) {
+                while (!sink.cancelled() && ints.tryAdvance((IntConsumer) sink)) {
+                    // pulled one element
+                }
+            } else {
+                ints.forEachRemaining((IntConsumer) sink);
+            }
+        } else {
+            Spliterator<Object> objects = (Spliterator<Object>) spliterator;
+            if (shortCircuit) {
+                while (!sink.cancelled() && objects.tryAdvance(sink)) {
+                    // pulled one element
+                }
+            } else {
+                objects.forEachRemaining(sink);
+            }
+        }
+        return result.result();
+    }
+
+    private final class Task<R> extends RecursiveTask<R> {
+        private static final long serialVersionUID = 1L;
+
+        private final Spliterator<?> spliterator;
+        private final Supplier<? extends Sink.Terminal<R>> terminal;
+        private final BinaryOperator<R> combiner;
+        private final long threshold;
+
+        Task(Spliterator<?> spliterator, Supplier<? extends Sink.Terminal<R>> terminal, BinaryOperator<R> combiner,
+             long threshold) {
+            this.spliterator = spliterator;
+            this.terminal = terminal;
+            this.combiner = combiner;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected R compute() {
+            Spliterator<?> prefix;
+            if (spliterator.estimateSize() > threshold && (prefix = spliterator.trySplit()) != null) {
+                Task<R> left = new Task<>(prefix, terminal, combiner, threshold);
+                left.fork();
+                R right = new Task<>(spliterator, terminal, combiner, threshold).compute();
+                return combiner.apply(left.join(), right);
+            }
+            return run(spliterator, terminal);
+        }
+    }
+}
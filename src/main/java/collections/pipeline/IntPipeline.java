@@ -0,0 +1,304 @@
+package collections.pipeline;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.Spliterator;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import collections.list.IntArrayList;
+import collections.stats.IntAggregator;
+
+/**
+ * The {@code int} specialization of {@link Pipeline}: the same lazy, fused, optionally parallel evaluation,
+ * with every value passed between stages as a primitive.
+ *
+ * <p>Consecutive {@code map}s and {@code filter}s fuse as in {@link Pipeline}. {@link #sortedTopK} and
+ * {@link #aggregate} accumulate into an {@link IntAggregator} per chunk, so their parallel results combine
+ * the same way {@link IntAggregator#ofParallel} does.
+ */
+public final class IntPipeline extends AbstractPipeline {
+
+    /** This stage's function if it is a {@code map}, for fusing with a following {@code map}. */
+    private final IntUnaryOperator mapper;
+    /** This stage's predicate if it is a {@code filter}, for fusing with a following {@code filter}. */
+    private final IntPredicate predicate;
+
+    private IntPipeline(Supplier<? extends Spliterator.OfInt> source) {
+        super(source, true);
+        this.mapper = null;
+        this.predicate = null;
+    }
+
+    IntPipeline(AbstractPipeline previous, UnaryOperator<Sink> stage, boolean parallel, boolean shortCircuit) {
+        this(previous, stage, parallel, shortCircuit, null, null);
+    }
+
+    private IntPipeline(AbstractPipeline previous, UnaryOperator<Sink> stage, boolean parallel, boolean shortCircuit,
+                        IntUnaryOperator mapper, IntPredicate predicate) {
+        super(previous, stage, parallel, shortCircuit);
+        this.mapper = mapper;
+        this.predicate = predicate;
+    }
+
+    public static IntPipeline of(int... values) {
+        Objects.requireNonNull(values);
+        return new IntPipeline(() -> Arrays.spliterator(values));
+    }
+
+    public static IntPipeline of(IntArrayList list) {
+        Objects.requireNonNull(list);
+        return new IntPipeline(list::spliterator);
+    }
+
+    /** The values {@code from} (inclusive) to {@code to} (exclusive), ascending. */
+    public static IntPipeline range(int from, int to) {
+        return new IntPipeline(() -> IntStream.range(from, to).spliterator());
+    }
+
+    // ---- Intermediate operations ----
+
+    public IntPipeline map(IntUnaryOperator function) {
+        Objects.requireNonNull(function);
+        if (mapper != null) {
+            return mapStage(previous(), mapper.andThen(function));
+        }
+        return mapStage(this, function);
+    }
+
+    private IntPipeline mapStage(AbstractPipeline previous, IntUnaryOperator f) {
+        return new IntPipeline(previous, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(int value) {
+                downstream.accept(f.applyAsInt(value));
+            }
+        }, parallel, false, f, null);
+    }
+
+    public IntPipeline filter(IntPredicate filter) {
+        Objects.requireNonNull(filter);
+        if (predicate != null) {
+            return filterStage(previous(), predicate.and(filter));
+        }
+        return filterStage(this, filter);
+    }
+
+    private IntPipeline filterStage(AbstractPipeline previous, IntPredicate p) {
+        return new IntPipeline(previous, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(int value) {
+                if (p.test(value)) {
+                    downstream.accept(value);
+                }
+            }
+        }, parallel, false, null, p);
+    }
+
+    /**
+     * Truncates the pipeline to its first {@code maxSize} values; see {@link Pipeline#limit}.
+     *
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public IntPipeline limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Illegal limit: " + maxSize);
+        }
+        return new IntPipeline(this, downstream -> new Sink(downstream) {
+            private long remaining = maxSize;
+
+            @Override
+            boolean cancelled() {
+                return remaining == 0 || downstream.cancelled();
+            }
+
+            @Override
+            public void accept(int value) {
+                if (remaining > 0) {
+                    remaining--;
+                    downstream.accept(value);
+                }
+            }
+        }, parallel, true);
+    }
+
+    public <R> Pipeline<R> mapToObj(IntFunction<? extends R> function) {
+        Objects.requireNonNull(function);
+        return new Pipeline<>(this, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(int value) {
+                downstream.accept(function.apply(value));
+            }
+        }, parallel, false);
+    }
+
+    public Pipeline<Integer> boxed() {
+        return mapToObj(Integer::valueOf);
+    }
+
+    /** Returns this pipeline in parallel mode, see {@link Pipeline}. */
+    public IntPipeline parallel() {
+        return parallel ? this : new IntPipeline(this, UnaryOperator.identity(), true, false);
+    }
+
+    public IntPipeline sequential() {
+        return parallel ? new IntPipeline(this, UnaryOperator.identity(), false, false) : this;
+    }
+
+    // ---- Terminal operations ----
+
+    /** Passes every value to {@code action}; in parallel mode, concurrently and in no particular order. */
+    public void forEach(IntConsumer action) {
+        Objects.requireNonNull(action);
+        evaluate(() -> new Sink.Terminal<Void>() {
+            @Override
+            public void accept(int value) {
+                action.accept(value);
+            }
+
+            @Override
+            Void result() {
+                return null;
+            }
+        }, (a, b) -> null);
+    }
+
+    /** Returns the values in encounter order. */
+    public int[] toArray() {
+        return evaluate(() -> new Sink.Terminal<IntArrayList>() {
+            private final IntArrayList list = new IntArrayList();
+
+            @Override
+            public void accept(int value) {
+                list.add(value);
+            }
+
+            @Override
+            IntArrayList result() {
+                return list;
+            }
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }).toArray();
+    }
+
+    public long count() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long count;
+
+            @Override
+            public void accept(int value) {
+                count++;
+            }
+
+            @Override
+            Long result() {
+                return count;
+            }
+        }, Long::sum);
+    }
+
+    /** Returns the sum of the values as a {@code long}, so it does not overflow below 2^32 values. */
+    public long sum() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long sum;
+
+            @Override
+            public void accept(int value) {
+                sum += value;
+            }
+
+            @Override
+            Long result() {
+                return sum;
+            }
+        }, Long::sum);
+    }
+
+    public OptionalInt min() {
+        return reduce(Math::min);
+    }
+
+    public OptionalInt max() {
+        return reduce(Math::max);
+    }
+
+    /**
+     * Folds the values with {@code operator}, starting from {@code identity}; see
+     * {@link Pipeline#reduce(Object, java.util.function.BinaryOperator)}.
+     */
+    public int reduce(int identity, IntBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return evaluate(() -> new Sink.Terminal<Integer>() {
+            private int accumulator = identity;
+
+            @Override
+            public void accept(int value) {
+                accumulator = operator.applyAsInt(accumulator, value);
+            }
+
+            @Override
+            Integer result() {
+                return accumulator;
+            }
+        }, operator::applyAsInt);
+    }
+
+    /** Folds the values with the associative {@code operator}; empty if there are none. */
+    public OptionalInt reduce(IntBinaryOperator operator) {
+        Objects.requireNonNull(operator);
+        return evaluate(() -> new Sink.Terminal<OptionalInt>() {
+            private boolean empty = true;
+            private int accumulator;
+
+            @Override
+            public void accept(int value) {
+                accumulator = empty ? value : operator.applyAsInt(accumulator, value);
+                empty = false;
+            }
+
+            @Override
+            OptionalInt result() {
+                return empty ? OptionalInt.empty() : OptionalInt.of(accumulator);
+            }
+        }, (a, b) -> a.isEmpty() ? b : b.isEmpty() ? a
+                : OptionalInt.of(operator.applyAsInt(a.getAsInt(), b.getAsInt())));
+    }
+
+    /**
+     * Returns the {@code k} largest values, largest first, using a {@code k}-element heap instead of a sort.
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public int[] sortedTopK(int k) {
+        return aggregate(k, false).topK();
+    }
+
+    /**
+     * Accumulates every value into a new {@link IntAggregator} with the given configuration.
+     *
+     * @throws IllegalArgumentException if {@code topK} is negative
+     */
+    public IntAggregator aggregate(int topK, boolean histogram) {
+        return evaluate(() -> new Sink.Terminal<IntAggregator>() {
+            private final IntAggregator aggregator = new IntAggregator(topK, histogram);
+
+            @Override
+            public void accept(int value) {
+                aggregator.accept(value);
+            }
+
+            @Override
+            IntAggregator result() {
+                return aggregator;
+            }
+        }, IntAggregator::combine);
+    }
+}
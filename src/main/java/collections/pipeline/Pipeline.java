@@ -0,0 +1,323 @@
+package collections.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * A lazy sequence of operations over the elements of a collection or array, evaluated in one pass when a
+ * terminal operation such as {@link #toList()} or {@link #sortedTopK} runs.
+ *
+ * <p>{@code LearnCollectionsClass} and {@code LearnArrayList} build a new list, or re-sort the same one, at
+ * every step. Here {@code map}, {@code filter} and {@code limit} only describe a stage; nothing is read until
+ * the terminal operation, which then passes each element through every stage before reading the next, so no
+ * intermediate collection is ever built. Consecutive {@code map}s are fused into one function and consecutive
+ * {@code filter}s into one predicate. {@link #sortedTopK} keeps a {@code k}-element heap instead of sorting
+ * everything, and {@link #mapToInt} continues in an unboxed {@link IntPipeline}.
+ *
+ * <p>A pipeline is immutable and reusable: each terminal operation takes a new spliterator from the source,
+ * so it sees the collection's current contents. After {@link #parallel()}, terminal operations split that
+ * spliterator over the common fork/join pool and combine the partial results in encounter order; the
+ * functions passed in must then be safe to call concurrently. A pipeline containing {@link #limit} always
+ * evaluates sequentially. Unlike {@code java.util.stream}, this is a small, fixed set of operations with no
+ * characteristics tracking, which keeps each stage a single virtual call per element.
+ *
+ * @param <T> the type of elements
+ */
+public final class Pipeline<T> extends AbstractPipeline {
+
+    /** This stage's function if it is a {@code map}, for fusing with a following {@code map}. */
+    private final Function<Object, Object> mapper;
+    /** This stage's predicate if it is a {@code filter}, for fusing with a following {@code filter}. */
+    private final Predicate<Object> predicate;
+
+    private Pipeline(Supplier<? extends Spliterator<?>> source) {
+        super(source, false);
+        this.mapper = null;
+        this.predicate = null;
+    }
+
+    Pipeline(AbstractPipeline previous, UnaryOperator<Sink> stage, boolean parallel, boolean shortCircuit) {
+        this(previous, stage, parallel, shortCircuit, null, null);
+    }
+
+    private Pipeline(AbstractPipeline previous, UnaryOperator<Sink> stage, boolean parallel, boolean shortCircuit,
+                     Function<Object, Object> mapper, Predicate<Object> predicate) {
+        super(previous, stage, parallel, shortCircuit);
+        this.mapper = mapper;
+        this.predicate = predicate;
+    }
+
+    public static <T> Pipeline<T> of(Collection<? extends T> source) {
+        Objects.requireNonNull(source);
+        return new Pipeline<>(source::spliterator);
+    }
+
+    /** Creates a pipeline over a snapshot of {@code values}; later writes to the array are not seen. */
+    @SafeVarargs
+    public static <T> Pipeline<T> of(T... values) {
+        Object[] copy = new Object[values.length];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = values[i];
+        }
+        return new Pipeline<>(() -> Arrays.spliterator(copy));
+    }
+
+    // ---- Intermediate operations ----
+
+    @SuppressWarnings("unchecked")
+    public <R> Pipeline<R> map(Function<? super T, ? extends R> function) {
+        Objects.requireNonNull(function);
+        Function<Object, Object> f = (Function<Object, Object>) function;
+        if (mapper != null) {
+            return mapStage(previous(), mapper.andThen(f));
+        }
+        return mapStage(this, f);
+    }
+
+    private <R> Pipeline<R> mapStage(AbstractPipeline previous, Function<Object, Object> f) {
+        return new Pipeline<>(previous, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(Object value) {
+                downstream.accept(f.apply(value));
+            }
+        }, parallel, false, f, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public Pipeline<T> filter(Predicate<? super T> filter) {
+        Objects.requireNonNull(filter);
+        Predicate<Object> p = (Predicate<Object>) filter;
+        if (predicate != null) {
+            return filterStage(previous(), predicate.and(p));
+        }
+        return filterStage(this, p);
+    }
+
+    private Pipeline<T> filterStage(AbstractPipeline previous, Predicate<Object> p) {
+        return new Pipeline<>(previous, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(Object value) {
+                if (p.test(value)) {
+                    downstream.accept(value);
+                }
+            }
+        }, parallel, false, null, p);
+    }
+
+    /**
+     * Truncates the pipeline to its first {@code maxSize} elements. Evaluation stops pulling from the source
+     * as soon as they have passed, and runs sequentially even in parallel mode.
+     *
+     * @throws IllegalArgumentException if {@code maxSize} is negative
+     */
+    public Pipeline<T> limit(long maxSize) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Illegal limit: " + maxSize);
+        }
+        return new Pipeline<>(this, downstream -> new Sink(downstream) {
+            private long remaining = maxSize;
+
+            @Override
+            boolean cancelled() {
+                return remaining == 0 || downstream.cancelled();
+            }
+
+            @Override
+            public void accept(Object value) {
+                if (remaining > 0) {
+                    remaining--;
+                    downstream.accept(value);
+                }
+            }
+        }, parallel, true);
+    }
+
+    /** Continues with the {@code int}s that {@code function} maps each element to, without boxing them. */
+    @SuppressWarnings("unchecked")
+    public IntPipeline mapToInt(ToIntFunction<? super T> function) {
+        Objects.requireNonNull(function);
+        ToIntFunction<Object> f = (ToIntFunction<Object>) function;
+        return new IntPipeline(this, downstream -> new Sink(downstream) {
+            @Override
+            public void accept(Object value) {
+                downstream.accept(f.applyAsInt(value));
+            }
+        }, parallel, false);
+    }
+
+    /** Returns this pipeline in parallel mode, see the class description. */
+    public Pipeline<T> parallel() {
+        return parallel ? this : new Pipeline<>(this, UnaryOperator.identity(), true, false);
+    }
+
+    public Pipeline<T> sequential() {
+        return parallel ? new Pipeline<>(this, UnaryOperator.identity(), false, false) : this;
+    }
+
+    // ---- Terminal operations ----
+
+    /** Passes every element to {@code action}; in parallel mode, concurrently and in no particular order. */
+    public void forEach(Consumer<? super T> action) {
+        Objects.requireNonNull(action);
+        evaluate(() -> new Sink.Terminal<Void>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void accept(Object value) {
+                action.accept((T) value);
+            }
+
+            @Override
+            Void result() {
+                return null;
+            }
+        }, (a, b) -> null);
+    }
+
+    /** Returns the elements in encounter order, in a new modifiable list. */
+    public List<T> toList() {
+        return evaluate(() -> new Sink.Terminal<List<T>>() {
+            private final List<T> list = new ArrayList<>();
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void accept(Object value) {
+                list.add((T) value);
+            }
+
+            @Override
+            List<T> result() {
+                return list;
+            }
+        }, (a, b) -> {
+            a.addAll(b);
+            return a;
+        });
+    }
+
+    public long count() {
+        return evaluate(() -> new Sink.Terminal<Long>() {
+            private long count;
+
+            @Override
+            public void accept(Object value) {
+                count++;
+            }
+
+            @Override
+            Long result() {
+                return count;
+            }
+        }, Long::sum);
+    }
+
+    /**
+     * Folds the elements with {@code operator}, starting from {@code identity}. In parallel mode every chunk
+     * starts from {@code identity}, so it must be an identity of an associative {@code operator}.
+     */
+    @SuppressWarnings("unchecked")
+    public T reduce(T identity, BinaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        return evaluate(() -> new Sink.Terminal<T>() {
+            private T accumulator = identity;
+
+            @Override
+            public void accept(Object value) {
+                accumulator = operator.apply(accumulator, (T) value);
+            }
+
+            @Override
+            T result() {
+                return accumulator;
+            }
+        }, operator);
+    }
+
+    /** Folds the elements with the associative {@code operator}; empty if there are none. */
+    @SuppressWarnings("unchecked")
+    public Optional<T> reduce(BinaryOperator<T> operator) {
+        Objects.requireNonNull(operator);
+        return evaluate(() -> new Sink.Terminal<Optional<T>>() {
+            private boolean empty = true;
+            private T accumulator;
+
+            @Override
+            public void accept(Object value) {
+                accumulator = empty ? (T) value : operator.apply(accumulator, (T) value);
+                empty = false;
+            }
+
+            @Override
+            Optional<T> result() {
+                return empty ? Optional.empty() : Optional.of(accumulator);
+            }
+        }, (a, b) -> a.isEmpty() ? b : b.isEmpty() ? a : Optional.of(operator.apply(a.get(), b.get())));
+    }
+
+    /**
+     * Returns the {@code k} greatest elements under {@code comparator}, greatest first: the result of
+     * {@code sorted(comparator.reversed()).limit(k)}, computed with a {@code k}-element heap in
+     * O(n log k) time without storing the other elements. Pass {@code Comparator.reverseOrder()} for the
+     * {@code k} smallest. Among equal elements, which ones are kept is unspecified.
+     *
+     * @throws IllegalArgumentException if {@code k} is negative
+     */
+    public List<T> sortedTopK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("Illegal k: " + k);
+        }
+        Objects.requireNonNull(comparator);
+        PriorityQueue<T> heap = evaluate(() -> new Sink.Terminal<PriorityQueue<T>>() {
+            private final PriorityQueue<T> heap = new PriorityQueue<>(Math.max(1, k), comparator);
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public void accept(Object value) {
+                offer(heap, (T) value, k, comparator);
+            }
+
+            @Override
+            PriorityQueue<T> result() {
+                return heap;
+            }
+        }, (a, b) -> {
+            for (T value : b) {
+                offer(a, value, k, comparator);
+            }
+            return a;
+        });
+        List<T> top = new ArrayList<>(heap);
+        top.sort(Collections.reverseOrder(comparator));
+        return top;
+    }
+
+    /** {@link #sortedTopK(int, Comparator)} by natural ordering. */
+    @SuppressWarnings("unchecked")
+    public List<T> sortedTopK(int k) {
+        return sortedTopK(k, (Comparator<? super T>) Comparator.naturalOrder());
+    }
+
+    /** Adds {@code value} to the min-heap of the {@code k} greatest values seen, if it belongs there. */
+    private static <T> void offer(PriorityQueue<T> heap, T value, int k, Comparator<? super T> comparator) {
+        if (heap.size() < k) {
+            heap.add(value);
+        } else if (k > 0 && comparator.compare(value, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(value);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package collections.pipeline;
+
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * One stage of an evaluated pipeline: receives elements from the stage before it and pushes results to
+ * {@link #downstream}. Object stages override {@link #accept(Object)} and {@code int} stages
+ * {@link #accept(int)}, so primitive values pass between {@code int} stages without boxing.
+ */
+abstract class Sink implements Consumer<Object>, IntConsumer {
+
+    final Sink downstream;
+
+    Sink(Sink downstream) {
+        this.downstream = downstream;
+    }
+
+    /** Whether this stage or one after it wants no more input, as {@code limit} does once it is satisfied. */
+    boolean cancelled() {
+        return downstream.cancelled();
+    }
+
+    @Override
+    public void accept(Object value) {
+        throw new IllegalStateException("Object value pushed into an int stage");
+    }
+
+    @Override
+    public void accept(int value) {
+        throw new IllegalStateException("int value pushed into an object stage");
+    }
+
+    /** The last stage, which accumulates a partial result per chunk of the source. */
+    abstract static class Terminal<R> extends Sink {
+
+        Terminal() {
+            super(null);
+        }
+
+        @Override
+        boolean cancelled() {
+            return false;
+        }
+
+        abstract R result();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Lazy, fused pipelines that replace the sort-copy-filter sequences of {@code LearnCollectionsClass} and
+ * {@code LearnArrayList} with one pass and no intermediate lists.
+ */
+package collections.pipeline;
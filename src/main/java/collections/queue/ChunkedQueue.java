@@ -0,0 +1,213 @@
+package collections.queue;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An unbounded FIFO queue stored as a linked list of fixed-size array chunks (an unrolled linked list).
+ *
+ * <p>{@code LearnLinkedListQueue} uses {@code LinkedList} as a queue, which allocates a 24 to 32 byte
+ * {@code Node} for every {@code offer} and chases one pointer per element when iterating. Here elements are
+ * appended to the tail chunk and taken from the head chunk. A new chunk is linked only when the tail chunk is
+ * full, and a chunk is unlinked only when {@code poll} has drained it. The drained chunk is kept as a spare and
+ * becomes the next tail chunk. A queue whose size stays roughly constant therefore reuses the same chunks
+ * forever, and {@code offer}/{@code poll} allocate nothing in steady state. {@link #size()} is a field read.
+ *
+ * <p>{@code null} elements are not permitted, because {@code poll} and {@code peek} return {@code null} for an
+ * empty queue. The iterator is fail-fast and does not support {@code remove}, so neither do
+ * {@code remove(Object)}, {@code removeAll} and {@code retainAll}. This class is not thread-safe.
+ *
+ * @param <E> the type of elements
+ */
+public class ChunkedQueue<E> extends AbstractQueue<E> {
+
+    private static final int DEFAULT_CHUNK_SIZE = 128;
+
+    private static final class Chunk {
+        final Object[] items;
+        Chunk next;
+
+        Chunk(int chunkSize) {
+            items = new Object[chunkSize];
+        }
+    }
+
+    private final int chunkSize;
+    private Chunk head;
+    /** Index of the next element to poll in {@link #head}. */
+    private int headIndex;
+    private Chunk tail;
+    /** Index the next offered element goes to in {@link #tail}. */
+    private int tailIndex;
+    /** A drained chunk kept for the next time the tail needs one. */
+    private Chunk spare;
+    private int size;
+    private int modCount;
+
+    public ChunkedQueue() {
+        this(DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param chunkSize number of elements per chunk; larger chunks mean fewer links but more unused slots
+     *                  in a nearly empty queue
+     * @throws IllegalArgumentException if {@code chunkSize} is less than 2
+     */
+    public ChunkedQueue(int chunkSize) {
+        if (chunkSize < 2) {
+            throw new IllegalArgumentException("Illegal chunk size: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+        head = tail = new Chunk(chunkSize);
+    }
+
+    /**
+     * Inserts {@code e} at the tail. Always succeeds.
+     *
+     * @throws NullPointerException if {@code e} is {@code null}
+     */
+    @Override
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        modCount++;
+        if (tailIndex == chunkSize) {
+            Chunk c = spare;
+            if (c != null) {
+                spare = null;
+            } else {
+                c = new Chunk(chunkSize);
+            }
+            tail.next = c;
+            tail = c;
+            tailIndex = 0;
+        }
+        tail.items[tailIndex++] = e;
+        size++;
+        return true;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        if (size == 0) {
+            return null;
+        }
+        modCount++;
+        Object[] items = head.items;
+        E e = (E) items[headIndex];
+        items[headIndex++] = null;
+        if (--size == 0) {
+            // head == tail: rewind instead of moving on, so an emptied queue keeps reusing its one chunk.
+            headIndex = tailIndex = 0;
+        } else if (headIndex == chunkSize) {
+            Chunk drained = head;
+            head = drained.next;
+            drained.next = null;
+            spare = drained;
+            headIndex = 0;
+        }
+        return e;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        return size == 0 ? null : (E) head.items[headIndex];
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements from the head and passes them to {@code consumer} in FIFO order.
+     *
+     * @return the number of elements removed
+     */
+    public int drainTo(Consumer<? super E> consumer, int maxElements) {
+        Objects.requireNonNull(consumer);
+        int count = Math.min(Math.max(maxElements, 0), size);
+        for (int i = 0; i < count; i++) {
+            consumer.accept(poll());
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Removes every element, keeping one chunk for reuse. */
+    @Override
+    public void clear() {
+        modCount++;
+        for (Chunk c = head; c != null; c = c.next) {
+            Arrays.fill(c.items, null);
+        }
+        head.next = null;
+        tail = head;
+        headIndex = tailIndex = 0;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        Chunk c = head;
+        int index = headIndex;
+        for (int remaining = size; remaining > 0 && modCount == expectedModCount; remaining--) {
+            if (index == chunkSize) {
+                c = c.next;
+                index = 0;
+            }
+            action.accept((E) c.items[index++]);
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Returns an iterator from head to tail. */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+        private Chunk chunk = head;
+        private int index = headIndex;
+        private int remaining = size;
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            if (index == chunkSize) {
+                chunk = chunk.next;
+                index = 0;
+            }
+            remaining--;
+            return (E) chunk.items[index++];
+        }
+    }
+}
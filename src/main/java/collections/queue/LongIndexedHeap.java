@@ -0,0 +1,318 @@
+package collections.queue;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * An indexed 4-ary min-heap of primitive {@code long} priorities, for workloads such as timer wheels where the
+ * priority of a queued element changes after it has been inserted.
+ *
+ * <p>{@code PriorityQueue} (see {@code LearnPriorityQueue}) can only change an element's priority by
+ * {@code remove(Object)}, which searches the whole array in O(n), followed by a new {@code offer}. Here
+ * {@link #offer} returns an {@code int} <em>handle</em> that stays valid until the element leaves the heap, and
+ * the heap tracks where every handle currently sits. {@link #update}, {@link #decreaseKey} and
+ * {@link #remove(int)} therefore start at the element's position and cost O(log n).
+ *
+ * <p>Each node has four children instead of two. The heap is half as deep, so a sift-up does half the moves,
+ * and the four children a sift-down compares are adjacent in memory. Priorities are stored in heap order next
+ * to the handles, so no sift step leaves these arrays.
+ *
+ * <p>Handles are small non-negative ints and are reused after their element is polled or removed, so they can
+ * index a caller's own arrays of payloads. Ties between equal priorities are broken arbitrarily. This class is
+ * not thread-safe.
+ */
+public class LongIndexedHeap {
+
+    private static final int ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final int NOT_QUEUED = -1;
+
+    /** Priority of the element at each heap position. */
+    private long[] priorities;
+    /** Handle of the element at each heap position. */
+    private int[] handles;
+    /** Heap position of each handle, or {@link #NOT_QUEUED}. */
+    private int[] positions;
+    private int size;
+
+    /** Released handles, reused before new ones are issued. */
+    private int[] freeHandles;
+    private int freeCount;
+    /** Next never-issued handle. */
+    private int nextHandle;
+
+    public LongIndexedHeap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity number of elements the heap can hold before it first grows
+     * @throws IllegalArgumentException if {@code initialCapacity} is negative
+     */
+    public LongIndexedHeap(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        int capacity = Math.max(initialCapacity, 1);
+        priorities = new long[capacity];
+        handles = new int[capacity];
+        positions = new int[capacity];
+        freeHandles = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Inserts an element with the given priority. O(log n).
+     *
+     * @return the element's handle
+     */
+    public int offer(long priority) {
+        int handle = acquireHandle();
+        int i = size++;
+        priorities[i] = priority;
+        handles[i] = handle;
+        positions[handle] = i;
+        siftUp(i);
+        return handle;
+    }
+
+    /**
+     * Inserts one element per priority, in O(n + k) for a heap of n elements, by appending all of them and then
+     * restoring the heap bottom-up (Floyd's construction) instead of sifting each one up.
+     *
+     * @return the new elements' handles, in the order of {@code newPriorities}
+     */
+    public int[] offerAll(long... newPriorities) {
+        int count = newPriorities.length;
+        ensureCapacity(size + count);
+        int[] result = new int[count];
+        for (int k = 0; k < count; k++) {
+            int handle = acquireHandle();
+            int i = size++;
+            priorities[i] = newPriorities[k];
+            handles[i] = handle;
+            positions[handle] = i;
+            result[k] = handle;
+        }
+        for (int i = parent(size - 1); i >= 0; i--) {
+            siftDown(i);
+        }
+        return result;
+    }
+
+    /** Returns the handle of the element with the lowest priority, or -1 if the heap is empty. */
+    public int peek() {
+        return size == 0 ? -1 : handles[0];
+    }
+
+    /**
+     * Returns the lowest priority in the heap.
+     *
+     * @throws NoSuchElementException if the heap is empty
+     */
+    public long peekPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    /**
+     * Removes the element with the lowest priority. O(log n). Its handle becomes invalid and may be issued
+     * again by a later {@code offer}.
+     *
+     * @return the removed element's handle, or -1 if the heap is empty
+     */
+    public int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int handle = handles[0];
+        removeAt(0);
+        return handle;
+    }
+
+    /** Returns {@code true} if {@code handle} refers to an element that is still in the heap. */
+    public boolean contains(int handle) {
+        return handle >= 0 && handle < nextHandle && positions[handle] != NOT_QUEUED;
+    }
+
+    /**
+     * Returns the priority of a queued element.
+     *
+     * @throws IllegalArgumentException if {@code handle} is not in the heap
+     */
+    public long priority(int handle) {
+        return priorities[positionOf(handle)];
+    }
+
+    /**
+     * Changes the priority of a queued element, in either direction. O(log n).
+     *
+     * @throws IllegalArgumentException if {@code handle} is not in the heap
+     */
+    public void update(int handle, long priority) {
+        int i = positionOf(handle);
+        long old = priorities[i];
+        priorities[i] = priority;
+        if (priority < old) {
+            siftUp(i);
+        } else if (priority > old) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Lowers the priority of a queued element. O(log n), and cheaper than {@link #update} in practice because
+     * the element only moves towards the root, which is half as many levels away as in a binary heap.
+     *
+     * @throws IllegalArgumentException if {@code handle} is not in the heap, or {@code priority} is greater than
+     *                                  its current priority
+     */
+    public void decreaseKey(int handle, long priority) {
+        int i = positionOf(handle);
+        if (priority > priorities[i]) {
+            throw new IllegalArgumentException(
+                    "New priority " + priority + " is greater than current priority " + priorities[i]);
+        }
+        priorities[i] = priority;
+        siftUp(i);
+    }
+
+    /**
+     * Removes a queued element. O(log n), where {@code PriorityQueue.remove(Object)} is O(n).
+     *
+     * @return {@code false} if {@code handle} was not in the heap
+     */
+    public boolean remove(int handle) {
+        if (!contains(handle)) {
+            return false;
+        }
+        removeAt(positions[handle]);
+        return true;
+    }
+
+    /** Removes every element; all handles become invalid and are issued again from 0. */
+    public void clear() {
+        size = 0;
+        freeCount = 0;
+        nextHandle = 0;
+    }
+
+    private int positionOf(int handle) {
+        if (!contains(handle)) {
+            throw new IllegalArgumentException("Handle is not in the heap: " + handle);
+        }
+        return positions[handle];
+    }
+
+    private int acquireHandle() {
+        if (freeCount > 0) {
+            return freeHandles[--freeCount];
+        }
+        ensureCapacity(nextHandle + 1);
+        return nextHandle++;
+    }
+
+    /** Replaces position {@code i} with the last element and restores the heap around it. */
+    private void removeAt(int i) {
+        int handle = handles[i];
+        positions[handle] = NOT_QUEUED;
+        freeHandles[freeCount++] = handle;
+        int last = --size;
+        if (i == last) {
+            return;
+        }
+        long moved = priorities[last];
+        long old = priorities[i];
+        priorities[i] = moved;
+        handles[i] = handles[last];
+        positions[handles[i]] = i;
+        if (moved < old) {
+            siftUp(i);
+        } else if (moved > old) {
+            siftDown(i);
+        }
+    }
+
+    private static int parent(int i) {
+        return (i - 1) >> 2;
+    }
+
+    /** Moves the element at {@code i} towards the root while its parent has a greater priority. */
+    private void siftUp(int i) {
+        long[] ps = priorities;
+        int[] hs = handles;
+        long priority = ps[i];
+        int handle = hs[i];
+        while (i > 0) {
+            int p = parent(i);
+            long pp = ps[p];
+            if (pp <= priority) {
+                break;
+            }
+            ps[i] = pp;
+            hs[i] = hs[p];
+            positions[hs[i]] = i;
+            i = p;
+        }
+        ps[i] = priority;
+        hs[i] = handle;
+        positions[handle] = i;
+    }
+
+    /** Moves the element at {@code i} towards the leaves while some child has a lower priority. */
+    private void siftDown(int i) {
+        long[] ps = priorities;
+        int[] hs = handles;
+        int n = size;
+        long priority = ps[i];
+        int handle = hs[i];
+        while (true) {
+            int first = ARITY * i + 1;
+            if (first >= n) {
+                break;
+            }
+            int min = first;
+            long minPriority = ps[first];
+            int end = Math.min(first + ARITY, n);
+            for (int c = first + 1; c < end; c++) {
+                long cp = ps[c];
+                if (cp < minPriority) {
+                    min = c;
+                    minPriority = cp;
+                }
+            }
+            if (minPriority >= priority) {
+                break;
+            }
+            ps[i] = minPriority;
+            hs[i] = hs[min];
+            positions[hs[i]] = i;
+            i = min;
+        }
+        ps[i] = priority;
+        hs[i] = handle;
+        positions[handle] = i;
+    }
+
+    /** Grows every array so that {@code minCapacity} elements and handles fit. */
+    private void ensureCapacity(int minCapacity) {
+        int capacity = priorities.length;
+        if (minCapacity <= capacity && minCapacity <= positions.length) {
+            return;
+        }
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        priorities = Arrays.copyOf(priorities, newCapacity);
+        handles = Arrays.copyOf(handles, newCapacity);
+        positions = Arrays.copyOf(positions, newCapacity);
+        freeHandles = Arrays.copyOf(freeHandles, newCapacity);
+    }
+}
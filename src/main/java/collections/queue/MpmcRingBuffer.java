@@ -0,0 +1,310 @@
+package collections.queue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, lock-free, multi-producer multi-consumer FIFO queue on a circular array.
+ *
+ * <p>{@code LearnArrayDequeue} shows the single-threaded version of this design: a circular array with a head
+ * and a tail index. Sharing an {@code ArrayDeque} between threads needs a lock around every {@code offer} and
+ * {@code poll}. Here the capacity is fixed to a power of two and each slot carries a sequence number (Dmitry
+ * Vyukov's bounded MPMC queue). A producer claims a slot by advancing the tail counter with one CAS, fills it,
+ * and publishes it by bumping the slot's sequence. A consumer does the same with the head. Producers and
+ * consumers only contend with their own kind, and never for more than one CAS.
+ *
+ * <p>The head and tail counters are padded onto separate cache lines, so producers and consumers do not
+ * invalidate each other's line on every operation. {@link #drainTo} and {@link #fill} claim a whole run of
+ * slots with a single CAS.
+ *
+ * <p>{@code null} elements are not permitted. {@link #size()} is exact only when the queue is quiescent.
+ *
+ * @param <E> the type of elements
+ */
+public class MpmcRingBuffer<E> extends MpmcRingBufferFields<E> {
+
+    private static final VarHandle SEQUENCE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int mask;
+    /**
+     * Slot {@code i} is free for the producer of position {@code p} when it holds {@code p}, and full when it
+     * holds {@code p + 1}.
+     */
+    private final long[] sequences;
+    private final Object[] buffer;
+
+    /**
+     * @param capacity maximum number of queued elements, rounded up to a power of two
+     * @throws IllegalArgumentException if {@code capacity} is less than 2 or greater than 2^30
+     */
+    public MpmcRingBuffer(int capacity) {
+        if (capacity < 2 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be in [2, 2^30]: " + capacity);
+        }
+        int n = Integer.highestOneBit(capacity - 1) << 1;
+        mask = n - 1;
+        sequences = new long[n];
+        buffer = new Object[n];
+        for (int i = 0; i < n; i++) {
+            sequences[i] = i;
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    private long sequence(int index) {
+        return (long) SEQUENCE.getAcquire(sequences, index);
+    }
+
+    private void publish(int index, long sequence) {
+        SEQUENCE.setRelease(sequences, index, sequence);
+    }
+
+    /**
+     * Inserts {@code e} at the tail if there is room.
+     *
+     * @return {@code false} if the queue is full
+     * @throws NullPointerException if {@code e} is {@code null}
+     */
+    public boolean offer(E e) {
+        Objects.requireNonNull(e);
+        long pos = tail();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequence(index) - pos;
+            if (diff == 0) {
+                if (casTail(pos, pos + 1)) {
+                    buffer[index] = e;
+                    publish(index, pos + 1);
+                    return true;
+                }
+                pos = tail();
+            } else if (diff < 0) {
+                // The slot still holds the element from one lap ago: full.
+                return false;
+            } else {
+                // Another producer claimed this position; catch up.
+                pos = tail();
+            }
+        }
+    }
+
+    /** Removes and returns the head element, or returns {@code null} if the queue is empty. */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long pos = head();
+        while (true) {
+            int index = (int) pos & mask;
+            long diff = sequence(index) - (pos + 1);
+            if (diff == 0) {
+                if (casHead(pos, pos + 1)) {
+                    E e = (E) buffer[index];
+                    buffer[index] = null;
+                    publish(index, pos + mask + 1);
+                    return e;
+                }
+                pos = head();
+            } else if (diff < 0) {
+                return null;
+            } else {
+                pos = head();
+            }
+        }
+    }
+
+    /**
+     * Returns the head element without removing it, or {@code null} if the queue is empty. With concurrent
+     * consumers the element may be gone by the time the caller looks at it.
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        while (true) {
+            long pos = head();
+            int index = (int) pos & mask;
+            if (sequence(index) != pos + 1) {
+                if (pos == head()) {
+                    return null;
+                }
+                continue;
+            }
+            E e = (E) buffer[index];
+            if (e != null && pos == head()) {
+                return e;
+            }
+        }
+    }
+
+    /**
+     * Removes up to {@code maxElements} elements from the head and passes them to {@code consumer} in FIFO order.
+     * The run of published elements is claimed with a single CAS on the head, so a batch costs one contended
+     * operation instead of one per element. The elements are copied out and their slots released before
+     * {@code consumer} sees any of them, so a consumer that throws cannot leave the queue holding slots: the
+     * exception propagates, and the claimed elements it was not given are dropped.
+     *
+     * @return the number of elements removed
+     */
+    @SuppressWarnings("unchecked")
+    public int drainTo(Consumer<? super E> consumer, int maxElements) {
+        Objects.requireNonNull(consumer);
+        if (maxElements <= 0) {
+            return 0;
+        }
+        int limit = Math.min(maxElements, capacity());
+        while (true) {
+            long pos = head();
+            int ready = 0;
+            while (ready < limit && sequence((int) (pos + ready) & mask) == pos + ready + 1) {
+                ready++;
+            }
+            if (ready == 0) {
+                if (pos == head()) {
+                    return 0;
+                }
+                continue;
+            }
+            if (!casHead(pos, pos + ready)) {
+                continue;
+            }
+            Object[] batch = new Object[ready];
+            for (int i = 0; i < ready; i++) {
+                long p = pos + i;
+                int index = (int) p & mask;
+                batch[i] = buffer[index];
+                buffer[index] = null;
+                publish(index, p + mask + 1);
+            }
+            for (Object e : batch) {
+                consumer.accept((E) e);
+            }
+            return ready;
+        }
+    }
+
+    /**
+     * Inserts up to {@code maxElements} elements taken from {@code supplier}, as many as there is room for,
+     * claiming the free slots with a single CAS on the tail and then asking the supplier for exactly that many
+     * elements. Like {@link #offer}, this never waits for consumers.
+     *
+     * <p>The supplier must not throw or return {@code null}: the slots are already claimed when it runs, and one
+     * that is never published stops every consumer at that slot for good. It may itself offer to this queue.
+     *
+     * @return the number of elements inserted
+     * @throws NullPointerException if {@code supplier} returns {@code null}, after which the queue is unusable
+     */
+    public int fill(Supplier<? extends E> supplier, int maxElements) {
+        Objects.requireNonNull(supplier);
+        if (maxElements <= 0) {
+            return 0;
+        }
+        int limit = Math.min(maxElements, capacity());
+        while (true) {
+            long pos = tail();
+            int free = freeSlots(pos, limit);
+            if (free == 0) {
+                if (pos == tail()) {
+                    return 0;
+                }
+                continue;
+            }
+            if (!casTail(pos, pos + free)) {
+                continue;
+            }
+            for (int i = 0; i < free; i++) {
+                long p = pos + i;
+                int index = (int) p & mask;
+                buffer[index] = Objects.requireNonNull(supplier.get());
+                publish(index, p + 1);
+            }
+            return free;
+        }
+    }
+
+    /** Counts the free slots from position {@code pos}, up to {@code limit}. */
+    private int freeSlots(long pos, int limit) {
+        int free = 0;
+        while (free < limit && sequence((int) (pos + free) & mask) == pos + free) {
+            free++;
+        }
+        return free;
+    }
+
+    /** Number of queued elements; an estimate while other threads are offering or polling. */
+    public int size() {
+        while (true) {
+            long h = head();
+            long t = tail();
+            if (h == head()) {
+                return (int) Math.max(0, Math.min(t - h, capacity()));
+            }
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
+
+/** Keeps the object header and the fields of {@link MpmcRingBuffer} away from {@link MpmcRingBufferFields#head}. */
+abstract class MpmcRingBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/** The consumer counter: the position of the next element to poll. */
+abstract class MpmcRingBufferHead extends MpmcRingBufferPad0 {
+    volatile long head;
+}
+
+/** Keeps {@link MpmcRingBufferHead#head} and {@link MpmcRingBufferTail#tail} on different cache lines. */
+abstract class MpmcRingBufferPad1 extends MpmcRingBufferHead {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+    long p30, p31, p32, p33, p34, p35, p36;
+}
+
+/** The producer counter: the position the next offered element goes to. */
+abstract class MpmcRingBufferTail extends MpmcRingBufferPad1 {
+    volatile long tail;
+}
+
+/**
+ * Pads after {@link MpmcRingBufferTail#tail} and provides CAS access to both counters. HotSpot lays out a
+ * superclass's fields before its subclass's, so this hierarchy fixes the order head, padding, tail, padding.
+ */
+abstract class MpmcRingBufferFields<E> extends MpmcRingBufferTail {
+    long p40, p41, p42, p43, p44, p45, p46, p47;
+    long p50, p51, p52, p53, p54, p55, p56;
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(MpmcRingBufferHead.class, "head", long.class);
+            TAIL = lookup.findVarHandle(MpmcRingBufferTail.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    final long head() {
+        return head;
+    }
+
+    final long tail() {
+        return tail;
+    }
+
+    final boolean casHead(long expect, long update) {
+        return HEAD.compareAndSet(this, expect, update);
+    }
+
+    final boolean casTail(long expect, long update) {
+        return TAIL.compareAndSet(this, expect, update);
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Queue implementations that complement the {@code PriorityQueue}, {@code ArrayDeque} and {@code LinkedList}
+ * walkthroughs in {@code LearnPriorityQueue}, {@code LearnArrayDequeue} and {@code LearnLinkedListQueue}.
+ */
+package collections.queue;
@@ -0,0 +1,320 @@
+package collections.set;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * An insertion-ordered hash set with the memory layout of CPython's compact {@code dict}.
+ *
+ * <p>{@code LinkedHashSet} (see {@code LearnLinkedHashSet}) keeps its order by threading a doubly linked list
+ * through {@code LinkedHashMap} entries: about 40 bytes of entry object per element, plus the table, and an
+ * iteration that jumps from entry to entry across the heap. Here the elements are appended to a dense array in
+ * insertion order, next to an array of their cached hash codes, and the hash table is a separate {@code int[]}
+ * of indexes into those arrays, probed linearly. An element costs one reference, one {@code int} hash and about
+ * six bytes of index table, and iteration is a sequential scan of the element array.
+ *
+ * <p>Removing an element leaves a tombstone in the dense arrays, so the order of the remaining elements is
+ * kept without moving them, while the index table closes the gap by backward-shift deletion. The tombstones are
+ * compacted away when the dense arrays fill up, or on {@code remove} once they outnumber the live elements.
+ *
+ * <p>{@code null} is permitted. The iterator is fail-fast and supports {@code remove}. This class is not
+ * thread-safe.
+ *
+ * @param <E> the type of elements
+ */
+public class CompactLinkedHashSet<E> extends AbstractSet<E> {
+
+    /** 2^32 / phi; an index slot is taken from the high bits of the hash times this. */
+    private static final int PHI = 0x9E3779B9;
+    private static final int MAX_INDEX_CAPACITY = 1 << 30;
+    private static final int MIN_INDEX_CAPACITY = 8;
+    /** Marks a removed element in {@link #elements}; {@code null} itself is a legal element. */
+    private static final Object TOMBSTONE = new Object();
+    /** An empty slot of {@link #index}; occupied slots hold the entry number plus one. */
+    private static final int EMPTY = 0;
+
+    /** Elements in insertion order, {@link #TOMBSTONE} where one was removed. */
+    private Object[] elements;
+    /** {@code hashCode()} of the element at the same position, kept for probing and rebuilding the index. */
+    private int[] hashes;
+    private int[] index;
+    /** {@code 32 - log2(index.length)}. */
+    private int shift;
+    /** Number of positions of {@link #elements} in use, live or tombstoned. */
+    private int used;
+    private int size;
+    private int modCount;
+
+    public CompactLinkedHashSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize number of elements the set can hold before it first grows
+     * @throws IllegalArgumentException if {@code expectedSize} is negative or too large
+     */
+    public CompactLinkedHashSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+        }
+        allocate(indexCapacity(expectedSize));
+    }
+
+    public CompactLinkedHashSet(Collection<? extends E> c) {
+        this(c.size());
+        addAll(c);
+    }
+
+    /** Smallest index capacity whose usable fraction of two thirds holds {@code expectedSize} elements. */
+    private static int indexCapacity(int expectedSize) {
+        long needed = (long) expectedSize * 3 / 2 + 1;
+        if (needed > MAX_INDEX_CAPACITY) {
+            throw new IllegalArgumentException("Expected size too large: " + expectedSize);
+        }
+        return Math.max(MIN_INDEX_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    private void allocate(int indexCapacity) {
+        index = new int[indexCapacity];
+        shift = Integer.numberOfLeadingZeros(indexCapacity) + 1;
+        int capacity = indexCapacity / 3 * 2;
+        elements = new Object[capacity];
+        hashes = new int[capacity];
+    }
+
+    private static int hash(Object o) {
+        return o == null ? 0 : o.hashCode();
+    }
+
+    private int home(int hash) {
+        return (hash * PHI) >>> shift;
+    }
+
+    /** Returns the index slot that refers to an element equal to {@code o}, or -1. */
+    private int findSlot(Object o, int h) {
+        int[] idx = index;
+        int mask = idx.length - 1;
+        for (int i = home(h); ; i = (i + 1) & mask) {
+            int ref = idx[i];
+            if (ref == EMPTY) {
+                return -1;
+            }
+            int entry = ref - 1;
+            if (hashes[entry] == h && Objects.equals(o, elements[entry])) {
+                return i;
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return findSlot(o, hash(o)) >= 0;
+    }
+
+    /** Appends {@code e} unless an equal element is present; re-adding does not change the order. */
+    @Override
+    public boolean add(E e) {
+        int h = hash(e);
+        if (findSlot(e, h) >= 0) {
+            return false;
+        }
+        if (used == elements.length) {
+            // Reuse the tombstoned positions if they make up a quarter of the array, grow otherwise.
+            int dead = used - size;
+            rebuild(dead >= used >>> 2 ? index.length : growIndex());
+        }
+        modCount++;
+        int entry = used++;
+        elements[entry] = e;
+        hashes[entry] = h;
+        insertIndex(entry, h);
+        size++;
+        return true;
+    }
+
+    private int growIndex() {
+        if (index.length == MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("Set is full: " + size + " elements");
+        }
+        return index.length << 1;
+    }
+
+    private void insertIndex(int entry, int h) {
+        int[] idx = index;
+        int mask = idx.length - 1;
+        int i = home(h);
+        while (idx[i] != EMPTY) {
+            i = (i + 1) & mask;
+        }
+        idx[i] = entry + 1;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        int slot = findSlot(o, hash(o));
+        if (slot < 0) {
+            return false;
+        }
+        removeAt(slot);
+        if (used - size > size && used > MIN_INDEX_CAPACITY) {
+            rebuild(index.length);
+        }
+        return true;
+    }
+
+    /** Tombstones the element that index slot {@code slot} refers to and drops the slot. */
+    private void removeAt(int slot) {
+        modCount++;
+        int entry = index[slot] - 1;
+        elements[entry] = TOMBSTONE;
+        size--;
+        shiftConflictingSlots(slot);
+        if (entry == used - 1) {
+            // Removing the newest element: give its position back instead of leaving a tombstone at the end.
+            elements[entry] = null;
+            used--;
+        }
+    }
+
+    /**
+     * Backward-shift deletion: empties {@code gap} and moves back every following slot of the probe run whose
+     * home slot is at or before the gap, so the index never needs tombstones of its own.
+     */
+    private void shiftConflictingSlots(int gap) {
+        int[] idx = index;
+        int mask = idx.length - 1;
+        for (int i = (gap + 1) & mask; idx[i] != EMPTY; i = (i + 1) & mask) {
+            int home = home(hashes[idx[i] - 1]);
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                idx[gap] = idx[i];
+                gap = i;
+            }
+        }
+        idx[gap] = EMPTY;
+    }
+
+    /** Compacts the live elements to the front, in order, into arrays sized for {@code indexCapacity}. */
+    private void rebuild(int indexCapacity) {
+        modCount++;
+        Object[] oldElements = elements;
+        int[] oldHashes = hashes;
+        int oldUsed = used;
+        if (indexCapacity == index.length) {
+            Arrays.fill(index, EMPTY);
+        } else {
+            allocate(indexCapacity);
+        }
+        Object[] es = elements;
+        int[] hs = hashes;
+        int n = 0;
+        for (int j = 0; j < oldUsed; j++) {
+            Object e = oldElements[j];
+            if (e != TOMBSTONE) {
+                es[n] = e;
+                hs[n] = oldHashes[j];
+                insertIndex(n, hs[n]);
+                n++;
+            }
+        }
+        if (es == oldElements) {
+            Arrays.fill(es, n, oldUsed, null);
+        }
+        used = n;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        Arrays.fill(elements, 0, used, null);
+        Arrays.fill(index, EMPTY);
+        used = 0;
+        size = 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+        Object[] es = elements;
+        for (int i = 0, n = used; i < n && modCount == expectedModCount; i++) {
+            Object e = es[i];
+            if (e != TOMBSTONE) {
+                action.accept((E) e);
+            }
+        }
+        if (modCount != expectedModCount) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /** Returns an iterator over the elements in insertion order. */
+    @Override
+    public Iterator<E> iterator() {
+        return new Itr();
+    }
+
+    private final class Itr implements Iterator<E> {
+        /** Position of the next element to return, or {@link #used} when there is none. */
+        private int cursor = skipTombstones(0);
+        private int lastReturned = -1;
+        private int expectedModCount = modCount;
+
+        private int skipTombstones(int i) {
+            while (i < used && elements[i] == TOMBSTONE) {
+                i++;
+            }
+            return i;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return cursor < used;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (cursor >= used) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = cursor;
+            cursor = skipTombstones(cursor + 1);
+            return (E) elements[lastReturned];
+        }
+
+        @Override
+        public void remove() {
+            if (lastReturned < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            Object e = elements[lastReturned];
+            // No compaction here: it would move the elements the cursor has not reached yet.
+            removeAt(findSlot(e, hashes[lastReturned]));
+            lastReturned = -1;
+            expectedModCount = modCount;
+        }
+    }
+}
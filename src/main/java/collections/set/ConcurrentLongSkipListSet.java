@@ -0,0 +1,808 @@
+package collections.set;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * A lock-free sorted set of primitive {@code long}s: the navigation methods of {@code TreeSet} from
+ * {@code LearnTreeSet}, safe to call from any number of threads without a lock.
+ *
+ * <p>This is the skip list of {@code ConcurrentSkipListSet} (Fraser, Harris, and Lea's lock-free variant)
+ * specialized for {@code long} keys, so no element is boxed and no comparator is called. Elements sit in a
+ * sorted, singly linked base list; about a quarter of them also get towers of index nodes, each level half as
+ * dense as the one below, so a search skips most of the list. An insert is one CAS on the predecessor's
+ * link. A removal first marks the node deleted with a CAS on its state, which is the moment it leaves the set,
+ * then appends a marker node behind it so that no insert can link after it, and finally unlinks it. Any thread
+ * that passes a deleted node helps unlink it, so no thread ever waits for another.
+ *
+ * <p>Threads only contend where they touch the same nodes. The size is kept in a {@link LongAdder}, which
+ * spreads over per-thread cells once updates collide. {@link #pollFirst()} and {@link #pollLast()} are the
+ * hot spot of a priority-queue workload, since every thread goes for the same node: a thread that loses the
+ * race moves on to the next node instead of retrying, and backs off a little longer after each consecutive
+ * loss so that it stops hammering the shared cache line.
+ *
+ * <p>{@link #size()} is a moment-in-time estimate while writers are active. Iterators, {@link #forEach}, and
+ * the {@link #subSet} views are weakly consistent: they never throw {@code ConcurrentModificationException},
+ * return elements in ascending order, each at most once, and reflect some but not necessarily all changes made
+ * after they started. As in {@link RoaringIntSet}, the navigation methods return an {@link OptionalLong}.
+ */
+public class ConcurrentLongSkipListSet {
+
+    /** Node states: an element, a removed element, the marker after a removed element, the list head. */
+    private static final int LIVE = 0;
+    private static final int DELETED = 1;
+    private static final int MARKER = 2;
+    private static final int HEADER = 3;
+
+    /** {@link #findNear} relations: greater than, plus equal and less than flags. */
+    private static final int GT = 0;
+    private static final int EQ = 1;
+    private static final int LT = 2;
+
+    /** Losing {@link #pollFirst()} threads spin at most 2^this times before looking again. */
+    private static final int MAX_BACKOFF_SHIFT = 6;
+
+    private static final VarHandle HEAD;
+    private static final VarHandle NEXT;
+    private static final VarHandle STATE;
+    private static final VarHandle RIGHT;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentLongSkipListSet.class, "head", Index.class);
+            NEXT = lookup.findVarHandle(Node.class, "next", Node.class);
+            STATE = lookup.findVarHandle(Node.class, "state", int.class);
+            RIGHT = lookup.findVarHandle(Index.class, "right", Index.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** A base-level list node. The key of a marker or the header is meaningless. */
+    static final class Node {
+        final long key;
+        volatile int state;
+        volatile Node next;
+
+        Node(long key, int state, Node next) {
+            this.key = key;
+            this.state = state;
+            this.next = next;
+        }
+    }
+
+    /** An index node: one level of a node's tower. */
+    static final class Index {
+        final Node node;
+        final Index down;
+        volatile Index right;
+
+        Index(Node node, Index down, Index right) {
+            this.node = node;
+            this.down = down;
+            this.right = right;
+        }
+    }
+
+    /** The top of the header tower; its node is the base list's header, which never changes. */
+    private volatile Index head;
+    private final LongAdder count = new LongAdder();
+
+    public ConcurrentLongSkipListSet() {
+        head = new Index(new Node(0, HEADER, null), null, null);
+    }
+
+    public static ConcurrentLongSkipListSet of(long... values) {
+        ConcurrentLongSkipListSet set = new ConcurrentLongSkipListSet();
+        for (long value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    // ---- Skip list primitives ----
+
+    /**
+     * Appends a marker behind the deleted node {@code n}, unless one is there already, then tries to unlink
+     * {@code n} from its predecessor {@code b}.
+     */
+    private static void unlinkNode(Node b, Node n) {
+        Node f;
+        Node p;
+        while (true) {
+            if ((f = n.next) != null && f.state == MARKER) {
+                p = f.next;
+                break;
+            } else if (NEXT.compareAndSet(n, f, new Node(0, MARKER, f))) {
+                p = f;
+                break;
+            }
+        }
+        NEXT.compareAndSet(b, n, p);
+    }
+
+    /**
+     * Returns a base node whose key is less than {@code key}, or the header, descending the index and
+     * unlinking index nodes of deleted elements on the way.
+     */
+    private Node findPredecessor(long key) {
+        Index q = head;
+        while (true) {
+            Index r;
+            while ((r = q.right) != null) {
+                Node p = r.node;
+                if (p.state != LIVE) {
+                    RIGHT.compareAndSet(q, r, r.right);
+                } else if (key > p.key) {
+                    q = r;
+                } else {
+                    break;
+                }
+            }
+            if (q.down == null) {
+                return q.node;
+            }
+            q = q.down;
+        }
+    }
+
+    /** Returns the live node holding {@code key}, or {@code null}. */
+    private Node findNode(long key) {
+        outer:
+        while (true) {
+            Node b = findPredecessor(key);
+            while (true) {
+                Node n = b.next;
+                if (n == null) {
+                    return null;
+                } else if (n.state == MARKER) {
+                    continue outer; // b was deleted
+                } else if (n.state == DELETED) {
+                    unlinkNode(b, n);
+                } else if (key > n.key) {
+                    b = n;
+                } else {
+                    return key == n.key ? n : null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the node nearest to {@code key} in relation {@code rel}: the least above it for {@link #GT}, the
+     * greatest below it for {@link #LT}, either or {@code key} itself with {@link #EQ}. The node may have been
+     * deleted by the time it is returned.
+     */
+    private Node findNear(long key, int rel) {
+        outer:
+        while (true) {
+            Node b = findPredecessor(key);
+            while (true) {
+                Node n = b.next;
+                if (n == null) {
+                    return (rel & LT) != 0 && b.state != HEADER ? b : null;
+                } else if (n.state == MARKER) {
+                    continue outer;
+                } else if (n.state == DELETED) {
+                    unlinkNode(b, n);
+                } else if ((key == n.key && (rel & EQ) != 0) || (key < n.key && (rel & LT) == 0)) {
+                    return n;
+                } else if (key <= n.key && (rel & LT) != 0) {
+                    return b.state != HEADER ? b : null;
+                } else {
+                    b = n;
+                }
+            }
+        }
+    }
+
+    private OptionalLong near(long key, int rel) {
+        while (true) {
+            Node n = findNear(key, rel);
+            if (n == null) {
+                return OptionalLong.empty();
+            }
+            if (n.state == LIVE) {
+                return OptionalLong.of(n.key);
+            }
+        }
+    }
+
+    /** Returns the last node, which may have been deleted by the time it is returned. */
+    private Node findLast() {
+        outer:
+        while (true) {
+            Index q = head;
+            while (true) {
+                Index r;
+                while ((r = q.right) != null) {
+                    if (r.node.state != LIVE) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                    } else {
+                        q = r;
+                    }
+                }
+                if (q.down == null) {
+                    break;
+                }
+                q = q.down;
+            }
+            Node b = q.node;
+            while (true) {
+                Node n = b.next;
+                if (n == null) {
+                    return b.state == HEADER ? null : b;
+                } else if (n.state == MARKER) {
+                    continue outer;
+                } else if (n.state == DELETED) {
+                    unlinkNode(b, n);
+                } else {
+                    b = n;
+                }
+            }
+        }
+    }
+
+    /**
+     * Links the index tower {@code x} into the levels below {@code q}, skipping the top {@code skips} of them.
+     * Returns {@code false} if the tower's node was deleted or a level had to be abandoned.
+     */
+    private static boolean addIndices(Index q, int skips, Index x) {
+        long key = x.node.key;
+        boolean retrying = false;
+        while (true) {
+            Index r = q.right;
+            int c;
+            if (r != null) {
+                Node p = r.node;
+                if (p.state != LIVE) {
+                    RIGHT.compareAndSet(q, r, r.right);
+                    c = 0;
+                } else if (key > p.key) {
+                    q = r;
+                    c = 1;
+                } else if (key == p.key) {
+                    return false; // stale: our node was deleted and the key added again
+                } else {
+                    c = -1;
+                }
+            } else {
+                c = -1;
+            }
+            if (c < 0) {
+                Index d = q.down;
+                if (d != null && skips > 0) {
+                    --skips;
+                    q = d;
+                } else if (d != null && !retrying && !addIndices(d, 0, x.down)) {
+                    return false;
+                } else {
+                    x.right = r;
+                    if (RIGHT.compareAndSet(q, r, x)) {
+                        return true;
+                    }
+                    retrying = true;
+                }
+            }
+        }
+    }
+
+    private static void backoff(int failures) {
+        for (int i = 1 << Math.min(failures, MAX_BACKOFF_SHIFT); i > 0; i--) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // ---- Set operations ----
+
+    public boolean contains(long value) {
+        return findNode(value) != null;
+    }
+
+    /** @return {@code true} if {@code value} was not already present */
+    public boolean add(long value) {
+        while (true) {
+            Index h = head;
+            Index q = h;
+            int levels = 0;
+            while (true) {
+                Index r;
+                while ((r = q.right) != null) {
+                    Node p = r.node;
+                    if (p.state != LIVE) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                    } else if (value > p.key) {
+                        q = r;
+                    } else {
+                        break;
+                    }
+                }
+                if (q.down == null) {
+                    break;
+                }
+                levels++;
+                q = q.down;
+            }
+            Node b = q.node;
+            Node z = null;
+            while (true) {
+                Node n = b.next;
+                if (n != null) {
+                    if (n.state == MARKER) {
+                        break; // b was deleted: start over
+                    } else if (n.state == DELETED) {
+                        unlinkNode(b, n);
+                        continue;
+                    } else if (value > n.key) {
+                        b = n;
+                        continue;
+                    } else if (value == n.key) {
+                        return false;
+                    }
+                }
+                Node p = new Node(value, LIVE, n);
+                if (NEXT.compareAndSet(b, n, p)) {
+                    z = p;
+                    break;
+                }
+            }
+            if (z != null) {
+                addTower(h, levels, z);
+                count.increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives {@code z} a tower with probability 1/4, each extra level with probability 1/2, as
+     * {@code ConcurrentSkipListMap} does, and grows the header tower if {@code z}'s is the tallest.
+     */
+    private void addTower(Index h, int levels, Node z) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int lr = random.nextInt();
+        if ((lr & 3) != 0) {
+            return;
+        }
+        long bits = ((long) random.nextInt() << 32) | (lr & 0xffff_ffffL);
+        int skips = levels;
+        Index x = null;
+        while (true) {
+            x = new Index(z, x, null);
+            if (bits >= 0L || --skips < 0) {
+                break;
+            }
+            bits <<= 1;
+        }
+        if (addIndices(h, skips, x) && skips < 0 && head == h) {
+            Index hx = new Index(z, x, null);
+            HEAD.compareAndSet(this, h, new Index(h.node, h, hx));
+        }
+        if (z.state != LIVE) {
+            findPredecessor(z.key); // removed meanwhile: clean up its index nodes
+        }
+    }
+
+    /** @return {@code true} if {@code value} was present */
+    public boolean remove(long value) {
+        outer:
+        while (true) {
+            Node b = findPredecessor(value);
+            while (true) {
+                Node n = b.next;
+                if (n == null) {
+                    return false;
+                } else if (n.state == MARKER) {
+                    continue outer;
+                } else if (n.state == DELETED) {
+                    unlinkNode(b, n);
+                } else if (value > n.key) {
+                    b = n;
+                } else if (value < n.key) {
+                    return false;
+                } else if (STATE.compareAndSet(n, LIVE, DELETED)) {
+                    unlinkNode(b, n);
+                    findPredecessor(value);
+                    count.decrement();
+                    return true;
+                }
+            }
+        }
+    }
+
+    /** Returns the number of elements, or {@code Integer.MAX_VALUE} if there are more; an estimate under writes. */
+    public int size() {
+        return (int) Math.max(0, Math.min(count.sum(), Integer.MAX_VALUE));
+    }
+
+    public boolean isEmpty() {
+        return near(Long.MIN_VALUE, GT | EQ).isEmpty();
+    }
+
+    /** Removes every element. Elements added concurrently may or may not remain. */
+    public void clear() {
+        while (true) {
+            Index h = head;
+            Index r = h.right;
+            if (r != null) {
+                RIGHT.compareAndSet(h, r, null);
+            } else if (h.down != null) {
+                HEAD.compareAndSet(this, h, h.down);
+            } else {
+                long removed = 0;
+                Node b = h.node;
+                Node n;
+                while ((n = b.next) != null) {
+                    int s = n.state;
+                    if (s == LIVE && STATE.compareAndSet(n, LIVE, DELETED)) {
+                        removed++;
+                        s = DELETED;
+                    }
+                    if (s != LIVE) {
+                        unlinkNode(b, n);
+                    }
+                }
+                if (removed == 0) {
+                    return;
+                }
+                count.add(-removed);
+            }
+        }
+    }
+
+    // ---- Navigation ----
+
+    /** @throws NoSuchElementException if the set is empty */
+    public long first() {
+        return near(Long.MIN_VALUE, GT | EQ).orElseThrow();
+    }
+
+    /** @throws NoSuchElementException if the set is empty */
+    public long last() {
+        while (true) {
+            Node n = findLast();
+            if (n == null) {
+                throw new NoSuchElementException();
+            }
+            if (n.state == LIVE) {
+                return n.key;
+            }
+        }
+    }
+
+    /** Returns the greatest element {@code <= value}. */
+    public OptionalLong floor(long value) {
+        return near(value, LT | EQ);
+    }
+
+    /** Returns the least element {@code >= value}. */
+    public OptionalLong ceiling(long value) {
+        return near(value, GT | EQ);
+    }
+
+    /** Returns the greatest element {@code < value}. */
+    public OptionalLong lower(long value) {
+        return near(value, LT);
+    }
+
+    /** Returns the least element {@code > value}. */
+    public OptionalLong higher(long value) {
+        return near(value, GT);
+    }
+
+    /** Removes and returns the least element. */
+    public OptionalLong pollFirst() {
+        Node b = head.node;
+        int failures = 0;
+        Node n;
+        while ((n = b.next) != null) {
+            int s = n.state;
+            if (s == LIVE) {
+                if (STATE.compareAndSet(n, LIVE, DELETED)) {
+                    unlinkNode(b, n);
+                    findPredecessor(n.key);
+                    count.decrement();
+                    return OptionalLong.of(n.key);
+                }
+                backoff(++failures);
+            } else {
+                unlinkNode(b, n);
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    /** Removes and returns the greatest element. */
+    public OptionalLong pollLast() {
+        int failures = 0;
+        outer:
+        while (true) {
+            Index q = head;
+            while (true) {
+                Index r;
+                while ((r = q.right) != null) {
+                    Node p = r.node;
+                    if (p.state != LIVE) {
+                        RIGHT.compareAndSet(q, r, r.right);
+                    } else if (p.next != null) {
+                        q = r; // only move right onto nodes that have a successor
+                    } else {
+                        break;
+                    }
+                }
+                if (q.down == null) {
+                    break;
+                }
+                q = q.down;
+            }
+            Node b = q.node;
+            while (true) {
+                Node n = b.next;
+                if (n == null) {
+                    if (b.state == HEADER) {
+                        return OptionalLong.empty();
+                    }
+                    continue outer;
+                } else if (n.state == MARKER) {
+                    continue outer;
+                } else if (n.state == DELETED) {
+                    unlinkNode(b, n);
+                } else if (n.next != null) {
+                    b = n;
+                } else if (STATE.compareAndSet(n, LIVE, DELETED)) {
+                    unlinkNode(b, n);
+                    findPredecessor(n.key);
+                    count.decrement();
+                    return OptionalLong.of(n.key);
+                } else {
+                    backoff(++failures);
+                }
+            }
+        }
+    }
+
+    // ---- Ranges and traversal ----
+
+    /**
+     * Returns a view of the elements from {@code from} (inclusive) to {@code to} (exclusive). Like
+     * {@code TreeSet.subSet}, and unlike {@link RoaringIntSet#subSet}, it is a live view: changes to either
+     * are visible in the other.
+     *
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    public Range subSet(long from, long to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from " + from + " > to " + to);
+        }
+        return from == to ? new Range(0, -1) : new Range(from, to - 1);
+    }
+
+    /** Returns a view of the elements less than {@code to}. */
+    public Range headSet(long to) {
+        return to == Long.MIN_VALUE ? new Range(0, -1) : new Range(Long.MIN_VALUE, to - 1);
+    }
+
+    /** Returns a view of the elements greater than or equal to {@code from}. */
+    public Range tailSet(long from) {
+        return new Range(from, Long.MAX_VALUE);
+    }
+
+    /** Returns a weakly consistent iterator over the elements in ascending order; {@code remove} is supported. */
+    public PrimitiveIterator.OfLong iterator() {
+        return new RangeIterator(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    /** Passes every element to {@code action} in ascending order, weakly consistently. */
+    public void forEach(LongConsumer action) {
+        forEach(Long.MIN_VALUE, Long.MAX_VALUE, action);
+    }
+
+    private void forEach(long lo, long hi, LongConsumer action) {
+        for (Node n = findNear(lo, GT | EQ); n != null; n = n.next) {
+            if (n.state == LIVE) {
+                if (n.key > hi) {
+                    return;
+                }
+                action.accept(n.key);
+            }
+        }
+    }
+
+    /** Returns the elements in ascending order, as seen by one weakly consistent traversal. */
+    public long[] toArray() {
+        return toArray(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private long[] toArray(long lo, long hi) {
+        long[][] result = {new long[Math.max(16, size())]};
+        int[] n = {0};
+        forEach(lo, hi, v -> {
+            if (n[0] == result[0].length) {
+                result[0] = Arrays.copyOf(result[0], n[0] * 2);
+            }
+            result[0][n[0]++] = v;
+        });
+        return Arrays.copyOf(result[0], n[0]);
+    }
+
+    /** Formats the set like {@code TreeSet.toString()}, e.g. {@code [2, 21, 32]}. */
+    @Override
+    public String toString() {
+        return toString(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    private String toString(long lo, long hi) {
+        StringBuilder sb = new StringBuilder().append('[');
+        forEach(lo, hi, v -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(v);
+        });
+        return sb.append(']').toString();
+    }
+
+    /** Walks the base list from the first node at or above {@code lo}, skipping deleted nodes and markers. */
+    private final class RangeIterator implements PrimitiveIterator.OfLong {
+        private final long hi;
+        private Node next;
+        private long lastReturned;
+        private boolean canRemove;
+
+        RangeIterator(long lo, long hi) {
+            this.hi = hi;
+            advance(lo > hi ? null : findNear(lo, GT | EQ));
+        }
+
+        private void advance(Node n) {
+            while (n != null && n.state != LIVE) {
+                n = n.next;
+            }
+            next = n != null && n.key <= hi ? n : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public long nextLong() {
+            Node n = next;
+            if (n == null) {
+                throw new NoSuchElementException();
+            }
+            lastReturned = n.key;
+            canRemove = true;
+            advance(n.next);
+            return lastReturned;
+        }
+
+        @Override
+        public void remove() {
+            if (!canRemove) {
+                throw new IllegalStateException();
+            }
+            canRemove = false;
+            ConcurrentLongSkipListSet.this.remove(lastReturned);
+        }
+    }
+
+    /**
+     * A view of the elements between two bounds, backed by the set. Adding an element outside the bounds
+     * throws {@link IllegalArgumentException}; the other operations ignore elements outside them.
+     */
+    public final class Range {
+        /** Inclusive bounds; the range is empty if {@code lo > hi}. */
+        private final long lo;
+        private final long hi;
+
+        Range(long lo, long hi) {
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        private boolean inRange(long value) {
+            return value >= lo && value <= hi;
+        }
+
+        private OptionalLong inRange(OptionalLong value) {
+            return value.isPresent() && inRange(value.getAsLong()) ? value : OptionalLong.empty();
+        }
+
+        public boolean contains(long value) {
+            return inRange(value) && ConcurrentLongSkipListSet.this.contains(value);
+        }
+
+        /** @throws IllegalArgumentException if {@code value} is outside the bounds */
+        public boolean add(long value) {
+            if (!inRange(value)) {
+                throw new IllegalArgumentException("Key out of range: " + value);
+            }
+            return ConcurrentLongSkipListSet.this.add(value);
+        }
+
+        public boolean remove(long value) {
+            return inRange(value) && ConcurrentLongSkipListSet.this.remove(value);
+        }
+
+        /** Counts the elements in the range by walking them. */
+        public int size() {
+            int[] n = {0};
+            forEach(v -> n[0]++);
+            return n[0];
+        }
+
+        public boolean isEmpty() {
+            return lo > hi || ceiling(lo).isEmpty();
+        }
+
+        /** @throws NoSuchElementException if the range is empty */
+        public long first() {
+            return ceiling(lo).orElseThrow();
+        }
+
+        /** @throws NoSuchElementException if the range is empty */
+        public long last() {
+            return floor(hi).orElseThrow();
+        }
+
+        public OptionalLong floor(long value) {
+            return value < lo ? OptionalLong.empty()
+                    : inRange(ConcurrentLongSkipListSet.this.floor(Math.min(value, hi)));
+        }
+
+        public OptionalLong ceiling(long value) {
+            return value > hi ? OptionalLong.empty()
+                    : inRange(ConcurrentLongSkipListSet.this.ceiling(Math.max(value, lo)));
+        }
+
+        /** Removes and returns the least element in the range. */
+        public OptionalLong pollFirst() {
+            while (true) {
+                OptionalLong first = ceiling(lo);
+                if (first.isEmpty() || ConcurrentLongSkipListSet.this.remove(first.getAsLong())) {
+                    return first;
+                }
+            }
+        }
+
+        /** Removes and returns the greatest element in the range. */
+        public OptionalLong pollLast() {
+            while (true) {
+                OptionalLong last = floor(hi);
+                if (last.isEmpty() || ConcurrentLongSkipListSet.this.remove(last.getAsLong())) {
+                    return last;
+                }
+            }
+        }
+
+        /** Returns a weakly consistent iterator over the range in ascending order. */
+        public PrimitiveIterator.OfLong iterator() {
+            return new RangeIterator(lo, hi);
+        }
+
+        public void forEach(LongConsumer action) {
+            if (lo <= hi) {
+                ConcurrentLongSkipListSet.this.forEach(lo, hi, action);
+            }
+        }
+
+        public long[] toArray() {
+            return lo > hi ? new long[0] : ConcurrentLongSkipListSet.this.toArray(lo, hi);
+        }
+
+        @Override
+        public String toString() {
+            return lo > hi ? "[]" : ConcurrentLongSkipListSet.this.toString(lo, hi);
+        }
+    }
+}
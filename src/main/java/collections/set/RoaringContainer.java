@@ -0,0 +1,822 @@
+package collections.set;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+/**
+ * The set of low 16 bits of the {@link RoaringIntSet} elements that share one high 16-bit key. A container is
+ * never empty while it is stored in a set.
+ *
+ * <p>There are three representations: a sorted {@code char[]} for up to {@link #ARRAY_MAX} values, a 65536-bit
+ * bitmap for more, and a list of runs for long stretches of consecutive values. {@link #add} and
+ * {@link #remove} switch between the array and the bitmap as the cardinality crosses {@link #ARRAY_MAX};
+ * {@link #optimize} picks whichever of the three is smallest. The binary operations work on whichever pair of
+ * representations they are given.
+ */
+abstract class RoaringContainer {
+
+    /** Largest cardinality stored as an array; at 4096 values the array and the bitmap are both 8 KiB. */
+    static final int ARRAY_MAX = 4096;
+    static final int BITMAP_WORDS = (1 << 16) / Long.SIZE;
+    static final int MAX_VALUE = 0xFFFF;
+
+    abstract int cardinality();
+
+    abstract boolean contains(int low);
+
+    /** Adds {@code low}, returning this container or the one that replaces it. */
+    abstract RoaringContainer add(int low);
+
+    /** Removes {@code low}, returning this container or the one that replaces it. */
+    abstract RoaringContainer remove(int low);
+
+    abstract int first();
+
+    abstract int last();
+
+    /** Returns the greatest value {@code <= low}, or -1. */
+    abstract int floor(int low);
+
+    /** Returns the least value {@code >= low}, or -1. */
+    abstract int ceiling(int low);
+
+    /** Iterates the values in ascending order. */
+    abstract PrimitiveIterator.OfInt iterator();
+
+    /** Passes {@code base | value} for every value, in ascending order. */
+    abstract void forEach(int base, IntConsumer action);
+
+    /** Sets the bits of this container's values in {@code words}. */
+    abstract void orInto(long[] words);
+
+    /** Clears the bits of this container's values in {@code words}. */
+    abstract void andNotInto(long[] words);
+
+    /** Number of runs of consecutive values. */
+    abstract int runCount();
+
+    abstract RoaringContainer copy();
+
+    abstract int sizeInBytes();
+
+    long[] toWords() {
+        long[] words = new long[BITMAP_WORDS];
+        orInto(words);
+        return words;
+    }
+
+    /** Returns the smallest representation of this container's values, possibly this container. */
+    RoaringContainer optimize() {
+        int card = cardinality();
+        int runBytes = RunContainer.sizeInBytes(runCount());
+        int arrayBytes = card <= ARRAY_MAX ? ArrayContainer.sizeInBytes(card) : Integer.MAX_VALUE;
+        int bitmapBytes = BitmapContainer.SIZE_IN_BYTES;
+        if (runBytes < Math.min(arrayBytes, bitmapBytes)) {
+            return this instanceof RunContainer ? this : RunContainer.of(this);
+        }
+        if (arrayBytes <= bitmapBytes) {
+            return this instanceof ArrayContainer ? this : ArrayContainer.of(this);
+        }
+        return this instanceof BitmapContainer ? this : new BitmapContainer(toWords(), card);
+    }
+
+    /** Returns an array or bitmap container holding the set bits of {@code words}, or {@code null} if none. */
+    static RoaringContainer fromWords(long[] words) {
+        int card = 0;
+        for (long w : words) {
+            card += Long.bitCount(w);
+        }
+        if (card == 0) {
+            return null;
+        }
+        BitmapContainer bitmap = new BitmapContainer(words, card);
+        return card <= ARRAY_MAX ? ArrayContainer.of(bitmap) : bitmap;
+    }
+
+    static RoaringContainer and(RoaringContainer a, RoaringContainer b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, true);
+        }
+        if (b instanceof ArrayContainer) {
+            return ((ArrayContainer) b).filter(a, true);
+        }
+        long[] words = a.toWords();
+        long[] other = b instanceof BitmapContainer ? ((BitmapContainer) b).words : b.toWords();
+        for (int i = 0; i < BITMAP_WORDS; i++) {
+            words[i] &= other[i];
+        }
+        return optimizeIfRuns(fromWords(words), a, b);
+    }
+
+    static RoaringContainer or(RoaringContainer a, RoaringContainer b) {
+        if (a instanceof ArrayContainer && b instanceof ArrayContainer
+                && a.cardinality() + b.cardinality() <= ARRAY_MAX) {
+            return ((ArrayContainer) a).merge((ArrayContainer) b);
+        }
+        long[] words = a.toWords();
+        b.orInto(words);
+        return optimizeIfRuns(fromWords(words), a, b);
+    }
+
+    static RoaringContainer andNot(RoaringContainer a, RoaringContainer b) {
+        if (a instanceof ArrayContainer) {
+            return ((ArrayContainer) a).filter(b, false);
+        }
+        long[] words = a.toWords();
+        b.andNotInto(words);
+        return optimizeIfRuns(fromWords(words), a, b);
+    }
+
+    /** Results computed on bitmaps from run inputs are often runs again; keep them compact. */
+    private static RoaringContainer optimizeIfRuns(RoaringContainer result, RoaringContainer a,
+                                                   RoaringContainer b) {
+        if (result != null && (a instanceof RunContainer || b instanceof RunContainer)) {
+            return result.optimize();
+        }
+        return result;
+    }
+
+    /** Sets bits {@code from} to {@code to}, both inclusive. */
+    static void setRange(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (first == last) {
+            words[first] |= firstMask & lastMask;
+            return;
+        }
+        words[first] |= firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = -1L;
+        }
+        words[last] |= lastMask;
+    }
+
+    /** Clears bits {@code from} to {@code to}, both inclusive. */
+    static void clearRange(long[] words, int from, int to) {
+        int first = from >>> 6;
+        int last = to >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - (to & 63));
+        if (first == last) {
+            words[first] &= ~(firstMask & lastMask);
+            return;
+        }
+        words[first] &= ~firstMask;
+        for (int i = first + 1; i < last; i++) {
+            words[i] = 0;
+        }
+        words[last] &= ~lastMask;
+    }
+
+    /** Compares the values, whatever the representations. */
+    boolean sameValues(RoaringContainer other) {
+        if (cardinality() != other.cardinality()) {
+            return false;
+        }
+        PrimitiveIterator.OfInt a = iterator();
+        PrimitiveIterator.OfInt b = other.iterator();
+        while (a.hasNext()) {
+            if (a.nextInt() != b.nextInt()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Up to {@link #ARRAY_MAX} values in a sorted {@code char[]}. */
+    static final class ArrayContainer extends RoaringContainer {
+
+        char[] values;
+        int cardinality;
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        static ArrayContainer single(int low) {
+            return new ArrayContainer(new char[] {(char) low, 0, 0, 0}, 1);
+        }
+
+        static ArrayContainer of(RoaringContainer c) {
+            char[] values = new char[c.cardinality()];
+            if (c instanceof BitmapContainer) {
+                long[] words = ((BitmapContainer) c).words;
+                int n = 0;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    for (long w = words[i]; w != 0; w &= w - 1) {
+                        values[n++] = (char) (i * Long.SIZE + Long.numberOfTrailingZeros(w));
+                    }
+                }
+            } else {
+                int[] n = {0};
+                c.forEach(0, v -> values[n[0]++] = (char) v);
+            }
+            return new ArrayContainer(values, values.length);
+        }
+
+        static int sizeInBytes(int cardinality) {
+            return 2 * cardinality + 2;
+        }
+
+        private int indexOf(int low) {
+            return Arrays.binarySearch(values, 0, cardinality, (char) low);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return indexOf(low) >= 0;
+        }
+
+        @Override
+        RoaringContainer add(int low) {
+            int i = indexOf(low);
+            if (i >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX) {
+                BitmapContainer bitmap = new BitmapContainer(toWords(), cardinality);
+                return bitmap.add(low);
+            }
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality + (cardinality >> 1) + 4));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = (char) low;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        RoaringContainer remove(int low) {
+            int i = indexOf(low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return values[0];
+        }
+
+        @Override
+        int last() {
+            return values[cardinality - 1];
+        }
+
+        @Override
+        int floor(int low) {
+            int i = indexOf(low);
+            if (i >= 0) {
+                return low;
+            }
+            i = -i - 1;
+            return i == 0 ? -1 : values[i - 1];
+        }
+
+        @Override
+        int ceiling(int low) {
+            int i = indexOf(low);
+            if (i >= 0) {
+                return low;
+            }
+            i = -i - 1;
+            return i == cardinality ? -1 : values[i];
+        }
+
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+                private int i;
+
+                @Override
+                public boolean hasNext() {
+                    return i < cardinality;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (i >= cardinality) {
+                        throw new NoSuchElementException();
+                    }
+                    return values[i++];
+                }
+            };
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            char[] vs = values;
+            for (int i = 0, n = cardinality; i < n; i++) {
+                action.accept(base | vs[i]);
+            }
+        }
+
+        @Override
+        void orInto(long[] words) {
+            char[] vs = values;
+            for (int i = 0, n = cardinality; i < n; i++) {
+                words[vs[i] >>> 6] |= 1L << vs[i];
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            char[] vs = values;
+            for (int i = 0, n = cardinality; i < n; i++) {
+                words[vs[i] >>> 6] &= ~(1L << vs[i]);
+            }
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (i == 0 || values[i] != values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        @Override
+        RoaringContainer copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return sizeInBytes(cardinality);
+        }
+
+        /** Keeps the values that {@code other} contains ({@code keep}) or does not contain ({@code !keep}). */
+        RoaringContainer filter(RoaringContainer other, boolean keep) {
+            char[] result = new char[cardinality];
+            int n = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i]) == keep) {
+                    result[n++] = values[i];
+                }
+            }
+            return n == 0 ? null : new ArrayContainer(result, n);
+        }
+
+        /** Sorted union of two arrays whose cardinalities add up to at most {@link #ARRAY_MAX}. */
+        ArrayContainer merge(ArrayContainer other) {
+            char[] a = values;
+            char[] b = other.values;
+            int na = cardinality;
+            int nb = other.cardinality;
+            char[] result = new char[na + nb];
+            int i = 0;
+            int j = 0;
+            int n = 0;
+            while (i < na && j < nb) {
+                char x = a[i];
+                char y = b[j];
+                if (x < y) {
+                    result[n++] = x;
+                    i++;
+                } else if (y < x) {
+                    result[n++] = y;
+                    j++;
+                } else {
+                    result[n++] = x;
+                    i++;
+                    j++;
+                }
+            }
+            while (i < na) {
+                result[n++] = a[i++];
+            }
+            while (j < nb) {
+                result[n++] = b[j++];
+            }
+            return new ArrayContainer(result, n);
+        }
+    }
+
+    /** More than {@link #ARRAY_MAX} values as a 65536-bit bitmap. */
+    static final class BitmapContainer extends RoaringContainer {
+
+        static final int SIZE_IN_BYTES = BITMAP_WORDS * Long.BYTES;
+
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        RoaringContainer add(int low) {
+            long bit = 1L << low;
+            long w = words[low >>> 6];
+            if ((w & bit) == 0) {
+                words[low >>> 6] = w | bit;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        RoaringContainer remove(int low) {
+            long bit = 1L << low;
+            long w = words[low >>> 6];
+            if ((w & bit) == 0) {
+                return this;
+            }
+            words[low >>> 6] = w & ~bit;
+            cardinality--;
+            return cardinality <= ARRAY_MAX ? ArrayContainer.of(this) : this;
+        }
+
+        @Override
+        int first() {
+            for (int i = 0; ; i++) {
+                if (words[i] != 0) {
+                    return i * Long.SIZE + Long.numberOfTrailingZeros(words[i]);
+                }
+            }
+        }
+
+        @Override
+        int last() {
+            for (int i = BITMAP_WORDS - 1; ; i--) {
+                if (words[i] != 0) {
+                    return i * Long.SIZE + 63 - Long.numberOfLeadingZeros(words[i]);
+                }
+            }
+        }
+
+        @Override
+        int floor(int low) {
+            int i = low >>> 6;
+            long w = words[i] & (-1L >>> (63 - (low & 63)));
+            while (true) {
+                if (w != 0) {
+                    return i * Long.SIZE + 63 - Long.numberOfLeadingZeros(w);
+                }
+                if (--i < 0) {
+                    return -1;
+                }
+                w = words[i];
+            }
+        }
+
+        @Override
+        int ceiling(int low) {
+            int i = low >>> 6;
+            long w = words[i] & (-1L << low);
+            while (true) {
+                if (w != 0) {
+                    return i * Long.SIZE + Long.numberOfTrailingZeros(w);
+                }
+                if (++i == BITMAP_WORDS) {
+                    return -1;
+                }
+                w = words[i];
+            }
+        }
+
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+                private int index;
+                private long word = words[0];
+
+                @Override
+                public boolean hasNext() {
+                    while (word == 0) {
+                        if (index == BITMAP_WORDS - 1) {
+                            return false;
+                        }
+                        word = words[++index];
+                    }
+                    return true;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int value = index * Long.SIZE + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            long[] ws = words;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long w = ws[i];
+                while (w != 0) {
+                    action.accept(base | (i * Long.SIZE + Long.numberOfTrailingZeros(w)));
+                    w &= w - 1;
+                }
+            }
+        }
+
+        @Override
+        void orInto(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                target[i] |= words[i];
+            }
+        }
+
+        @Override
+        void andNotInto(long[] target) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                target[i] &= ~words[i];
+            }
+        }
+
+        @Override
+        int runCount() {
+            int runs = 0;
+            long carry = 0;
+            for (long w : words) {
+                // A run starts at every set bit whose lower neighbour (across words too) is clear.
+                runs += Long.bitCount(w & ~((w << 1) | carry));
+                carry = w >>> 63;
+            }
+            return runs;
+        }
+
+        @Override
+        long[] toWords() {
+            return words.clone();
+        }
+
+        @Override
+        RoaringContainer copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return SIZE_IN_BYTES;
+        }
+    }
+
+    /** Runs of consecutive values, each stored as its start and its length minus one. */
+    static final class RunContainer extends RoaringContainer {
+
+        /** {@code runs[2 * i]} is the start of run {@code i}, {@code runs[2 * i + 1]} its length minus one. */
+        char[] runs;
+        int runCount;
+        int cardinality;
+
+        RunContainer(char[] runs, int runCount, int cardinality) {
+            this.runs = runs;
+            this.runCount = runCount;
+            this.cardinality = cardinality;
+        }
+
+        /** The values {@code from} to {@code to}, both inclusive. */
+        static RunContainer range(int from, int to) {
+            return new RunContainer(new char[] {(char) from, (char) (to - from)}, 1, to - from + 1);
+        }
+
+        static RunContainer of(RoaringContainer c) {
+            char[] runs = new char[2 * c.runCount()];
+            int n = 0;
+            PrimitiveIterator.OfInt it = c.iterator();
+            int start = it.nextInt();
+            int end = start;
+            while (it.hasNext()) {
+                int v = it.nextInt();
+                if (v != end + 1) {
+                    runs[2 * n] = (char) start;
+                    runs[2 * n + 1] = (char) (end - start);
+                    n++;
+                    start = v;
+                }
+                end = v;
+            }
+            runs[2 * n] = (char) start;
+            runs[2 * n + 1] = (char) (end - start);
+            return new RunContainer(runs, n + 1, c.cardinality());
+        }
+
+        static int sizeInBytes(int runCount) {
+            return 4 * runCount + 2;
+        }
+
+        private int start(int i) {
+            return runs[2 * i];
+        }
+
+        private int end(int i) {
+            return runs[2 * i] + runs[2 * i + 1];
+        }
+
+        /** Index of the last run starting at or before {@code low}, or -1. */
+        private int runAtOrBefore(int low) {
+            int lo = 0;
+            int hi = runCount - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (start(mid) <= low) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return hi;
+        }
+
+        private void set(int i, int start, int end) {
+            runs[2 * i] = (char) start;
+            runs[2 * i + 1] = (char) (end - start);
+        }
+
+        private void insertRun(int i, int start, int end) {
+            if (2 * runCount + 2 > runs.length) {
+                runs = Arrays.copyOf(runs, 2 * (runCount + Math.max(2, runCount >> 1)));
+            }
+            System.arraycopy(runs, 2 * i, runs, 2 * i + 2, 2 * (runCount - i));
+            runCount++;
+            set(i, start, end);
+        }
+
+        private void deleteRun(int i) {
+            System.arraycopy(runs, 2 * i + 2, runs, 2 * i, 2 * (runCount - i - 1));
+            runCount--;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(int low) {
+            int i = runAtOrBefore(low);
+            return i >= 0 && low <= end(i);
+        }
+
+        @Override
+        RoaringContainer add(int low) {
+            int i = runAtOrBefore(low);
+            if (i >= 0 && low <= end(i)) {
+                return this;
+            }
+            cardinality++;
+            boolean extendsPrevious = i >= 0 && end(i) + 1 == low;
+            boolean extendsNext = i + 1 < runCount && start(i + 1) - 1 == low;
+            if (extendsPrevious && extendsNext) {
+                set(i, start(i), end(i + 1));
+                deleteRun(i + 1);
+            } else if (extendsPrevious) {
+                set(i, start(i), low);
+            } else if (extendsNext) {
+                set(i + 1, low, end(i + 1));
+            } else {
+                insertRun(i + 1, low, low);
+            }
+            return this;
+        }
+
+        @Override
+        RoaringContainer remove(int low) {
+            int i = runAtOrBefore(low);
+            if (i < 0 || low > end(i)) {
+                return this;
+            }
+            cardinality--;
+            int start = start(i);
+            int end = end(i);
+            if (start == end) {
+                deleteRun(i);
+            } else if (low == start) {
+                set(i, start + 1, end);
+            } else if (low == end) {
+                set(i, start, end - 1);
+            } else {
+                set(i, start, low - 1);
+                insertRun(i + 1, low + 1, end);
+            }
+            return this;
+        }
+
+        @Override
+        int first() {
+            return start(0);
+        }
+
+        @Override
+        int last() {
+            return end(runCount - 1);
+        }
+
+        @Override
+        int floor(int low) {
+            int i = runAtOrBefore(low);
+            return i < 0 ? -1 : Math.min(low, end(i));
+        }
+
+        @Override
+        int ceiling(int low) {
+            int i = runAtOrBefore(low);
+            if (i >= 0 && low <= end(i)) {
+                return low;
+            }
+            return i + 1 < runCount ? start(i + 1) : -1;
+        }
+
+        @Override
+        PrimitiveIterator.OfInt iterator() {
+            return new PrimitiveIterator.OfInt() {
+                private int run;
+                private int next = runCount == 0 ? 0 : start(0);
+
+                @Override
+                public boolean hasNext() {
+                    return run < runCount;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (run >= runCount) {
+                        throw new NoSuchElementException();
+                    }
+                    int value = next;
+                    if (value == end(run)) {
+                        if (++run < runCount) {
+                            next = start(run);
+                        }
+                    } else {
+                        next = value + 1;
+                    }
+                    return value;
+                }
+            };
+        }
+
+        @Override
+        void forEach(int base, IntConsumer action) {
+            for (int i = 0; i < runCount; i++) {
+                for (int v = start(i), end = end(i); v <= end; v++) {
+                    action.accept(base | v);
+                }
+            }
+        }
+
+        @Override
+        void orInto(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                setRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        void andNotInto(long[] words) {
+            for (int i = 0; i < runCount; i++) {
+                clearRange(words, start(i), end(i));
+            }
+        }
+
+        @Override
+        int runCount() {
+            return runCount;
+        }
+
+        @Override
+        RoaringContainer copy() {
+            return new RunContainer(Arrays.copyOf(runs, 2 * runCount), runCount, cardinality);
+        }
+
+        @Override
+        int sizeInBytes() {
+            return sizeInBytes(runCount);
+        }
+    }
+}
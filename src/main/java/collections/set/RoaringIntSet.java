@@ -0,0 +1,465 @@
+package collections.set;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.OptionalInt;
+import java.util.PrimitiveIterator;
+import java.util.function.IntConsumer;
+
+import collections.set.RoaringContainer.ArrayContainer;
+import collections.set.RoaringContainer.RunContainer;
+
+/**
+ * A sorted set of primitive {@code int}s, compressed in the style of Roaring bitmaps.
+ *
+ * <p>{@code LearnHashSet} and {@code LearnTreeSet} keep small integers as boxed {@code Integer}s, in a
+ * {@code HashMap} node or a red-black tree node each: 40 to 50 bytes per element before the {@code Integer}
+ * itself, and set algebra has to probe or walk one element at a time. Here the elements are partitioned by
+ * their high 16 bits. The low 16 bits of each partition go into a container that is a sorted {@code char[]}
+ * (up to 4096 values, 2 bytes each), a 8 KiB bitmap (denser partitions, at most 1 bit per possible value), or a
+ * list of runs (long stretches of consecutive values, 4 bytes per run). {@link #and}, {@link #or} and
+ * {@link #andNot} combine matching partitions container by container, mostly as word-wise bit operations
+ * over 1024 {@code long}s.
+ *
+ * <p>The order is that of {@code TreeSet<Integer>}: negative values first. The navigation methods return an
+ * {@link OptionalInt}, since no {@code int} is free to mean "none". {@link #runOptimize()} converts containers
+ * to runs where that is smaller; {@link #addRange} creates runs directly.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class RoaringIntSet {
+
+    private static final int DEFAULT_CAPACITY = 4;
+
+    /** High 16 bits of every partition, with the sign flipped so that {@code char} order is {@code int} order. */
+    private char[] keys;
+    private RoaringContainer[] containers;
+    private int count;
+    private long cardinality;
+
+    public RoaringIntSet() {
+        keys = new char[DEFAULT_CAPACITY];
+        containers = new RoaringContainer[DEFAULT_CAPACITY];
+    }
+
+    private RoaringIntSet(char[] keys, RoaringContainer[] containers, int count) {
+        this.keys = keys;
+        this.containers = containers;
+        this.count = count;
+        for (int i = 0; i < count; i++) {
+            cardinality += containers[i].cardinality();
+        }
+    }
+
+    public static RoaringIntSet of(int... values) {
+        RoaringIntSet set = new RoaringIntSet();
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    private static int high(int value) {
+        return (value ^ Integer.MIN_VALUE) >>> 16;
+    }
+
+    private static int low(int value) {
+        return value & RoaringContainer.MAX_VALUE;
+    }
+
+    /** The element whose partition is {@code high} and whose low bits are 0; OR the low bits into it. */
+    private static int base(int high) {
+        return (high << 16) ^ Integer.MIN_VALUE;
+    }
+
+    private int indexOf(int high) {
+        return Arrays.binarySearch(keys, 0, count, (char) high);
+    }
+
+    public boolean contains(int value) {
+        int i = indexOf(high(value));
+        return i >= 0 && containers[i].contains(low(value));
+    }
+
+    /** @return {@code true} if {@code value} was not already present */
+    public boolean add(int value) {
+        int high = high(value);
+        int low = low(value);
+        int i = indexOf(high);
+        if (i >= 0) {
+            RoaringContainer c = containers[i];
+            if (c.contains(low)) {
+                return false;
+            }
+            containers[i] = c.add(low);
+        } else {
+            insertContainer(-i - 1, high, ArrayContainer.single(low));
+        }
+        cardinality++;
+        return true;
+    }
+
+    /** @return {@code true} if {@code value} was present */
+    public boolean remove(int value) {
+        int i = indexOf(high(value));
+        if (i < 0) {
+            return false;
+        }
+        RoaringContainer c = containers[i];
+        int low = low(value);
+        if (!c.contains(low)) {
+            return false;
+        }
+        c = c.remove(low);
+        if (c.cardinality() == 0) {
+            removeContainer(i);
+        } else {
+            containers[i] = c;
+        }
+        cardinality--;
+        return true;
+    }
+
+    /**
+     * Adds every value from {@code from} (inclusive) to {@code to} (exclusive). Whole partitions covered by the
+     * range become a single run.
+     *
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    public void addRange(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from " + from + " > to " + to);
+        }
+        if (from == to) {
+            return;
+        }
+        int last = to - 1;
+        for (int high = high(from), lastHigh = high(last); high <= lastHigh; high++) {
+            int lo = high == high(from) ? low(from) : 0;
+            int hi = high == lastHigh ? low(last) : RoaringContainer.MAX_VALUE;
+            RunContainer range = RunContainer.range(lo, hi);
+            int i = indexOf(high);
+            if (i >= 0) {
+                RoaringContainer merged = RoaringContainer.or(containers[i], range);
+                cardinality += merged.cardinality() - containers[i].cardinality();
+                containers[i] = merged;
+            } else {
+                insertContainer(-i - 1, high, range);
+                cardinality += range.cardinality();
+            }
+        }
+    }
+
+    private void insertContainer(int i, int high, RoaringContainer c) {
+        if (count == keys.length) {
+            int newLength = count + (count >> 1) + 1;
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, i, keys, i + 1, count - i);
+        System.arraycopy(containers, i, containers, i + 1, count - i);
+        keys[i] = (char) high;
+        containers[i] = c;
+        count++;
+    }
+
+    private void removeContainer(int i) {
+        System.arraycopy(keys, i + 1, keys, i, count - i - 1);
+        System.arraycopy(containers, i + 1, containers, i, count - i - 1);
+        containers[--count] = null;
+    }
+
+    /** Returns the number of elements, or {@code Integer.MAX_VALUE} if there are more; see {@link #cardinality}. */
+    public int size() {
+        return (int) Math.min(cardinality, Integer.MAX_VALUE);
+    }
+
+    /** Returns the number of elements; a set can hold all 2^32 {@code int}s. */
+    public long cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(containers, 0, count, null);
+        count = 0;
+        cardinality = 0;
+    }
+
+    /** @throws NoSuchElementException if the set is empty */
+    public int first() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return base(keys[0]) | containers[0].first();
+    }
+
+    /** @throws NoSuchElementException if the set is empty */
+    public int last() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return base(keys[count - 1]) | containers[count - 1].last();
+    }
+
+    /** Returns the greatest element {@code <= value}. */
+    public OptionalInt floor(int value) {
+        int i = indexOf(high(value));
+        if (i >= 0) {
+            int low = containers[i].floor(low(value));
+            if (low >= 0) {
+                return OptionalInt.of(base(keys[i]) | low);
+            }
+            i--;
+        } else {
+            i = -i - 2;
+        }
+        return i < 0 ? OptionalInt.empty() : OptionalInt.of(base(keys[i]) | containers[i].last());
+    }
+
+    /** Returns the least element {@code >= value}. */
+    public OptionalInt ceiling(int value) {
+        int i = indexOf(high(value));
+        if (i >= 0) {
+            int low = containers[i].ceiling(low(value));
+            if (low >= 0) {
+                return OptionalInt.of(base(keys[i]) | low);
+            }
+            i++;
+        } else {
+            i = -i - 1;
+        }
+        return i == count ? OptionalInt.empty() : OptionalInt.of(base(keys[i]) | containers[i].first());
+    }
+
+    /** Returns the greatest element {@code < value}. */
+    public OptionalInt lower(int value) {
+        return value == Integer.MIN_VALUE ? OptionalInt.empty() : floor(value - 1);
+    }
+
+    /** Returns the least element {@code > value}. */
+    public OptionalInt higher(int value) {
+        return value == Integer.MAX_VALUE ? OptionalInt.empty() : ceiling(value + 1);
+    }
+
+    /**
+     * Returns a new set holding the elements from {@code from} (inclusive) to {@code to} (exclusive). Unlike
+     * {@code TreeSet.subSet} this is a copy, not a view; partitions entirely inside the range are copied
+     * container by container.
+     *
+     * @throws IllegalArgumentException if {@code from > to}
+     */
+    public RoaringIntSet subSet(int from, int to) {
+        if (from > to) {
+            throw new IllegalArgumentException("from " + from + " > to " + to);
+        }
+        RoaringIntSet result = new RoaringIntSet();
+        if (from == to) {
+            return result;
+        }
+        int last = to - 1;
+        int firstHigh = high(from);
+        int lastHigh = high(last);
+        int i = indexOf(firstHigh);
+        for (i = i >= 0 ? i : -i - 1; i < count && keys[i] <= lastHigh; i++) {
+            int high = keys[i];
+            int lo = high == firstHigh ? low(from) : 0;
+            int hi = high == lastHigh ? low(last) : RoaringContainer.MAX_VALUE;
+            RoaringContainer c = lo == 0 && hi == RoaringContainer.MAX_VALUE
+                    ? containers[i].copy()
+                    : RoaringContainer.and(containers[i], RunContainer.range(lo, hi));
+            if (c != null) {
+                result.append(high, c);
+            }
+        }
+        return result;
+    }
+
+    /** Adds a container whose key is greater than every key present. */
+    private void append(int high, RoaringContainer c) {
+        insertContainer(count, high, c);
+        cardinality += c.cardinality();
+    }
+
+    /** Returns the intersection of {@code a} and {@code b} as a new set. */
+    public static RoaringIntSet and(RoaringIntSet a, RoaringIntSet b) {
+        RoaringIntSet result = new RoaringIntSet();
+        int i = 0;
+        int j = 0;
+        while (i < a.count && j < b.count) {
+            char ka = a.keys[i];
+            char kb = b.keys[j];
+            if (ka < kb) {
+                i++;
+            } else if (kb < ka) {
+                j++;
+            } else {
+                RoaringContainer c = RoaringContainer.and(a.containers[i++], b.containers[j++]);
+                if (c != null) {
+                    result.append(ka, c);
+                }
+            }
+        }
+        return result;
+    }
+
+    /** Returns the union of {@code a} and {@code b} as a new set. */
+    public static RoaringIntSet or(RoaringIntSet a, RoaringIntSet b) {
+        char[] keys = new char[a.count + b.count];
+        RoaringContainer[] containers = new RoaringContainer[a.count + b.count];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.count || j < b.count) {
+            if (j == b.count || (i < a.count && a.keys[i] < b.keys[j])) {
+                keys[n] = a.keys[i];
+                containers[n++] = a.containers[i++].copy();
+            } else if (i == a.count || b.keys[j] < a.keys[i]) {
+                keys[n] = b.keys[j];
+                containers[n++] = b.containers[j++].copy();
+            } else {
+                keys[n] = a.keys[i];
+                containers[n++] = RoaringContainer.or(a.containers[i++], b.containers[j++]);
+            }
+        }
+        return new RoaringIntSet(keys, containers, n);
+    }
+
+    /** Returns the elements of {@code a} that are not in {@code b}, as a new set. */
+    public static RoaringIntSet andNot(RoaringIntSet a, RoaringIntSet b) {
+        RoaringIntSet result = new RoaringIntSet();
+        int j = 0;
+        for (int i = 0; i < a.count; i++) {
+            char key = a.keys[i];
+            while (j < b.count && b.keys[j] < key) {
+                j++;
+            }
+            RoaringContainer c = j < b.count && b.keys[j] == key
+                    ? RoaringContainer.andNot(a.containers[i], b.containers[j])
+                    : a.containers[i].copy();
+            if (c != null) {
+                result.append(key, c);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Converts every container to the smallest of its three representations, typically turning ranges of
+     * consecutive values into runs.
+     *
+     * @return {@code true} if any container changed
+     */
+    public boolean runOptimize() {
+        boolean changed = false;
+        for (int i = 0; i < count; i++) {
+            RoaringContainer c = containers[i].optimize();
+            changed |= c != containers[i];
+            containers[i] = c;
+        }
+        return changed;
+    }
+
+    /** Returns the approximate number of bytes held by the containers' arrays. */
+    public long sizeInBytes() {
+        long bytes = 3L * keys.length;
+        for (int i = 0; i < count; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    /** Passes every element to {@code action} in ascending order. */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < count; i++) {
+            containers[i].forEach(base(keys[i]), action);
+        }
+    }
+
+    /** Returns an iterator over the elements in ascending order. The set must not change during iteration. */
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int container = -1;
+            private int base;
+            /** Values of the current container, {@code null} before the first. */
+            private PrimitiveIterator.OfInt values;
+
+            @Override
+            public boolean hasNext() {
+                while (values == null || !values.hasNext()) {
+                    if (container + 1 >= count) {
+                        return false;
+                    }
+                    container++;
+                    base = base(keys[container]);
+                    values = containers[container].iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return base | values.nextInt();
+            }
+        };
+    }
+
+    /** Returns the elements in ascending order; fails if there are more than fit in an array. */
+    public int[] toArray() {
+        if (cardinality > Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Too many elements for an array: " + cardinality);
+        }
+        int[] result = new int[(int) cardinality];
+        int[] n = {0};
+        forEach(v -> result[n[0]++] = v);
+        return result;
+    }
+
+    /** Two sets are equal when they hold the same elements, however their containers are represented. */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof RoaringIntSet)) {
+            return false;
+        }
+        RoaringIntSet other = (RoaringIntSet) o;
+        if (other.count != count || other.cardinality != cardinality) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (keys[i] != other.keys[i] || !containers[i].sameValues(other.containers[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Returns the sum of the elements, as {@code Set<Integer>.hashCode()} would. */
+    @Override
+    public int hashCode() {
+        int[] h = {0};
+        forEach(v -> h[0] += v);
+        return h[0];
+    }
+
+    /** Formats the set like {@code TreeSet.toString()}, e.g. {@code [2, 21, 32]}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('[');
+        forEach(v -> {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(v);
+        });
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * Set implementations that complement the {@code HashSet}, {@code LinkedHashSet} and {@code TreeSet}
+ * walkthroughs in {@code LearnHashSet}, {@code LearnLinkedHashSet} and {@code LearnTreeSet}.
+ */
+package collections.set;
@@ -0,0 +1,159 @@
+package collections.stack;
+
+import java.util.Arrays;
+import java.util.EmptyStackException;
+
+/**
+ * A LIFO stack of primitive {@code int}s backed by an {@code int[]}.
+ *
+ * <p>{@code java.util.Stack} (see {@code LearnStack}) extends {@code Vector}, so every {@code push},
+ * {@code pop} and {@code peek} enters a monitor even when only one thread ever touches the stack, and every
+ * element is a boxed {@code Integer}. This class has no synchronization and no boxing: {@code push} is an
+ * array store and a field increment. It keeps {@code Stack}'s method names and its
+ * {@link EmptyStackException} on {@code pop}/{@code peek} of an empty stack, so call sites translate directly.
+ *
+ * <p>This class is not thread-safe.
+ */
+public class IntStack {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] elements;
+    private int size;
+
+    public IntStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedDepth number of elements the stack can hold before it first grows
+     * @throws IllegalArgumentException if {@code expectedDepth} is negative
+     */
+    public IntStack(int expectedDepth) {
+        if (expectedDepth < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + expectedDepth);
+        }
+        elements = new int[Math.max(expectedDepth, 1)];
+    }
+
+    public void push(int value) {
+        int[] es = elements;
+        int n = size;
+        if (n == es.length) {
+            es = grow(n + 1);
+        }
+        es[n] = value;
+        size = n + 1;
+    }
+
+    /** Pushes every element of {@code values}, so that the last one ends up on top. */
+    public void pushAll(int... values) {
+        pushAll(values, 0, values.length);
+    }
+
+    /** Pushes {@code values[offset]} to {@code values[offset + length - 1]}, the last one ending up on top. */
+    public void pushAll(int[] values, int offset, int length) {
+        if (size + length > elements.length) {
+            grow(size + length);
+        }
+        System.arraycopy(values, offset, elements, size, length);
+        size += length;
+    }
+
+    /**
+     * Removes and returns the top element.
+     *
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int pop() {
+        int n = size;
+        if (n == 0) {
+            throw new EmptyStackException();
+        }
+        size = n - 1;
+        return elements[n - 1];
+    }
+
+    /**
+     * Returns the top element without removing it.
+     *
+     * @throws EmptyStackException if the stack is empty
+     */
+    public int peek() {
+        int n = size;
+        if (n == 0) {
+            throw new EmptyStackException();
+        }
+        return elements[n - 1];
+    }
+
+    /**
+     * Returns the element {@code depth} places below the top; {@code peek(0)} is {@link #peek()}. Useful to
+     * read an operator's arguments before popping them.
+     *
+     * @throws IndexOutOfBoundsException if {@code depth} is not in {@code [0, size())}
+     */
+    public int peek(int depth) {
+        if (depth < 0 || depth >= size) {
+            throw new IndexOutOfBoundsException("Depth " + depth + " out of bounds for size " + size);
+        }
+        return elements[size - 1 - depth];
+    }
+
+    /**
+     * Returns the 1-based distance of the topmost occurrence of {@code value} from the top of the stack, as
+     * {@code Stack.search} does, or -1 if it is not on the stack.
+     */
+    public int search(int value) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (elements[i] == value) {
+                return size - i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Removes every element; the capacity is kept. */
+    public void clear() {
+        size = 0;
+    }
+
+    /** Grows the backing array, if necessary, so that it can hold at least {@code minCapacity} elements. */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    private int[] grow(int minCapacity) {
+        int capacity = elements.length;
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        return elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    /** Returns the elements from bottom to top. */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    /** Formats the stack bottom to top, as {@code Stack.toString()} does, e.g. {@code [1, 2, 3]}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,171 @@
+package collections.stack;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EmptyStackException;
+import java.util.Objects;
+
+/**
+ * A LIFO stack of references backed by an {@code Object[]}: {@code java.util.Stack} without the
+ * {@code synchronized} methods it inherits from {@code Vector}. See {@link IntStack} for the primitive
+ * variant.
+ *
+ * <p>{@code null} elements are allowed, as they are in {@code Stack}. Popped slots are cleared so the stack
+ * never keeps a popped element reachable. This class is not thread-safe.
+ *
+ * @param <E> the type of elements
+ */
+public class ObjectStack<E> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] elements;
+    private int size;
+
+    public ObjectStack() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedDepth number of elements the stack can hold before it first grows
+     * @throws IllegalArgumentException if {@code expectedDepth} is negative
+     */
+    public ObjectStack(int expectedDepth) {
+        if (expectedDepth < 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + expectedDepth);
+        }
+        elements = new Object[Math.max(expectedDepth, 1)];
+    }
+
+    public void push(E value) {
+        Object[] es = elements;
+        int n = size;
+        if (n == es.length) {
+            es = grow(n + 1);
+        }
+        es[n] = value;
+        size = n + 1;
+    }
+
+    /** Pushes every element of {@code values}, so that the last one ends up on top. */
+    @SafeVarargs
+    public final void pushAll(E... values) {
+        Object[] es = elements;
+        int n = size;
+        if (n + values.length > es.length) {
+            es = grow(n + values.length);
+        }
+        for (E value : values) {
+            es[n++] = value;
+        }
+        size = n;
+    }
+
+    /** Pushes the elements of {@code values} in iteration order, so that the last one ends up on top. */
+    public void pushAll(Collection<? extends E> values) {
+        if (size + values.size() > elements.length) {
+            grow(size + values.size());
+        }
+        for (E value : values) {
+            push(value);
+        }
+    }
+
+    /**
+     * Removes and returns the top element.
+     *
+     * @throws EmptyStackException if the stack is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E pop() {
+        int n = size;
+        if (n == 0) {
+            throw new EmptyStackException();
+        }
+        Object[] es = elements;
+        E value = (E) es[n - 1];
+        es[n - 1] = null;
+        size = n - 1;
+        return value;
+    }
+
+    /**
+     * Returns the top element without removing it.
+     *
+     * @throws EmptyStackException if the stack is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E peek() {
+        int n = size;
+        if (n == 0) {
+            throw new EmptyStackException();
+        }
+        return (E) elements[n - 1];
+    }
+
+    /**
+     * Returns the element {@code depth} places below the top; {@code peek(0)} is {@link #peek()}.
+     *
+     * @throws IndexOutOfBoundsException if {@code depth} is not in {@code [0, size())}
+     */
+    @SuppressWarnings("unchecked")
+    public E peek(int depth) {
+        if (depth < 0 || depth >= size) {
+            throw new IndexOutOfBoundsException("Depth " + depth + " out of bounds for size " + size);
+        }
+        return (E) elements[size - 1 - depth];
+    }
+
+    /**
+     * Returns the 1-based distance of the topmost element equal to {@code o} from the top of the stack, as
+     * {@code Stack.search} does, or -1 if there is none.
+     */
+    public int search(Object o) {
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(o, elements[i])) {
+                return size - i;
+            }
+        }
+        return -1;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Removes every element; the capacity is kept. */
+    public void clear() {
+        Arrays.fill(elements, 0, size, null);
+        size = 0;
+    }
+
+    /** Grows the backing array, if necessary, so that it can hold at least {@code minCapacity} elements. */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > elements.length) {
+            grow(minCapacity);
+        }
+    }
+
+    private Object[] grow(int minCapacity) {
+        int capacity = elements.length;
+        int newCapacity = Math.max(minCapacity, capacity + (capacity >> 1));
+        return elements = Arrays.copyOf(elements, newCapacity);
+    }
+
+    /** Formats the stack bottom to top, as {@code Stack.toString()} does, e.g. {@code [Cow, Lion, Dog]}. */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder().append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(elements[i]);
+        }
+        return sb.append(']').toString();
+    }
+}
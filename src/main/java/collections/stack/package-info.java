@@ -0,0 +1,5 @@
+/**
+ * Unsynchronized stacks that replace the {@code Vector}-backed {@code java.util.Stack} shown in
+ * {@code LearnStack}.
+ */
+package collections.stack;
@@ -0,0 +1,208 @@
+package collections.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Accumulates count, minimum, maximum, an optional frequency histogram and the {@code k} greatest elements of a
+ * stream of objects in a single pass, under one {@link Comparator}.
+ *
+ * <p>This replaces the separate {@code Collections.min}, {@code Collections.max} and
+ * {@code Collections.frequency} scans of {@code LearnCollectionsClass}, and the descending sort used to read off
+ * the largest elements: the top {@code k} are kept in a {@code k}-element {@link PriorityQueue}, so finding
+ * them costs O(n log k) instead of O(n log n). See {@link IntAggregator} for {@code int[]} input, which avoids
+ * unboxing as well.
+ *
+ * <p>Aggregators {@linkplain #combine combine}, so they work as the container of {@code Stream.collect};
+ * {@link #ofParallel} aggregates a collection that way on the common fork/join pool. Elements may be
+ * {@code null} if the comparator accepts them. This class is not thread-safe: every thread accumulates into its
+ * own instance.
+ *
+ * @param <T> the type of elements
+ */
+public final class Aggregator<T> implements Consumer<T> {
+
+    private final Comparator<? super T> comparator;
+    private final int k;
+    /** Occurrences of each element, or {@code null} if the histogram is disabled. */
+    private final Map<T, Long> histogram;
+    /** The greatest elements seen, at most {@link #k}, least first. */
+    private final PriorityQueue<T> top;
+    private long count;
+    private T min;
+    private T max;
+
+    /**
+     * @param comparator the order that defines minimum, maximum and top {@code k}
+     * @param topK       number of greatest elements to keep, 0 for none
+     * @param histogram  whether to count the occurrences of every distinct element, by {@code equals}
+     * @throws IllegalArgumentException if {@code topK} is negative
+     */
+    public Aggregator(Comparator<? super T> comparator, int topK, boolean histogram) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Illegal top-k: " + topK);
+        }
+        this.comparator = Objects.requireNonNull(comparator);
+        this.k = topK;
+        this.histogram = histogram ? new HashMap<>() : null;
+        this.top = new PriorityQueue<>(Math.max(topK, 1), comparator);
+    }
+
+    /** Aggregates {@code values} in their natural order on the calling thread. */
+    public static <T extends Comparable<? super T>> Aggregator<T> of(Collection<? extends T> values, int topK,
+                                                                      boolean histogram) {
+        return of(values, Comparator.naturalOrder(), topK, histogram);
+    }
+
+    /** Aggregates {@code values} on the calling thread. */
+    public static <T> Aggregator<T> of(Collection<? extends T> values, Comparator<? super T> comparator, int topK,
+                                       boolean histogram) {
+        Aggregator<T> aggregator = new Aggregator<>(comparator, topK, histogram);
+        values.forEach(aggregator);
+        return aggregator;
+    }
+
+    /** Aggregates {@code values} in their natural order with a parallel stream. */
+    public static <T extends Comparable<? super T>> Aggregator<T> ofParallel(Collection<? extends T> values,
+                                                                              int topK, boolean histogram) {
+        return ofParallel(values, Comparator.naturalOrder(), topK, histogram);
+    }
+
+    /**
+     * Aggregates {@code values} with a parallel stream: every fork/join task fills its own aggregator and the
+     * partial results are {@linkplain #combine combined}. The collection should split well ({@code ArrayList},
+     * arrays); a {@code LinkedList} does not.
+     */
+    public static <T> Aggregator<T> ofParallel(Collection<? extends T> values, Comparator<? super T> comparator,
+                                               int topK, boolean histogram) {
+        return values.parallelStream()
+                .collect(() -> new Aggregator<T>(comparator, topK, histogram), Aggregator::accept,
+                        Aggregator::combine);
+    }
+
+    @Override
+    public void accept(T value) {
+        if (count++ == 0) {
+            min = max = value;
+        } else if (comparator.compare(value, min) < 0) {
+            min = value;
+        } else if (comparator.compare(value, max) > 0) {
+            max = value;
+        }
+        if (histogram != null) {
+            histogram.merge(value, 1L, Long::sum);
+        }
+        offerTop(value);
+    }
+
+    /**
+     * Adds everything {@code other} has accumulated to this aggregator. Both must use the same comparator.
+     *
+     * @return this aggregator
+     * @throws IllegalArgumentException if {@code other} keeps a different number of top elements, or differs in
+     *                                  whether it has a histogram
+     */
+    public Aggregator<T> combine(Aggregator<T> other) {
+        if (other.k != k || (other.histogram == null) != (histogram == null)) {
+            throw new IllegalArgumentException("Aggregators are configured differently");
+        }
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            min = other.min;
+            max = other.max;
+        } else {
+            if (comparator.compare(other.min, min) < 0) {
+                min = other.min;
+            }
+            if (comparator.compare(other.max, max) > 0) {
+                max = other.max;
+            }
+        }
+        count += other.count;
+        if (histogram != null) {
+            other.histogram.forEach((value, n) -> histogram.merge(value, n, Long::sum));
+        }
+        for (T value : other.top) {
+            offerTop(value);
+        }
+        return this;
+    }
+
+    private void offerTop(T value) {
+        if (top.size() < k) {
+            top.offer(value);
+        } else if (k > 0 && comparator.compare(value, top.peek()) > 0) {
+            top.poll();
+            top.offer(value);
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    /** @throws NoSuchElementException if no element has been accepted */
+    public T min() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return min;
+    }
+
+    /** @throws NoSuchElementException if no element has been accepted */
+    public T max() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return max;
+    }
+
+    /**
+     * Returns how often an element equal to {@code value} was accepted, as {@code Collections.frequency} would.
+     *
+     * @throws IllegalStateException if the histogram is disabled
+     */
+    public long frequency(Object value) {
+        return histogram().getOrDefault(value, 0L);
+    }
+
+    /**
+     * Returns an unmodifiable view of the histogram: every distinct element and its number of occurrences.
+     *
+     * @throws IllegalStateException if the histogram is disabled
+     */
+    public Map<T, Long> frequencies() {
+        return Collections.unmodifiableMap(histogram());
+    }
+
+    private Map<T, Long> histogram() {
+        if (histogram == null) {
+            throw new IllegalStateException("Histogram is disabled");
+        }
+        return histogram;
+    }
+
+    /** Returns the greatest elements, greatest first: {@code min(k, count())} of them, duplicates included. */
+    public List<T> topK() {
+        List<T> result = new ArrayList<>(top);
+        result.sort(comparator.reversed());
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "Aggregator{count=" + count + ", min=" + (count == 0 ? "none" : min)
+                + ", max=" + (count == 0 ? "none" : max) + ", topK=" + topK() + '}';
+    }
+}
@@ -0,0 +1,222 @@
+package collections.stats;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import collections.map.IntIntConsumer;
+import collections.map.IntIntHashMap;
+
+/**
+ * Accumulates count, sum, minimum, maximum, an optional frequency histogram and the {@code k} largest values of
+ * a stream of {@code int}s in a single pass.
+ *
+ * <p>{@code LearnCollectionsClass} calls {@code Collections.min}, {@code Collections.max} and
+ * {@code Collections.frequency} one after another, and each call scans the whole list and unboxes every element
+ * again. An {@code IntAggregator} reads each value once. The histogram is an {@link IntIntHashMap}, and the top
+ * {@code k} values are kept in a {@code k}-element min-heap, so no sort of the input is needed.
+ *
+ * <p>Aggregators {@linkplain #combine combine}, which makes them usable as the mutable container of
+ * {@code IntStream.collect}; {@link #ofParallel} aggregates an array that way on the common fork/join pool. This
+ * class is not thread-safe: every thread accumulates into its own instance.
+ */
+public final class IntAggregator implements IntConsumer {
+
+    private final int k;
+    /** Occurrences of each value, or {@code null} if the histogram is disabled. */
+    private final IntIntHashMap histogram;
+    /** Min-heap of the largest values seen, at most {@link #k} of them. */
+    private final int[] top;
+    private int topSize;
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * @param topK      number of largest values to keep, 0 for none
+     * @param histogram whether to count the occurrences of every distinct value
+     * @throws IllegalArgumentException if {@code topK} is negative
+     */
+    public IntAggregator(int topK, boolean histogram) {
+        if (topK < 0) {
+            throw new IllegalArgumentException("Illegal top-k: " + topK);
+        }
+        this.k = topK;
+        this.histogram = histogram ? new IntIntHashMap() : null;
+        this.top = new int[topK];
+    }
+
+    /** Aggregates {@code values} on the calling thread. */
+    public static IntAggregator of(int[] values, int topK, boolean histogram) {
+        IntAggregator aggregator = new IntAggregator(topK, histogram);
+        for (int value : values) {
+            aggregator.accept(value);
+        }
+        return aggregator;
+    }
+
+    /**
+     * Aggregates {@code values} with a parallel stream: every fork/join task fills its own aggregator and the
+     * partial results are {@linkplain #combine combined}. Pays off for arrays of a few hundred thousand values
+     * and up; the histogram merges cost O(distinct values) per task.
+     */
+    public static IntAggregator ofParallel(int[] values, int topK, boolean histogram) {
+        return IntStream.of(values).parallel()
+                .collect(() -> new IntAggregator(topK, histogram), IntAggregator::accept, IntAggregator::combine);
+    }
+
+    @Override
+    public void accept(int value) {
+        count++;
+        sum += value;
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+        if (histogram != null) {
+            histogram.addTo(value, 1);
+        }
+        offerTop(value);
+    }
+
+    /**
+     * Adds everything {@code other} has accumulated to this aggregator.
+     *
+     * @return this aggregator
+     * @throws IllegalArgumentException if {@code other} keeps a different number of top values, or differs in
+     *                                  whether it has a histogram
+     */
+    public IntAggregator combine(IntAggregator other) {
+        if (other.k != k || (other.histogram == null) != (histogram == null)) {
+            throw new IllegalArgumentException("Aggregators are configured differently");
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (histogram != null) {
+            other.histogram.forEachEntry(histogram::addTo);
+        }
+        for (int i = 0; i < other.topSize; i++) {
+            offerTop(other.top[i]);
+        }
+        return this;
+    }
+
+    private void offerTop(int value) {
+        int[] heap = top;
+        if (topSize < k) {
+            int i = topSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heap[parent] <= value) {
+                    break;
+                }
+                heap[i] = heap[parent];
+                i = parent;
+            }
+            heap[i] = value;
+        } else if (k > 0 && value > heap[0]) {
+            int n = topSize;
+            int i = 0;
+            int child;
+            while ((child = 2 * i + 1) < n) {
+                if (child + 1 < n && heap[child + 1] < heap[child]) {
+                    child++;
+                }
+                if (value <= heap[child]) {
+                    break;
+                }
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = value;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long sum() {
+        return sum;
+    }
+
+    /** Returns the arithmetic mean, or {@code NaN} if no value has been accepted. */
+    public double average() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    /** @throws NoSuchElementException if no value has been accepted */
+    public int min() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return min;
+    }
+
+    /** @throws NoSuchElementException if no value has been accepted */
+    public int max() {
+        if (count == 0) {
+            throw new NoSuchElementException();
+        }
+        return max;
+    }
+
+    /**
+     * Returns how often {@code value} was accepted, as {@code Collections.frequency} would. The histogram keeps
+     * 32-bit counts, read as unsigned, so this is exact up to 2^32 - 1 occurrences of one value.
+     *
+     * @throws IllegalStateException if the histogram is disabled
+     */
+    public long frequency(int value) {
+        return Integer.toUnsignedLong(histogram().get(value));
+    }
+
+    /**
+     * Returns the number of distinct values accepted.
+     *
+     * @throws IllegalStateException if the histogram is disabled
+     */
+    public int distinctCount() {
+        return histogram().size();
+    }
+
+    /**
+     * Passes every distinct value and its number of occurrences to {@code action}, in no particular order.
+     *
+     * @throws IllegalStateException if the histogram is disabled
+     */
+    public void forEachFrequency(IntIntConsumer action) {
+        histogram().forEachEntry(action);
+    }
+
+    private IntIntHashMap histogram() {
+        if (histogram == null) {
+            throw new IllegalStateException("Histogram is disabled");
+        }
+        return histogram;
+    }
+
+    /** Returns the largest values in descending order: {@code min(k, count())} of them, duplicates included. */
+    public int[] topK() {
+        int[] result = Arrays.copyOf(top, topSize);
+        Arrays.sort(result);
+        for (int i = 0, j = result.length - 1; i < j; i++, j--) {
+            int t = result[i];
+            result[i] = result[j];
+            result[j] = t;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "IntAggregator{count=" + count + ", sum=" + sum + ", min=" + (count == 0 ? "none" : min)
+                + ", max=" + (count == 0 ? "none" : max) + ", topK=" + Arrays.toString(topK()) + '}';
+    }
+}
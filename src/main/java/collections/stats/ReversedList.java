@@ -0,0 +1,130 @@
+package collections.stats;
+
+import java.util.AbstractList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A reverse-order view of a list.
+ *
+ * <p>{@code LearnCollectionsClass} sorts its list ascending and then sorts it again with
+ * {@code Comparator.reverseOrder()} to print it descending: a second O(n log n) sort for what is only a
+ * different reading direction. Wrap the ascending list instead: {@code get(i)} reads {@code size() - 1 - i} of
+ * the backing list, and iteration walks the backing list's {@code ListIterator} backwards, so a reversed
+ * {@code LinkedList} is traversed, compared and searched in O(n) as well.
+ *
+ * <p>The view writes through: {@code set} replaces the element in the backing list, and changes to the backing
+ * list are visible in the view. Structural changes are not supported through the view.
+ *
+ * @param <E> the type of elements
+ */
+public class ReversedList<E> extends AbstractList<E> {
+
+    private final List<E> list;
+
+    ReversedList(List<E> list) {
+        this.list = list;
+    }
+
+    /**
+     * Returns a view of {@code list} in reverse order. The view implements {@link RandomAccess} exactly when
+     * {@code list} does, and reversing a view returns the original list.
+     */
+    public static <E> List<E> of(List<E> list) {
+        Objects.requireNonNull(list);
+        if (list instanceof ReversedList) {
+            return ((ReversedList<E>) list).list;
+        }
+        return list instanceof RandomAccess ? new RandomAccessReversedList<>(list) : new ReversedList<>(list);
+    }
+
+    private int backingIndex(int index) {
+        return list.size() - 1 - Objects.checkIndex(index, list.size());
+    }
+
+    @Override
+    public E get(int index) {
+        return list.get(backingIndex(index));
+    }
+
+    @Override
+    public E set(int index, E element) {
+        return list.set(backingIndex(index), element);
+    }
+
+    @Override
+    public int size() {
+        return list.size();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return listIterator();
+    }
+
+    /**
+     * Walks a {@code ListIterator} of the backing list in the opposite direction, starting at backing position
+     * {@code size() - index}. {@code AbstractList} builds {@code equals}, {@code hashCode}, {@code indexOf} and
+     * {@code lastIndexOf} on this, so they too take O(n) over a {@code LinkedList}.
+     */
+    @Override
+    public ListIterator<E> listIterator(int index) {
+        ListIterator<E> it = list.listIterator(list.size() - Objects.checkIndex(index, list.size() + 1));
+        return new ListIterator<>() {
+            @Override
+            public boolean hasNext() {
+                return it.hasPrevious();
+            }
+
+            @Override
+            public E next() {
+                return it.previous();
+            }
+
+            @Override
+            public boolean hasPrevious() {
+                return it.hasNext();
+            }
+
+            @Override
+            public E previous() {
+                return it.next();
+            }
+
+            @Override
+            public int nextIndex() {
+                return list.size() - it.nextIndex();
+            }
+
+            @Override
+            public int previousIndex() {
+                return nextIndex() - 1;
+            }
+
+            @Override
+            public void set(E e) {
+                it.set(e);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public void add(E e) {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private static final class RandomAccessReversedList<E> extends ReversedList<E> implements RandomAccess {
+
+        RandomAccessReversedList(List<E> list) {
+            super(list);
+        }
+    }
+}
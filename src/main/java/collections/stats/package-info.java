@@ -0,0 +1,6 @@
+/**
+ * One-pass aggregation of the statistics that {@code LearnCollectionsClass} computes with separate
+ * {@code Collections.min}, {@code max} and {@code frequency} scans, and a reversed list view that replaces a
+ * second, descending sort.
+ */
+package collections.stats;